@@ -685,6 +685,7 @@ public class LakeTableSchemaChangeJob extends AlterJobV2 {
                 droppedIndexes.add(droppedIdx);
             }
         }
+        table.updateVersionStamp();
 
         // update index schema info of each index
         for (Map.Entry<Long, Long> entry : indexIdMap.entrySet()) {
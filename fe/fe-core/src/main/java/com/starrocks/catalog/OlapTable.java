@@ -90,6 +90,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.zip.Adler32;
 
@@ -101,6 +102,8 @@ import java.util.zip.Adler32;
 public class OlapTable extends Table implements GsonPostProcessable {
     private static final Logger LOG = LogManager.getLogger(OlapTable.class);
 
+    private static final AtomicLong VERSION_STAMP_GENERATOR = new AtomicLong(0);
+
     public enum OlapTableState {
         NORMAL,
         ROLLUP,
@@ -179,6 +182,10 @@ public class OlapTable extends Table implements GsonPostProcessable {
     @SerializedName(value = "tableProperty")
     protected TableProperty tableProperty;
 
+    // Set to a new value whenever the schema, the partitions or the visible versions of the partitions change,
+    // so the cached plans of the table are checked without walking its partitions. It is not persisted.
+    private transient volatile long versionStamp = 0;
+
     public OlapTable() {
         this(TableType.OLAP);
     }
@@ -268,6 +275,15 @@ public class OlapTable extends Table implements GsonPostProcessable {
 
     public void setState(OlapTableState state) {
         this.state = state;
+        updateVersionStamp();
+    }
+
+    public long getVersionStamp() {
+        return versionStamp;
+    }
+
+    public void updateVersionStamp() {
+        versionStamp = VERSION_STAMP_GENERATOR.incrementAndGet();
     }
 
     public OlapTableState getState() {
@@ -368,6 +384,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
                 schemaHash, shortKeyColumnCount, storageType, keysType, origStmt, sortColumns);
         indexIdToMeta.put(indexId, indexMeta);
         indexNameToId.put(indexName, indexId);
+        updateVersionStamp();
     }
 
     public boolean hasMaterializedView() {
@@ -392,6 +409,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
                 }
             }
         }
+        updateVersionStamp();
         LOG.debug("after rebuild full schema. table {}, schema: {}", id, fullSchema);
     }
 
@@ -402,6 +420,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
 
         long indexId = this.indexNameToId.remove(indexName);
         this.indexIdToMeta.remove(indexId);
+        updateVersionStamp();
         // Some column of deleted index should be removed during `deleteIndexInfo` such as `mv_bitmap_union_c1`
         // If deleted index id == base index id, the schema will not be rebuilt.
         // The reason is that the base index has been removed from indexIdToMeta while the new base index hasn't changed.
@@ -513,7 +532,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
                 rangePartitionInfo.idToReplicationNum.remove(entry.getValue());
                 rangePartitionInfo.idToReplicationNum.put(newPartId,
                         (short) restoreReplicationNum);
-                rangePartitionInfo.getIdToRange(false).put(newPartId,
+                rangePartitionInfo.setRange(newPartId, false,
                         rangePartitionInfo.getIdToRange(false).remove(entry.getValue()));
 
                 rangePartitionInfo.idToInMemory
@@ -531,6 +550,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
                 idToPartition.put(newPartId, idToPartition.remove(entry.getValue()));
             }
         }
+        updateVersionStamp();
 
         // for each partition, reset rollup index map
         for (Map.Entry<Long, Partition> entry : idToPartition.entrySet()) {
@@ -746,11 +766,13 @@ public class OlapTable extends Table implements GsonPostProcessable {
             partition.setName(newPartitionName);
             nameToPartition.put(newPartitionName, partition);
         }
+        updateVersionStamp();
     }
 
     public void addPartition(Partition partition) {
         idToPartition.put(partition.getId(), partition);
         nameToPartition.put(partition.getName(), partition);
+        updateVersionStamp();
     }
 
     // This is a private method.
@@ -767,6 +789,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
         if (partition != null) {
             idToPartition.remove(partition.getId());
             nameToPartition.remove(partitionName);
+            updateVersionStamp();
 
             Preconditions.checkState(partitionInfo.getType() == PartitionType.RANGE);
             RangePartitionInfo rangePartitionInfo = (RangePartitionInfo) partitionInfo;
@@ -1444,6 +1467,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
 
         idToPartition.put(newPartition.getId(), newPartition);
         nameToPartition.put(newPartition.getName(), newPartition);
+        updateVersionStamp();
 
         DataProperty dataProperty = partitionInfo.getDataProperty(oldPartition.getId());
         short replicationNum = partitionInfo.getReplicationNum(oldPartition.getId());
@@ -1847,6 +1871,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
         if (srcPartition != null) {
             idToPartition.remove(srcPartition.getId());
             nameToPartition.remove(sourcePartitionName);
+            updateVersionStamp();
             partitionInfo.dropPartition(srcPartition.getId());
             GlobalStateMgr.getCurrentState().onErasePartition(srcPartition);
         }
@@ -0,0 +1,275 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.collect.TreeRangeMap;
+import com.starrocks.analysis.DateLiteral;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.MaxLiteral;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the formal partition ranges of a range partitioned table, which is cached in
+ * {@link RangePartitionInfo} and tagged by the version of the ranges it is built from.
+ * If the table is partitioned by one integer or date column, the bounds of the ranges are encoded as longs which keep
+ * the order of {@link PartitionKey}, and sorted, so the partitions intersecting with a range are found by a binary
+ * search instead of comparing the boxed literals. The ranges are also kept in a TreeRangeMap for the other cases.
+ */
+public class PartitionRangeIndex {
+    // the encoded key of MAXVALUE
+    private static final long MAX_KEY = Long.MAX_VALUE;
+
+    private final long version;
+    private final boolean isDateColumn;
+
+    // sorted by the lower bounds, the bounds are not encoded if partitionIds is null
+    private final long[] partitionIds;
+    private final long[] lowerKeys;
+    private final long[] upperKeys;
+    private final Range<PartitionKey>[] ranges;
+
+    private volatile RangeMap<PartitionKey, Long> rangeMap;
+
+    private PartitionRangeIndex(long version, boolean isDateColumn, long[] partitionIds, long[] lowerKeys,
+                                long[] upperKeys, Range<PartitionKey>[] ranges, RangeMap<PartitionKey, Long> rangeMap) {
+        this.version = version;
+        this.isDateColumn = isDateColumn;
+        this.partitionIds = partitionIds;
+        this.lowerKeys = lowerKeys;
+        this.upperKeys = upperKeys;
+        this.ranges = ranges;
+        this.rangeMap = rangeMap;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static PartitionRangeIndex create(long version, List<Column> partitionColumns,
+                                             Map<Long, Range<PartitionKey>> idToRange) {
+        if (isEncodableColumns(partitionColumns)) {
+            boolean isDateColumn = partitionColumns.get(0).getPrimitiveType().isDateType();
+            List<Map.Entry<Long, Range<PartitionKey>>> entries = Lists.newArrayList(idToRange.entrySet());
+            int size = entries.size();
+            long[] lowerKeys = new long[size];
+            long[] upperKeys = new long[size];
+            boolean encodable = true;
+            for (int i = 0; i < size && encodable; i++) {
+                Range<PartitionKey> range = entries.get(i).getValue();
+                encodable = isEncodable(isDateColumn, range);
+                if (encodable) {
+                    lowerKeys[i] = encode(range.lowerEndpoint().getKeys().get(0));
+                    upperKeys[i] = encode(range.upperEndpoint().getKeys().get(0));
+                }
+            }
+            if (encodable) {
+                Integer[] order = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparingLong(i -> lowerKeys[i]));
+
+                long[] sortedPartitionIds = new long[size];
+                long[] sortedLowerKeys = new long[size];
+                long[] sortedUpperKeys = new long[size];
+                Range<PartitionKey>[] sortedRanges = new Range[size];
+                for (int i = 0; i < size && encodable; i++) {
+                    int idx = order[i];
+                    sortedPartitionIds[i] = entries.get(idx).getKey();
+                    sortedLowerKeys[i] = lowerKeys[idx];
+                    sortedUpperKeys[i] = upperKeys[idx];
+                    sortedRanges[i] = entries.get(idx).getValue();
+                    // the ranges should be non-empty and not intersect with each other
+                    encodable = sortedLowerKeys[i] < sortedUpperKeys[i]
+                            && (i == 0 || sortedUpperKeys[i - 1] <= sortedLowerKeys[i]);
+                }
+                if (encodable) {
+                    return new PartitionRangeIndex(version, isDateColumn, sortedPartitionIds, sortedLowerKeys,
+                            sortedUpperKeys, sortedRanges, null);
+                }
+            }
+        }
+
+        RangeMap<PartitionKey, Long> rangeMap = TreeRangeMap.create();
+        for (Map.Entry<Long, Range<PartitionKey>> entry : idToRange.entrySet()) {
+            rangeMap.put(entry.getValue(), entry.getKey());
+        }
+        return new PartitionRangeIndex(version, false, null, null, null, null, rangeMap);
+    }
+
+    private static boolean isEncodableColumns(List<Column> partitionColumns) {
+        if (partitionColumns.size() != 1) {
+            return false;
+        }
+        PrimitiveType type = partitionColumns.get(0).getPrimitiveType();
+        return (type.isFixedPointType() && type != PrimitiveType.LARGEINT) || type.isDateType();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEncoded() {
+        return partitionIds != null;
+    }
+
+    public boolean isEncodable(LiteralExpr literal) {
+        return isEncodable(isDateColumn, literal);
+    }
+
+    private static boolean isEncodable(boolean isDateColumn, LiteralExpr literal) {
+        if (literal == MaxLiteral.MAX_VALUE) {
+            return true;
+        } else if (isDateColumn) {
+            return literal instanceof DateLiteral;
+        } else {
+            // the max value of bigint could not be distinguished from MAXVALUE
+            return literal instanceof IntLiteral && literal.getLongValue() != MAX_KEY;
+        }
+    }
+
+    // only the ranges like [lower, upper) of one column are encoded
+    private static boolean isEncodable(boolean isDateColumn, Range<PartitionKey> range) {
+        return range.hasLowerBound() && range.hasUpperBound()
+                && range.lowerBoundType() == BoundType.CLOSED && range.upperBoundType() == BoundType.OPEN
+                && range.lowerEndpoint().getKeys().size() == 1 && range.upperEndpoint().getKeys().size() == 1
+                && isEncodable(isDateColumn, range.lowerEndpoint().getKeys().get(0))
+                && isEncodable(isDateColumn, range.upperEndpoint().getKeys().get(0));
+    }
+
+    // the encoded key of the literal, the caller should check it by isEncodable first
+    public static long encode(LiteralExpr literal) {
+        if (literal == MaxLiteral.MAX_VALUE) {
+            return MAX_KEY;
+        }
+        return literal.getLongValue();
+    }
+
+    /**
+     * Return a new index with the range of the partition added, or null if the range could not be encoded or
+     * intersects with the existing ranges, then the index should be built again.
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionRangeIndex add(long newVersion, long partitionId, Range<PartitionKey> range) {
+        if (!isEncoded() || !isEncodable(isDateColumn, range)) {
+            return null;
+        }
+        long lowerKey = encode(range.lowerEndpoint().getKeys().get(0));
+        long upperKey = encode(range.upperEndpoint().getKeys().get(0));
+        int pos = Arrays.binarySearch(lowerKeys, lowerKey);
+        if (pos >= 0 || lowerKey >= upperKey) {
+            return null;
+        }
+        pos = -pos - 1;
+        if ((pos > 0 && upperKeys[pos - 1] > lowerKey) || (pos < lowerKeys.length && lowerKeys[pos] < upperKey)) {
+            return null;
+        }
+
+        int size = partitionIds.length + 1;
+        long[] newPartitionIds = new long[size];
+        long[] newLowerKeys = new long[size];
+        long[] newUpperKeys = new long[size];
+        Range<PartitionKey>[] newRanges = new Range[size];
+        insert(partitionIds, newPartitionIds, pos, partitionId);
+        insert(lowerKeys, newLowerKeys, pos, lowerKey);
+        insert(upperKeys, newUpperKeys, pos, upperKey);
+        System.arraycopy(ranges, 0, newRanges, 0, pos);
+        newRanges[pos] = range;
+        System.arraycopy(ranges, pos, newRanges, pos + 1, ranges.length - pos);
+        return new PartitionRangeIndex(newVersion, isDateColumn, newPartitionIds, newLowerKeys, newUpperKeys,
+                newRanges, null);
+    }
+
+    /**
+     * Return a new index with the range of the partition removed, or null if the index is not encoded.
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionRangeIndex remove(long newVersion, long partitionId) {
+        if (!isEncoded()) {
+            return null;
+        }
+        int pos = -1;
+        for (int i = 0; i < partitionIds.length; i++) {
+            if (partitionIds[i] == partitionId) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0) {
+            return new PartitionRangeIndex(newVersion, isDateColumn, partitionIds, lowerKeys, upperKeys, ranges,
+                    rangeMap);
+        }
+
+        int size = partitionIds.length - 1;
+        long[] newPartitionIds = new long[size];
+        long[] newLowerKeys = new long[size];
+        long[] newUpperKeys = new long[size];
+        Range<PartitionKey>[] newRanges = new Range[size];
+        delete(partitionIds, newPartitionIds, pos);
+        delete(lowerKeys, newLowerKeys, pos);
+        delete(upperKeys, newUpperKeys, pos);
+        System.arraycopy(ranges, 0, newRanges, 0, pos);
+        System.arraycopy(ranges, pos + 1, newRanges, pos, size - pos);
+        return new PartitionRangeIndex(newVersion, isDateColumn, newPartitionIds, newLowerKeys, newUpperKeys,
+                newRanges, null);
+    }
+
+    private static void insert(long[] src, long[] dest, int pos, long value) {
+        System.arraycopy(src, 0, dest, 0, pos);
+        dest[pos] = value;
+        System.arraycopy(src, pos, dest, pos + 1, src.length - pos);
+    }
+
+    private static void delete(long[] src, long[] dest, int pos) {
+        System.arraycopy(src, 0, dest, 0, pos);
+        System.arraycopy(src, pos + 1, dest, pos, dest.length - pos);
+    }
+
+    /**
+     * Return the ids of the partitions whose ranges intersect with the range from lowerKey to upperKey, in the order
+     * of ranges. The index must be encoded.
+     */
+    public List<Long> getIntersectedPartitions(long lowerKey, boolean lowerInclusive,
+                                               long upperKey, boolean upperInclusive) {
+        List<Long> result = Lists.newArrayList();
+        if (lowerKey > upperKey || (lowerKey == upperKey && !(lowerInclusive && upperInclusive))) {
+            return result;
+        }
+        // the first range whose upper bound is larger than lowerKey, the upper bounds are sorted too
+        int low = 0;
+        int high = upperKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (upperKeys[mid] > lowerKey) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        for (int i = low; i < lowerKeys.length; i++) {
+            if (lowerKeys[i] > upperKey || (lowerKeys[i] == upperKey && !upperInclusive)) {
+                break;
+            }
+            result.add(partitionIds[i]);
+        }
+        return result;
+    }
+
+    public RangeMap<PartitionKey, Long> getRangeMap() {
+        RangeMap<PartitionKey, Long> result = rangeMap;
+        if (result == null) {
+            result = TreeRangeMap.create();
+            for (int i = 0; i < ranges.length; i++) {
+                result.put(ranges[i], partitionIds[i]);
+            }
+            rangeMap = result;
+        }
+        return result;
+    }
+}
@@ -76,6 +76,11 @@ public class RangePartitionInfo extends PartitionInfo {
     @SerializedName(value = "serializedIdToTempRange")
     private Map<Long, byte[]> serializedIdToTempRange;
 
+    // version of the formal partition ranges, increased whenever idToRange is changed
+    private transient volatile long rangeVersion = 0;
+    // index of the formal partition ranges for partition pruning, valid only if its version is rangeVersion
+    private transient volatile PartitionRangeIndex rangeIndex = null;
+
     public RangePartitionInfo() {
         // for persist
         super();
@@ -95,7 +100,11 @@ public class RangePartitionInfo extends PartitionInfo {
     @Override
     public void dropPartition(long partitionId) {
         super.dropPartition(partitionId);
-        idToRange.remove(partitionId);
+        if (idToRange.remove(partitionId) != null) {
+            PartitionRangeIndex index = getUpToDateRangeIndex();
+            rangeVersion++;
+            rangeIndex = index == null ? null : index.remove(rangeVersion, partitionId);
+        }
         idToTempRange.remove(partitionId);
     }
 
@@ -259,6 +268,34 @@ public class RangePartitionInfo extends PartitionInfo {
         setRangeInternal(partitionId, isTemp, range);
     }
 
+    /**
+     * Get the index of the formal partition ranges, which is built again only if the ranges are changed by
+     * other ways than adding or dropping a partition.
+     * The caller should hold the read lock of the database, like reading idToRange.
+     */
+    public PartitionRangeIndex getRangeIndex() {
+        PartitionRangeIndex index = getUpToDateRangeIndex();
+        if (index == null) {
+            index = PartitionRangeIndex.create(rangeVersion, partitionColumns, idToRange);
+            rangeIndex = index;
+        }
+        return index;
+    }
+
+    private PartitionRangeIndex getUpToDateRangeIndex() {
+        PartitionRangeIndex index = rangeIndex;
+        if (index != null && index.getVersion() == rangeVersion) {
+            return index;
+        }
+        return null;
+    }
+
+    // must be called after idToRange is changed
+    private void invalidateRangeIndex() {
+        rangeVersion++;
+        rangeIndex = null;
+    }
+
     public Map<Long, Range<PartitionKey>> getIdToRange(boolean isTemp) {
         if (isTemp) {
             return idToTempRange;
@@ -345,7 +382,10 @@ public class RangePartitionInfo extends PartitionInfo {
         if (isTemp) {
             idToTempRange.put(partitionId, range);
         } else {
-            idToRange.put(partitionId, range);
+            Range<PartitionKey> oldRange = idToRange.put(partitionId, range);
+            PartitionRangeIndex index = oldRange == null ? getUpToDateRangeIndex() : null;
+            rangeVersion++;
+            rangeIndex = index == null ? null : index.add(rangeVersion, partitionId, range);
         }
     }
 
@@ -353,6 +393,7 @@ public class RangePartitionInfo extends PartitionInfo {
         Range<PartitionKey> range = idToTempRange.remove(tempPartitionId);
         if (range != null) {
             idToRange.put(tempPartitionId, range);
+            invalidateRangeIndex();
         }
     }
 
@@ -407,6 +448,7 @@ public class RangePartitionInfo extends PartitionInfo {
             }
             serializedIdToTempRange = null;
         }
+        invalidateRangeIndex();
     }
 
     @Override
@@ -449,6 +491,7 @@ public class RangePartitionInfo extends PartitionInfo {
             Range<PartitionKey> range = RangeUtils.readRange(in);
             idToRange.put(partitionId, range);
         }
+        invalidateRangeIndex();
 
         if (GlobalStateMgr.getCurrentStateJournalVersion() >= FeMetaVersion.VERSION_77) {
             counter = in.readInt();
@@ -23,14 +23,13 @@ package com.starrocks.catalog;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Table;
 import com.starrocks.catalog.Replica.ReplicaState;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.util.LongObjectHashMap;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.thrift.TPartitionVersionInfo;
@@ -46,12 +45,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 /*
  * this class stores a inverted index
@@ -67,37 +68,105 @@ public class TabletInvertedIndex {
     public static final TabletMeta NOT_EXIST_TABLET_META = new TabletMeta(NOT_EXIST_VALUE, NOT_EXIST_VALUE,
             NOT_EXIST_VALUE, NOT_EXIST_VALUE, NOT_EXIST_VALUE, TStorageMedium.HDD);
 
-    private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Number of stripes of tablets and replicas, must be power of 2
+    private static final int NUM_STRIPES = 128;
+
+    // The tablets and replicas are partitioned by id into stripes, and each stripe is guarded by its own lock,
+    // so adding or deleting tablets, tablet reports and query planning hardly block each other.
+    // An operation updates the tablet, replica and backend structures while holding the lock of the tablet stripe,
+    // so it is atomic. The locks are always acquired in the order of tablet stripe -> replica stripe -> backend.
+    private static class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // tablet id -> tablet meta
+        private final LongObjectHashMap<TabletMeta> tabletMetaMap = new LongObjectHashMap<>();
+        // tablet id -> replicas, there is at most one replica on each backend
+        private final LongObjectHashMap<Replica[]> tabletReplicaMap = new LongObjectHashMap<>();
+    }
+
+    private static class ReplicaStripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // replica id -> tablet id
+        private final LongObjectHashMap<Long> replicaToTabletMap = new LongObjectHashMap<>();
+    }
 
-    // tablet id -> tablet meta
-    private Map<Long, TabletMeta> tabletMetaMap = Maps.newHashMap();
+    // Replicas on one backend, for visiting backend replicas faster.
+    private static class BackendReplicas {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // tablet id -> replica
+        private final LongObjectHashMap<Replica> replicas = new LongObjectHashMap<>();
+    }
 
-    // replica id -> tablet id
-    private Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+    private final Stripe[] stripes = new Stripe[NUM_STRIPES];
 
-    // tablet id -> (backend id -> replica)
-    private Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
-    // backing replica table, for visiting backend replicas faster.
-    // backend id -> (tablet id -> replica)
-    private Table<Long, Long, Replica> backingReplicaMetaTable = HashBasedTable.create();
+    private final ReplicaStripe[] replicaStripes = new ReplicaStripe[NUM_STRIPES];
+
+    // backend id -> replicas on the backend
+    private final Map<Long, BackendReplicas> backendReplicasMap = new ConcurrentHashMap<>();
 
     public TabletInvertedIndex() {
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes[i] = new Stripe();
+            replicaStripes[i] = new ReplicaStripe();
+        }
     }
 
-    private void readLock() {
-        this.lock.readLock().lock();
+    private static int stripeIndex(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (NUM_STRIPES - 1);
     }
 
-    private void readUnlock() {
-        this.lock.readLock().unlock();
+    private Stripe getStripe(long tabletId) {
+        return stripes[stripeIndex(tabletId)];
     }
 
-    private void writeLock() {
-        this.lock.writeLock().lock();
+    private ReplicaStripe getReplicaStripe(long replicaId) {
+        return replicaStripes[stripeIndex(replicaId)];
     }
 
-    private void writeUnlock() {
-        this.lock.writeLock().unlock();
+    private BackendReplicas getOrCreateBackendReplicas(long backendId) {
+        return backendReplicasMap.computeIfAbsent(backendId, k -> new BackendReplicas());
+    }
+
+    private static Replica findReplica(Replica[] replicas, long backendId) {
+        if (replicas != null) {
+            for (Replica replica : replicas) {
+                if (replica.getBackendId() == backendId) {
+                    return replica;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Copy of the tablet ids and replicas on a backend, could be visited without holding any lock
+    private static class BackendReplicasSnapshot {
+        private final long[] tabletIds;
+        private final Replica[] replicas;
+
+        BackendReplicasSnapshot(int size) {
+            tabletIds = new long[size];
+            replicas = new Replica[size];
+        }
+    }
+
+    private BackendReplicasSnapshot getBackendReplicasSnapshot(long backendId) {
+        BackendReplicas backendReplicas = backendReplicasMap.get(backendId);
+        if (backendReplicas == null) {
+            return new BackendReplicasSnapshot(0);
+        }
+        backendReplicas.lock.readLock().lock();
+        try {
+            BackendReplicasSnapshot snapshot = new BackendReplicasSnapshot(backendReplicas.replicas.size());
+            int[] n = new int[1];
+            backendReplicas.replicas.forEach((tabletId, replica) -> {
+                snapshot.tabletIds[n[0]] = tabletId;
+                snapshot.replicas[n[0]] = replica;
+                n[0]++;
+            });
+            return snapshot;
+        } finally {
+            backendReplicas.lock.readLock().unlock();
+        }
     }
 
     public void tabletReport(long backendId, Map<Long, TTablet> backendTablets,
@@ -127,154 +196,150 @@ public class TabletInvertedIndex {
             backendStorageTypeCnt = be.getAvailableBackendStorageTypeCnt();
         }
 
-        readLock();
         long start = System.currentTimeMillis();
-        try {
-            LOG.info("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                // traverse replicas in meta with this backend
-                for (Map.Entry<Long, Replica> entry : replicaMetaWithBackend.entrySet()) {
-                    long tabletId = entry.getKey();
-                    Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-                    TabletMeta tabletMeta = tabletMetaMap.get(tabletId);
-
-                    if (tabletMeta.isLakeTablet()) {
-                        continue;
-                    }
+        LOG.info("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
+        BackendReplicasSnapshot replicaMetaWithBackend = getBackendReplicasSnapshot(backendId);
+        // traverse replicas in meta with this backend
+        for (int i = 0; i < replicaMetaWithBackend.tabletIds.length; i++) {
+            long tabletId = replicaMetaWithBackend.tabletIds[i];
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            if (tabletMeta == null) {
+                // the tablet is deleted after taking the snapshot
+                continue;
+            }
 
-                    if (backendTablets.containsKey(tabletId)) {
-                        TTablet backendTablet = backendTablets.get(tabletId);
-                        Replica replica = entry.getValue();
-                        for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
-                            if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
-                                foundTabletsWithValidSchema.add(tabletId);
-                                // 1. (intersection)
-                                if (needSync(replica, backendTabletInfo)) {
-                                    // need sync
-                                    tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
-                                }
+            if (tabletMeta.isLakeTablet()) {
+                continue;
+            }
 
-                                // check and set path,
-                                // path info of replica is only saved in Leader FE
-                                if (backendTabletInfo.isSetPath_hash() &&
-                                        replica.getPathHash() != backendTabletInfo.getPath_hash()) {
-                                    replica.setPathHash(backendTabletInfo.getPath_hash());
-                                }
+            if (backendTablets.containsKey(tabletId)) {
+                TTablet backendTablet = backendTablets.get(tabletId);
+                Replica replica = replicaMetaWithBackend.replicas[i];
+                for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
+                    if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
+                        foundTabletsWithValidSchema.add(tabletId);
+                        // 1. (intersection)
+                        if (needSync(replica, backendTabletInfo)) {
+                            // need sync
+                            tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
+                        }
 
-                                if (backendTabletInfo.isSetSchema_hash() && replica.getState() == ReplicaState.NORMAL
-                                        && replica.getSchemaHash() != backendTabletInfo.getSchema_hash()) {
-                                    // update the schema hash only when replica is normal
-                                    replica.setSchemaHash(backendTabletInfo.getSchema_hash());
-                                }
+                        // check and set path,
+                        // path info of replica is only saved in Leader FE
+                        if (backendTabletInfo.isSetPath_hash() &&
+                                replica.getPathHash() != backendTabletInfo.getPath_hash()) {
+                            replica.setPathHash(backendTabletInfo.getPath_hash());
+                        }
 
-                                if (needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
-                                    LOG.warn("replica {} of tablet {} on backend {} need recovery. "
-                                                    + "replica in FE: {}, report version {}, report schema hash: {},"
-                                                    + " is bad: {}, is version missing: {}",
-                                            replica.getId(), tabletId, backendId, replica,
-                                            backendTabletInfo.getVersion(),
-                                            backendTabletInfo.getSchema_hash(),
-                                            backendTabletInfo.isSetUsed() ? backendTabletInfo.isUsed() : "unknown",
-                                            backendTabletInfo.isSetVersion_miss() ? backendTabletInfo.isVersion_miss() :
-                                                    "unset");
-                                    tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
-                                }
+                        if (backendTabletInfo.isSetSchema_hash() && replica.getState() == ReplicaState.NORMAL
+                                && replica.getSchemaHash() != backendTabletInfo.getSchema_hash()) {
+                            // update the schema hash only when replica is normal
+                            replica.setSchemaHash(backendTabletInfo.getSchema_hash());
+                        }
 
-                                // check if tablet needs migration
-                                long partitionId = tabletMeta.getPartitionId();
-                                TStorageMedium storageMedium = storageMediumMap.get(partitionId);
-                                if (storageMedium != null && backendTabletInfo.isSetStorage_medium()) {
-                                    // If storage medium is less than 1, there is no need to send migration tasks to BE.
-                                    // Because BE will ignore this request.
-                                    if (storageMedium != backendTabletInfo.getStorage_medium()) {
-                                        if (backendStorageTypeCnt <= 1) {
-                                            LOG.debug("available storage medium type count is less than 1, " +
-                                                            "no need to send migrate task. tabletId={}, backendId={}.",
-                                                    tabletId, backendId);
-                                        } else if (tabletMigrationMap.size() <=
-                                                Config.tablet_sched_max_migration_task_sent_once) {
-                                            tabletMigrationMap.put(storageMedium, tabletId);
-                                        }
-                                    }
-                                    if (storageMedium != tabletMeta.getStorageMedium()) {
-                                        tabletMeta.setStorageMedium(storageMedium);
-                                    }
+                        if (needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
+                            LOG.warn("replica {} of tablet {} on backend {} need recovery. "
+                                            + "replica in FE: {}, report version {}, report schema hash: {},"
+                                            + " is bad: {}, is version missing: {}",
+                                    replica.getId(), tabletId, backendId, replica,
+                                    backendTabletInfo.getVersion(),
+                                    backendTabletInfo.getSchema_hash(),
+                                    backendTabletInfo.isSetUsed() ? backendTabletInfo.isUsed() : "unknown",
+                                    backendTabletInfo.isSetVersion_miss() ? backendTabletInfo.isVersion_miss() :
+                                            "unset");
+                            tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
+                        }
+
+                        // check if tablet needs migration
+                        long partitionId = tabletMeta.getPartitionId();
+                        TStorageMedium storageMedium = storageMediumMap.get(partitionId);
+                        if (storageMedium != null && backendTabletInfo.isSetStorage_medium()) {
+                            // If storage medium is less than 1, there is no need to send migration tasks to BE.
+                            // Because BE will ignore this request.
+                            if (storageMedium != backendTabletInfo.getStorage_medium()) {
+                                if (backendStorageTypeCnt <= 1) {
+                                    LOG.debug("available storage medium type count is less than 1, " +
+                                                    "no need to send migrate task. tabletId={}, backendId={}.",
+                                            tabletId, backendId);
+                                } else if (tabletMigrationMap.size() <=
+                                        Config.tablet_sched_max_migration_task_sent_once) {
+                                    tabletMigrationMap.put(storageMedium, tabletId);
                                 }
-                                // check if we should clear transactions
-                                if (backendTabletInfo.isSetTransaction_ids()) {
-                                    List<Long> transactionIds = backendTabletInfo.getTransaction_ids();
-                                    GlobalTransactionMgr transactionMgr =
-                                            GlobalStateMgr.getCurrentGlobalTransactionMgr();
-                                    for (Long transactionId : transactionIds) {
-                                        TransactionState transactionState =
-                                                transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
-                                        if (transactionState == null ||
-                                                transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
-                                            transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
-                                            LOG.debug("transaction id [{}] is not valid any more, "
-                                                    + "clear it from backend [{}]", transactionId, backendId);
-                                        } else if (transactionState.getTransactionStatus() ==
-                                                TransactionStatus.VISIBLE) {
-                                            TableCommitInfo tableCommitInfo =
-                                                    transactionState.getTableCommitInfo(tabletMeta.getTableId());
-                                            PartitionCommitInfo partitionCommitInfo =
-                                                    tableCommitInfo.getPartitionCommitInfo(partitionId);
-                                            if (partitionCommitInfo == null) {
-                                                /*
-                                                 * This may happen as follows:
-                                                 * 1. txn is committed on BE, and report commit info to FE
-                                                 * 2. FE received report and begin to assemble partitionCommitInfos.
-                                                 * 3. At the same time, some partitions have been dropped, so
-                                                 *    partitionCommitInfos does not contain these partitions.
-                                                 * 4. So we will not able to get partitionCommitInfo here.
-                                                 *
-                                                 * Just print a log to observe
-                                                 */
-                                                LOG.info(
-                                                        "failed to find partition commit info. table: {}, " +
-                                                                "partition: {}, tablet: {}, txn_id: {}",
-                                                        tabletMeta.getTableId(), partitionId, tabletId,
-                                                        transactionState.getTransactionId());
-                                            } else {
-                                                TPartitionVersionInfo versionInfo =
-                                                        new TPartitionVersionInfo(tabletMeta.getPartitionId(),
-                                                                partitionCommitInfo.getVersion(), 0);
-                                                ListMultimap<Long, TPartitionVersionInfo> map =
-                                                        transactionsToPublish.get(transactionState.getDbId());
-                                                if (map == null) {
-                                                    map = ArrayListMultimap.create();
-                                                    transactionsToPublish.put(transactionState.getDbId(), map);
-                                                }
-                                                map.put(transactionId, versionInfo);
-                                                transactionsToCommitTime.put(transactionId,
-                                                        transactionState.getCommitTime());
-                                            }
+                            }
+                            if (storageMedium != tabletMeta.getStorageMedium()) {
+                                tabletMeta.setStorageMedium(storageMedium);
+                            }
+                        }
+                        // check if we should clear transactions
+                        if (backendTabletInfo.isSetTransaction_ids()) {
+                            List<Long> transactionIds = backendTabletInfo.getTransaction_ids();
+                            GlobalTransactionMgr transactionMgr =
+                                    GlobalStateMgr.getCurrentGlobalTransactionMgr();
+                            for (Long transactionId : transactionIds) {
+                                TransactionState transactionState =
+                                        transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
+                                if (transactionState == null ||
+                                        transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
+                                    transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
+                                    LOG.debug("transaction id [{}] is not valid any more, "
+                                            + "clear it from backend [{}]", transactionId, backendId);
+                                } else if (transactionState.getTransactionStatus() ==
+                                        TransactionStatus.VISIBLE) {
+                                    TableCommitInfo tableCommitInfo =
+                                            transactionState.getTableCommitInfo(tabletMeta.getTableId());
+                                    PartitionCommitInfo partitionCommitInfo =
+                                            tableCommitInfo.getPartitionCommitInfo(partitionId);
+                                    if (partitionCommitInfo == null) {
+                                        /*
+                                         * This may happen as follows:
+                                         * 1. txn is committed on BE, and report commit info to FE
+                                         * 2. FE received report and begin to assemble partitionCommitInfos.
+                                         * 3. At the same time, some partitions have been dropped, so
+                                         *    partitionCommitInfos does not contain these partitions.
+                                         * 4. So we will not able to get partitionCommitInfo here.
+                                         *
+                                         * Just print a log to observe
+                                         */
+                                        LOG.info(
+                                                "failed to find partition commit info. table: {}, " +
+                                                        "partition: {}, tablet: {}, txn_id: {}",
+                                                tabletMeta.getTableId(), partitionId, tabletId,
+                                                transactionState.getTransactionId());
+                                    } else {
+                                        TPartitionVersionInfo versionInfo =
+                                                new TPartitionVersionInfo(tabletMeta.getPartitionId(),
+                                                        partitionCommitInfo.getVersion(), 0);
+                                        ListMultimap<Long, TPartitionVersionInfo> map =
+                                                transactionsToPublish.get(transactionState.getDbId());
+                                        if (map == null) {
+                                            map = ArrayListMultimap.create();
+                                            transactionsToPublish.put(transactionState.getDbId(), map);
                                         }
+                                        map.put(transactionId, versionInfo);
+                                        transactionsToCommitTime.put(transactionId,
+                                                transactionState.getCommitTime());
                                     }
-                                } // end for txn id
-
-                                // update replica's version count
-                                // no need to write log, and no need to get db lock.
-                                if (backendTabletInfo.isSetVersion_count()) {
-                                    replica.setVersionCount(backendTabletInfo.getVersion_count());
                                 }
-                            } else {
-                                // tablet with invalid schema hash
-                                foundTabletsWithInvalidSchema.put(tabletId, backendTabletInfo);
-                            } // end for be tablet info
+                            }
+                        } // end for txn id
+
+                        // update replica's version count
+                        // no need to write log, and no need to get db lock.
+                        if (backendTabletInfo.isSetVersion_count()) {
+                            replica.setVersionCount(backendTabletInfo.getVersion_count());
                         }
                     } else {
-                        // 2. (meta - be)
-                        // may need delete from meta
-                        LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
-                        tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
-                    }
-                } // end for replicaMetaWithBackend
+                        // tablet with invalid schema hash
+                        foundTabletsWithInvalidSchema.put(tabletId, backendTabletInfo);
+                    } // end for be tablet info
+                }
+            } else {
+                // 2. (meta - be)
+                // may need delete from meta
+                LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
+                tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
             }
-        } finally {
-            readUnlock();
-        }
+        } // end for replicaMetaWithBackend
 
         long end = System.currentTimeMillis();
         LOG.info("finished to do tablet diff with backend[{}]. sync: {}. metaDel: {}. foundValid: {}. foundInvalid: {}."
@@ -285,34 +350,32 @@ public class TabletInvertedIndex {
     }
 
     public Long getTabletIdByReplica(long replicaId) {
-        readLock();
+        ReplicaStripe stripe = getReplicaStripe(replicaId);
+        stripe.lock.readLock().lock();
         try {
-            return replicaToTabletMap.get(replicaId);
+            return stripe.replicaToTabletMap.get(replicaId);
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public TabletMeta getTabletMeta(long tabletId) {
-        readLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            return tabletMetaMap.get(tabletId);
+            return stripe.tabletMetaMap.get(tabletId);
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public List<TabletMeta> getTabletMetaList(List<Long> tabletIdList) {
         List<TabletMeta> tabletMetaList = new ArrayList<>(tabletIdList.size());
-        readLock();
-        try {
-            for (Long tabletId : tabletIdList) {
-                tabletMetaList.add(tabletMetaMap.getOrDefault(tabletId, NOT_EXIST_TABLET_META));
-            }
-            return tabletMetaList;
-        } finally {
-            readUnlock();
+        for (Long tabletId : tabletIdList) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            tabletMetaList.add(tabletMeta == null ? NOT_EXIST_TABLET_META : tabletMeta);
         }
+        return tabletMetaList;
     }
 
     private boolean needSync(Replica replicaInFe, TTabletInfo backendTabletInfo) {
@@ -396,13 +459,14 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
+            stripe.tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
 
             LOG.debug("add tablet: {}", tabletId);
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
         }
     }
 
@@ -410,86 +474,154 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            Map<Long, Replica> replicas = replicaMetaTable.rowMap().remove(tabletId);
+            Replica[] replicas = stripe.tabletReplicaMap.remove(tabletId);
+            stripe.tabletMetaMap.remove(tabletId);
             if (replicas != null) {
-                for (Replica replica : replicas.values()) {
-                    replicaToTabletMap.remove(replica.getId());
-                }
-
-                for (long backendId : replicas.keySet()) {
-                    backingReplicaMetaTable.remove(backendId, tabletId);
+                for (Replica replica : replicas) {
+                    removeReplicaToTablet(replica.getId());
+                    removeBackendReplica(replica.getBackendId(), tabletId);
                 }
             }
-            tabletMetaMap.remove(tabletId);
-
-            LOG.debug("delete tablet: {}", tabletId);
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
         }
+        LOG.debug("delete tablet: {}", tabletId);
     }
 
     public void addReplica(long tabletId, Replica replica) {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            replicaMetaTable.put(tabletId, replica.getBackendId(), replica);
-            replicaToTabletMap.put(replica.getId(), tabletId);
-            backingReplicaMetaTable.put(replica.getBackendId(), tabletId, replica);
-            LOG.debug("add replica {} of tablet {} in backend {}",
-                    replica.getId(), tabletId, replica.getBackendId());
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId));
+            Replica[] replicas = stripe.tabletReplicaMap.get(tabletId);
+            if (replicas == null) {
+                replicas = new Replica[] {replica};
+            } else {
+                int index = 0;
+                while (index < replicas.length && replicas[index].getBackendId() != replica.getBackendId()) {
+                    index++;
+                }
+                replicas = Arrays.copyOf(replicas, Math.max(replicas.length, index + 1));
+                replicas[index] = replica;
+            }
+            stripe.tabletReplicaMap.put(tabletId, replicas);
+
+            ReplicaStripe replicaStripe = getReplicaStripe(replica.getId());
+            replicaStripe.lock.writeLock().lock();
+            try {
+                replicaStripe.replicaToTabletMap.put(replica.getId(), tabletId);
+            } finally {
+                replicaStripe.lock.writeLock().unlock();
+            }
+
+            BackendReplicas backendReplicas = getOrCreateBackendReplicas(replica.getBackendId());
+            backendReplicas.lock.writeLock().lock();
+            try {
+                backendReplicas.replicas.put(tabletId, replica);
+            } finally {
+                backendReplicas.lock.writeLock().unlock();
+            }
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
         }
+        LOG.debug("add replica {} of tablet {} in backend {}",
+                replica.getId(), tabletId, replica.getBackendId());
     }
 
     public void deleteReplica(long tabletId, long backendId) {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Replica replica = null;
+        Stripe stripe = getStripe(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            if (replicaMetaTable.containsRow(tabletId)) {
-                Replica replica = replicaMetaTable.remove(tabletId, backendId);
-                replicaToTabletMap.remove(replica.getId());
-                replicaMetaTable.remove(tabletId, backendId);
-                backingReplicaMetaTable.remove(backendId, tabletId);
-                LOG.debug("delete replica {} of tablet {} in backend {}",
-                        replica.getId(), tabletId, backendId);
-            } else {
-                // this may happen when fe restart after tablet is empty(bug cause)
-                // add log instead of assertion to observe
-                LOG.error("tablet[{}] contains no replica in inverted index", tabletId);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId));
+            Replica[] replicas = stripe.tabletReplicaMap.get(tabletId);
+            replica = findReplica(replicas, backendId);
+            if (replica != null) {
+                if (replicas.length == 1) {
+                    stripe.tabletReplicaMap.remove(tabletId);
+                } else {
+                    Replica[] newReplicas = new Replica[replicas.length - 1];
+                    int n = 0;
+                    for (Replica r : replicas) {
+                        if (r != replica) {
+                            newReplicas[n++] = r;
+                        }
+                    }
+                    stripe.tabletReplicaMap.put(tabletId, newReplicas);
+                }
+                removeReplicaToTablet(replica.getId());
+                removeBackendReplica(backendId, tabletId);
             }
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
+        }
+
+        if (replica != null) {
+            LOG.debug("delete replica {} of tablet {} in backend {}",
+                    replica.getId(), tabletId, backendId);
+        } else {
+            // this may happen when fe restart after tablet is empty(bug cause)
+            // add log instead of assertion to observe
+            LOG.error("tablet[{}] contains no replica on backend {} in inverted index", tabletId, backendId);
+        }
+    }
+
+    // must be called with the lock of the tablet stripe held
+    private void removeReplicaToTablet(long replicaId) {
+        ReplicaStripe stripe = getReplicaStripe(replicaId);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.replicaToTabletMap.remove(replicaId);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    // must be called with the lock of the tablet stripe held
+    private void removeBackendReplica(long backendId, long tabletId) {
+        BackendReplicas backendReplicas = backendReplicasMap.get(backendId);
+        if (backendReplicas == null) {
+            return;
+        }
+        backendReplicas.lock.writeLock().lock();
+        try {
+            backendReplicas.replicas.remove(tabletId);
+        } finally {
+            backendReplicas.lock.writeLock().unlock();
         }
     }
 
     public Replica getReplica(long tabletId, long backendId) {
-        readLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId), tabletId);
-            return replicaMetaTable.get(tabletId, backendId);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId), tabletId);
+            return findReplica(stripe.tabletReplicaMap.get(tabletId), backendId);
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public List<Replica> getReplicasByTabletId(long tabletId) {
-        readLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            if (replicaMetaTable.containsRow(tabletId)) {
-                return Lists.newArrayList(replicaMetaTable.row(tabletId).values());
+            Replica[] replicas = stripe.tabletReplicaMap.get(tabletId);
+            if (replicas != null) {
+                return Lists.newArrayList(replicas);
             }
             return Lists.newArrayList();
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
@@ -498,98 +630,81 @@ public class TabletInvertedIndex {
      *
      * @param tabletIds tablet_id list
      * @param backendId backendid
-     * @return list of replica or null if backend not found
+     * @return list of replica or null for each tablet, all the elements are null if backend not found
      */
     public List<Replica> getReplicasOnBackendByTabletIds(List<Long> tabletIds, long backendId) {
-        readLock();
+        BackendReplicas backendReplicas = backendReplicasMap.get(backendId);
+        if (backendReplicas == null) {
+            return Lists.newArrayList(Collections.nCopies(tabletIds.size(), null));
+        }
+        backendReplicas.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                List<Replica> replicas = Lists.newArrayList();
-                for (long tabletId : tabletIds) {
-                    replicas.add(replicaMetaWithBackend.get(tabletId));
-                }
-                return replicas;
+            List<Replica> replicas = Lists.newArrayList();
+            for (long tabletId : tabletIds) {
+                replicas.add(backendReplicas.replicas.get(tabletId));
             }
-            return null;
+            return replicas;
         } finally {
-            readUnlock();
+            backendReplicas.lock.readLock().unlock();
         }
     }
 
     public List<Long> getTabletIdsByBackendId(long backendId) {
         List<Long> tabletIds = Lists.newArrayList();
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                tabletIds.addAll(replicaMetaWithBackend.keySet());
-            }
-        } finally {
-            readUnlock();
+        for (long tabletId : getBackendReplicasSnapshot(backendId).tabletIds) {
+            tabletIds.add(tabletId);
         }
         return tabletIds;
     }
 
     public List<Long> getTabletIdsByBackendIdAndStorageMedium(long backendId, TStorageMedium storageMedium) {
         List<Long> tabletIds = Lists.newArrayList();
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                tabletIds = replicaMetaWithBackend.keySet().stream().filter(
-                        id -> tabletMetaMap.get(id).getStorageMedium() == storageMedium).collect(Collectors.toList());
+        for (long tabletId : getBackendReplicasSnapshot(backendId).tabletIds) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            if (tabletMeta != null && tabletMeta.getStorageMedium() == storageMedium) {
+                tabletIds.add(tabletId);
             }
-        } finally {
-            readUnlock();
         }
         return tabletIds;
     }
 
     public long getTabletNumByBackendId(long backendId) {
-        readLock();
+        BackendReplicas backendReplicas = backendReplicasMap.get(backendId);
+        if (backendReplicas == null) {
+            return 0;
+        }
+        backendReplicas.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                return replicaMetaWithBackend.size();
-            }
+            return backendReplicas.replicas.size();
         } finally {
-            readUnlock();
+            backendReplicas.lock.readLock().unlock();
         }
-        return 0;
     }
 
     public long getTabletNumByBackendIdAndPathHash(long backendId, long pathHash) {
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                return replicaMetaWithBackend.values().stream().filter(r -> r.getPathHash() == pathHash).count();
+        long num = 0;
+        for (Replica replica : getBackendReplicasSnapshot(backendId).replicas) {
+            if (replica.getPathHash() == pathHash) {
+                num++;
             }
-        } finally {
-            readUnlock();
         }
-        return 0;
+        return num;
     }
 
     public Map<TStorageMedium, Long> getReplicaNumByBeIdAndStorageMedium(long backendId) {
         Map<TStorageMedium, Long> replicaNumMap = Maps.newHashMap();
         long hddNum = 0;
         long ssdNum = 0;
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                for (long tabletId : replicaMetaWithBackend.keySet()) {
-                    if (tabletMetaMap.get(tabletId).getStorageMedium() == TStorageMedium.HDD) {
-                        hddNum++;
-                    } else {
-                        ssdNum++;
-                    }
-                }
+        for (long tabletId : getBackendReplicasSnapshot(backendId).tabletIds) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            if (tabletMeta == null) {
+                continue;
+            }
+            if (tabletMeta.getStorageMedium() == TStorageMedium.HDD) {
+                hddNum++;
+            } else {
+                ssdNum++;
             }
-        } finally {
-            readUnlock();
         }
         replicaNumMap.put(TStorageMedium.HDD, hddNum);
         replicaNumMap.put(TStorageMedium.SSD, ssdNum);
@@ -598,15 +713,24 @@ public class TabletInvertedIndex {
 
     // just for test
     public void clear() {
-        writeLock();
-        try {
-            tabletMetaMap.clear();
-            replicaToTabletMap.clear();
-            replicaMetaTable.clear();
-            backingReplicaMetaTable.clear();
-        } finally {
-            writeUnlock();
+        for (Stripe stripe : stripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.tabletMetaMap.clear();
+                stripe.tabletReplicaMap.clear();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+        for (ReplicaStripe stripe : replicaStripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.replicaToTabletMap.clear();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
         }
+        backendReplicasMap.clear();
     }
 }
 
@@ -51,6 +51,7 @@ import com.starrocks.clone.TabletSchedCtx.Type;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.LeaderDaemon;
 import com.starrocks.persist.ReplicaPersistInfo;
 import com.starrocks.server.GlobalStateMgr;
@@ -72,6 +73,9 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -146,6 +150,8 @@ public class TabletScheduler extends LeaderDaemon {
     private ColocateTableIndex colocateTableIndex;
     private TabletSchedulerStat stat;
     private Rebalancer rebalancer;
+    // schedule the tablets of different databases concurrently, created when it is used
+    private ThreadPoolExecutor scheduleExecutor;
 
     // result of adding a tablet to pendingTablets
     public enum AddResult {
@@ -494,65 +500,7 @@ public class TabletScheduler extends LeaderDaemon {
         }
 
         AgentBatchTask batchTask = new AgentBatchTask();
-        for (TabletSchedCtx tabletCtx : currentBatch) {
-            try {
-                // reset errMsg for new scheduler round
-                tabletCtx.setErrMsg(null);
-                scheduleTablet(tabletCtx, batchTask);
-            } catch (SchedException e) {
-                tabletCtx.increaseFailedSchedCounter();
-                tabletCtx.setErrMsg(e.getMessage());
-
-                if (e.getStatus() == Status.SCHEDULE_FAILED) {
-                    LOG.debug("scheduling for tablet[{}] failed, type: {}, reason: {}",
-                            tabletCtx.getTabletId(), tabletCtx.getType().name(), e.getMessage());
-                    if (tabletCtx.getType() == Type.BALANCE) {
-                        // if balance is disabled, remove this tablet
-                        if (Config.tablet_sched_disable_balance) {
-                            finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.CANCELLED,
-                                    "disable balance and " + e.getMessage());
-                        } else {
-                            // remove the balance task if it fails to be scheduled many times
-                            if (tabletCtx.getFailedSchedCounter() > 10) {
-                                finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.CANCELLED,
-                                        "schedule failed too many times and " + e.getMessage());
-                            } else {
-                                // we must release resource it currently holds, and be scheduled again
-                                tabletCtx.releaseResource(this);
-                                // adjust priority to avoid some higher priority always be the first in pendingTablets
-                                stat.counterTabletScheduledFailed.incrementAndGet();
-                                dynamicAdjustPrioAndAddBackToPendingTablets(tabletCtx, e.getMessage());
-                            }
-                        }
-                    } else {
-                        // we must release resource it currently holds, and be scheduled again
-                        tabletCtx.releaseResource(this);
-                        // adjust priority to avoid some higher priority always be the first in pendingTablets
-                        stat.counterTabletScheduledFailed.incrementAndGet();
-                        dynamicAdjustPrioAndAddBackToPendingTablets(tabletCtx, e.getMessage());
-                    }
-                } else if (e.getStatus() == Status.FINISHED) {
-                    // schedule redundant tablet will throw this exception
-                    stat.counterTabletScheduledSucceeded.incrementAndGet();
-                    finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.FINISHED, e.getMessage());
-                } else {
-                    Preconditions.checkState(e.getStatus() == Status.UNRECOVERABLE, e.getStatus());
-                    // discard
-                    stat.counterTabletScheduledDiscard.incrementAndGet();
-                    finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.CANCELLED, e.getMessage());
-                }
-                continue;
-            } catch (Exception e) {
-                LOG.warn("got unexpected exception, discard this schedule. tablet: {}",
-                        tabletCtx.getTabletId(), e);
-                stat.counterTabletScheduledFailed.incrementAndGet();
-                finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.UNEXPECTED, e.getMessage());
-            }
-
-            Preconditions.checkState(tabletCtx.getState() == TabletSchedCtx.State.RUNNING);
-            stat.counterTabletScheduledSucceeded.incrementAndGet();
-            addToRunningTablets(tabletCtx);
-        }
+        scheduleTabletsConcurrently(currentBatch, batchTask);
 
         // must send task after adding tablet info to runningTablets.
         for (AgentTask task : batchTask.getAllTasks()) {
@@ -569,6 +517,148 @@ public class TabletScheduler extends LeaderDaemon {
         stat.counterTabletScheduleCostMs.addAndGet(cost);
     }
 
+    /**
+     * Schedule tablets of different databases concurrently. Scheduling a tablet holds the write lock of
+     * its database, so the tablets of one database are scheduled by one thread in order.
+     * Balance tablets and tablets of colocate tables are scheduled serially, because the rebalancer
+     * and the colocate balancer keep states across tablets. To keep the order of priority, the tablets
+     * before such a tablet in the batch are all scheduled before it, and the tablets after it are scheduled after it.
+     * The tasks of all the tablets are collected into batchTask, so they are sent to backends in batch.
+     */
+    @VisibleForTesting
+    void scheduleTabletsConcurrently(List<TabletSchedCtx> tablets, AgentBatchTask batchTask) {
+        int numThreads = Config.tablet_sched_schedule_thread_num;
+        if (numThreads <= 1 || tablets.size() < MIN_BATCH_NUM) {
+            for (TabletSchedCtx tabletCtx : tablets) {
+                scheduleTabletAndHandleResult(tabletCtx, batchTask);
+            }
+            return;
+        }
+
+        List<TabletSchedCtx> concurrentTablets = Lists.newArrayList();
+        for (TabletSchedCtx tabletCtx : tablets) {
+            if (tabletCtx.getType() == Type.BALANCE || colocateTableIndex.isColocateTable(tabletCtx.getTblId())) {
+                scheduleTabletsOfDbsConcurrently(concurrentTablets, batchTask, numThreads);
+                concurrentTablets.clear();
+                scheduleTabletAndHandleResult(tabletCtx, batchTask);
+            } else {
+                concurrentTablets.add(tabletCtx);
+            }
+        }
+        scheduleTabletsOfDbsConcurrently(concurrentTablets, batchTask, numThreads);
+    }
+
+    private void scheduleTabletsOfDbsConcurrently(List<TabletSchedCtx> tablets, AgentBatchTask batchTask,
+                                                  int numThreads) {
+        // keep the tablets of one database in the order of priority
+        Map<Long, List<TabletSchedCtx>> dbToTablets = Maps.newLinkedHashMap();
+        for (TabletSchedCtx tabletCtx : tablets) {
+            dbToTablets.computeIfAbsent(tabletCtx.getDbId(), k -> Lists.newArrayList()).add(tabletCtx);
+        }
+        if (dbToTablets.size() <= 1) {
+            for (TabletSchedCtx tabletCtx : tablets) {
+                scheduleTabletAndHandleResult(tabletCtx, batchTask);
+            }
+            return;
+        }
+
+        List<Future<AgentBatchTask>> futures = Lists.newArrayList();
+        for (List<TabletSchedCtx> dbTablets : dbToTablets.values()) {
+            futures.add(getScheduleExecutor(numThreads).submit(() -> {
+                AgentBatchTask dbBatchTask = new AgentBatchTask();
+                for (TabletSchedCtx tabletCtx : dbTablets) {
+                    scheduleTabletAndHandleResult(tabletCtx, dbBatchTask);
+                }
+                return dbBatchTask;
+            }));
+        }
+        for (Future<AgentBatchTask> future : futures) {
+            try {
+                for (AgentTask task : future.get().getAllTasks()) {
+                    batchTask.addTask(task);
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                // all the exceptions are handled when scheduling a tablet, so it should not happen
+                LOG.warn("failed to schedule tablets concurrently", e);
+            }
+        }
+    }
+
+    // only called by the scheduler daemon thread
+    private ThreadPoolExecutor getScheduleExecutor(int numThreads) {
+        if (scheduleExecutor != null && scheduleExecutor.getMaximumPoolSize() != numThreads) {
+            // the config is changed, the old threads exit after the running tasks are done
+            scheduleExecutor.shutdown();
+            scheduleExecutor = null;
+        }
+        if (scheduleExecutor == null) {
+            scheduleExecutor = ThreadPoolManager.newDaemonFixedThreadPool(numThreads, Integer.MAX_VALUE,
+                    "tablet-schedule-pool", false);
+        }
+        return scheduleExecutor;
+    }
+
+    private void scheduleTabletAndHandleResult(TabletSchedCtx tabletCtx, AgentBatchTask batchTask) {
+        try {
+            // reset errMsg for new scheduler round
+            tabletCtx.setErrMsg(null);
+            scheduleTablet(tabletCtx, batchTask);
+        } catch (SchedException e) {
+            tabletCtx.increaseFailedSchedCounter();
+            tabletCtx.setErrMsg(e.getMessage());
+
+            if (e.getStatus() == Status.SCHEDULE_FAILED) {
+                LOG.debug("scheduling for tablet[{}] failed, type: {}, reason: {}",
+                        tabletCtx.getTabletId(), tabletCtx.getType().name(), e.getMessage());
+                if (tabletCtx.getType() == Type.BALANCE) {
+                    // if balance is disabled, remove this tablet
+                    if (Config.tablet_sched_disable_balance) {
+                        finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.CANCELLED,
+                                "disable balance and " + e.getMessage());
+                    } else {
+                        // remove the balance task if it fails to be scheduled many times
+                        if (tabletCtx.getFailedSchedCounter() > 10) {
+                            finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.CANCELLED,
+                                    "schedule failed too many times and " + e.getMessage());
+                        } else {
+                            // we must release resource it currently holds, and be scheduled again
+                            tabletCtx.releaseResource(this);
+                            // adjust priority to avoid some higher priority always be the first in pendingTablets
+                            stat.counterTabletScheduledFailed.incrementAndGet();
+                            dynamicAdjustPrioAndAddBackToPendingTablets(tabletCtx, e.getMessage());
+                        }
+                    }
+                } else {
+                    // we must release resource it currently holds, and be scheduled again
+                    tabletCtx.releaseResource(this);
+                    // adjust priority to avoid some higher priority always be the first in pendingTablets
+                    stat.counterTabletScheduledFailed.incrementAndGet();
+                    dynamicAdjustPrioAndAddBackToPendingTablets(tabletCtx, e.getMessage());
+                }
+            } else if (e.getStatus() == Status.FINISHED) {
+                // schedule redundant tablet will throw this exception
+                stat.counterTabletScheduledSucceeded.incrementAndGet();
+                finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.FINISHED, e.getMessage());
+            } else {
+                Preconditions.checkState(e.getStatus() == Status.UNRECOVERABLE, e.getStatus());
+                // discard
+                stat.counterTabletScheduledDiscard.incrementAndGet();
+                finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.CANCELLED, e.getMessage());
+            }
+            return;
+        } catch (Exception e) {
+            LOG.warn("got unexpected exception, discard this schedule. tablet: {}",
+                    tabletCtx.getTabletId(), e);
+            stat.counterTabletScheduledFailed.incrementAndGet();
+            finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.UNEXPECTED, e.getMessage());
+            return;
+        }
+
+        Preconditions.checkState(tabletCtx.getState() == TabletSchedCtx.State.RUNNING);
+        stat.counterTabletScheduledSucceeded.incrementAndGet();
+        addToRunningTablets(tabletCtx);
+    }
+
     private synchronized void addToRunningTablets(TabletSchedCtx tabletCtx) {
         runningTablets.put(tabletCtx.getTabletId(), tabletCtx);
     }
@@ -593,7 +683,8 @@ public class TabletScheduler extends LeaderDaemon {
     /**
      * Try to schedule a single tablet.
      */
-    private void scheduleTablet(TabletSchedCtx tabletCtx, AgentBatchTask batchTask) throws SchedException {
+    @VisibleForTesting
+    void scheduleTablet(TabletSchedCtx tabletCtx, AgentBatchTask batchTask) throws SchedException {
         LOG.debug("schedule tablet: {}, type: {}, status: {}", tabletCtx.getTabletId(), tabletCtx.getType(),
                 tabletCtx.getTabletStatus());
         long currentTime = System.currentTimeMillis();
@@ -725,6 +725,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int insert_load_default_timeout_second = 3600; // 1 hour
 
+    /**
+     * The time window to collect the INSERT INTO VALUES statements to be group committed,
+     * if session variable enable_insert_group_commit is true.
+     * The statements of the same table collected in the window are loaded in one transaction.
+     */
+    @ConfField(mutable = true)
+    public static long insert_group_commit_interval_ms = 50;
+
+    /**
+     * The group of INSERT INTO VALUES statements is committed before the time window ends
+     * if it has collected this number of rows.
+     */
+    @ConfField(mutable = true)
+    public static int insert_group_commit_max_rows = 100000;
+
     /**
      * Default stream load and streaming mini load timeout
      */
@@ -905,6 +920,13 @@ public class Config extends ConfigBase {
      */
     @ConfField(mutable = true)
     public static int task_runs_concurrency = 20;
+    /**
+     * Limitation of the running TaskRuns which refresh materialized views, so the refreshes triggered by loads
+     * in bursts do not take all the concurrency of TaskRuns and the resources of interactive queries.
+     * Negative means no limitation other than task_runs_concurrency.
+     */
+    @ConfField(mutable = true)
+    public static int mv_task_runs_concurrency = -1;
     /**
      * Default timeout of export jobs.
      */
@@ -951,6 +973,13 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_connection_scheduler_threads_num = 4096;
 
+    /**
+     * Maximal number of statements prepared by COM_STMT_PREPARE and not closed yet per connection.
+     * Preparing more statements fails until some of them are closed.
+     */
+    @ConfField(mutable = true)
+    public static int max_prepared_stmt_count = 1024;
+
     /**
      * Used to limit element num of InPredicate in delete statement.
      */
@@ -992,6 +1021,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_query_retry_time = 2;
 
+    /**
+     * Maximal number of fetch data rpcs in flight for one query result, so the next batches are
+     * fetched from BE while the current batch is being sent to client. 1 means no prefetching.
+     */
+    @ConfField(mutable = true)
+    public static int max_inflight_fetch_data_rpc_num = 2;
+
     /**
      * In order not to wait too long for create table(index), set a max timeout.
      */
@@ -1083,6 +1119,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, aliases = {"max_scheduling_tablets"})
     public static int tablet_sched_max_scheduling_tablets = 2000;
 
+    /**
+     * The number of threads to schedule the tablets of different databases concurrently in TabletScheduler.
+     * Balance tablets and tablets of colocate tables are always scheduled serially.
+     * If it is not greater than 1, all the tablets are scheduled serially, which is the default.
+     */
+    @ConfField(mutable = true)
+    public static int tablet_sched_schedule_thread_num = 1;
+
     /**
      * if set to true, TabletScheduler will not do balance.
      */
@@ -1183,6 +1227,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int report_queue_size = 100;
 
+    /**
+     * Number of threads to handle the reports of backends. The reports of one backend are handled
+     * in order by the same thread, and the reports of different backends are handled concurrently.
+     */
+    @ConfField
+    public static int report_handler_thread_num = 4;
+
     /**
      * If set to true, metric collector will be run as a daemon timer to collect metrics at fix interval
      */
@@ -1230,6 +1281,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long routine_load_task_timeout_second = 60;
 
+    /**
+     * Adapt the consume time of each kafka routine load task to the lag, throughput and BE load observed
+     * from the previous task, between routine_load_task_consume_second and half of
+     * routine_load_task_timeout_second, and schedule the tasks without new data less frequently.
+     */
+    @ConfField(mutable = true)
+    public static boolean routine_load_adaptive_batch_enable = false;
+
     /**
      * kafka util request timeout
      */
@@ -1426,9 +1485,36 @@ public class Config extends ConfigBase {
     @ConfField
     public static long statistic_cache_columns = 100000;
 
+    /**
+     * Max number of optimized query plans kept in the plan cache
+     */
+    @ConfField
+    public static long plan_cache_capacity = 10000;
+
+    /**
+     * Cached query plans are rebuilt after this time, so that plans built with stale statistics don't live forever
+     */
+    @ConfField
+    public static long plan_cache_expire_seconds = 600;
+
     @ConfField
     public static long statistic_dict_columns = 100000;
 
+    /**
+     * The string columns found not low cardinality when collecting their global dicts are collected again after
+     * this time, because later loads may change the distinct values of them
+     */
+    @ConfField
+    public static long statistic_no_dict_column_expire_sec = 3600;
+
+    /**
+     * The global dict of a string column is collected if its estimated distinct values count exceeds the low
+     * cardinality threshold by no more than this ratio, because the estimation may be larger than the exact count,
+     * which is checked when the global dict is collected
+     */
+    @ConfField(mutable = true)
+    public static double low_cardinality_ndv_error_ratio = 0.2;
+
     /**
      * The column statistic cache update interval
      */
@@ -1547,12 +1633,26 @@ public class Config extends ConfigBase {
     @ConfField
     public static long hive_meta_cache_ttl_s = 3600L * 24L;
 
+    /**
+     * Max estimated memory in bytes of the hive partitions and partition statistics cached by each catalog.
+     * 0 means the cache is only bounded by the number of entries.
+     */
+    @ConfField
+    public static long hive_meta_cache_max_bytes = 0L;
+
     /**
      * Remote file's metadata from hdfs or s3 cache ttl
      */
     @ConfField
     public static long remote_file_cache_ttl_s = 3600 * 36L;
 
+    /**
+     * Max estimated memory in bytes of the remote file's metadata cached by each catalog.
+     * 0 means the cache is only bounded by the number of entries.
+     */
+    @ConfField
+    public static long remote_file_cache_max_bytes = 0L;
+
     /**
      * The maximum number of partitions to fetch from the metastore in one RPC.
      */
@@ -1613,6 +1713,20 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int hms_refresh_columns_statistic_interval_s = 600;
 
+    /**
+     * If set to true, the hive partitions cached by the catalogs with enable_hms_events_incremental_sync
+     * are persisted under meta_dir, and loaded when the hms events are pulled for the first time after
+     * FE restarts. The loaded cache is validated by the events since it was persisted.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_hive_metastore_cache_persistence = false;
+
+    /**
+     * Interval in seconds of persisting the hive partitions cache.
+     */
+    @ConfField(mutable = true)
+    public static long hive_metastore_cache_persist_interval_s = 600L;
+
     /**
      * Used to split files stored in dfs such as object storage
      * or hdfs into smaller files for hive external table
@@ -1644,6 +1758,20 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int iceberg_table_refresh_expire_sec = 86400;
 
+    /**
+     * If set to true, the data files parsed from iceberg manifests are cached and shared by queries,
+     * planning the scan of a new snapshot only reads the manifests added by it.
+     * The cache takes up to iceberg_manifest_cache_max_bytes of FE heap, so it is disabled by default.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_iceberg_manifest_cache = false;
+
+    /**
+     * Max estimated memory in bytes of the data files cached by the iceberg manifest cache.
+     */
+    @ConfField
+    public static long iceberg_manifest_cache_max_bytes = 512L * 1024L * 1024L;
+
     /**
      * fe will call es api to get es index shard info every es_state_sync_interval_secs
      */
@@ -1762,6 +1890,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_experimental_mv = false;
 
+    /**
+     * If true, the partitions of a materialized view with mergeable aggregates are refreshed by merging the aggregates
+     * of the newly added base partitions into them, when the base partitions refreshed before are not changed.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_materialized_view_delta_refresh = false;
+
     @ConfField
     public static boolean enable_dict_optimize_routine_load = false;
 
@@ -1860,6 +1995,15 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static String metadata_journal_skip_bad_journal_ids = "";
 
+    /**
+     * The number of threads to replay the journals of different databases concurrently on non-leader FE.
+     * Journals of one database are still replayed in order, and the journals touching global objects are
+     * replayed after all the journals before them. If it is not greater than 1, journals are replayed one by one.
+     * Journals are always replayed one by one if metadata_journal_skip_bad_journal_ids is set.
+     */
+    @ConfField(mutable = true)
+    public static int metadata_journal_replay_thread_num = 1;
+
     @ConfField(mutable = true)
     public static boolean recursive_dir_search_enabled = true;
 
@@ -1870,6 +2014,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int profile_info_reserved_num = 500;
 
+    /**
+     * Max memory of the compressed profiles reserved by `ProfileManager`.
+     * If it is exceeded, the oldest profiles are spilled to disk if profile_spill_file_size_mb is positive,
+     * otherwise they are removed.
+     */
+    @ConfField(mutable = true)
+    public static long profile_info_max_memory_mb = 512;
+
+    /**
+     * Size of the local file under tmp_dir used as a ring buffer to spill the profiles.
+     * The oldest spilled profiles are removed when they are overwritten. 0 disables spilling.
+     */
+    @ConfField
+    public static long profile_spill_file_size_mb = 0;
+
     /**
      * Max number of roles that can be granted to user including all direct roles and all parent roles
      * Used in new RBAC framework after 3.0 released
@@ -98,6 +98,8 @@ public enum ErrorCode {
     ERR_PASSWD_LENGTH(1372, new byte[] {'H', 'Y', '0', '0', '0'},
             "Password hash should be a %d-digit hexadecimal number"),
     ERR_CANNOT_USER(1396, new byte[] {'H', 'Y', '0', '0', '0'}, "Operation %s failed for %s"),
+    ERR_MAX_PREPARED_STMT_COUNT_REACHED(1461, new byte[] {'4', '2', '0', '0', '0'},
+            "Can't create more than max_prepared_stmt_count statements (current value: %d)"),
     ERR_NON_INSERTABLE_TABLE(1471, new byte[] {'H', 'Y', '0', '0', '0'},
             "The target table %s of the %s is not insertable-into"),
     ERR_DROP_PARTITION_NON_EXISTENT(1507, new byte[] {'H', 'Y', '0', '0', '0'},
@@ -28,15 +28,15 @@ import com.starrocks.common.Config;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -71,38 +71,67 @@ public class ProfileManager {
             Arrays.asList(QUERY_ID, USER, DEFAULT_DB, SQL_STATEMENT, QUERY_TYPE,
                     START_TIME, END_TIME, TOTAL_TIME, QUERY_STATE));
 
-    private class ProfileElement {
-        public Map<String, String> infoStrings = Maps.newHashMap();
-        public byte[] profileContent;
+    private static class ProfileElement {
+        // info strings in the order of PROFILE_HEADERS
+        private final String[] infoStrings = new String[PROFILE_HEADERS.size()];
+        // gzip compressed profile, null if it is spilled to disk
+        private byte[] profileContent;
+        // logical offset of the compressed profile in the spill file, -1 if it is not spilled
+        private long spillOffset = -1;
+        private int spillLength;
+
+        private String getInfoString(String header) {
+            return infoStrings[PROFILE_HEADERS.indexOf(header)];
+        }
     }
 
-    // only protect profileDeque; profileMap is concurrent, no need to protect
     private ReentrantReadWriteLock lock;
     private ReadLock readLock;
     private WriteLock writeLock;
 
+    // all the profiles in the order of pushing
     private Deque<ProfileElement> profileDeque;
+    // profiles whose content is in memory, in the order of pushing
+    private Deque<ProfileElement> inMemoryProfileDeque;
+    private long inMemoryProfileBytes = 0;
     private Map<String, ProfileElement> profileMap; // from QueryId to RuntimeProfile
+    // profiles exceeding profile_info_max_memory_mb are spilled to it, null if spilling is disabled
+    private RingBufferFile spillFile;
 
-    public static ProfileManager getInstance() {
+    public static synchronized ProfileManager getInstance() {
         if (INSTANCE == null) {
-            INSTANCE = new ProfileManager();
+            INSTANCE = new ProfileManager(openSpillFile());
         }
         return INSTANCE;
     }
 
-    private ProfileManager() {
+    ProfileManager(RingBufferFile spillFile) {
         lock = new ReentrantReadWriteLock(true);
         readLock = lock.readLock();
         writeLock = lock.writeLock();
-        profileDeque = new LinkedList<ProfileElement>();
-        profileMap = new ConcurrentHashMap<String, ProfileElement>();
+        profileDeque = new ArrayDeque<>();
+        inMemoryProfileDeque = new ArrayDeque<>();
+        profileMap = Maps.newHashMap();
+        this.spillFile = spillFile;
+    }
+
+    private static RingBufferFile openSpillFile() {
+        if (Config.profile_spill_file_size_mb <= 0) {
+            return null;
+        }
+        File path = new File(Config.tmp_dir, "profile_spill");
+        try {
+            return new RingBufferFile(path, Config.profile_spill_file_size_mb * 1024L * 1024L);
+        } catch (IOException e) {
+            LOG.warn("failed to open profile spill file {}, profiles will not be spilled", path, e);
+            return null;
+        }
     }
 
-    public ProfileElement createElement(RuntimeProfile summaryProfile, String profileString) {
+    private ProfileElement createElement(RuntimeProfile summaryProfile, String profileString) {
         ProfileElement element = new ProfileElement();
-        for (String header : PROFILE_HEADERS) {
-            element.infoStrings.put(header, summaryProfile.getInfoString(header));
+        for (int i = 0; i < PROFILE_HEADERS.size(); i++) {
+            element.infoStrings[i] = summaryProfile.getInfoString(PROFILE_HEADERS.get(i));
         }
         try {
             element.profileContent = CompressionUtils.gzipCompressString(profileString);
@@ -120,7 +149,7 @@ public class ProfileManager {
 
         String profileString = profile.toString();
         ProfileElement element = createElement(profile.getChildList().get(0).first, profileString);
-        String queryId = element.infoStrings.get(ProfileManager.QUERY_ID);
+        String queryId = element.getInfoString(ProfileManager.QUERY_ID);
         // check when push in, which can ensure every element in the list has QUERY_ID column,
         // so there is no need to check when remove element from list.
         if (Strings.isNullOrEmpty(queryId)) {
@@ -128,14 +157,21 @@ public class ProfileManager {
                     + "may be forget to insert 'QUERY_ID' column into infoStrings");
         }
 
-        profileMap.put(queryId, element);
         writeLock.lock();
         try {
-            if (profileDeque.size() >= Config.profile_info_reserved_num) {
-                profileMap.remove(profileDeque.getFirst().infoStrings.get(QUERY_ID));
-                profileDeque.removeFirst();
+            while (!profileDeque.isEmpty() && profileDeque.size() >= Config.profile_info_reserved_num) {
+                removeElement(profileDeque.getFirst());
+            }
+            ProfileElement oldElement = profileMap.put(queryId, element);
+            if (oldElement != null) {
+                removeElement(oldElement);
             }
             profileDeque.addLast(element);
+            if (element.profileContent != null) {
+                inMemoryProfileDeque.addLast(element);
+                inMemoryProfileBytes += element.profileContent.length;
+            }
+            spillOrRemoveProfiles();
         } finally {
             writeLock.unlock();
         }
@@ -143,20 +179,57 @@ public class ProfileManager {
         return profileString;
     }
 
+    private void removeElement(ProfileElement element) {
+        profileDeque.remove(element);
+        profileMap.remove(element.getInfoString(QUERY_ID), element);
+        if (element.profileContent != null && inMemoryProfileDeque.remove(element)) {
+            inMemoryProfileBytes -= element.profileContent.length;
+        }
+    }
+
+    // Keep the memory of profiles under profile_info_max_memory_mb by spilling or removing the oldest ones
+    private void spillOrRemoveProfiles() {
+        long maxMemoryBytes = Config.profile_info_max_memory_mb * 1024L * 1024L;
+        // always keep the latest one in memory
+        while (inMemoryProfileBytes > maxMemoryBytes && inMemoryProfileDeque.size() > 1) {
+            ProfileElement element = inMemoryProfileDeque.pollFirst();
+            byte[] content = element.profileContent;
+            inMemoryProfileBytes -= content.length;
+            long offset = -1;
+            if (spillFile != null) {
+                try {
+                    offset = spillFile.write(content);
+                } catch (IOException e) {
+                    LOG.warn("failed to spill profile of query {}", element.getInfoString(QUERY_ID), e);
+                }
+            }
+            if (offset < 0) {
+                removeElement(element);
+                continue;
+            }
+            element.spillOffset = offset;
+            element.spillLength = content.length;
+            element.profileContent = null;
+        }
+
+        // the oldest profiles are overwritten in the spill file
+        while (spillFile != null && !profileDeque.isEmpty()) {
+            ProfileElement first = profileDeque.getFirst();
+            if (first.profileContent != null || spillFile.isAvailable(first.spillOffset)) {
+                break;
+            }
+            removeElement(first);
+        }
+    }
+
     public List<List<String>> getAllQueries() {
         List<List<String>> result = Lists.newArrayList();
         readLock.lock();
         try {
-            Iterator reverse = profileDeque.descendingIterator();
+            Iterator<ProfileElement> reverse = profileDeque.descendingIterator();
             while (reverse.hasNext()) {
-                ProfileElement element = (ProfileElement) reverse.next();
-                Map<String, String> infoStrings = element.infoStrings;
-
-                List<String> row = Lists.newArrayList();
-                for (String str : PROFILE_HEADERS) {
-                    row.add(infoStrings.get(str));
-                }
-                result.add(row);
+                ProfileElement element = reverse.next();
+                result.add(Lists.newArrayList(element.infoStrings));
             }
         } finally {
             readLock.unlock();
@@ -165,21 +238,33 @@ public class ProfileManager {
     }
 
     public String getProfile(String queryID) {
-        ProfileElement element = new ProfileElement();
+        byte[] content;
         readLock.lock();
         try {
-            element = profileMap.get(queryID);
+            ProfileElement element = profileMap.get(queryID);
             if (element == null) {
                 return null;
             }
-
-            return CompressionUtils.gzipDecompressString(element.profileContent);
+            content = element.profileContent;
+            if (content == null && element.spillOffset >= 0) {
+                content = spillFile.read(element.spillOffset, element.spillLength);
+            }
         } catch (IOException e) {
-            LOG.warn("Decompress profile content failed, length: {}, reason: {}",
-                    element.profileContent.length, e.getMessage());
+            LOG.warn("Read spilled profile of query {} failed, reason: {}", queryID, e.getMessage());
             return null;
         } finally {
             readLock.unlock();
         }
+        if (content == null) {
+            return null;
+        }
+
+        try {
+            return CompressionUtils.gzipDecompressString(content);
+        } catch (IOException e) {
+            LOG.warn("Decompress profile content failed, length: {}, reason: {}",
+                    content.length, e.getMessage());
+            return null;
+        }
     }
 }
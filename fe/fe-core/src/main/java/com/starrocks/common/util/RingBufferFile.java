@@ -0,0 +1,81 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.common.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * A local file of fixed size which is written circularly.
+ * The data written is addressed by its logical offset, which increases monotonically, and the data is
+ * overwritten after another capacity bytes are written. It is thread safe.
+ */
+public class RingBufferFile implements Closeable {
+    private final RandomAccessFile file;
+    private final long capacity;
+    // logical offset of the next write
+    private long writeOffset = 0;
+
+    public RingBufferFile(File path, long capacity) throws IOException {
+        File parent = path.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("failed to create directory " + parent);
+        }
+        this.file = new RandomAccessFile(path, "rw");
+        this.file.setLength(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the logical offset of the data, or -1 if the data is larger than the file
+     */
+    public synchronized long write(byte[] data) throws IOException {
+        if (data.length > capacity) {
+            return -1;
+        }
+        long offset = writeOffset;
+        long pos = offset % capacity;
+        int firstLength = (int) Math.min(data.length, capacity - pos);
+        file.seek(pos);
+        file.write(data, 0, firstLength);
+        if (firstLength < data.length) {
+            file.seek(0);
+            file.write(data, firstLength, data.length - firstLength);
+        }
+        writeOffset += data.length;
+        return offset;
+    }
+
+    /**
+     * @return whether the data at offset is not overwritten yet
+     */
+    public synchronized boolean isAvailable(long offset) {
+        return offset >= 0 && offset >= writeOffset - capacity;
+    }
+
+    /**
+     * @return the data at offset, or null if it has been overwritten
+     */
+    public synchronized byte[] read(long offset, int length) throws IOException {
+        if (!isAvailable(offset) || offset + length > writeOffset) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        long pos = offset % capacity;
+        int firstLength = (int) Math.min(length, capacity - pos);
+        file.seek(pos);
+        file.readFully(data, 0, firstLength);
+        if (firstLength < length) {
+            file.seek(0);
+            file.readFully(data, firstLength, length - firstLength);
+        }
+        return data;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+}
@@ -10,6 +10,7 @@ public class CachingRemoteFileConf {
     private final long cacheTtlSec;
     private final long cacheRefreshIntervalSec;
     private final long cacheMaxSize = 100000L;
+    private final long cacheMaxBytes;
     private final int perQueryCacheMaxSize = 10000;
 
     public CachingRemoteFileConf(Map<String, String> conf) {
@@ -17,6 +18,8 @@ public class CachingRemoteFileConf {
                 String.valueOf(Config.remote_file_cache_ttl_s)));
         this.cacheRefreshIntervalSec = Long.parseLong(conf.getOrDefault("remote_file_cache_refresh_interval_sec",
                 String.valueOf(Config.remote_file_cache_refresh_interval_s)));
+        this.cacheMaxBytes = Long.parseLong(conf.getOrDefault("remote_file_cache_max_bytes",
+                String.valueOf(Config.remote_file_cache_max_bytes)));
     }
 
     public long getCacheTtlSec() {
@@ -31,6 +34,10 @@ public class CachingRemoteFileConf {
         return cacheMaxSize;
     }
 
+    public long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
     public int getPerQueryCacheMaxSize() {
         return perQueryCacheMaxSize;
     }
@@ -34,9 +34,27 @@ public class CachingRemoteFileIO implements RemoteFileIO {
                                long expireAfterWriteSec,
                                long refreshIntervalSec,
                                long maxSize) {
+        this(fileIO, executor, expireAfterWriteSec, refreshIntervalSec, maxSize, 0);
+    }
+
+    // The cache is bounded by the estimated bytes of entries if maxBytes is positive,
+    // so the partitions with lots of files take up more of the cache.
+    protected CachingRemoteFileIO(RemoteFileIO fileIO,
+                                  Executor executor,
+                                  long expireAfterWriteSec,
+                                  long refreshIntervalSec,
+                                  long maxSize,
+                                  long maxBytes) {
         this.fileIO = fileIO;
-        this.cache = newCacheBuilder(expireAfterWriteSec, refreshIntervalSec, maxSize)
-                .build(asyncReloading(CacheLoader.from(this::loadRemoteFiles), executor));
+        CacheBuilder<Object, Object> cacheBuilder = newCacheBuilder(expireAfterWriteSec, refreshIntervalSec);
+        if (maxBytes > 0) {
+            this.cache = cacheBuilder.maximumWeight(maxBytes)
+                    .weigher(CachingRemoteFileIO::estimateRemoteFilesBytes)
+                    .build(asyncReloading(CacheLoader.from(this::loadRemoteFiles), executor));
+        } else {
+            this.cache = cacheBuilder.maximumSize(maxSize)
+                    .build(asyncReloading(CacheLoader.from(this::loadRemoteFiles), executor));
+        }
     }
 
     public static CachingRemoteFileIO createCatalogLevelInstance(RemoteFileIO fileIO, Executor executor,
@@ -44,6 +62,12 @@ public class CachingRemoteFileIO implements RemoteFileIO {
         return new CachingRemoteFileIO(fileIO, executor, expireAfterWrite, refreshInterval, maxSize);
     }
 
+    public static CachingRemoteFileIO createCatalogLevelInstance(RemoteFileIO fileIO, Executor executor,
+                                                                 long expireAfterWrite, long refreshInterval,
+                                                                 long maxSize, long maxBytes) {
+        return new CachingRemoteFileIO(fileIO, executor, expireAfterWrite, refreshInterval, maxSize, maxBytes);
+    }
+
     public static CachingRemoteFileIO createQueryLevelInstance(RemoteFileIO fileIO, long maxSize) {
         return new CachingRemoteFileIO(
                 fileIO,
@@ -93,7 +117,7 @@ public class CachingRemoteFileIO implements RemoteFileIO {
         cache.invalidate(pathKey);
     }
 
-    private static CacheBuilder<Object, Object> newCacheBuilder(long expiresAfterWriteSec, long refreshSec, long maximumSize) {
+    private static CacheBuilder<Object, Object> newCacheBuilder(long expiresAfterWriteSec, long refreshSec) {
         CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
         if (expiresAfterWriteSec >= 0) {
             cacheBuilder.expireAfterWrite(expiresAfterWriteSec, SECONDS);
@@ -102,8 +126,23 @@ public class CachingRemoteFileIO implements RemoteFileIO {
         if (refreshSec > 0 && expiresAfterWriteSec > refreshSec) {
             cacheBuilder.refreshAfterWrite(refreshSec, SECONDS);
         }
-
-        cacheBuilder.maximumSize(maximumSize);
         return cacheBuilder;
     }
+
+    // Estimated memory of the remote files in bytes, only used to weigh the cache entries
+    private static int estimateRemoteFilesBytes(RemotePathKey pathKey, List<RemoteFileDesc> files) {
+        long bytes = 128 + 2L * pathKey.getPath().length();
+        for (RemoteFileDesc file : files) {
+            bytes += 128 + 2L * file.getFileName().length();
+            if (file.getBlockDescs() != null) {
+                bytes += 96L * file.getBlockDescs().size();
+            }
+            if (file.getHudiDeltaLogs() != null) {
+                for (String log : file.getHudiDeltaLogs()) {
+                    bytes += 40 + 2L * log.length();
+                }
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
 }
@@ -20,58 +20,79 @@ import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TScanRange;
 import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
+import com.starrocks.thrift.TTextFileDesc;
 import org.apache.hudi.common.model.HoodieTableType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RemoteScanRangeLocations {
     private static final Logger LOG = LogManager.getLogger(RemoteScanRangeLocations.class);
 
     private final List<TScanRangeLocations> result = new ArrayList<>();
+    // datanode host -> location shared by the scan ranges on it
+    private final Map<String, TScanRangeLocation> hostToLocation = new HashMap<>();
 
+    // Scan ranges of the same file and block share the thrift text file desc and locations,
+    // so the memory of scan ranges is mostly proportional to the number of files rather than splits.
+    // The shared thrift objects are only read after being added to the scan ranges.
     private void addScanRangeLocations(long partitionId, RemoteFileInfo partition, RemoteFileDesc fileDesc,
-                                       RemoteFileBlockDesc blockDesc) {
+                                       TTextFileDesc textFileDesc, RemoteFileBlockDesc blockDesc) {
+        if (blockDesc.getReplicaHostIds().length == 0) {
+            String message = String.format("hdfs file block has no host. file = %s/%s",
+                    partition.getFullPath(), fileDesc.getFileName());
+            throw new StarRocksPlannerException(message, ErrorType.INTERNAL_ERROR);
+        }
+        List<TScanRangeLocation> locations = new ArrayList<>(blockDesc.getReplicaHostIds().length);
+        for (long hostId : blockDesc.getReplicaHostIds()) {
+            locations.add(hostToLocation.computeIfAbsent(blockDesc.getDataNodeIp(hostId),
+                    host -> new TScanRangeLocation(new TNetworkAddress(host, -1))));
+        }
+
         // NOTE: Config.hive_max_split_size should be extracted to a local variable,
         // because it may be changed before calling 'splitScanRangeLocations'
         // and after needSplit has been calculated.
         long splitSize = Config.hive_max_split_size;
         boolean needSplit = fileDesc.isSplittable() && blockDesc.getLength() > splitSize;
         if (needSplit) {
-            splitScanRangeLocations(partitionId, partition, fileDesc, blockDesc, splitSize);
+            splitScanRangeLocations(partitionId, partition, fileDesc, textFileDesc, blockDesc, locations, splitSize);
         } else {
-            createScanRangeLocationsForSplit(partitionId, partition, fileDesc, blockDesc, blockDesc.getOffset(),
-                    blockDesc.getLength());
+            createScanRangeLocationsForSplit(partitionId, partition, fileDesc, textFileDesc, locations,
+                    blockDesc.getOffset(), blockDesc.getLength());
         }
     }
 
     private void splitScanRangeLocations(long partitionId, RemoteFileInfo partition,
                                          RemoteFileDesc fileDesc,
+                                         TTextFileDesc textFileDesc,
                                          RemoteFileBlockDesc blockDesc,
+                                         List<TScanRangeLocation> locations,
                                          long splitSize) {
         long remainingBytes = blockDesc.getLength();
         long length = blockDesc.getLength();
         long offset = blockDesc.getOffset();
         do {
             if (remainingBytes <= splitSize) {
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes,
+                createScanRangeLocationsForSplit(partitionId, partition, fileDesc, textFileDesc,
+                        locations, offset + length - remainingBytes,
                         remainingBytes);
                 remainingBytes = 0;
             } else if (remainingBytes <= 2 * splitSize) {
                 long mid = (remainingBytes + 1) / 2;
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes, mid);
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes + mid,
+                createScanRangeLocationsForSplit(partitionId, partition, fileDesc, textFileDesc,
+                        locations, offset + length - remainingBytes, mid);
+                createScanRangeLocationsForSplit(partitionId, partition, fileDesc, textFileDesc,
+                        locations, offset + length - remainingBytes + mid,
                         remainingBytes - mid);
                 remainingBytes = 0;
             } else {
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes,
+                createScanRangeLocationsForSplit(partitionId, partition, fileDesc, textFileDesc,
+                        locations, offset + length - remainingBytes,
                         splitSize);
                 remainingBytes -= splitSize;
             }
@@ -80,7 +101,8 @@ public class RemoteScanRangeLocations {
 
     private void createScanRangeLocationsForSplit(long partitionId, RemoteFileInfo partition,
                                                   RemoteFileDesc fileDesc,
-                                                  RemoteFileBlockDesc blockDesc,
+                                                  TTextFileDesc textFileDesc,
+                                                  List<TScanRangeLocation> locations,
                                                   long offset, long length) {
         TScanRangeLocations scanRangeLocations = new TScanRangeLocations();
 
@@ -91,22 +113,11 @@ public class RemoteScanRangeLocations {
         hdfsScanRange.setPartition_id(partitionId);
         hdfsScanRange.setFile_length(fileDesc.getLength());
         hdfsScanRange.setFile_format(partition.getFormat().toThrift());
-        hdfsScanRange.setText_file_desc(fileDesc.getTextFileFormatDesc().toThrift());
+        hdfsScanRange.setText_file_desc(textFileDesc);
         TScanRange scanRange = new TScanRange();
         scanRange.setHdfs_scan_range(hdfsScanRange);
         scanRangeLocations.setScan_range(scanRange);
-
-        if (blockDesc.getReplicaHostIds().length == 0) {
-            String message = String.format("hdfs file block has no host. file = %s/%s",
-                    partition.getFullPath(), fileDesc.getFileName());
-            throw new StarRocksPlannerException(message, ErrorType.INTERNAL_ERROR);
-        }
-
-        for (long hostId : blockDesc.getReplicaHostIds()) {
-            String host = blockDesc.getDataNodeIp(hostId);
-            TScanRangeLocation scanRangeLocation = new TScanRangeLocation(new TNetworkAddress(host, -1));
-            scanRangeLocations.addToLocations(scanRangeLocation);
-        }
+        scanRangeLocations.setLocations(locations);
 
         result.add(scanRangeLocations);
     }
@@ -134,7 +145,8 @@ public class RemoteScanRangeLocations {
         scanRangeLocations.setScan_range(scanRange);
 
         // TODO: get block info
-        TScanRangeLocation scanRangeLocation = new TScanRangeLocation(new TNetworkAddress("-1", -1));
+        TScanRangeLocation scanRangeLocation = hostToLocation.computeIfAbsent("-1",
+                host -> new TScanRangeLocation(new TNetworkAddress(host, -1)));
         scanRangeLocations.addToLocations(scanRangeLocation);
 
         result.add(scanRangeLocations);
@@ -168,8 +180,10 @@ public class RemoteScanRangeLocations {
                     if (fileDesc.getLength() == 0) {
                         continue;
                     }
+                    TTextFileDesc textFileDesc = fileDesc.getTextFileFormatDesc().toThrift();
                     for (RemoteFileBlockDesc blockDesc : fileDesc.getBlockDescs()) {
-                        addScanRangeLocations(partitionInfos.get(i).getId(), partitions.get(i), fileDesc, blockDesc);
+                        addScanRangeLocations(partitionInfos.get(i).getId(), partitions.get(i), fileDesc,
+                                textFileDesc, blockDesc);
                         LOG.debug("Add scan range success. partition: {}, file: {}, block: {}-{}",
                                 partitions.get(i).getFullPath(), fileDesc.getFileName(), blockDesc.getOffset(),
                                 blockDesc.getLength());
@@ -204,6 +218,7 @@ public class RemoteScanRangeLocations {
             throw new StarRocksPlannerException(message, ErrorType.INTERNAL_ERROR);
         }
 
+        hostToLocation.clear();
         LOG.debug("Get {} scan range locations cost: {} ms",
                 getScanRangeLocationsSize(), (System.currentTimeMillis() - start));
     }
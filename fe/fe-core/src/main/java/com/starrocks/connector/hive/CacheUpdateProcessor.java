@@ -8,6 +8,7 @@ import com.starrocks.catalog.Column;
 import com.starrocks.catalog.HiveMetaStoreTable;
 import com.starrocks.catalog.HiveTable;
 import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
 import com.starrocks.connector.CachingRemoteFileIO;
 import com.starrocks.connector.RemoteFileIO;
 import com.starrocks.connector.RemotePathKey;
@@ -17,6 +18,7 @@ import org.apache.hadoop.hive.metastore.api.NotificationEventResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,6 +47,12 @@ public class CacheUpdateProcessor {
     // Record the latest synced event id when processing hive events
     private long lastSyncedEventId = -1;
 
+    // Whether the persisted cache snapshot has been loaded, it is only loaded once by the events processor
+    private boolean snapshotLoaded = false;
+    // Whether the cache restored from snapshot has not been validated by the events since the snapshot
+    private boolean validatingSnapshot = false;
+    private long lastSnapshotTimeMs = System.currentTimeMillis();
+
     public CacheUpdateProcessor(String catalogName,
                                 IHiveMetastore metastore,
                                 RemoteFileIO remoteFileIO,
@@ -180,22 +188,20 @@ public class CacheUpdateProcessor {
     }
 
     public void invalidateTable(String dbName, String tableName, String originLocation) {
-        String tableLocation;
-        if (!Strings.isNullOrEmpty(originLocation)) {
-            tableLocation = originLocation;
-        } else {
+        String tableLocation = originLocation;
+        if (Strings.isNullOrEmpty(tableLocation)) {
             LOG.warn("table [{}.{}] origin location is null", dbName, tableName);
             try {
                 tableLocation = ((HiveMetaStoreTable) metastore.getTable(dbName, tableName)).getTableLocation();
             } catch (Exception e) {
-                LOG.error("Can't get table location from cache or hive metastore. ignore it");
-                return;
+                // the table restored from the snapshot is not cached and may have been dropped in hive metastore
+                LOG.error("Can't get table location from cache or hive metastore. ignore the remote files of it");
             }
         }
 
         metastore.invalidateTable(dbName, tableName);
 
-        if (remoteFileIO.isPresent()) {
+        if (remoteFileIO.isPresent() && !Strings.isNullOrEmpty(tableLocation)) {
             refreshRemoteFiles(tableLocation, Operator.DROP, Lists.newArrayList());
         }
     }
@@ -217,6 +223,10 @@ public class CacheUpdateProcessor {
         }
     }
 
+    public long getLastSyncedEventId() {
+        return lastSyncedEventId;
+    }
+
     public void setLastSyncedEventId(long lastSyncedEventId) {
         this.lastSyncedEventId = lastSyncedEventId;
     }
@@ -232,9 +242,80 @@ public class CacheUpdateProcessor {
         long currentEventId = metastore.getCurrentEventId();
         if (currentEventId == lastSyncedEventId) {
             LOG.info("Event id not updated when pulling events on catalog [{}]", catalogName);
+            validatingSnapshot = false;
+            return null;
+        }
+        if (!validatingSnapshot) {
+            return ((CachingHiveMetastore) metastore).getNextEventResponse(lastSyncedEventId, catalogName, getAllEvents);
+        }
+
+        // The events since the snapshot may have been cleaned by hive metastore,
+        // the restored cache can't be validated in this case.
+        if (currentEventId < lastSyncedEventId) {
+            discardSnapshot(catalogName, currentEventId);
             return null;
         }
-        return ((CachingHiveMetastore) metastore).getNextEventResponse(lastSyncedEventId, catalogName, getAllEvents);
+        NotificationEventResponse response;
+        try {
+            response = ((CachingHiveMetastore) metastore).getNextEventResponse(lastSyncedEventId, catalogName,
+                    getAllEvents);
+        } catch (MetastoreNotificationFetchException e) {
+            discardSnapshot(catalogName, currentEventId);
+            throw e;
+        }
+        if (response != null && !response.getEvents().isEmpty() &&
+                response.getEvents().get(0).getEventId() > lastSyncedEventId + 1) {
+            discardSnapshot(catalogName, currentEventId);
+            return null;
+        }
+        validatingSnapshot = false;
+        return response;
     }
-    
+
+    private void discardSnapshot(String catalogName, long currentEventId) {
+        LOG.warn("Events since {} are missing on catalog [{}], discard the hive metastore cache restored from snapshot",
+                lastSyncedEventId, catalogName);
+        metastore.invalidateAll();
+        lastSyncedEventId = currentEventId;
+        validatingSnapshot = false;
+    }
+
+    /**
+     * Restore the cache from the persisted snapshot, and replay the hms events from the snapshot.
+     * Only called by the events processor before it pulls events for the first time.
+     */
+    public void loadCacheSnapshot() {
+        if (snapshotLoaded) {
+            return;
+        }
+        snapshotLoaded = true;
+        if (!Config.enable_hive_metastore_cache_persistence || !(metastore instanceof CachingHiveMetastore)) {
+            return;
+        }
+        HiveMetastoreCacheSnapshot snapshot = HiveMetastoreCacheSnapshot.load(catalogName);
+        // nothing to do if the events have been synced without the snapshot
+        if (snapshot == null || lastSyncedEventId != -1) {
+            return;
+        }
+        snapshot.restore((CachingHiveMetastore) metastore);
+        lastSyncedEventId = snapshot.getEventId();
+        validatingSnapshot = true;
+    }
+
+    public void saveCacheSnapshotIfNecessary() {
+        if (!Config.enable_hive_metastore_cache_persistence || !(metastore instanceof CachingHiveMetastore)
+                || validatingSnapshot || lastSyncedEventId == -1) {
+            return;
+        }
+        if (System.currentTimeMillis() - lastSnapshotTimeMs < Config.hive_metastore_cache_persist_interval_s * 1000) {
+            return;
+        }
+        lastSnapshotTimeMs = System.currentTimeMillis();
+        try {
+            HiveMetastoreCacheSnapshot.create((CachingHiveMetastore) metastore, lastSyncedEventId).save(catalogName);
+        } catch (IOException e) {
+            LOG.warn("Failed to save hive metastore cache snapshot on catalog [{}]", catalogName, e);
+        }
+    }
+
 }
@@ -6,6 +6,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -76,8 +77,24 @@ public class CachingHiveMetastore implements IHiveMetastore {
         return new CachingHiveMetastore(metastore, executor, expireAfterWrite, refreshInterval, maxSize, enableListNamesCache);
     }
 
+    public static CachingHiveMetastore createCatalogLevelInstance(IHiveMetastore metastore, Executor executor,
+                                                                  long expireAfterWrite, long refreshInterval,
+                                                                  long maxSize, long maxBytes,
+                                                                  boolean enableListNamesCache) {
+        return new CachingHiveMetastore(metastore, executor, expireAfterWrite, refreshInterval, maxSize, maxBytes,
+                enableListNamesCache);
+    }
+
     protected CachingHiveMetastore(IHiveMetastore metastore, Executor executor, long expireAfterWriteSec,
                                    long refreshIntervalSec, long maxSize, boolean enableListNamesCache) {
+        this(metastore, executor, expireAfterWriteSec, refreshIntervalSec, maxSize, 0, enableListNamesCache);
+    }
+
+    // The partition caches are bounded by the estimated bytes of entries if maxBytes is positive,
+    // tables with lots of partitions could not evict all the other tables in this way.
+    protected CachingHiveMetastore(IHiveMetastore metastore, Executor executor, long expireAfterWriteSec,
+                                   long refreshIntervalSec, long maxSize, long maxBytes,
+                                   boolean enableListNamesCache) {
         this.metastore = metastore;
 
         // The list names interface of hive metastore latency is very low, so we default to pull the latest every time.
@@ -103,7 +120,8 @@ public class CachingHiveMetastore implements IHiveMetastore {
         tableCache = newCacheBuilder(expireAfterWriteSec, refreshIntervalSec, maxSize)
                 .build(asyncReloading(CacheLoader.from(this::loadTable), executor));
 
-        partitionCache = newCacheBuilder(expireAfterWriteSec, NEVER_REFRESH, maxSize)
+        partitionCache = newCacheBuilder(expireAfterWriteSec, NEVER_REFRESH, maxSize, maxBytes,
+                        CachingHiveMetastore::estimatePartitionBytes)
                 .build(asyncReloading(new CacheLoader<HivePartitionName, Partition>() {
                     @Override
                     public Partition load(@NotNull HivePartitionName key) {
@@ -120,7 +138,8 @@ public class CachingHiveMetastore implements IHiveMetastore {
         tableStatsCache = newCacheBuilder(expireAfterWriteSec, refreshIntervalSec, maxSize)
                 .build(asyncReloading(CacheLoader.from(this::loadTableStatistics), executor));
 
-        partitionStatsCache = newCacheBuilder(expireAfterWriteSec, NEVER_REFRESH, maxSize)
+        partitionStatsCache = newCacheBuilder(expireAfterWriteSec, NEVER_REFRESH, maxSize, maxBytes,
+                        CachingHiveMetastore::estimatePartitionStatsBytes)
                 .build(asyncReloading(new CacheLoader<HivePartitionName, HivePartitionStats>() {
                     @Override
                     public HivePartitionStats load(@NotNull HivePartitionName key) {
@@ -136,6 +155,23 @@ public class CachingHiveMetastore implements IHiveMetastore {
     }
 
     private static CacheBuilder<Object, Object> newCacheBuilder(long expiresAfterWriteSec, long refreshSec, long maximumSize) {
+        CacheBuilder<Object, Object> cacheBuilder = newCacheBuilder(expiresAfterWriteSec, refreshSec);
+        cacheBuilder.maximumSize(maximumSize);
+        return cacheBuilder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheBuilder<K, V> newCacheBuilder(long expiresAfterWriteSec, long refreshSec,
+                                                             long maximumSize, long maximumBytes,
+                                                             Weigher<K, V> weigher) {
+        if (maximumBytes <= 0) {
+            return (CacheBuilder<K, V>) (CacheBuilder<?, ?>) newCacheBuilder(expiresAfterWriteSec, refreshSec,
+                    maximumSize);
+        }
+        return newCacheBuilder(expiresAfterWriteSec, refreshSec).maximumWeight(maximumBytes).weigher(weigher);
+    }
+
+    private static CacheBuilder<Object, Object> newCacheBuilder(long expiresAfterWriteSec, long refreshSec) {
         CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
         if (expiresAfterWriteSec >= 0) {
             cacheBuilder.expireAfterWrite(expiresAfterWriteSec, SECONDS);
@@ -144,11 +180,33 @@ public class CachingHiveMetastore implements IHiveMetastore {
         if (refreshSec > 0 && expiresAfterWriteSec > refreshSec) {
             cacheBuilder.refreshAfterWrite(refreshSec, SECONDS);
         }
-
-        cacheBuilder.maximumSize(maximumSize);
         return cacheBuilder;
     }
 
+    // Estimated memory of partition in bytes, only used to weigh the cache entries
+    private static int estimatePartitionBytes(HivePartitionName name, Partition partition) {
+        long bytes = 128 + estimateStringBytes(name.getPartitionNames().orElse(""))
+                + estimateStringBytes(partition.getFullPath());
+        if (partition.getParameters() != null) {
+            for (Map.Entry<String, String> entry : partition.getParameters().entrySet()) {
+                bytes += 32 + estimateStringBytes(entry.getKey()) + estimateStringBytes(entry.getValue());
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int estimatePartitionStatsBytes(HivePartitionName name, HivePartitionStats stats) {
+        long bytes = 128 + estimateStringBytes(name.getPartitionNames().orElse(""));
+        for (String column : stats.getColumnStats().keySet()) {
+            bytes += 128 + estimateStringBytes(column);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long estimateStringBytes(String str) {
+        return str == null ? 0 : 40 + 2L * str.length();
+    }
+
     public List<String> getAllDatabaseNames() {
         return get(databaseNamesCache, "");
     }
@@ -384,6 +442,7 @@ public class CachingHiveMetastore implements IHiveMetastore {
     public synchronized void invalidateTable(String dbName, String tableName) {
         HiveTableName hiveTableName = HiveTableName.of(dbName, tableName);
         tableCache.invalidate(hiveTableName);
+        partitionKeysCache.invalidate(hiveTableName);
         tableStatsCache.invalidate(hiveTableName);
         List<HivePartitionName> presentPartitions = getPresentPartitionNames(partitionCache, dbName, tableName);
         presentPartitions.forEach(p -> partitionCache.invalidate(p));
@@ -396,8 +455,29 @@ public class CachingHiveMetastore implements IHiveMetastore {
         partitionStatsCache.invalidate(partitionName);
     }
 
+    public Map<HiveTableName, List<String>> getPresentPartitionKeys() {
+        return ImmutableMap.copyOf(partitionKeysCache.asMap());
+    }
+
+    public Map<HivePartitionName, Partition> getPresentPartitions() {
+        return ImmutableMap.copyOf(partitionCache.asMap());
+    }
+
+    // Entries loaded after the given ones are newer, so they are not overwritten
+    public void putPartitionKeysIfAbsent(Map<HiveTableName, List<String>> partitionKeys) {
+        partitionKeys.forEach(partitionKeysCache.asMap()::putIfAbsent);
+    }
+
+    public void putPartitionsIfAbsent(Map<HivePartitionName, Partition> partitions) {
+        partitions.forEach(partitionCache.asMap()::putIfAbsent);
+    }
+
+    // The partition keys and partitions of a table restored from the snapshot are cached without the table itself,
+    // the events of the table must not be skipped either.
     public boolean isTablePresent(HiveTableName tableName) {
-        return tableCache.getIfPresent(tableName) != null;
+        return tableCache.getIfPresent(tableName) != null || partitionKeysCache.getIfPresent(tableName) != null ||
+                partitionCache.getIfPresent(HivePartitionName.of(tableName.getDatabaseName(), tableName.getTableName(),
+                        Lists.newArrayList())) != null;
     }
 
     public boolean isPartitionPresent(HivePartitionName hivePartitionName) {
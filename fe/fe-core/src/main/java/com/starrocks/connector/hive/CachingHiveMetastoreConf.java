@@ -10,6 +10,7 @@ public class CachingHiveMetastoreConf {
     private final long cacheTtlSec;
     private final long cacheRefreshIntervalSec;
     private final long cacheMaxNum = 100000;
+    private final long cacheMaxBytes;
     private final int perQueryCacheMaxNum = 10000;
     private final int cacheRefreshThreadMaxNum = 20;
 
@@ -20,6 +21,8 @@ public class CachingHiveMetastoreConf {
                 String.valueOf(Config.hive_meta_cache_ttl_s)));
         this.cacheRefreshIntervalSec = Long.parseLong(conf.getOrDefault("metastore_cache_refresh_interval_sec",
                 String.valueOf(Config.hive_meta_cache_refresh_interval_s)));
+        this.cacheMaxBytes = Long.parseLong(conf.getOrDefault("metastore_cache_max_bytes",
+                String.valueOf(Config.hive_meta_cache_max_bytes)));
         this.enableListNamesCache = Boolean.parseBoolean(conf.getOrDefault("enable_cache_list_names",
                 "false"));
     }
@@ -36,6 +39,10 @@ public class CachingHiveMetastoreConf {
         return cacheMaxNum;
     }
 
+    public long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
     public int getCacheRefreshThreadMaxNum() {
         return cacheRefreshThreadMaxNum;
     }
@@ -0,0 +1,156 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.connector.hive;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.Config;
+import com.starrocks.persist.gson.GsonUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the partitions cached by {@link CachingHiveMetastore}, persisted under meta_dir.
+ * Listing the partitions of a table with lots of partitions from hive metastore is slow, the snapshot lets
+ * the cache be warm right after FE restarts. The snapshot records the last synced hms event id when it is
+ * taken, the events after it are replayed on the restored cache, so the stale entries are refreshed or
+ * invalidated as usual.
+ */
+public class HiveMetastoreCacheSnapshot {
+    private static final Logger LOG = LogManager.getLogger(HiveMetastoreCacheSnapshot.class);
+
+    private static final String SNAPSHOT_DIR = "/hive_metastore_cache/";
+
+    @SerializedName(value = "eventId")
+    private long eventId;
+
+    @SerializedName(value = "partitionKeys")
+    private List<PartitionKeys> partitionKeys = Lists.newArrayList();
+
+    @SerializedName(value = "partitions")
+    private List<PartitionEntry> partitions = Lists.newArrayList();
+
+    private static class PartitionKeys {
+        @SerializedName(value = "db")
+        private String dbName;
+        @SerializedName(value = "table")
+        private String tableName;
+        @SerializedName(value = "keys")
+        private List<String> keys;
+    }
+
+    private static class PartitionEntry {
+        @SerializedName(value = "db")
+        private String dbName;
+        @SerializedName(value = "table")
+        private String tableName;
+        // empty for the partition of unpartitioned table
+        @SerializedName(value = "values")
+        private List<String> partitionValues;
+        // null if the partition is loaded by the values
+        @SerializedName(value = "name")
+        private String partitionName;
+        @SerializedName(value = "partition")
+        private Partition partition;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    // The event id must be taken before the cache entries, replaying events again is harmless
+    public static HiveMetastoreCacheSnapshot create(CachingHiveMetastore metastore, long eventId) {
+        HiveMetastoreCacheSnapshot snapshot = new HiveMetastoreCacheSnapshot();
+        snapshot.eventId = eventId;
+        for (Map.Entry<HiveTableName, List<String>> entry : metastore.getPresentPartitionKeys().entrySet()) {
+            PartitionKeys keys = new PartitionKeys();
+            keys.dbName = entry.getKey().getDatabaseName();
+            keys.tableName = entry.getKey().getTableName();
+            keys.keys = entry.getValue();
+            snapshot.partitionKeys.add(keys);
+        }
+        for (Map.Entry<HivePartitionName, Partition> entry : metastore.getPresentPartitions().entrySet()) {
+            PartitionEntry partition = new PartitionEntry();
+            partition.dbName = entry.getKey().getDatabaseName();
+            partition.tableName = entry.getKey().getTableName();
+            partition.partitionValues = entry.getKey().getPartitionValues();
+            partition.partitionName = entry.getKey().getPartitionNames().orElse(null);
+            partition.partition = entry.getValue();
+            snapshot.partitions.add(partition);
+        }
+        return snapshot;
+    }
+
+    public void restore(CachingHiveMetastore metastore) {
+        Map<HiveTableName, List<String>> keys = Maps.newHashMap();
+        for (PartitionKeys entry : partitionKeys) {
+            keys.put(HiveTableName.of(entry.dbName, entry.tableName), entry.keys);
+        }
+        metastore.putPartitionKeysIfAbsent(keys);
+
+        Map<HivePartitionName, Partition> partitionMap = Maps.newHashMap();
+        for (PartitionEntry entry : partitions) {
+            HivePartitionName name = entry.partitionName == null ?
+                    HivePartitionName.of(entry.dbName, entry.tableName, entry.partitionValues) :
+                    HivePartitionName.of(entry.dbName, entry.tableName, entry.partitionName);
+            partitionMap.put(name, entry.partition);
+        }
+        metastore.putPartitionsIfAbsent(partitionMap);
+    }
+
+    public void save(String catalogName) throws IOException {
+        File file = getSnapshotFile(catalogName);
+        File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create directory " + dir);
+        }
+        // write to a temporary file first, so a crash never leaves a broken snapshot
+        File tmpFile = new File(dir, file.getName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+            GsonUtils.GSON.toJson(this, writer);
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        LOG.info("Saved {} partitions of hive metastore cache on catalog [{}] at event id {}",
+                partitions.size(), catalogName, eventId);
+    }
+
+    // Return null if there is no valid snapshot of the catalog
+    public static HiveMetastoreCacheSnapshot load(String catalogName) {
+        File file = getSnapshotFile(catalogName);
+        if (!file.exists()) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            HiveMetastoreCacheSnapshot snapshot = GsonUtils.GSON.fromJson(reader, HiveMetastoreCacheSnapshot.class);
+            LOG.info("Loaded {} partitions of hive metastore cache on catalog [{}] at event id {}",
+                    snapshot.partitions.size(), catalogName, snapshot.eventId);
+            return snapshot;
+        } catch (Exception e) {
+            LOG.warn("Failed to load hive metastore cache snapshot on catalog [{}], ignore it", catalogName, e);
+            return null;
+        }
+    }
+
+    public static void delete(String catalogName) {
+        File file = getSnapshotFile(catalogName);
+        if (file.exists() && !file.delete()) {
+            LOG.warn("Failed to delete hive metastore cache snapshot {}", file);
+        }
+    }
+
+    private static File getSnapshotFile(String catalogName) {
+        return new File(Config.meta_dir + SNAPSHOT_DIR + catalogName + ".json");
+    }
+}
@@ -2,6 +2,8 @@
 
 package com.starrocks.connector.hive;
 
+import com.google.gson.annotations.SerializedName;
+
 import java.util.Map;
 import java.util.Objects;
 
@@ -11,10 +13,15 @@ import java.util.Objects;
  * is to reduce repeated calls to the hive metastore rpc interface at each stage.
  */
 public class Partition {
+    @SerializedName(value = "parameters")
     private final Map<String, String> parameters;
+    @SerializedName(value = "inputFormat")
     private final RemoteFileInputFormat inputFormat;
+    @SerializedName(value = "textFileFormatDesc")
     private final TextFileFormatDesc textFileFormatDesc;
+    @SerializedName(value = "fullPath")
     private final String fullPath;
+    @SerializedName(value = "isSplittable")
     private final boolean isSplittable;
 
     public Partition(Map<String, String> parameters,
@@ -2,19 +2,24 @@
 
 package com.starrocks.connector.hive;
 
+import com.google.gson.annotations.SerializedName;
 import com.starrocks.thrift.TTextFileDesc;
 
 public class TextFileFormatDesc {
 
+    @SerializedName(value = "fieldDelim")
     private final String fieldDelim;
 
+    @SerializedName(value = "lineDelim")
     private final String lineDelim;
 
     // Control hive array's element delimiter.
+    @SerializedName(value = "collectionDelim")
     private final String collectionDelim;
 
     // mapkey_delimiter is the separator between key and value in map.
     // For example, {"smith": age} mapkey_delimiter is ':'.
+    @SerializedName(value = "mapkeyDelim")
     private final String mapkeyDelim;
 
     public TextFileFormatDesc(String fieldDelim, String lineDelim, String collectionDelim, String mapkeyDelim) {
@@ -207,11 +207,18 @@ public class MetastoreEventsProcessor extends LeaderDaemon {
         for (String catalogName : catalogs) {
             List<NotificationEvent> events = Collections.emptyList();
             try {
+                CacheUpdateProcessor updateProcessor = cacheUpdateProcessors.get(catalogName);
+                if (updateProcessor != null) {
+                    updateProcessor.loadCacheSnapshot();
+                }
                 events = getNextHMSEvents(catalogName);
                 if (!events.isEmpty()) {
                     LOG.info("Events size are {} on catalog [{}]", events.size(), catalogName);
                     processEvents(events, catalogName);
                 }
+                if (updateProcessor != null) {
+                    updateProcessor.saveCacheSnapshotIfNecessary();
+                }
             } catch (MetastoreNotificationFetchException e) {
                 LOG.error("Failed to fetch hms events on {}. msg: ", catalogName, e);
             } catch (Exception ex) {
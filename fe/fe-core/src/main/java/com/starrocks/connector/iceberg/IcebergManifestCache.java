@@ -0,0 +1,234 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.connector.iceberg;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import org.apache.iceberg.BaseFileScanTask;
+import org.apache.iceberg.CombinedScanTask;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.PartitionSpecParser;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.SchemaParser;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableProperties;
+import org.apache.iceberg.expressions.Evaluator;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.expressions.InclusiveMetricsEvaluator;
+import org.apache.iceberg.expressions.ManifestEvaluator;
+import org.apache.iceberg.expressions.Projections;
+import org.apache.iceberg.expressions.ResidualEvaluator;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.FileIO;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.iceberg.util.TableScanUtil;
+import org.apache.iceberg.util.ThreadPools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Cache of the data files parsed from iceberg manifests, shared by all the queries on all the iceberg tables.
+ * Manifest files are immutable and a new snapshot of the table mostly reuses the manifests of the previous one,
+ * so planning the scan of a new snapshot only reads the newly added manifests, in parallel by the iceberg worker
+ * pool. The cached data files keep
+ * the column bounds, which are used to filter files together with the partition summaries of manifests.
+ * Snapshots with delete manifests are planned by iceberg, because the delete files index is not exposed.
+ */
+public class IcebergManifestCache {
+    private static final IcebergManifestCache INSTANCE = new IcebergManifestCache(
+            Config.iceberg_manifest_cache_max_bytes);
+
+    private static final DeleteFile[] NO_DELETES = new DeleteFile[0];
+
+    // manifest path -> live data files in the manifest
+    private final Cache<String, List<DataFile>> cache;
+
+    public IcebergManifestCache(long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String path, List<DataFile> files) -> estimateDataFilesBytes(path, files))
+                .build();
+    }
+
+    public static IcebergManifestCache getInstance() {
+        return INSTANCE;
+    }
+
+    public CloseableIterable<CombinedScanTask> planTasks(Table table, Snapshot snapshot, Expression predicate) {
+        FileIO io = table.io();
+        if (!snapshot.deleteManifests(io).isEmpty()) {
+            return IcebergUtil.getTableScan(table, snapshot, predicate).planTasks();
+        }
+
+        Expression filter = predicate == null ? Expressions.alwaysTrue() : predicate;
+        Schema schema = snapshot.schemaId() != null ? table.schemas().get(snapshot.schemaId()) : table.schema();
+        String schemaString = SchemaParser.toJson(schema);
+        InclusiveMetricsEvaluator metricsEvaluator = new InclusiveMetricsEvaluator(schema, filter, true);
+        Map<Integer, PartitionSpec> specs = table.specs();
+        Map<Integer, SpecFilter> specFilters = Maps.newHashMap();
+
+        List<ManifestFile> manifests = Lists.newArrayList();
+        for (ManifestFile manifest : snapshot.dataManifests(io)) {
+            SpecFilter specFilter = specFilters.computeIfAbsent(manifest.partitionSpecId(),
+                    specId -> new SpecFilter(specs.get(specId), filter));
+            if (specFilter.manifestEvaluator.eval(manifest)) {
+                manifests.add(manifest);
+            }
+        }
+        Map<String, List<DataFile>> manifestDataFiles = getDataFiles(manifests, io, specs);
+
+        List<FileScanTask> tasks = Lists.newArrayList();
+        for (ManifestFile manifest : manifests) {
+            SpecFilter specFilter = specFilters.get(manifest.partitionSpecId());
+            for (DataFile file : manifestDataFiles.get(manifest.path())) {
+                if (!specFilter.partitionEvaluator.eval(file.partition()) || !metricsEvaluator.eval(file)) {
+                    continue;
+                }
+                tasks.add(new BaseFileScanTask(file, NO_DELETES, schemaString, specFilter.specString,
+                        specFilter.residualEvaluator));
+            }
+        }
+
+        Map<String, String> properties = table.properties();
+        long splitSize = PropertyUtil.propertyAsLong(properties, TableProperties.SPLIT_SIZE,
+                TableProperties.SPLIT_SIZE_DEFAULT);
+        int lookback = PropertyUtil.propertyAsInt(properties, TableProperties.SPLIT_LOOKBACK,
+                TableProperties.SPLIT_LOOKBACK_DEFAULT);
+        long openFileCost = PropertyUtil.propertyAsLong(properties, TableProperties.SPLIT_OPEN_FILE_COST,
+                TableProperties.SPLIT_OPEN_FILE_COST_DEFAULT);
+        CloseableIterable<FileScanTask> splitFiles = TableScanUtil.splitFiles(
+                CloseableIterable.withNoopClose(tasks), splitSize);
+        return TableScanUtil.planTasks(splitFiles, splitSize, lookback, openFileCost);
+    }
+
+    // manifest path -> live data files of the manifests, the manifests not cached are read in parallel
+    private Map<String, List<DataFile>> getDataFiles(List<ManifestFile> manifests, FileIO io,
+                                                     Map<Integer, PartitionSpec> specs) {
+        Map<String, List<DataFile>> dataFiles = Maps.newHashMap();
+        List<ManifestFile> missingManifests = Lists.newArrayList();
+        for (ManifestFile manifest : manifests) {
+            List<DataFile> files = cache.getIfPresent(manifest.path());
+            if (files != null) {
+                dataFiles.put(manifest.path(), files);
+            } else if (!dataFiles.containsKey(manifest.path())) {
+                dataFiles.put(manifest.path(), null);
+                missingManifests.add(manifest);
+            }
+        }
+
+        if (missingManifests.size() == 1) {
+            ManifestFile manifest = missingManifests.get(0);
+            List<DataFile> files = readDataFiles(manifest, io, specs);
+            cache.put(manifest.path(), files);
+            dataFiles.put(manifest.path(), files);
+        } else if (!missingManifests.isEmpty()) {
+            ExecutorService workerPool = ThreadPools.getWorkerPool();
+            List<Future<List<DataFile>>> futures = Lists.newArrayList();
+            for (ManifestFile manifest : missingManifests) {
+                futures.add(workerPool.submit(() -> readDataFiles(manifest, io, specs)));
+            }
+            try {
+                for (int i = 0; i < missingManifests.size(); i++) {
+                    String path = missingManifests.get(i).path();
+                    List<DataFile> files = futures.get(i).get();
+                    cache.put(path, files);
+                    dataFiles.put(path, files);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StarRocksIcebergException("Interrupted while reading manifests", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof StarRocksIcebergException) {
+                    throw (StarRocksIcebergException) e.getCause();
+                }
+                throw new StarRocksIcebergException("Failed to read manifests", e.getCause());
+            } finally {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+        return dataFiles;
+    }
+
+    private static List<DataFile> readDataFiles(ManifestFile manifest, FileIO io, Map<Integer, PartitionSpec> specs) {
+        ImmutableList.Builder<DataFile> files = ImmutableList.builder();
+        try (ManifestReader<DataFile> reader = ManifestFiles.read(manifest, io, specs)) {
+            for (DataFile file : reader) {
+                // the reader reuses the file object, copy it with the column stats
+                files.add(file.copy());
+            }
+        } catch (IOException e) {
+            throw new StarRocksIcebergException(String.format("Failed to read manifest %s, msg: %s",
+                    manifest.path(), e.getMessage()));
+        }
+        return files.build();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Estimated memory of the data files in bytes, only used to weigh the cache entries
+    private static int estimateDataFilesBytes(String path, List<DataFile> files) {
+        long bytes = 64 + 2L * path.length();
+        for (DataFile file : files) {
+            bytes += 256 + 2L * file.path().length();
+            bytes += estimateBoundsBytes(file.lowerBounds()) + estimateBoundsBytes(file.upperBounds());
+            bytes += estimateCountsBytes(file.columnSizes()) + estimateCountsBytes(file.valueCounts())
+                    + estimateCountsBytes(file.nullValueCounts()) + estimateCountsBytes(file.nanValueCounts());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long estimateBoundsBytes(Map<Integer, ByteBuffer> bounds) {
+        if (bounds == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (ByteBuffer bound : bounds.values()) {
+            bytes += 64 + (bound == null ? 0 : bound.remaining());
+        }
+        return bytes;
+    }
+
+    private static long estimateCountsBytes(Map<Integer, Long> counts) {
+        return counts == null ? 0 : 48L * counts.size();
+    }
+
+    // Filters of the files written by one partition spec
+    private static class SpecFilter {
+        private final String specString;
+        private final ManifestEvaluator manifestEvaluator;
+        private final Evaluator partitionEvaluator;
+        private final ResidualEvaluator residualEvaluator;
+
+        SpecFilter(PartitionSpec spec, Expression filter) {
+            Expression partitionFilter = Projections.inclusive(spec, true).project(filter);
+            this.specString = PartitionSpecParser.toJson(spec);
+            this.manifestEvaluator = ManifestEvaluator.forPartitionFilter(partitionFilter, spec, true);
+            this.partitionEvaluator = new Evaluator(spec.partitionType(), partitionFilter, true);
+            this.residualEvaluator = ResidualEvaluator.of(spec, filter, true);
+        }
+    }
+}
@@ -15,11 +15,13 @@ import com.starrocks.catalog.ScalarType;
 import com.starrocks.catalog.StructField;
 import com.starrocks.catalog.StructType;
 import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.connector.hive.RemoteFileInputFormat;
 import com.starrocks.connector.iceberg.glue.IcebergGlueCatalog;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.iceberg.BaseTable;
+import org.apache.iceberg.CombinedScanTask;
 import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.PartitionField;
@@ -31,6 +33,7 @@ import org.apache.iceberg.TableScan;
 import org.apache.iceberg.catalog.TableIdentifier;
 import org.apache.iceberg.exceptions.NoSuchTableException;
 import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.types.Types;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -162,6 +165,24 @@ public class IcebergUtil {
         return tableScan;
     }
 
+    /**
+     * Plan the scan tasks for given table and snapshot, filter with given iceberg predicates.
+     * The data files are read from the manifest cache if it is enabled.
+     *
+     * @param table
+     * @param snapshot
+     * @param icebergPredicate
+     * @return
+     */
+    public static CloseableIterable<CombinedScanTask> planTasks(Table table,
+                                                                Snapshot snapshot,
+                                                                Expression icebergPredicate) {
+        if (Config.enable_iceberg_manifest_cache) {
+            return IcebergManifestCache.getInstance().planTasks(table, snapshot, icebergPredicate);
+        }
+        return getTableScan(table, snapshot, icebergPredicate).planTasks();
+    }
+
     public static void refreshTable(Table table) {
         try {
             if (table instanceof BaseTable) {
@@ -14,7 +14,6 @@ import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.PartitionField;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.Table;
-import org.apache.iceberg.TableScan;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.types.Comparators;
 import org.apache.iceberg.types.Type;
@@ -211,11 +210,9 @@ public class IcebergTableStatisticCalculator {
                 .filter(column -> !identityPartitionIds.contains(column.fieldId()) && column.type().isPrimitiveType())
                 .collect(toImmutableList());
 
-        TableScan tableScan = IcebergUtil.getTableScan(icebergTable,
-                snapshot.get(), icebergPredicate);
-
         IcebergFileStats icebergFileStats = null;
-        for (CombinedScanTask combinedScanTask : tableScan.planTasks()) {
+        for (CombinedScanTask combinedScanTask : IcebergUtil.planTasks(icebergTable,
+                snapshot.get(), icebergPredicate)) {
             for (FileScanTask fileScanTask : combinedScanTask.files()) {
                 DataFile dataFile = fileScanTask.file();
                 // ignore this data file.
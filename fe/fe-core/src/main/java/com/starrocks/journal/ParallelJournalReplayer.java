@@ -0,0 +1,122 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.journal;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.persist.EditLog;
+import com.starrocks.persist.OperationType;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.TransactionState;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Replay the journals of different databases concurrently on non-leader frontends.
+ * Only the journals which touch the objects of one database are replayed concurrently, the journals of one
+ * database are replayed by the same thread in order. The other journals are barriers: all the journals
+ * submitted before must be replayed before replaying a barrier by the replayer thread, see
+ * {@link #waitSubmittedJournals()}.
+ * Most of the journals written during heavy load traffic are transaction states, so only the transaction
+ * states are replayed concurrently now.
+ */
+public class ParallelJournalReplayer {
+    // single thread executors, so the journals of one database are replayed in order
+    private final ThreadPoolExecutor[] executors;
+    private final List<Future<?>> submittedJournals = Lists.newArrayList();
+
+    public ParallelJournalReplayer(int numThreads) {
+        executors = new ThreadPoolExecutor[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            executors[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, Integer.MAX_VALUE,
+                    "journal-replayer-" + i, false);
+        }
+    }
+
+    public int getNumThreads() {
+        return executors.length;
+    }
+
+    /**
+     * Return the id of database whose objects are touched by the journal, or -1 if the journal must be
+     * replayed as a barrier.
+     */
+    public static long getReplayDbId(JournalEntity entity) {
+        switch (entity.getOpCode()) {
+            case OperationType.OP_UPSERT_TRANSACTION_STATE:
+                return ((TransactionState) entity.getData()).getDbId();
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Submit the journal to be replayed concurrently.
+     *
+     * @return false if the journal must be replayed by the caller after {@link #waitSubmittedJournals()}
+     */
+    public boolean submit(GlobalStateMgr globalStateMgr, JournalEntity entity) {
+        long dbId = getReplayDbId(entity);
+        if (dbId < 0) {
+            return false;
+        }
+        MetaContext metaContext = MetaContext.get();
+        ThreadPoolExecutor executor = executors[(int) (dbId % executors.length)];
+        submittedJournals.add(executor.submit(() -> {
+            if (metaContext != null) {
+                metaContext.setThreadLocalInfo();
+            }
+            EditLog.loadJournal(globalStateMgr, entity);
+            return null;
+        }));
+        return true;
+    }
+
+    public int getNumSubmittedJournals() {
+        return submittedJournals.size();
+    }
+
+    /**
+     * Wait until all the submitted journals are replayed. If any of them failed, a JournalInconsistentException
+     * caused by the first failure is thrown after all of them are done. The failure is always fatal like the
+     * failure of replaying journals one by one, because the journal cursor has moved past the failed journal and
+     * the journals after it may have been replayed.
+     */
+    public void waitSubmittedJournals() throws JournalInconsistentException, InterruptedException {
+        Throwable failure = null;
+        try {
+            for (Future<?> future : submittedJournals) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+        } finally {
+            submittedJournals.clear();
+        }
+
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof JournalInconsistentException) {
+            throw (JournalInconsistentException) failure;
+        }
+        JournalInconsistentException exception =
+                new JournalInconsistentException("failed to replay journals concurrently: " + failure.getMessage());
+        exception.initCause(failure);
+        throw exception;
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor executor : executors) {
+            executor.shutdown();
+        }
+    }
+}
@@ -21,6 +21,7 @@
 
 package com.starrocks.leader;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
@@ -48,6 +49,7 @@ import com.starrocks.common.FeConstants;
 import com.starrocks.common.InternalErrorCode;
 import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.Daemon;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.metric.GaugeMetric;
@@ -100,6 +102,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class ReportHandler extends Daemon {
     public enum ReportType {
@@ -113,17 +117,27 @@ public class ReportHandler extends Daemon {
 
     private static final Logger LOG = LogManager.getLogger(ReportHandler.class);
 
+    // The storage medium map is computed from all the partitions, so it is shared by the tablet reports
+    // handled within this interval, instead of being computed for each report.
+    private static final long STORAGE_MEDIUM_MAP_REUSE_MS = 10000L;
+
     private BlockingQueue<ReportTask> reportQueue = Queues.newLinkedBlockingQueue();
 
     private Map<ReportType, Map<Long, ReportTask>> pendingTaskMap = Maps.newHashMap();
 
+    // The reports of one backend are always handled by the same single thread executor to keep their order.
+    private final ExecutorService[] reportExecutors;
+
+    private static HashMap<Long, TStorageMedium> storageMediumMap = null;
+    private static long storageMediumMapUpdateTimeMs = 0;
+
     public ReportHandler() {
         super("ReportHandler");
         GaugeMetric<Long> gaugeQueueSize = new GaugeMetric<Long>(
                 "report_queue_size", MetricUnit.NOUNIT, "report queue size") {
             @Override
             public Long getValue() {
-                return (long) reportQueue.size();
+                return (long) getPendingTaskNum();
             }
         };
         MetricRepo.addMetric(gaugeQueueSize);
@@ -132,6 +146,19 @@ public class ReportHandler extends Daemon {
         pendingTaskMap.put(ReportType.TASK_REPORT, Maps.newHashMap());
         pendingTaskMap.put(ReportType.RESOURCE_GROUP_REPORT, Maps.newHashMap());
         pendingTaskMap.put(ReportType.RESOURCE_USAGE_REPORT, Maps.newHashMap());
+
+        int numExecutors = Math.max(1, Config.report_handler_thread_num);
+        reportExecutors = new ExecutorService[numExecutors];
+        for (int i = 0; i < numExecutors; i++) {
+            reportExecutors[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, Integer.MAX_VALUE,
+                    "report-handler-" + i, false);
+        }
+    }
+
+    private int getPendingTaskNum() {
+        synchronized (pendingTaskMap) {
+            return pendingTaskMap.values().stream().mapToInt(Map::size).sum();
+        }
     }
 
     public TMasterResult handleReport(TReportRequest request) throws TException {
@@ -233,7 +260,7 @@ public class ReportHandler extends Daemon {
         } catch (Exception e) {
             tStatus.setStatus_code(TStatusCode.INTERNAL_ERROR);
             List<String> errorMsgs = Lists.newArrayList();
-            errorMsgs.add("failed to put report task to queue. queue size: " + reportQueue.size());
+            errorMsgs.add("failed to put report task to queue. queue size: " + getPendingTaskNum());
             errorMsgs.add("err: " + e.getMessage());
             tStatus.setError_msgs(errorMsgs);
 
@@ -242,7 +269,7 @@ public class ReportHandler extends Daemon {
         }
 
         LOG.info("receive report from be {}. type: {}, current queue size: {}",
-                backend.getId(), reportType, reportQueue.size());
+                backend.getId(), reportType, getPendingTaskNum());
         return result;
     }
 
@@ -333,8 +360,7 @@ public class ReportHandler extends Daemon {
                 backendId, backendTablets.size(), backendReportVersion);
 
         // storage medium map
-        HashMap<Long, TStorageMedium> storageMediumMap =
-                GlobalStateMgr.getCurrentState().getPartitionIdToStorageMediumMap();
+        HashMap<Long, TStorageMedium> storageMediumMap = getStorageMediumMap();
 
         // db id -> tablet id
         ListMultimap<Long, Long> tabletSyncMap = ArrayListMultimap.create();
@@ -412,6 +438,20 @@ public class ReportHandler extends Daemon {
         LOG.info("tablet report from backend[{}] cost: {} ms", backendId, (end - start));
     }
 
+    // The returned map is shared by the concurrent tablet reports, so it must not be modified.
+    private static HashMap<Long, TStorageMedium> getStorageMediumMap() {
+        return getStorageMediumMap(System.currentTimeMillis());
+    }
+
+    @VisibleForTesting
+    static synchronized HashMap<Long, TStorageMedium> getStorageMediumMap(long currentMs) {
+        if (storageMediumMap == null || currentMs - storageMediumMapUpdateTimeMs > STORAGE_MEDIUM_MAP_REUSE_MS) {
+            storageMediumMap = GlobalStateMgr.getCurrentState().getPartitionIdToStorageMediumMap();
+            storageMediumMapUpdateTimeMs = currentMs;
+        }
+        return storageMediumMap;
+    }
+
     private static void taskReport(long backendId, Map<TTaskType, Set<Long>> runningTasks) {
         LOG.info("begin to handle task report from backend {}", backendId);
         long start = System.currentTimeMillis();
@@ -1352,22 +1392,51 @@ public class ReportHandler extends Daemon {
     @Override
     protected void runOneCycle() {
         while (true) {
-            ReportTask task = null;
             try {
-                task = reportQueue.take();
-                synchronized (pendingTaskMap) {
-                    // using the lastest task
-                    long beId = task.beId;
-                    task = pendingTaskMap.get(task.type).get(beId);
-                    if (task == null) {
-                        throw new Exception("pendingTaskMap not exists " + beId);
-                    }
-                    pendingTaskMap.get(task.type).remove(task.beId, task);
-                }
-                task.exec();
+                dispatchReport(reportQueue.take());
             } catch (Exception e) {
                 LOG.warn("got interupted exception when executing report", e);
             }
         }
     }
+
+    // the reports of one backend are always handled by the same single thread executor to keep their order
+    private void dispatchReport(ReportTask task) {
+        int index = (int) ((task.beId & Long.MAX_VALUE) % reportExecutors.length);
+        reportExecutors[index].submit(() -> execReportTask(task.type, task.beId));
+    }
+
+    @VisibleForTesting
+    void dispatchQueuedReports() {
+        ReportTask task;
+        while ((task = reportQueue.poll()) != null) {
+            dispatchReport(task);
+        }
+    }
+
+    @VisibleForTesting
+    void shutdownReportExecutors() throws InterruptedException {
+        for (ExecutorService executor : reportExecutors) {
+            executor.shutdown();
+        }
+        for (ExecutorService executor : reportExecutors) {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private void execReportTask(ReportType type, long beId) {
+        try {
+            ReportTask task;
+            synchronized (pendingTaskMap) {
+                // using the lastest task
+                task = pendingTaskMap.get(type).remove(beId);
+            }
+            if (task == null) {
+                throw new Exception("pendingTaskMap not exists " + beId);
+            }
+            task.exec();
+        } catch (Exception e) {
+            LOG.warn("got exception when executing report of backend {}", beId, e);
+        }
+    }
 }
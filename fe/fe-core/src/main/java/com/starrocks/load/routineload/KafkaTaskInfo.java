@@ -50,6 +50,9 @@ import java.util.UUID;
 public class KafkaTaskInfo extends RoutineLoadTaskInfo {
     private static final Logger LOG = LogManager.getLogger(KafkaTaskInfo.class);
 
+    // the max interval to schedule the task without new data in kafka
+    private static final long MAX_IDLE_SCHEDULE_INTERVAL_MS = 60000; // 60s
+
     private RoutineLoadManager routineLoadManager = GlobalStateMgr.getCurrentState().getRoutineLoadManager();
 
     // <partitionId, beginOffsetOfPartitionId>
@@ -59,6 +62,11 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
     // offset is the latest existing message offset + 1
     private Map<Integer, Long> latestPartOffset;
 
+    // the time to consume data of this task, only used if Config.routine_load_adaptive_batch_enable is true
+    private long consumeSecond = Config.routine_load_task_consume_second;
+    // the number of continuous times that this task is scheduled but there is no new data in kafka
+    private int idleScheduleTimes = 0;
+
     public KafkaTaskInfo(UUID id, long jobId, long taskScheduleIntervalMs, long timeToExecuteMs,
                          Map<Integer, Long> partitionIdToOffset) {
         super(id, jobId, taskScheduleIntervalMs, timeToExecuteMs);
@@ -69,6 +77,7 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         super(UUID.randomUUID(), kafkaTaskInfo.getJobId(),
                 kafkaTaskInfo.getTaskScheduleIntervalMs(), timeToExecuteMs, kafkaTaskInfo.getBeId());
         this.partitionIdToOffset = partitionIdToOffset;
+        this.consumeSecond = kafkaTaskInfo.consumeSecond;
     }
 
     public List<Integer> getPartitions() {
@@ -94,6 +103,7 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
             if (latestOffset != null) {
                 if (latestOffset > consumeOffset) {
                     this.latestPartOffset = latestOffsets;
+                    idleScheduleTimes = 0;
                     return true;
                 } else if (latestOffset < consumeOffset) {
                     throw new RoutineLoadPauseException(
@@ -102,9 +112,63 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
             }
         }
 
+        idleScheduleTimes++;
         return false;
     }
 
+    // park the task without new data in kafka, the schedule interval is doubled every time
+    // until MAX_IDLE_SCHEDULE_INTERVAL_MS, so that the idle partitions do not occupy the scheduler
+    @Override
+    public long getNextScheduleIntervalMs() {
+        if (!Config.routine_load_adaptive_batch_enable || idleScheduleTimes <= 1) {
+            return taskScheduleIntervalMs;
+        }
+        long maxIntervalMs = Math.max(taskScheduleIntervalMs, MAX_IDLE_SCHEDULE_INTERVAL_MS);
+        return Math.min(taskScheduleIntervalMs << Math.min(idleScheduleTimes - 1, 10), maxIntervalMs);
+    }
+
+    public long getConsumeSecond() {
+        return Config.routine_load_adaptive_batch_enable ? consumeSecond : Config.routine_load_task_consume_second;
+    }
+
+    @Override
+    public void adaptBatch(RoutineLoadTaskInfo previousTask, RLTaskTxnCommitAttachment attachment,
+                           boolean progressKeepUp) {
+        if (!Config.routine_load_adaptive_batch_enable || !(previousTask instanceof KafkaTaskInfo)) {
+            return;
+        }
+        consumeSecond = computeConsumeSecond(((KafkaTaskInfo) previousTask).consumeSecond,
+                attachment.getTaskExecutionTimeMs(), attachment.getReceivedBytes(), progressKeepUp);
+        LOG.debug("adapt consume second of kafka task {} to {}, job: {}", DebugUtil.printId(id), consumeSecond,
+                jobId);
+    }
+
+    // Compute the consume time of the next task by the previous one:
+    // 1. If the job still lags behind the topic, double the consume time, so that the hot partitions are
+    //    consumed by larger tasks, which also create less versions. But if the previous task spent much more
+    //    time than its consume time, the BE is busy writing data, keep the consume time unchanged.
+    // 2. If the job catches up with the topic, halve the consume time.
+    // The consume time is between routine_load_task_consume_second and half of routine_load_task_timeout_second,
+    // and is not larger than the time to consume max_routine_load_batch_size with the previous throughput.
+    static long computeConsumeSecond(long lastConsumeSecond, long lastExecutionTimeMs, long lastReceivedBytes,
+                                     boolean progressKeepUp) {
+        long minSecond = Config.routine_load_task_consume_second;
+        long maxSecond = Math.max(minSecond, Config.routine_load_task_timeout_second / 2);
+        long second;
+        if (progressKeepUp) {
+            second = lastConsumeSecond / 2;
+        } else if (lastExecutionTimeMs > lastConsumeSecond * 1000 * 3 / 2) {
+            second = lastConsumeSecond;
+        } else {
+            second = lastConsumeSecond * 2;
+        }
+        if (lastExecutionTimeMs > 0 && lastReceivedBytes > 0) {
+            long bytesPerSecond = Math.max(1L, lastReceivedBytes * 1000 / lastExecutionTimeMs);
+            maxSecond = Math.max(minSecond, Math.min(maxSecond, Config.max_routine_load_batch_size / bytesPerSecond));
+        }
+        return Math.max(minSecond, Math.min(second, maxSecond));
+    }
+
     @Override
     public boolean isProgressKeepUp(RoutineLoadProgress progress) {
         KafkaProgress kProgress = (KafkaProgress) progress;
@@ -156,7 +220,7 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         tRoutineLoadTask.setKafka_load_info(tKafkaLoadInfo);
         tRoutineLoadTask.setType(TLoadSourceType.KAFKA);
         tRoutineLoadTask.setParams(plan(routineLoadJob));
-        tRoutineLoadTask.setMax_interval_s(Config.routine_load_task_consume_second);
+        tRoutineLoadTask.setMax_interval_s(getConsumeSecond());
         tRoutineLoadTask.setMax_batch_rows(routineLoadJob.getMaxBatchRows());
         tRoutineLoadTask.setMax_batch_size(Config.max_routine_load_batch_size);
         if (!routineLoadJob.getFormat().isEmpty() && routineLoadJob.getFormat().equalsIgnoreCase("json")) {
@@ -885,12 +885,14 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
                     (RLTaskTxnCommitAttachment) txnState.getTxnCommitAttachment();
             // isProgressKeepUp returns false means there is too much data in kafka/pulsar stream,
             // we set timeToExecuteMs to now, so that data not accumulated in kafka/pulsar
-            if (!routineLoadTaskInfo.isProgressKeepUp(rlTaskTxnCommitAttachment.getProgress())) {
+            boolean progressKeepUp = routineLoadTaskInfo.isProgressKeepUp(rlTaskTxnCommitAttachment.getProgress());
+            if (!progressKeepUp) {
                 timeToExecuteMs = System.currentTimeMillis();
             } else {
                 timeToExecuteMs = System.currentTimeMillis() + taskSchedIntervalS * 1000;
             }
             RoutineLoadTaskInfo newRoutineLoadTaskInfo = unprotectRenewTask(timeToExecuteMs, routineLoadTaskInfo);
+            newRoutineLoadTaskInfo.adaptBatch(routineLoadTaskInfo, rlTaskTxnCommitAttachment, progressKeepUp);
             GlobalStateMgr.getCurrentState().getRoutineLoadManager().releaseBeTaskSlot(routineLoadTaskInfo.getBeId());
             GlobalStateMgr.getCurrentState().getRoutineLoadTaskScheduler().addTaskInQueue(newRoutineLoadTaskInfo);
         } finally {
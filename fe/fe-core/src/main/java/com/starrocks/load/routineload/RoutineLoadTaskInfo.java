@@ -144,6 +144,11 @@ public abstract class RoutineLoadTaskInfo {
         return taskScheduleIntervalMs;
     }
 
+    // the interval to schedule this task again if it is not ready to execute
+    public long getNextScheduleIntervalMs() {
+        return taskScheduleIntervalMs;
+    }
+
     public long getTimeoutMs() {
         return timeoutMs;
     }
@@ -184,6 +189,12 @@ public abstract class RoutineLoadTaskInfo {
 
     public abstract boolean isProgressKeepUp(RoutineLoadProgress progress);
 
+    // adapt the batch of this task to the previous task which has been finished.
+    // derived class can override this.
+    public void adaptBatch(RoutineLoadTaskInfo previousTask, RLTaskTxnCommitAttachment attachment,
+                           boolean progressKeepUp) {
+    }
+
     // begin the txn of this task
     // throw exception if unrecoverable errors happen.
     public void beginTxn() throws Exception {
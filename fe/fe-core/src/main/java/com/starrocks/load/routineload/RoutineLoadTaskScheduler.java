@@ -120,7 +120,7 @@ public class RoutineLoadTaskScheduler extends LeaderDaemon {
 
             // try to delay scheduling this task for scheduleInterval, to void too many failure
             if (System.currentTimeMillis() - routineLoadTaskInfo.getLastScheduledTime() <
-                    routineLoadTaskInfo.getTaskScheduleIntervalMs()) {
+                    routineLoadTaskInfo.getNextScheduleIntervalMs()) {
                 // delay adding to queue to avoid endless loop
                 delayPutToQueue(routineLoadTaskInfo, null);
                 return;
@@ -174,7 +174,7 @@ public class RoutineLoadTaskScheduler extends LeaderDaemon {
                 String msg = "";
                 if (routineLoadTaskInfo instanceof KafkaTaskInfo || routineLoadTaskInfo instanceof PulsarTaskInfo) {
                     msg = String.format("there is no new data in kafka/pulsar, wait for %d seconds to schedule again",
-                            routineLoadTaskInfo.getTaskScheduleIntervalMs() / 1000);
+                            routineLoadTaskInfo.getNextScheduleIntervalMs() / 1000);
                 }
                 delayPutToQueue(routineLoadTaskInfo, msg);
                 return;
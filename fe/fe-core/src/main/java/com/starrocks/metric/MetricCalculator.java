@@ -21,9 +21,11 @@
 
 package com.starrocks.metric;
 
+import com.starrocks.clone.TabletScheduler;
 import com.starrocks.common.Config;
 import com.starrocks.qe.QueryDetail;
 import com.starrocks.qe.QueryDetailQueue;
+import com.starrocks.server.GlobalStateMgr;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -40,6 +42,7 @@ public class MetricCalculator extends TimerTask {
     private long lastRequestCounter = -1;
     private long lastQueryErrCounter = -1;
     private long lastQueryEventTime = -1;
+    private long lastTabletScheduledCounter = -1;
 
     @Override
     public void run() {
@@ -54,6 +57,7 @@ public class MetricCalculator extends TimerTask {
             lastRequestCounter = MetricRepo.COUNTER_REQUEST_ALL.getValue();
             lastQueryErrCounter = MetricRepo.COUNTER_QUERY_ERR.getValue();
             lastQueryEventTime = System.currentTimeMillis() * 1000000;
+            lastTabletScheduledCounter = getTabletScheduledCounter();
             return;
         }
 
@@ -77,6 +81,12 @@ public class MetricCalculator extends TimerTask {
         MetricRepo.GAUGE_QUERY_ERR_RATE.setValue(errRate < 0 ? 0.0 : errRate);
         lastQueryErrCounter = currentErrCounter;
 
+        // tablets scheduled per second, it is always 0 on the non-leader fe
+        long currentTabletScheduledCounter = getTabletScheduledCounter();
+        double tabletScheduledRate = (double) (currentTabletScheduledCounter - lastTabletScheduledCounter) / interval;
+        MetricRepo.GAUGE_TABLET_SCHEDULED_PER_SECOND.setValue(tabletScheduledRate < 0 ? 0.0 : tabletScheduledRate);
+        lastTabletScheduledCounter = currentTabletScheduledCounter;
+
         lastTs = currentTs;
 
         // max tablet compaction score of all backends
@@ -133,4 +143,12 @@ public class MetricCalculator extends TimerTask {
             MetricRepo.updateRoutineLoadProcessMetrics();
         }
     }
+
+    private static long getTabletScheduledCounter() {
+        TabletScheduler tabletScheduler = GlobalStateMgr.getCurrentState().getTabletScheduler();
+        if (tabletScheduler == null) {
+            return 0L;
+        }
+        return tabletScheduler.getStat().counterTabletScheduledSucceeded.get();
+    }
 }
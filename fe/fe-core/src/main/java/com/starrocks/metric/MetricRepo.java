@@ -86,6 +86,10 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_QUEUE_TOTAL;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_TIMEOUT;
 
+    public static LongCounterMetric COUNTER_PLAN_CACHE_HIT;
+    public static LongCounterMetric COUNTER_PLAN_CACHE_MISS;
+    public static LongCounterMetric COUNTER_PLAN_CACHE_EVICTION;
+
     public static LongCounterMetric COUNTER_LOAD_ADD;
     public static LongCounterMetric COUNTER_LOAD_FINISHED;
     public static LongCounterMetric COUNTER_EDIT_LOG_WRITE;
@@ -112,6 +116,7 @@ public final class MetricRepo {
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
     public static GaugeMetricImpl<Double> GAUGE_REQUEST_PER_SECOND;
     public static GaugeMetricImpl<Double> GAUGE_QUERY_ERR_RATE;
+    public static GaugeMetricImpl<Double> GAUGE_TABLET_SCHEDULED_PER_SECOND;
     // these query latency is different from HISTO_QUERY_LATENCY, for these only summarize the latest queries, but HISTO_QUERY_LATENCY summarizes all queries.
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_MEAN;
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_MEDIAN;
@@ -225,6 +230,20 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(metaLogCount);
 
+        // number of journals not replayed yet by this non-leader frontend
+        GaugeMetric<Long> metaReplayLag = new GaugeMetric<Long>(
+                "meta_log_replay_lag", MetricUnit.NOUNIT, "number of meta logs not replayed yet") {
+            @Override
+            public Long getValue() {
+                GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+                if (globalStateMgr.isLeader()) {
+                    return 0L;
+                }
+                return Math.max(0L, globalStateMgr.getMaxJournalId() - globalStateMgr.getReplayedJournalId());
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(metaReplayLag);
+
         // scheduled tablet num
         GaugeMetric<Long> scheduledTabletNum = (GaugeMetric<Long>) new GaugeMetric<Long>(
                 "scheduled_tablet_num", MetricUnit.NOUNIT, "number of tablets being scheduled") {
@@ -269,6 +288,11 @@ public final class MetricRepo {
         GAUGE_QUERY_ERR_RATE.setValue(0.0);
         STARROCKS_METRIC_REGISTER.addMetric(GAUGE_QUERY_ERR_RATE);
 
+        GAUGE_TABLET_SCHEDULED_PER_SECOND = new GaugeMetricImpl<>("tablet_scheduled_per_second", MetricUnit.NOUNIT,
+                "number of tablets scheduled successfully by tablet scheduler per second");
+        GAUGE_TABLET_SCHEDULED_PER_SECOND.setValue(0.0);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_TABLET_SCHEDULED_PER_SECOND);
+
         GAUGE_MAX_TABLET_COMPACTION_SCORE = new GaugeMetricImpl<>("max_tablet_compaction_score",
                 MetricUnit.NOUNIT, "max tablet compaction score of all backends");
         GAUGE_MAX_TABLET_COMPACTION_SCORE.setValue(0L);
@@ -343,6 +367,15 @@ public final class MetricRepo {
         COUNTER_QUERY_QUEUE_TIMEOUT = new LongCounterMetric("query_queue_timeout", MetricUnit.REQUESTS,
                 "total history query for timeout in queue");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_QUEUE_TIMEOUT);
+        COUNTER_PLAN_CACHE_HIT = new LongCounterMetric("plan_cache_hit", MetricUnit.REQUESTS,
+                "total query plans reused from plan cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PLAN_CACHE_HIT);
+        COUNTER_PLAN_CACHE_MISS = new LongCounterMetric("plan_cache_miss", MetricUnit.REQUESTS,
+                "total cacheable query plans not found in plan cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PLAN_CACHE_MISS);
+        COUNTER_PLAN_CACHE_EVICTION = new LongCounterMetric("plan_cache_eviction", MetricUnit.REQUESTS,
+                "total query plans evicted from plan cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PLAN_CACHE_EVICTION);
         COUNTER_LOAD_ADD = new LongCounterMetric("load_add", MetricUnit.REQUESTS, "total load submit");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_ADD);
         COUNTER_ROUTINE_LOAD_PAUSED =
@@ -611,6 +644,7 @@ public final class MetricRepo {
             visitor.visitHistogram(entry.getKey(), entry.getValue());
         }
         ResourceGroupMetricMgr.visitQueryLatency();
+        QueryPhaseMetricMgr.visitPhaseLatency(visitor);
 
         // collect routine load process metrics
         if (Config.enable_routine_load_lag_metrics) {
@@ -199,6 +199,34 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         return;
     }
 
+    @Override
+    public void visitHistogram(String name, List<MetricLabel> labels, Histogram histogram) {
+        final String fullName = prefix + "_" + name;
+        if (!metricNames.contains(fullName)) {
+            sb.append(HELP).append(fullName).append(" ").append("\n");
+            sb.append(TYPE).append(fullName).append(" ").append("summary\n");
+            metricNames.add(fullName);
+        }
+
+        String labelStr = Joiner.on(", ").join(labels.stream().map(l -> l.getKey() + "=\"" + l.getValue()
+                + "\"").collect(Collectors.toList()));
+        Snapshot snapshot = histogram.getSnapshot();
+        appendQuantile(fullName, labelStr, "0.75", snapshot.get75thPercentile());
+        appendQuantile(fullName, labelStr, "0.95", snapshot.get95thPercentile());
+        appendQuantile(fullName, labelStr, "0.98", snapshot.get98thPercentile());
+        appendQuantile(fullName, labelStr, "0.99", snapshot.get99thPercentile());
+        appendQuantile(fullName, labelStr, "0.999", snapshot.get999thPercentile());
+        sb.append(fullName).append("_sum{").append(labelStr).append("} ")
+                .append(histogram.getCount() * snapshot.getMean()).append("\n");
+        sb.append(fullName).append("_count{").append(labelStr).append("} ")
+                .append(histogram.getCount()).append("\n");
+    }
+
+    private void appendQuantile(String fullName, String labelStr, String quantile, double value) {
+        sb.append(fullName).append("{").append(labelStr).append(", quantile=\"").append(quantile).append("\"} ")
+                .append(value).append("\n");
+    }
+
     @Override
     public void getNodeInfo() {
         final String NODE_INFO = "node_info";
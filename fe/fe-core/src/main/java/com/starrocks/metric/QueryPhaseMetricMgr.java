@@ -0,0 +1,118 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.metric;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.google.common.collect.ImmutableList;
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.PlannerProfile;
+import com.starrocks.sql.ast.DeleteStmt;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.ast.UpdateStmt;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of the phases of statements, labeled by the phase, statement type and resource group.
+ * The latencies are taken from the timers of {@link PlannerProfile}, which are always collected, so these metrics
+ * do not depend on the query profile, and tell which phase makes a statement slow.
+ * starrocks_fe_query_phase_latency_ms{phase="optimize", type="query", resource_group="default_wg", quantile="0.99"}
+ */
+public class QueryPhaseMetricMgr {
+    private static final String QUERY_PHASE_LATENCY = "query_phase_latency_ms";
+
+    public static final String PHASE_PARSE = "parse";
+    public static final String PHASE_ANALYZE = "analyze";
+    public static final String PHASE_MV_REWRITE = "mv_rewrite";
+    public static final String PHASE_OPTIMIZE = "optimize";
+    public static final String PHASE_PLAN_BUILD = "plan_build";
+    public static final String PHASE_DEPLOY = "deploy";
+    public static final String PHASE_FIRST_ROW = "first_row";
+
+    // the timers of PlannerProfile in each phase
+    private static final String[][] PHASE_TIMERS = {
+            {PHASE_PARSE, "Parser"},
+            {PHASE_ANALYZE, "Analyzer"},
+            {PHASE_MV_REWRITE, "Optimizer.preprocessMvs"},
+            {PHASE_OPTIMIZE, "Optimizer.CostBaseOptimize"},
+            {PHASE_PLAN_BUILD, "ExecPlanBuild"},
+            {PHASE_DEPLOY, "CoordPrepareExec", "CoordDeliverExec"},
+    };
+
+    private static final ConcurrentHashMap<List<String>, Histogram> PHASE_LATENCY_MAP = new ConcurrentHashMap<>();
+
+    public static String getStmtType(StatementBase stmt) {
+        if (stmt instanceof QueryStatement) {
+            return "query";
+        } else if (stmt instanceof InsertStmt) {
+            return "insert";
+        } else if (stmt instanceof UpdateStmt) {
+            return "update";
+        } else if (stmt instanceof DeleteStmt) {
+            return "delete";
+        } else {
+            return "other";
+        }
+    }
+
+    private static String getResourceGroupName(ConnectContext ctx) {
+        ResourceGroup resourceGroup = ctx.getResourceGroup();
+        return resourceGroup == null ? "default_wg" : resourceGroup.getName();
+    }
+
+    public static void updatePhaseLatency(String phase, String stmtType, String resourceGroupName, long elapseMs) {
+        List<String> labelValues = ImmutableList.of(phase, stmtType, resourceGroupName);
+        Histogram histogram = PHASE_LATENCY_MAP.computeIfAbsent(labelValues,
+                k -> new Histogram(new ExponentiallyDecayingReservoir()));
+        histogram.update(elapseMs);
+    }
+
+    /**
+     * Update the latencies of all the phases which the statement has gone through.
+     *
+     * @param firstRowLatencyMs the latency from the start of the statement to the first row sent, or -1 if no row
+     */
+    public static void updatePhaseLatency(ConnectContext ctx, StatementBase stmt, long firstRowLatencyMs) {
+        String stmtType = getStmtType(stmt);
+        String resourceGroupName = getResourceGroupName(ctx);
+        Map<String, PlannerProfile.ScopedTimer> timers = ctx.getPlannerProfile().getTimers();
+        for (String[] phaseTimers : PHASE_TIMERS) {
+            long elapseMs = 0;
+            boolean found = false;
+            for (int i = 1; i < phaseTimers.length; i++) {
+                PlannerProfile.ScopedTimer timer = timers.get(phaseTimers[i]);
+                if (timer != null) {
+                    elapseMs += timer.getTotalTime();
+                    found = true;
+                }
+            }
+            if (found) {
+                updatePhaseLatency(phaseTimers[0], stmtType, resourceGroupName, elapseMs);
+            }
+        }
+        if (firstRowLatencyMs >= 0) {
+            updatePhaseLatency(PHASE_FIRST_ROW, stmtType, resourceGroupName, firstRowLatencyMs);
+        }
+    }
+
+    public static Histogram getPhaseLatency(String phase, String stmtType, String resourceGroupName) {
+        return PHASE_LATENCY_MAP.get(ImmutableList.of(phase, stmtType, resourceGroupName));
+    }
+
+    public static void visitPhaseLatency(MetricVisitor visitor) {
+        for (Map.Entry<List<String>, Histogram> entry : PHASE_LATENCY_MAP.entrySet()) {
+            List<String> labelValues = entry.getKey();
+            List<MetricLabel> labels = ImmutableList.of(
+                    new MetricLabel("phase", labelValues.get(0)),
+                    new MetricLabel("type", labelValues.get(1)),
+                    new MetricLabel("resource_group", labelValues.get(2)));
+            visitor.visitHistogram(QUERY_PHASE_LATENCY, labels, entry.getValue());
+        }
+    }
+}
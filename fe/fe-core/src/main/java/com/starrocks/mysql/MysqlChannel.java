@@ -29,6 +29,8 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class used to read/write MySQL logical packet.
@@ -42,6 +44,11 @@ public class MysqlChannel {
     // MySQL packet header length
     protected static final int PACKET_HEADER_LEN = 4;
     protected static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    // packets not shorter than this are sent from their own buffers by gathering write, instead of
+    // being copied to send buffer
+    protected static final int GATHERING_WRITE_MIN_PACKET_LEN = 4 * 1024;
+    // max number of buffers written by one gathering write, same as IOV_MAX of linux
+    protected static final int MAX_GATHERING_WRITE_BUFFERS = 1024;
     // logger for this class
     protected static final Logger LOG = LogManager.getLogger(MysqlChannel.class);
     // next sequence id to receive or send
@@ -233,6 +240,22 @@ public class MysqlChannel {
         channel.write(buffer);
     }
 
+    public void realNetSend(ByteBuffer[] buffers) throws IOException {
+        int offset = 0;
+        while (true) {
+            while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+                offset++;
+            }
+            if (offset == buffers.length) {
+                break;
+            }
+            long writeLen = channel.write(buffers, offset, buffers.length - offset);
+            if (writeLen <= 0) {
+                throw new IOException("Write mysql packets failed.[write=" + writeLen + "]");
+            }
+        }
+    }
+
     public void flush() throws IOException {
         if (null == sendBuffer || sendBuffer.position() == 0) {
             // Nothing to send
@@ -307,6 +330,74 @@ public class MysqlChannel {
         accSequenceId();
     }
 
+    /**
+     * Send packets one by one like sendOnePacket. Headers and short packets are put into send buffer, and
+     * long packets are sent together with the buffered data by gathering write, so they are not copied.
+     * The remaining data in send buffer will be sent by the next flush.
+     */
+    public void sendPackets(List<ByteBuffer> packets) throws IOException {
+        initBuffer(DEFAULT_BUFFER_SIZE);
+        if (sslChannel != null) {
+            for (ByteBuffer packet : packets) {
+                sendOnePacket(packet);
+            }
+            return;
+        }
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+        // start of the data in send buffer not added to buffers yet
+        int segmentStart = 0;
+        for (ByteBuffer packet : packets) {
+            int packetLen = packet.remaining();
+            if (packetLen >= MAX_PHYSICAL_PACKET_LENGTH) {
+                gatheringSend(buffers, segmentStart);
+                segmentStart = 0;
+                sendOnePacket(packet);
+                continue;
+            }
+            boolean isCopied = packetLen < GATHERING_WRITE_MIN_PACKET_LEN;
+            int bufferLen = PACKET_HEADER_LEN + (isCopied ? packetLen : 0);
+            if (sendBuffer.remaining() < bufferLen || buffers.size() + 2 > MAX_GATHERING_WRITE_BUFFERS) {
+                gatheringSend(buffers, segmentStart);
+                segmentStart = 0;
+            }
+            writeHeader(packetLen);
+            accSequenceId();
+            if (isCopied) {
+                sendBuffer.put(packet);
+            } else {
+                buffers.add(sendBufferSegment(segmentStart));
+                segmentStart = sendBuffer.position();
+                buffers.add(packet);
+            }
+        }
+        if (!buffers.isEmpty()) {
+            gatheringSend(buffers, segmentStart);
+        }
+    }
+
+    private ByteBuffer sendBufferSegment(int start) {
+        ByteBuffer segment = sendBuffer.duplicate();
+        segment.flip();
+        segment.position(start);
+        return segment;
+    }
+
+    private void gatheringSend(List<ByteBuffer> buffers, int segmentStart) throws IOException {
+        if (sendBuffer.position() > segmentStart) {
+            buffers.add(sendBufferSegment(segmentStart));
+        }
+        try {
+            if (!buffers.isEmpty()) {
+                realNetSend(buffers.toArray(new ByteBuffer[0]));
+                isSend = true;
+            }
+        } finally {
+            buffers.clear();
+            sendBuffer.clear();
+        }
+    }
+
     public void sendAndFlush(ByteBuffer packet) throws IOException {
         sendOnePacket(packet);
         flush();
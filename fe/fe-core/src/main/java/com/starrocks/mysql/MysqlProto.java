@@ -373,4 +373,50 @@ public class MysqlProto {
         return buf;
     }
 
+    /**
+     * Convert a text protocol result row, as encoded by BE, into a binary protocol result row whose
+     * columns are all length encoded strings. The row bytes are copied as they are and only the
+     * leading null bitmap is rebuilt.
+     * https://dev.mysql.com/doc/internals/en/binary-protocol-resultset-row.html
+     */
+    public static ByteBuffer textRowToBinaryRow(ByteBuffer textRow, int numColumns) {
+        ByteBuffer row = textRow.duplicate();
+        // the binary null bitmap has an offset of 2 bits
+        byte[] nullBitmap = new byte[(numColumns + 7 + 2) / 8];
+        int valueBytes = 0;
+        for (int i = 0; i < numColumns; i++) {
+            int start = row.position();
+            int first = readInt1(row);
+            if (first == 251) {
+                int bit = i + 2;
+                nullBitmap[bit / 8] |= (byte) (1 << (bit % 8));
+                continue;
+            }
+            row.position(start);
+            long length = readVInt(row);
+            row.position(row.position() + (int) length);
+            valueBytes += row.position() - start;
+        }
+
+        ByteBuffer binaryRow = ByteBuffer.allocate(1 + nullBitmap.length + valueBytes);
+        binaryRow.put((byte) 0x00);
+        binaryRow.put(nullBitmap);
+        row = textRow.duplicate();
+        for (int i = 0; i < numColumns; i++) {
+            int start = row.position();
+            if (readInt1(row) == 251) {
+                continue;
+            }
+            row.position(start);
+            long length = readVInt(row);
+            int end = row.position() + (int) length;
+            ByteBuffer value = textRow.duplicate();
+            value.position(start);
+            value.limit(end);
+            binaryRow.put(value);
+            row.position(end);
+        }
+        binaryRow.flip();
+        return binaryRow;
+    }
 }
@@ -6,6 +6,7 @@ import com.google.common.base.MoreObjects;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.starrocks.analysis.Analyzer;
 import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.SlotDescriptor;
@@ -193,8 +194,11 @@ public class IcebergScanNode extends ScanNode {
             return;
         }
 
-        for (CombinedScanTask combinedScanTask : IcebergUtil.getTableScan(
-                srIcebergTable.getIcebergTable(), snapshot.get(), icebergPredicate).planTasks()) {
+        // all the scan ranges share the unknown location, there may be millions of them on a huge table
+        List<TScanRangeLocation> unknownLocations =
+                Lists.newArrayList(new TScanRangeLocation(new TNetworkAddress("-1", -1)));
+        for (CombinedScanTask combinedScanTask : IcebergUtil.planTasks(
+                srIcebergTable.getIcebergTable(), snapshot.get(), icebergPredicate)) {
             for (FileScanTask task : combinedScanTask.files()) {
                 DataFile file = task.file();
                 LOG.debug("Scan with file " + file.path() + ", file record count " + file.recordCount());
@@ -233,8 +237,7 @@ public class IcebergScanNode extends ScanNode {
                 scanRangeLocations.setScan_range(scanRange);
 
                 // TODO: get hdfs block location information for scheduling, use iceberg meta cache
-                TScanRangeLocation scanRangeLocation = new TScanRangeLocation(new TNetworkAddress("-1", -1));
-                scanRangeLocations.addToLocations(scanRangeLocation);
+                scanRangeLocations.setLocations(unknownLocations);
 
                 result.add(scanRangeLocations);
             }
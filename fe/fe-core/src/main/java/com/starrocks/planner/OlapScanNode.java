@@ -262,9 +262,9 @@ public class OlapScanNode extends ScanNode {
 
     private Collection<Long> partitionPrune(RangePartitionInfo partitionInfo, PartitionNames partitionNames)
             throws AnalysisException {
-        Map<Long, Range<PartitionKey>> keyRangeById = null;
+        PartitionPruner partitionPruner;
         if (partitionNames != null) {
-            keyRangeById = Maps.newHashMap();
+            Map<Long, Range<PartitionKey>> keyRangeById = Maps.newHashMap();
             for (String partName : partitionNames.getPartitionNames()) {
                 Partition part = olapTable.getPartition(partName, partitionNames.isTemp());
                 if (part == null) {
@@ -272,11 +272,11 @@ public class OlapScanNode extends ScanNode {
                 }
                 keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
             }
+            partitionPruner = new RangePartitionPruner(keyRangeById,
+                    partitionInfo.getPartitionColumns(), columnFilters);
         } else {
-            keyRangeById = partitionInfo.getIdToRange(false);
+            partitionPruner = new RangePartitionPruner(partitionInfo, columnFilters);
         }
-        PartitionPruner partitionPruner = new RangePartitionPruner(keyRangeById,
-                partitionInfo.getPartitionColumns(), columnFilters);
         return partitionPruner.prune();
     }
 
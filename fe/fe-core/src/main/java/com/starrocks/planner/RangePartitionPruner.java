@@ -31,6 +31,8 @@ import com.starrocks.analysis.LiteralExpr;
 import com.starrocks.analysis.NullLiteral;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.PartitionRangeIndex;
+import com.starrocks.catalog.RangePartitionInfo;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
 import org.apache.logging.log4j.LogManager;
@@ -45,7 +47,9 @@ import java.util.Set;
 public class RangePartitionPruner implements PartitionPruner {
     private static final Logger LOG = LogManager.getLogger(RangePartitionPruner.class);
 
+    // at most one of partitionRangeMap and partitionRangeIndex is not null
     private Map<Long, Range<PartitionKey>> partitionRangeMap;
+    private PartitionRangeIndex partitionRangeIndex;
     private List<Column> partitionColumns;
     private Map<String, PartitionColumnFilter> partitionColumnFilters;
 
@@ -57,6 +61,14 @@ public class RangePartitionPruner implements PartitionPruner {
         partitionColumnFilters = filters;
     }
 
+    // prune all the formal partitions by the index cached in partition info
+    public RangePartitionPruner(RangePartitionInfo partitionInfo,
+                                Map<String, PartitionColumnFilter> filters) {
+        partitionRangeIndex = partitionInfo.getRangeIndex();
+        partitionColumns = partitionInfo.getPartitionColumns();
+        partitionColumnFilters = filters;
+    }
+
     private List<Long> prune(RangeMap<PartitionKey, Long> rangeMap,
                              int columnIdx,
                              PartitionKey minKey,
@@ -181,13 +193,66 @@ public class RangePartitionPruner implements PartitionPruner {
         return new ArrayList<>(resultSet);
     }
 
+    // Same as prune(rangeMap, 0, minKey, maxKey, 1) for one partition column, but search the encoded keys.
+    // Return null if any bound of the filter could not be encoded.
+    private List<Long> pruneByEncodedKeys() throws AnalysisException {
+        Column keyColumn = partitionColumns.get(0);
+        Type type = Type.fromPrimitiveType(keyColumn.getPrimitiveType());
+        long minKey = PartitionRangeIndex.encode(LiteralExpr.createInfinity(type, false));
+        long maxKey = PartitionRangeIndex.encode(LiteralExpr.createInfinity(type, true));
+        PartitionColumnFilter filter = partitionColumnFilters.get(keyColumn.getName());
+        if (null == filter) {
+            return partitionRangeIndex.getIntersectedPartitions(minKey, true, maxKey, true);
+        }
+
+        List<LiteralExpr> inPredicateLiterals = filter.getInPredicateLiterals();
+        if (null != inPredicateLiterals && inPredicateLiterals.size() <= 100) {
+            for (LiteralExpr expr : inPredicateLiterals) {
+                if (!partitionRangeIndex.isEncodable(expr)) {
+                    return null;
+                }
+            }
+            Set<Long> resultSet = Sets.newHashSet();
+            for (LiteralExpr expr : inPredicateLiterals) {
+                long key = PartitionRangeIndex.encode(expr);
+                resultSet.addAll(partitionRangeIndex.getIntersectedPartitions(key, true, key, true));
+            }
+            return new ArrayList<>(resultSet);
+        }
+
+        if (filter.lowerBoundInclusive && filter.upperBoundInclusive
+                && filter.lowerBound instanceof NullLiteral && filter.upperBound instanceof NullLiteral) {
+            // eg: [null, null], replace Null with min value
+            return partitionRangeIndex.getIntersectedPartitions(minKey, true, minKey, true);
+        }
+        if ((filter.lowerBound != null && !partitionRangeIndex.isEncodable(filter.lowerBound))
+                || (filter.upperBound != null && !partitionRangeIndex.isEncodable(filter.upperBound))) {
+            return null;
+        }
+        long lowerKey = filter.lowerBound != null ? PartitionRangeIndex.encode(filter.lowerBound) : minKey;
+        long upperKey = filter.upperBound != null ? PartitionRangeIndex.encode(filter.upperBound) : maxKey;
+        return partitionRangeIndex.getIntersectedPartitions(lowerKey, filter.lowerBoundInclusive,
+                upperKey, filter.upperBoundInclusive);
+    }
+
     public List<Long> prune() throws AnalysisException {
         PartitionKey minKey = new PartitionKey();
         PartitionKey maxKey = new PartitionKey();
-        // Map to RangeMapTree
-        RangeMap<PartitionKey, Long> rangeMap = TreeRangeMap.create();
-        for (Map.Entry<Long, Range<PartitionKey>> entry : partitionRangeMap.entrySet()) {
-            rangeMap.put(entry.getValue(), entry.getKey());
+        RangeMap<PartitionKey, Long> rangeMap;
+        if (partitionRangeIndex != null) {
+            if (partitionRangeIndex.isEncoded()) {
+                List<Long> result = pruneByEncodedKeys();
+                if (result != null) {
+                    return result;
+                }
+            }
+            rangeMap = partitionRangeIndex.getRangeMap();
+        } else {
+            // Map to RangeMapTree
+            rangeMap = TreeRangeMap.create();
+            for (Map.Entry<Long, Range<PartitionKey>> entry : partitionRangeMap.entrySet()) {
+                rangeMap.put(entry.getValue(), entry.getKey());
+            }
         }
         return prune(rangeMap, 0, minKey, maxKey, 1);
     }
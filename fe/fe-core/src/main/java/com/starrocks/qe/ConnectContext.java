@@ -27,6 +27,7 @@ import com.starrocks.analysis.UserIdentity;
 import com.starrocks.catalog.InternalCatalog;
 import com.starrocks.catalog.ResourceGroup;
 import com.starrocks.cluster.ClusterNamespace;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.mysql.MysqlCapability;
@@ -174,6 +175,10 @@ public class ConnectContext {
 
     protected SSLContext sslContext;
 
+    // statements prepared by COM_STMT_PREPARE in this connection, keyed by statement id
+    protected Map<Integer, PreparedStmtContext> preparedStmts = new HashMap<>();
+    protected int nextPreparedStmtId = 1;
+
     public StmtExecutor getExecutor() {
         return executor;
     }
@@ -324,6 +329,28 @@ public class ConnectContext {
         return sessionVariable;
     }
 
+    // Return null if this connection has prepared max_prepared_stmt_count statements
+    public PreparedStmtContext addPreparedStmt(String originStmt) {
+        if (preparedStmts.size() >= Config.max_prepared_stmt_count) {
+            return null;
+        }
+        PreparedStmtContext preparedStmt = new PreparedStmtContext(nextPreparedStmtId++, originStmt);
+        preparedStmts.put(preparedStmt.getStmtId(), preparedStmt);
+        return preparedStmt;
+    }
+
+    public PreparedStmtContext getPreparedStmt(int stmtId) {
+        return preparedStmts.get(stmtId);
+    }
+
+    public void removePreparedStmt(int stmtId) {
+        preparedStmts.remove(stmtId);
+    }
+
+    public void clearPreparedStmts() {
+        preparedStmts.clear();
+    }
+
     public UserVariable getUserVariables(String variable) {
         return userVariables.get(variable);
     }
@@ -28,6 +28,7 @@ import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.ResourceGroup;
 import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.ErrorCode;
@@ -37,9 +38,11 @@ import com.starrocks.common.util.DebugUtil;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.connector.iceberg.StarRocksIcebergException;
 import com.starrocks.metric.MetricRepo;
+import com.starrocks.metric.QueryPhaseMetricMgr;
 import com.starrocks.metric.ResourceGroupMetricMgr;
 import com.starrocks.mysql.MysqlChannel;
 import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.mysql.MysqlEofPacket;
 import com.starrocks.mysql.MysqlPacket;
 import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.MysqlSerializer;
@@ -48,6 +51,7 @@ import com.starrocks.plugin.AuditEvent.EventType;
 import com.starrocks.proto.PQueryStatistics;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.analyzer.AST2SQL;
 import com.starrocks.sql.ast.KillStmt;
 import com.starrocks.sql.ast.QueryStatement;
@@ -75,6 +79,8 @@ import java.util.Optional;
  */
 public class ConnectProcessor {
     private static final Logger LOG = LogManager.getLogger(ConnectProcessor.class);
+    // flags of COM_STMT_EXECUTE, the statement is executed without a cursor
+    private static final int CURSOR_TYPE_NO_CURSOR = 0x00;
 
     private final ConnectContext ctx;
     private ByteBuffer packetBuf;
@@ -123,6 +129,7 @@ public class ConnectProcessor {
     // COM_RESET_CONNECTION: reset current connection session variables
     private void handleResetConnection() throws IOException {
         resetConnectionSession();
+        ctx.clearPreparedStmts();
         ctx.getState().setOk();
     }
 
@@ -266,7 +273,6 @@ public class ConnectProcessor {
 
     // process COM_QUERY statement,
     private void handleQuery() {
-        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
         // convert statement to Java string
         String originStmt = null;
         byte[] bytes = packetBuf.array();
@@ -275,6 +281,109 @@ public class ConnectProcessor {
             ending--;
         }
         originStmt = new String(bytes, 1, ending, StandardCharsets.UTF_8);
+        executeQuery(originStmt);
+    }
+
+    // COM_STMT_PREPARE: register the statement in this connection and reply its id, its parameters and
+    // the result columns of queries. Result values are sent as strings, so all columns are declared as VARCHAR.
+    private void handleStmtPrepare() throws IOException {
+        String originStmt = new String(MysqlProto.readEofString(packetBuf), StandardCharsets.UTF_8);
+        PreparedStmtContext preparedStmt = ctx.addPreparedStmt(originStmt);
+        if (preparedStmt == null) {
+            ctx.getState().setError(
+                    ErrorCode.ERR_MAX_PREPARED_STMT_COUNT_REACHED.formatErrorMsg(Config.max_prepared_stmt_count));
+            return;
+        }
+        List<String> columnNames = preparedStmt.analyzeColumnNames(ctx);
+
+        MysqlSerializer serializer = ctx.getSerializer();
+        MysqlChannel channel = ctx.getMysqlChannel();
+        serializer.reset();
+        // status: OK
+        serializer.writeInt1(0x00);
+        serializer.writeInt4(preparedStmt.getStmtId());
+        serializer.writeInt2(columnNames.size());
+        serializer.writeInt2(preparedStmt.getNumParams());
+        // reserved filler
+        serializer.writeInt1(0);
+        // warning_count
+        serializer.writeInt2(0);
+        if (preparedStmt.getNumParams() == 0 && columnNames.isEmpty()) {
+            channel.sendAndFlush(serializer.toByteBuffer());
+            ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+            return;
+        }
+        channel.sendOnePacket(serializer.toByteBuffer());
+        for (int i = 0; i < preparedStmt.getNumParams(); i++) {
+            serializer.reset();
+            serializer.writeField("?", Type.VARCHAR);
+            channel.sendOnePacket(serializer.toByteBuffer());
+        }
+        if (preparedStmt.getNumParams() > 0 && !columnNames.isEmpty()) {
+            serializer.reset();
+            new MysqlEofPacket(ctx.getState()).writeTo(serializer);
+            channel.sendOnePacket(serializer.toByteBuffer());
+        }
+        for (String columnName : columnNames) {
+            serializer.reset();
+            serializer.writeField(columnName, Type.VARCHAR);
+            channel.sendOnePacket(serializer.toByteBuffer());
+        }
+        // the last definitions end with the EOF packet sent by finalizeCommand
+        ctx.getState().setEof();
+    }
+
+    // COM_STMT_EXECUTE: bind the binary parameters into the prepared statement and execute it,
+    // the result set is sent back in binary protocol.
+    private void handleStmtExecute() {
+        int stmtId = MysqlProto.readInt4(packetBuf);
+        PreparedStmtContext preparedStmt = ctx.getPreparedStmt(stmtId);
+        if (preparedStmt == null) {
+            ctx.getState().setError("Unknown prepared statement handler (" + stmtId + ") given to execute");
+            return;
+        }
+        // flags, cursors are not supported, result set is always sent at once
+        int flags = MysqlProto.readInt1(packetBuf);
+        if (flags != CURSOR_TYPE_NO_CURSOR) {
+            ctx.getState().setError("Cursor type " + flags + " is not supported by prepared statement ("
+                    + stmtId + ")");
+            return;
+        }
+        // iteration_count, always 1
+        MysqlProto.readInt4(packetBuf);
+
+        String originStmt;
+        try {
+            originStmt = preparedStmt.bindParams(packetBuf);
+        } catch (Exception e) {
+            LOG.warn("Failed to bind parameters of prepared statement {}", stmtId, e);
+            ctx.getState().setError("Malformed parameters of prepared statement (" + stmtId + ")");
+            return;
+        }
+        executeQuery(originStmt);
+    }
+
+    // COM_STMT_CLOSE: deallocate the prepared statement, no response is sent to client.
+    private void handleStmtClose() {
+        int stmtId = MysqlProto.readInt4(packetBuf);
+        ctx.removePreparedStmt(stmtId);
+        ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+    }
+
+    // COM_STMT_RESET: clear the parameters bound to the prepared statement.
+    private void handleStmtReset() {
+        int stmtId = MysqlProto.readInt4(packetBuf);
+        PreparedStmtContext preparedStmt = ctx.getPreparedStmt(stmtId);
+        if (preparedStmt == null) {
+            ctx.getState().setError("Unknown prepared statement handler (" + stmtId + ") given to reset");
+            return;
+        }
+        preparedStmt.reset();
+        ctx.getState().setOk();
+    }
+
+    private void executeQuery(String originStmt) {
+        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
         ctx.getAuditEventBuilder().reset();
         ctx.getAuditEventBuilder()
                 .setTimestamp(System.currentTimeMillis())
@@ -291,7 +400,7 @@ public class ConnectProcessor {
         try {
             ctx.setQueryId(UUIDUtil.genUUID());
             List<StatementBase> stmts;
-            try {
+            try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer("Parser")) {
                 stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, ctx.getSessionVariable());
             } catch (ParsingException parsingException) {
                 throw new AnalysisException(parsingException.getMessage());
@@ -359,6 +468,9 @@ public class ConnectProcessor {
         // We may need to find some way to resolve this.
         if (executor != null) {
             auditAfterExec(originStmt, executor.getParsedStmt(), executor.getQueryStatisticsForAuditLog());
+            if (ctx.getState().getStateType() != QueryState.MysqlStateType.ERR) {
+                QueryPhaseMetricMgr.updatePhaseLatency(ctx, executor.getParsedStmt(), executor.getFirstRowLatencyMs());
+            }
         } else {
             // executor can be null if we encounter analysis error.
             auditAfterExec(originStmt, null, null);
@@ -435,6 +547,19 @@ public class ConnectProcessor {
                 handleQuery();
                 ctx.setStartTime();
                 break;
+            case COM_STMT_PREPARE:
+                handleStmtPrepare();
+                break;
+            case COM_STMT_EXECUTE:
+                handleStmtExecute();
+                ctx.setStartTime();
+                break;
+            case COM_STMT_CLOSE:
+                handleStmtClose();
+                break;
+            case COM_STMT_RESET:
+                handleStmtReset();
+                break;
             case COM_FIELD_LIST:
                 handleFieldList();
                 break;
@@ -521,8 +646,8 @@ public class ConnectProcessor {
         MysqlChannel channel = ctx.getMysqlChannel();
         channel.sendAndFlush(packet);
 
-        // only change lastQueryId when current command is COM_QUERY
-        if (ctx.getCommand() == MysqlCommand.COM_QUERY) {
+        // only change lastQueryId when current command is COM_QUERY or COM_STMT_EXECUTE
+        if (ctx.getCommand() == MysqlCommand.COM_QUERY || ctx.getCommand() == MysqlCommand.COM_STMT_EXECUTE) {
             ctx.setLastQueryId(ctx.queryId);
             ctx.setQueryId(null);
         }
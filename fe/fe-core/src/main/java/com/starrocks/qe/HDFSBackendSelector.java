@@ -54,6 +54,8 @@ import java.util.Set;
 public class HDFSBackendSelector implements BackendSelector {
     // be -> assigned scans
     Map<ComputeNode, Long> assignedScansPerComputeNode = Maps.newHashMap();
+    // be -> address of assignment
+    Map<ComputeNode, TNetworkAddress> nodeToAddress = Maps.newHashMap();
     // be host -> bes
     Multimap<String, ComputeNode> hostToBackends = HashMultimap.create();
     private final ScanNode scanNode;
@@ -318,9 +320,14 @@ public class HDFSBackendSelector implements BackendSelector {
     }
 
     private void recordScanRangeAssignment(ComputeNode node, TScanRangeLocations scanRangeLocations) {
-        TNetworkAddress address = new TNetworkAddress(node.getHost(), node.getBePort());
-        usedBackendIDs.add(node.getId());
-        addressToBackendId.put(address, node.getId());
+        // the address is created once per node, there may be millions of scan ranges on a huge table
+        TNetworkAddress address = nodeToAddress.get(node);
+        if (address == null) {
+            address = new TNetworkAddress(node.getHost(), node.getBePort());
+            nodeToAddress.put(node, address);
+            usedBackendIDs.add(node.getId());
+            addressToBackendId.put(address, node.getId());
+        }
 
         // update statistic
         long addedScans = scanRangeLocations.scan_range.hdfs_scan_range.length;
@@ -0,0 +1,306 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.TableName;
+import com.starrocks.catalog.Database;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.qe.QueryState.MysqlStateType;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+import com.starrocks.sql.analyzer.PrivilegeChecker;
+import com.starrocks.sql.ast.DefaultValueExpr;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.ValuesRelation;
+import com.starrocks.sql.common.MetaUtils;
+import com.starrocks.transaction.TransactionStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group commit of INSERT INTO VALUES statements.
+ * Each small insert begins a transaction, writes the edit logs of it and publishes a new version to backends,
+ * which is too expensive if there are thousands of small inserts per second.
+ * With session variable enable_insert_group_commit, the concurrent INSERT INTO VALUES statements of the same
+ * table are collected in a time window of insert_group_commit_interval_ms, and loaded by the first statement
+ * of the window in one transaction. Each statement waits for the result of the transaction and gets its own ack.
+ * Statements are analyzed before joining a group, so an invalid statement fails alone. If the transaction of
+ * the group fails, every statement of the group is executed again on its own, so a bad row only fails
+ * the statement it belongs to.
+ * Statements with a label are not grouped, because the label must be bound to its own transaction.
+ * Statements in non strict mode are not grouped either, because the filtered rows of a group could not be
+ * attributed to its statements.
+ */
+public class InsertGroupCommitter {
+    private static final Logger LOG = LogManager.getLogger(InsertGroupCommitter.class);
+
+    private static final InsertGroupCommitter INSTANCE = new InsertGroupCommitter();
+
+    // group key -> the group collecting statements in current time window
+    private final Map<String, Group> collectingGroups = Maps.newHashMap();
+
+    public static InsertGroupCommitter getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean canGroupCommit(InsertStmt stmt, ConnectContext context) {
+        if (!context.getSessionVariable().isEnableInsertGroupCommit()
+                || !context.getSessionVariable().getEnableInsertStrict()) {
+            return false;
+        }
+        if (stmt.isExplain() || stmt.isOverwrite() || stmt.isSystem() || !Strings.isNullOrEmpty(stmt.getLabel())
+                || stmt.getTargetPartitionNames() != null || stmt.getOrigStmt() == null) {
+            return false;
+        }
+        if (!(stmt.getQueryStatement().getQueryRelation() instanceof ValuesRelation)) {
+            return false;
+        }
+        // only constant rows could be merged without changing the result
+        ValuesRelation values = (ValuesRelation) stmt.getQueryStatement().getQueryRelation();
+        for (List<Expr> row : values.getRows()) {
+            for (Expr expr : row) {
+                if (!(expr instanceof LiteralExpr) && !(expr instanceof DefaultValueExpr)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The statements could be grouped only if they have the same target table, target columns, user and
+     * the session variables used by loading.
+     */
+    static String getGroupKey(InsertStmt stmt, ConnectContext context) {
+        TableName tableName = stmt.getTableName();
+        String catalog = Strings.isNullOrEmpty(tableName.getCatalog()) ? context.getCurrentCatalog()
+                : tableName.getCatalog();
+        String db = Strings.isNullOrEmpty(tableName.getDb()) ? context.getDatabase() : tableName.getDb();
+        ValuesRelation values = (ValuesRelation) stmt.getQueryStatement().getQueryRelation();
+        SessionVariable sessionVariable = context.getSessionVariable();
+        return Joiner.on('\u0000').useForNull("").join(catalog, db, tableName.getTbl(),
+                stmt.getTargetColumnNames() == null ? "" : Joiner.on(',').join(stmt.getTargetColumnNames()),
+                values.getColumnOutputNames().size(), context.getQualifiedUser(),
+                sessionVariable.getEnableInsertStrict(), sessionVariable.getQueryTimeoutS());
+    }
+
+    /**
+     * Execute the insert statement in a group commit, and set the result to the state of context.
+     * Return false if the transaction of the group failed, then the statement must be executed on its own.
+     */
+    public boolean execute(InsertStmt stmt, ConnectContext context) throws Exception {
+        analyze(stmt, context);
+
+        Group group;
+        boolean isLeader;
+        synchronized (this) {
+            String key = getGroupKey(stmt, context);
+            group = collectingGroups.get(key);
+            isLeader = group == null;
+            if (isLeader) {
+                group = new Group(key);
+                collectingGroups.put(key, group);
+            }
+            group.add(stmt);
+            if (group.numRows >= Config.insert_group_commit_max_rows) {
+                closeGroup(group);
+            }
+        }
+
+        if (isLeader) {
+            executeAsLeader(group, context);
+        } else {
+            // the rows may be committed by the leader at any time once they are in the group,
+            // so wait for the outcome of the group instead of failing by timeout, or a retry duplicates them
+            group.awaitFinished();
+        }
+        if (group.retryAlone) {
+            LOG.debug("group commit of insert failed, execute the statement alone: {}",
+                    group.result.getErrorMessage());
+            context.getState().reset();
+            return false;
+        }
+        setResult(group, getNumRows(stmt), context);
+        return true;
+    }
+
+    private static void analyze(InsertStmt stmt, ConnectContext context) {
+        Map<String, Database> dbs = AnalyzerUtils.collectAllDatabase(context, stmt);
+        for (Database db : dbs.values()) {
+            db.readLock();
+        }
+        try {
+            Analyzer.analyze(stmt, context);
+            PrivilegeChecker.check(stmt, context);
+        } finally {
+            for (Database db : dbs.values()) {
+                db.readUnlock();
+            }
+        }
+    }
+
+    private synchronized void closeGroup(Group group) {
+        if (!group.closed) {
+            group.closed = true;
+            collectingGroups.remove(group.key, group);
+            notifyAll();
+        }
+    }
+
+    private void executeAsLeader(Group group, ConnectContext context) {
+        String label = "insert_group_" + DebugUtil.printId(context.getExecutionId());
+        try {
+            synchronized (this) {
+                long deadline = System.currentTimeMillis() + Config.insert_group_commit_interval_ms;
+                long waitMs = Config.insert_group_commit_interval_ms;
+                while (!group.closed && waitMs > 0) {
+                    wait(waitMs);
+                    waitMs = deadline - System.currentTimeMillis();
+                }
+                closeGroup(group);
+            }
+
+            InsertStmt mergedStmt = mergeInsertStmts(group.stmts, label);
+            LOG.debug("group commit {} insert statements of {} rows, label: {}",
+                    group.stmts.size(), group.numRows, mergedStmt.getLabel());
+            new StmtExecutor(context, mergedStmt).execute();
+            // copy the state, because the state of context is reset by the next statement of the connection
+            QueryState state = new QueryState();
+            QueryState mergedState = context.getState();
+            if (mergedState.getStateType() == MysqlStateType.ERR) {
+                state.setError(mergedState.getErrorMessage());
+                state.setErrType(mergedState.getErrType());
+            } else {
+                state.setOk(mergedState.getAffectedRows(), mergedState.getWarningRows(),
+                        mergedState.getInfoMessage());
+            }
+            group.finish(state, state.getStateType() == MysqlStateType.ERR && isRetryable(group, label, context));
+        } catch (Throwable t) {
+            LOG.warn("group commit of insert failed", t);
+            QueryState state = new QueryState();
+            state.setError(t.getMessage() == null ? "Unknown reason" : t.getMessage());
+            group.finish(state, isRetryable(group, label, context));
+        }
+    }
+
+    // A failed group is retried statement by statement, unless its transaction is committed anyway
+    private static boolean isRetryable(Group group, String label, ConnectContext context) {
+        return group.stmts.size() > 1 && !isCommitted(group.stmts.get(0), label, context);
+    }
+
+    private static boolean isCommitted(InsertStmt stmt, String label, ConnectContext context) {
+        try {
+            Database db = MetaUtils.getDatabase(context, stmt.getTableName());
+            TransactionStatus status =
+                    GlobalStateMgr.getCurrentGlobalTransactionMgr().getLabelState(db.getId(), label);
+            return status == TransactionStatus.COMMITTED || status == TransactionStatus.VISIBLE;
+        } catch (Exception e) {
+            // the rows could not be loaded if the database is gone
+            return false;
+        }
+    }
+
+    /**
+     * Merge the rows of the statements into one statement with the label of the group,
+     * its origin statement is the merged INSERT INTO VALUES statement.
+     */
+    static InsertStmt mergeInsertStmts(List<InsertStmt> stmts, String label) {
+        InsertStmt first = stmts.get(0);
+        ValuesRelation firstValues = (ValuesRelation) first.getQueryStatement().getQueryRelation();
+        List<ArrayList<Expr>> rows = Lists.newArrayList();
+        for (InsertStmt stmt : stmts) {
+            ValuesRelation values = (ValuesRelation) stmt.getQueryStatement().getQueryRelation();
+            for (List<Expr> row : values.getRows()) {
+                rows.add(new ArrayList<>(row));
+            }
+        }
+        InsertStmt mergedStmt = new InsertStmt(first.getTableName(), null, label, first.getTargetColumnNames(),
+                new QueryStatement(new ValuesRelation(rows, firstValues.getColumnOutputNames())), false);
+        mergedStmt.setOrigStmt(new OriginStatement(toSql(mergedStmt, rows), 0));
+        return mergedStmt;
+    }
+
+    private static String toSql(InsertStmt stmt, List<ArrayList<Expr>> rows) {
+        StringBuilder sb = new StringBuilder("INSERT INTO ").append(stmt.getTableName().toSql())
+                .append(" WITH LABEL `").append(stmt.getLabel()).append("`");
+        if (stmt.getTargetColumnNames() != null) {
+            sb.append(" (").append(Joiner.on(", ").join(stmt.getTargetColumnNames())).append(")");
+        }
+        sb.append(" VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("(").append(Joiner.on(", ").join(rows.get(i).stream().map(Expr::toSql).iterator()))
+                    .append(")");
+        }
+        return sb.toString();
+    }
+
+    private static int getNumRows(InsertStmt stmt) {
+        return ((ValuesRelation) stmt.getQueryStatement().getQueryRelation()).getRows().size();
+    }
+
+    private static void setResult(Group group, int numRows, ConnectContext context) {
+        QueryState result = group.result;
+        if (result.getStateType() == MysqlStateType.ERR) {
+            context.getState().setError(result.getErrorMessage());
+            context.getState().setErrType(result.getErrType());
+        } else if (result.getAffectedRows() == 0 && result.getWarningRows() == 0) {
+            // no data is loaded
+            context.getState().setOk();
+        } else {
+            // only statements in strict mode are grouped, any filtered row fails the transaction of the group,
+            // so all the rows of the statement are loaded
+            context.getState().setOk(numRows, 0, result.getInfoMessage());
+        }
+    }
+
+    // Statements collected in a time window and loaded in one transaction
+    static class Group {
+        private final String key;
+        private final List<InsertStmt> stmts = Lists.newArrayList();
+        private int numRows = 0;
+        // no more statements could be added if closed, guarded by the committer
+        private boolean closed = false;
+
+        private QueryState result;
+        // whether the statements of the group must be executed on their own
+        private boolean retryAlone = false;
+
+        Group(String key) {
+            this.key = key;
+        }
+
+        void add(InsertStmt stmt) {
+            stmts.add(stmt);
+            numRows += getNumRows(stmt);
+        }
+
+        synchronized void finish(QueryState state, boolean retryAlone) {
+            this.retryAlone = retryAlone;
+            result = state;
+            notifyAll();
+        }
+
+        // the leader always finishes the group, its load is bounded by the query timeout
+        synchronized void awaitFinished() throws InterruptedException {
+            while (result == null) {
+                wait();
+            }
+        }
+    }
+}
@@ -22,10 +22,14 @@
 package com.starrocks.qe;
 
 import com.starrocks.analysis.RedirectStatus;
+import com.starrocks.catalog.Type;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.mysql.MysqlProto;
+import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.qe.QueryState.MysqlStateType;
 import com.starrocks.rpc.FrontendServiceProxy;
 import com.starrocks.sql.analyzer.AST2SQL;
@@ -41,6 +45,8 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 public class LeaderOpExecutor {
     private static final Logger LOG = LogManager.getLogger(LeaderOpExecutor.class);
@@ -176,12 +182,48 @@ public class LeaderOpExecutor {
         if (!result.isSetChannelBufferList() || result.channelBufferList.isEmpty()) {
             return false;
         }
+        if (ctx.getCommand() == MysqlCommand.COM_STMT_EXECUTE) {
+            sendBinaryResultToChannel(channel);
+            return true;
+        }
         for (ByteBuffer byteBuffer : result.channelBufferList) {
             channel.sendOnePacket(byteBuffer);
         }
         return true;
     }
 
+    // The leader replies the result set of a forwarded query in text protocol: the column count, the columns,
+    // an EOF packet and the rows. Convert it to the binary protocol expected by COM_STMT_EXECUTE.
+    private void sendBinaryResultToChannel(MysqlChannel channel) throws IOException {
+        List<ByteBuffer> packets = result.channelBufferList;
+        int numColumns = (int) MysqlProto.readVInt(packets.get(0).duplicate());
+        channel.sendOnePacket(packets.get(0));
+        MysqlSerializer serializer = ctx.getSerializer();
+        for (int i = 1; i <= numColumns; i++) {
+            ByteBuffer field = packets.get(i).duplicate();
+            // skip catalog, schema, table and origin table, then read the column name
+            for (int j = 0; j < 4; j++) {
+                MysqlProto.readLenEncodedString(field);
+            }
+            String columnName = new String(MysqlProto.readLenEncodedString(field), StandardCharsets.UTF_8);
+            serializer.reset();
+            serializer.writeField(columnName, Type.VARCHAR);
+            channel.sendOnePacket(serializer.toByteBuffer());
+        }
+        for (int i = numColumns + 1; i < packets.size(); i++) {
+            ByteBuffer packet = packets.get(i);
+            if (i == numColumns + 1 || isEofPacket(packet)) {
+                channel.sendOnePacket(packet);
+            } else {
+                channel.sendOnePacket(MysqlProto.textRowToBinaryRow(packet, numColumns));
+            }
+        }
+    }
+
+    private static boolean isEofPacket(ByteBuffer packet) {
+        return packet.remaining() < 9 && (packet.get(packet.position()) & 0xFF) == 0xFE;
+    }
+
     public void setResult(TMasterOpResult result) {
         this.result = result;
     }
@@ -0,0 +1,292 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Database;
+import com.starrocks.mysql.MysqlColType;
+import com.starrocks.mysql.MysqlProto;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+import com.starrocks.sql.analyzer.PrivilegeChecker;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server side state of one statement prepared by COM_STMT_PREPARE.
+ * The statement text is split around its '?' parameter markers once at prepare time,
+ * every COM_STMT_EXECUTE only decodes the binary parameters and binds them as sql literals.
+ * The bound statement text is executed like a COM_QUERY, so it is parsed, analyzed and planned again on
+ * every execution, no plan is kept for the prepared statement.
+ */
+public class PreparedStmtContext {
+    private static final Logger LOG = LogManager.getLogger(PreparedStmtContext.class);
+
+    // the unsigned flag is carried in the high byte of the parameter type
+    private static final int UNSIGNED_FLAG = 0x8000;
+
+    private final int stmtId;
+    private final String originStmt;
+    // statement text around the parameter markers, size is always numParams + 1
+    private final List<String> fragments;
+    // parameter types bound by the last COM_STMT_EXECUTE, clients only resend them
+    // when new-params-bound-flag is set
+    private int[] paramTypes;
+
+    public PreparedStmtContext(int stmtId, String originStmt) {
+        this.stmtId = stmtId;
+        this.originStmt = originStmt;
+        this.fragments = splitByParamMarkers(originStmt);
+    }
+
+    public int getStmtId() {
+        return stmtId;
+    }
+
+    public String getOriginStmt() {
+        return originStmt;
+    }
+
+    public int getNumParams() {
+        return fragments.size() - 1;
+    }
+
+    public void reset() {
+        paramTypes = null;
+    }
+
+    /**
+     * Analyze the statement with NULL bound to all its parameters and return the names of its result columns.
+     * Return an empty list if it is not a query, or it can't be analyzed before its parameters are bound.
+     */
+    public List<String> analyzeColumnNames(ConnectContext context) {
+        StatementBase parsedStmt;
+        Map<String, Database> dbs;
+        try {
+            parsedStmt = SqlParser.parse(bind(Collections.nCopies(getNumParams(), "NULL")),
+                    context.getSessionVariable()).get(0);
+            if (!(parsedStmt instanceof QueryStatement)) {
+                return Collections.emptyList();
+            }
+            dbs = AnalyzerUtils.collectAllDatabase(context, parsedStmt);
+        } catch (Exception e) {
+            LOG.debug("Failed to parse prepared statement {}", stmtId, e);
+            return Collections.emptyList();
+        }
+        for (Database db : dbs.values()) {
+            db.readLock();
+        }
+        try {
+            Analyzer.analyze(parsedStmt, context);
+            PrivilegeChecker.check(parsedStmt, context);
+            return ((QueryStatement) parsedStmt).getQueryRelation().getColumnOutputNames();
+        } catch (Exception e) {
+            LOG.debug("Failed to analyze prepared statement {}", stmtId, e);
+            return Collections.emptyList();
+        } finally {
+            for (Database db : dbs.values()) {
+                db.readUnlock();
+            }
+        }
+    }
+
+    /**
+     * Decode the parameters of a COM_STMT_EXECUTE packet and return the statement with them bound.
+     * The buffer must be positioned right after the iteration-count field.
+     */
+    public String bindParams(ByteBuffer packet) {
+        int numParams = getNumParams();
+        if (numParams == 0) {
+            return originStmt;
+        }
+        byte[] nullBitmap = MysqlProto.readFixedString(packet, (numParams + 7) / 8);
+        boolean newParamsBound = MysqlProto.readInt1(packet) == 1;
+        if (newParamsBound) {
+            paramTypes = new int[numParams];
+            for (int i = 0; i < numParams; i++) {
+                paramTypes[i] = MysqlProto.readInt2(packet);
+            }
+        }
+        Preconditions.checkState(paramTypes != null, "Parameter types of statement %s are not bound", stmtId);
+
+        List<String> literals = Lists.newArrayListWithCapacity(numParams);
+        for (int i = 0; i < numParams; i++) {
+            if ((nullBitmap[i / 8] & (1 << (i % 8))) != 0) {
+                literals.add("NULL");
+            } else {
+                literals.add(readParamLiteral(packet, paramTypes[i]));
+            }
+        }
+        return bind(literals);
+    }
+
+    public String bind(List<String> literals) {
+        Preconditions.checkArgument(literals.size() == getNumParams(),
+                "Expect %s parameters, but got %s", getNumParams(), literals.size());
+        StringBuilder sb = new StringBuilder(fragments.get(0));
+        for (int i = 0; i < literals.size(); i++) {
+            sb.append(literals.get(i)).append(fragments.get(i + 1));
+        }
+        return sb.toString();
+    }
+
+    // Read one binary protocol value and format it as a sql literal.
+    // https://dev.mysql.com/doc/internals/en/binary-protocol-value.html
+    static String readParamLiteral(ByteBuffer packet, int paramType) {
+        boolean unsigned = (paramType & UNSIGNED_FLAG) != 0;
+        int type = paramType & 0xFF;
+        if (type == MysqlColType.MYSQL_TYPE_TINY.getCode()) {
+            byte value = MysqlProto.readByte(packet);
+            return unsigned ? Integer.toString(value & 0xFF) : Byte.toString(value);
+        } else if (type == MysqlColType.MYSQL_TYPE_SHORT.getCode() || type == MysqlColType.MYSQL_TYPE_YEAR.getCode()) {
+            int value = MysqlProto.readInt2(packet);
+            return unsigned ? Integer.toString(value) : Short.toString((short) value);
+        } else if (type == MysqlColType.MYSQL_TYPE_LONG.getCode() || type == MysqlColType.MYSQL_TYPE_INT24.getCode()) {
+            int value = MysqlProto.readInt4(packet);
+            return unsigned ? Integer.toUnsignedString(value) : Integer.toString(value);
+        } else if (type == MysqlColType.MYSQL_TYPE_LONGLONG.getCode()) {
+            long value = MysqlProto.readInt8(packet);
+            return unsigned ? Long.toUnsignedString(value) : Long.toString(value);
+        } else if (type == MysqlColType.MYSQL_TYPE_FLOAT.getCode()) {
+            return Float.toString(Float.intBitsToFloat(MysqlProto.readInt4(packet)));
+        } else if (type == MysqlColType.MYSQL_TYPE_DOUBLE.getCode()) {
+            return Double.toString(Double.longBitsToDouble(MysqlProto.readInt8(packet)));
+        } else if (type == MysqlColType.MYSQL_TYPE_NULL.getCode()) {
+            return "NULL";
+        } else if (type == MysqlColType.MYSQL_TYPE_DATE.getCode()
+                || type == MysqlColType.MYSQL_TYPE_DATETIME.getCode()
+                || type == MysqlColType.MYSQL_TYPE_TIMESTAMP.getCode()) {
+            return readDateTimeLiteral(packet);
+        } else if (type == MysqlColType.MYSQL_TYPE_TIME.getCode()) {
+            return readTimeLiteral(packet);
+        } else {
+            // strings, decimals, blobs and everything else are sent as length encoded strings
+            return quote(new String(MysqlProto.readLenEncodedString(packet), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String readDateTimeLiteral(ByteBuffer packet) {
+        int length = MysqlProto.readInt1(packet);
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int microsecond = 0;
+        if (length >= 4) {
+            year = MysqlProto.readInt2(packet);
+            month = MysqlProto.readInt1(packet);
+            day = MysqlProto.readInt1(packet);
+        }
+        if (length >= 7) {
+            hour = MysqlProto.readInt1(packet);
+            minute = MysqlProto.readInt1(packet);
+            second = MysqlProto.readInt1(packet);
+        }
+        if (length >= 11) {
+            microsecond = MysqlProto.readInt4(packet);
+        }
+        if (length <= 4) {
+            return String.format("'%04d-%02d-%02d'", year, month, day);
+        } else if (length < 11) {
+            return String.format("'%04d-%02d-%02d %02d:%02d:%02d'", year, month, day, hour, minute, second);
+        }
+        return String.format("'%04d-%02d-%02d %02d:%02d:%02d.%06d'", year, month, day, hour, minute, second,
+                microsecond);
+    }
+
+    private static String readTimeLiteral(ByteBuffer packet) {
+        int length = MysqlProto.readInt1(packet);
+        if (length == 0) {
+            return "'00:00:00'";
+        }
+        boolean negative = MysqlProto.readInt1(packet) == 1;
+        long days = MysqlProto.readInt4(packet) & 0xFFFFFFFFL;
+        int hour = MysqlProto.readInt1(packet);
+        int minute = MysqlProto.readInt1(packet);
+        int second = MysqlProto.readInt1(packet);
+        int microsecond = length >= 12 ? MysqlProto.readInt4(packet) : 0;
+        String time = String.format("%s%02d:%02d:%02d", negative ? "-" : "", days * 24 + hour, minute, second);
+        if (microsecond != 0) {
+            time += String.format(".%06d", microsecond);
+        }
+        return "'" + time + "'";
+    }
+
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        sb.append('\'');
+        return sb.toString();
+    }
+
+    /**
+     * Split the statement around its '?' parameter markers.
+     * Markers inside quoted strings, quoted identifiers and comments are kept as they are.
+     */
+    static List<String> splitByParamMarkers(String sql) {
+        List<String> fragments = Lists.newArrayList();
+        int start = 0;
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(sql, i, c);
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                // same as the SIMPLE_COMMENT of the lexer, no space is required after the dashes
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '?') {
+                fragments.add(sql.substring(start, i));
+                start = ++i;
+            } else {
+                i++;
+            }
+        }
+        fragments.add(sql.substring(start));
+        return fragments;
+    }
+
+    // return the position after the closing quote
+    private static int skipQuoted(String sql, int begin, char quote) {
+        int i = begin + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    // doubled quote is an escaped quote
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+}
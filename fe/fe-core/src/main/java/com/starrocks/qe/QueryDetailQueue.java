@@ -23,61 +23,134 @@ package com.starrocks.qe;
 
 import com.google.common.collect.Lists;
 
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 // Queue of QueryDetail.
 // It's used to collect queries for monitor.
+// QueryDetails are kept in a bounded ring buffer in the order of event time without lock, so adding a
+// QueryDetail does not block each other and getting QueryDetails after a time is a binary search.
 public class QueryDetailQueue {
-    private static final LinkedList<QueryDetail> TOTAL_QUERIES = new LinkedList<QueryDetail>();
-
     //starrocks-manager pull queries every 1 second
     //metrics calculate query latency every 15 second
     //do not set cacheTime lower than these time
     private static final long CACHE_TIME_NS = 30000000000L;
-    private static long latestMS;
-    private static long latestMSCnt;
-
-    public static synchronized void addAndRemoveTimeoutQueryDetail(QueryDetail queryDetail) {
-        //set event time here to guarantee order
-        long now = getCurrentTimeNS();
-        queryDetail.setEventTime(now);
-        TOTAL_QUERIES.add(queryDetail);
-
-        Iterator<QueryDetail> it = TOTAL_QUERIES.iterator();
-        long deleteTime = now - CACHE_TIME_NS;
-        while (it.hasNext()) {
-            QueryDetail detail = it.next();
-            if (detail.getEventTime() < deleteTime) {
-                it.remove();
-            } else {
-                break;
+
+    // enough for the QueryDetails in CACHE_TIME_NS at 5k QPS, must be a power of 2
+    private static final int CAPACITY = 1 << 19;
+    private static final int MASK = CAPACITY - 1;
+
+    private static final AtomicReferenceArray<Entry> ENTRIES = new AtomicReferenceArray<>(CAPACITY);
+    // sequence of the next QueryDetail and event time of the last QueryDetail
+    private static final AtomicReference<Cursor> CURSOR = new AtomicReference<>(new Cursor(0, 0));
+    // sequence of the oldest QueryDetail not removed
+    private static final AtomicLong HEAD = new AtomicLong(0);
+
+    private static class Cursor {
+        private final long seq;
+        private final long eventTime;
+
+        private Cursor(long seq, long eventTime) {
+            this.seq = seq;
+            this.eventTime = eventTime;
+        }
+    }
+
+    private static class Entry {
+        private final long seq;
+        private final QueryDetail queryDetail;
+
+        private Entry(long seq, QueryDetail queryDetail) {
+            this.seq = seq;
+            this.queryDetail = queryDetail;
+        }
+    }
+
+    public static void addAndRemoveTimeoutQueryDetail(QueryDetail queryDetail) {
+        // assign sequence and event time together to guarantee event time is in the order of sequence
+        //NOTICE: this is not precise nano seconds, but good enough to make eventTime in order and unique
+        Cursor cursor;
+        Cursor next;
+        do {
+            cursor = CURSOR.get();
+            long now = Math.max(System.currentTimeMillis() * 1000000, cursor.eventTime + 1);
+            next = new Cursor(cursor.seq + 1, now);
+        } while (!CURSOR.compareAndSet(cursor, next));
+
+        queryDetail.setEventTime(next.eventTime);
+        ENTRIES.set(indexOf(cursor.seq), new Entry(cursor.seq, queryDetail));
+        removeTimeoutQueryDetails(next.eventTime - CACHE_TIME_NS, next.seq);
+    }
+
+    private static void removeTimeoutQueryDetails(long deleteTime, long end) {
+        while (true) {
+            long head = HEAD.get();
+            if (head < end - CAPACITY) {
+                // overwritten by the newer ones
+                HEAD.compareAndSet(head, end - CAPACITY);
+                continue;
+            }
+            if (head >= end) {
+                return;
+            }
+            int index = indexOf(head);
+            Entry entry = ENTRIES.get(index);
+            // stop at the QueryDetail not added yet or not timeout
+            if (entry == null || entry.seq != head || entry.queryDetail.getEventTime() >= deleteTime) {
+                return;
+            }
+            if (HEAD.compareAndSet(head, head + 1)) {
+                ENTRIES.compareAndSet(index, entry, null);
             }
         }
     }
 
-    public static synchronized List<QueryDetail> getQueryDetailsAfterTime(long eventTime) {
+    public static List<QueryDetail> getQueryDetailsAfterTime(long eventTime) {
+        long end = CURSOR.get().seq;
+        long begin = Math.max(HEAD.get(), end - CAPACITY);
+
+        // binary search the first QueryDetail after eventTime
+        long low = begin;
+        long high = end;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            Entry entry = ENTRIES.get(indexOf(mid));
+            if (isRemoved(entry, mid)) {
+                low = mid + 1;
+            } else if (entry == null || entry.seq < mid || entry.queryDetail.getEventTime() > eventTime) {
+                // QueryDetail not added yet is newer
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
         List<QueryDetail> results = Lists.newArrayList();
-        for (QueryDetail queryDetail : TOTAL_QUERIES) {
-            if (queryDetail.getEventTime() > eventTime) {
-                results.add(queryDetail);
+        for (long seq = low; seq < end; seq++) {
+            Entry entry = ENTRIES.get(indexOf(seq));
+            if (isRemoved(entry, seq)) {
+                continue;
             }
+            if (entry == null || entry.seq != seq) {
+                // return the QueryDetails before the one not added yet, so it won't be missed by the next call
+                break;
+            }
+            results.add(entry.queryDetail);
         }
         return results;
     }
 
-    //must get lock before call
-    //NOTICE: this is not precise nano seconds, but good enough to make eventTime in order and unique
-    private static long getCurrentTimeNS() {
-        long ms = System.currentTimeMillis();
-        if (ms == latestMS) {
-            latestMSCnt++;
-            return ms * 1000000 + latestMSCnt;
-        } else {
-            latestMS = ms;
-            latestMSCnt = 0;
-            return ms * 1000000;
+    // Whether the QueryDetail of seq has been removed or overwritten, which is older than all the existing ones
+    private static boolean isRemoved(Entry entry, long seq) {
+        if (entry != null && entry.seq > seq) {
+            return true;
         }
+        return entry == null && seq < HEAD.get();
+    }
+
+    private static int indexOf(long seq) {
+        return (int) (seq & MASK);
     }
-};
+}
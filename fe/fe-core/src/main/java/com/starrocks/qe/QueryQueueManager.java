@@ -3,6 +3,8 @@
 package com.starrocks.qe;
 
 import com.google.common.base.Preconditions;
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.catalog.ResourceGroupClassifier;
 import com.starrocks.common.UserException;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.planner.DataSink;
@@ -11,10 +13,13 @@ import com.starrocks.planner.ScanNode;
 import com.starrocks.planner.SchemaScanNode;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
-import com.starrocks.system.ComputeNode;
+import com.starrocks.thrift.TWorkGroupType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,6 +27,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Queries are pending when BE is overloaded. The pending queries are queued by resource groups and admitted
+ * when the resource usage reported by BE frees capacity. The queue of a short query resource group is always
+ * admitted before the other queues, and the other queues share the capacity by the cpu core limit of groups.
+ */
 public class QueryQueueManager {
     private static final Logger LOG = LogManager.getLogger(QueryQueueManager.class);
 
@@ -31,6 +41,7 @@ public class QueryQueueManager {
         private final ReentrantLock lock;
         private final Condition condition;
         private boolean isCancelled = false;
+        private boolean isAdmitted = false;
 
         private PendingQueryInfo(ConnectContext connectCtx, ReentrantLock lock, Coordinator coordinator) {
             Preconditions.checkState(connectCtx != null);
@@ -50,6 +61,12 @@ public class QueryQueueManager {
             condition.signal();
         }
 
+        public void admitAfterLock() {
+            Preconditions.checkState(lock.isHeldByCurrentThread());
+            isAdmitted = true;
+            signalAfterLock();
+        }
+
         public void cancelAfterLock() {
             Preconditions.checkState(lock.isHeldByCurrentThread());
             isCancelled = true;
@@ -57,6 +74,32 @@ public class QueryQueueManager {
         }
     }
 
+    // The pending queries of a resource group, which are admitted in FIFO order.
+    private static class PendingQueue {
+        private final long groupId;
+        private final Deque<PendingQueryInfo> queries = new ArrayDeque<>();
+        private int priority;
+        private int weight;
+        // The number of admitted queries divided by weight, the queue with the minimal one is admitted first.
+        private double virtualTime;
+
+        private PendingQueue(long groupId, double virtualTime) {
+            this.groupId = groupId;
+            this.virtualTime = virtualTime;
+        }
+
+        private void update(ResourceGroup group) {
+            if (group == null) {
+                priority = NORMAL_PRIORITY;
+                weight = 1;
+            } else {
+                priority = group.getResourceGroupType() == TWorkGroupType.WG_SHORT_QUERY ?
+                        HIGH_PRIORITY : NORMAL_PRIORITY;
+                weight = group.getCpuCoreLimit() == null ? 1 : Math.max(1, group.getCpuCoreLimit());
+            }
+        }
+    }
+
     private static class SingletonHolder {
         private static final QueryQueueManager INSTANCE = new QueryQueueManager();
     }
@@ -65,10 +108,22 @@ public class QueryQueueManager {
         return QueryQueueManager.SingletonHolder.INSTANCE;
     }
 
+    // The pending queries are woken up by the resource usage report, and also check whether they could run
+    // in this interval, in case that the resource usage is not fresh anymore without any report.
     private static final long CHECK_INTERVAL_MS = 1000L;
 
+    private static final long NO_RESOURCE_GROUP_ID = 0;
+    private static final int NORMAL_PRIORITY = 0;
+    private static final int HIGH_PRIORITY = 1;
+
     private final ReentrantLock lock = new ReentrantLock();
     private final Map<ConnectContext, PendingQueryInfo> pendingQueryInfoMap = new ConcurrentHashMap<>();
+    // resource group id -> pending queries of the group, only contains the non-empty queues
+    private final Map<Long, PendingQueue> pendingQueues = new HashMap<>();
+    // The virtual time of the last admitted queue. A new queue starts from it to not preempt the others.
+    private double virtualClock = 0;
+    // backend id -> the number of queries admitted after the last resource usage report of the backend
+    private final Map<Long, Integer> numAdmittedQueriesMap = new ConcurrentHashMap<>();
 
     public void cancelQuery(ConnectContext connectCtx) {
         if (connectCtx == null) {
@@ -99,6 +154,7 @@ public class QueryQueueManager {
             lock.lock();
 
             backend.updateResourceUsage(numRunningQueries, memLimitBytes, memUsedBytes, cpuUsedPermille);
+            numAdmittedQueriesMap.remove(backendId);
             maybeNotifyAfterLock();
         } finally {
             lock.unlock();
@@ -109,17 +165,25 @@ public class QueryQueueManager {
         if (!needCheckQueue(coord)) {
             return;
         }
-        if (!enableCheckQueue(coord) || canRunMore()) {
+        if (!enableCheckQueue(coord)) {
+            return;
+        }
+        // Don't overtake the pending queries.
+        if (pendingQueryInfoMap.isEmpty() && canRunMore()) {
+            increaseAdmittedQueries();
             return;
         }
 
         long startMs = System.currentTimeMillis();
         long timeoutMs;
         PendingQueryInfo info = new PendingQueryInfo(connectCtx, lock, coord);
+        ResourceGroup group = getResourceGroup(connectCtx, coord);
+        long groupId = group == null ? NO_RESOURCE_GROUP_ID : group.getId();
 
         try {
             lock.lock();
-            if (!enableCheckQueue(coord) || canRunMore()) {
+            if (pendingQueryInfoMap.isEmpty() && canRunMore()) {
+                increaseAdmittedQueries();
                 return;
             }
 
@@ -128,11 +192,17 @@ public class QueryQueueManager {
             }
             info.connectCtx.setPending(true);
             pendingQueryInfoMap.put(info.connectCtx, info);
+            PendingQueue queue = pendingQueues.computeIfAbsent(groupId, id -> new PendingQueue(id, virtualClock));
+            queue.update(group);
+            queue.queries.add(info);
 
             MetricRepo.COUNTER_QUERY_QUEUE_PENDING.increase(1L);
             MetricRepo.COUNTER_QUERY_QUEUE_TOTAL.increase(1L);
 
-            while (enableCheckQueue(coord) && !canRunMore()) {
+            // The previous pending queries may be able to run.
+            maybeNotifyAfterLock();
+
+            while (!info.isAdmitted && enableCheckQueue(coord)) {
                 timeoutMs = startMs + GlobalVariable.getQueryQueuePendingTimeoutSecond() * 1000L;
                 long currentMs = System.currentTimeMillis();
                 if (currentMs >= timeoutMs) {
@@ -145,29 +215,56 @@ public class QueryQueueManager {
                 if (info.isCancelled) {
                     throw new UserException("Cancelled");
                 }
+                if (!info.isAdmitted) {
+                    maybeNotifyAfterLock();
+                }
             }
         } finally {
-            info.connectCtx.auditEventBuilder.setPendingTimeMs(System.currentTimeMillis() - startMs);
-            info.connectCtx.setPending(false);
-            pendingQueryInfoMap.remove(info.connectCtx);
-
-            MetricRepo.COUNTER_QUERY_QUEUE_PENDING.increase(-1L);
+            if (pendingQueryInfoMap.remove(info.connectCtx) != null) {
+                removePendingQueryAfterLock(info, groupId);
+                info.connectCtx.auditEventBuilder.setPendingTimeMs(System.currentTimeMillis() - startMs);
+                info.connectCtx.setPending(false);
+                MetricRepo.COUNTER_QUERY_QUEUE_PENDING.increase(-1L);
+            }
 
             lock.unlock();
         }
     }
 
+    private void removePendingQueryAfterLock(PendingQueryInfo info, long groupId) {
+        PendingQueue queue = pendingQueues.get(groupId);
+        if (queue == null) {
+            return;
+        }
+        queue.queries.remove(info);
+        if (queue.queries.isEmpty()) {
+            pendingQueues.remove(groupId);
+        }
+    }
+
+    // Admit the pending queries one by one as long as BE is not overloaded. The queries admitted after the last
+    // resource usage report are counted as running queries of BE, so only the freed capacity is taken.
     // Public for test.
     public void maybeNotifyAfterLock() {
         Preconditions.checkState(lock.isHeldByCurrentThread());
 
-        if (pendingQueryInfoMap.isEmpty()) {
-            return;
-        }
-        if (canRunMore()) {
-            for (PendingQueryInfo queryInfo : pendingQueryInfoMap.values()) {
-                queryInfo.signalAfterLock();
+        while (!pendingQueues.isEmpty() && canRunMore()) {
+            PendingQueue queue = null;
+            for (PendingQueue q : pendingQueues.values()) {
+                if (queue == null || q.priority > queue.priority ||
+                        (q.priority == queue.priority && q.virtualTime < queue.virtualTime)) {
+                    queue = q;
+                }
+            }
+            PendingQueryInfo queryInfo = queue.queries.poll();
+            if (queue.queries.isEmpty()) {
+                pendingQueues.remove(queue.groupId);
             }
+            virtualClock = queue.virtualTime;
+            queue.virtualTime += 1.0 / queue.weight;
+
+            queryInfo.admitAfterLock();
+            increaseAdmittedQueries();
         }
     }
 
@@ -180,6 +277,22 @@ public class QueryQueueManager {
         }
     }
 
+    private void increaseAdmittedQueries() {
+        if (!GlobalVariable.isQueryQueueConcurrencyLimitEffective()) {
+            return;
+        }
+        for (Backend backend : GlobalStateMgr.getCurrentSystemInfo().getBackends()) {
+            numAdmittedQueriesMap.merge(backend.getId(), 1, Integer::sum);
+        }
+    }
+
+    // Public for test.
+    public ResourceGroup getResourceGroup(ConnectContext connectCtx, Coordinator coord) {
+        return CoordinatorPreprocessor.prepareResourceGroup(connectCtx,
+                coord.isLoadType() ? ResourceGroupClassifier.QueryType.INSERT :
+                        ResourceGroupClassifier.QueryType.SELECT);
+    }
+
     public boolean enableCheckQueue(Coordinator coord) {
         if (coord.isLoadType()) {
             return GlobalVariable.isEnableQueryQueueLoad();
@@ -208,7 +321,8 @@ public class QueryQueueManager {
 
     public boolean canRunMore() {
         return GlobalStateMgr.getCurrentSystemInfo().getBackends().stream()
-                .noneMatch(ComputeNode::isResourceOverloaded);
+                .noneMatch(backend -> backend.isResourceOverloaded(
+                        numAdmittedQueriesMap.getOrDefault(backend.getId(), 0)));
     }
 
     private boolean canQueueMore() {
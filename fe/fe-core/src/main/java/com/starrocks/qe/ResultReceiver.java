@@ -21,6 +21,8 @@
 
 package com.starrocks.qe;
 
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
 import com.starrocks.common.Status;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.metric.MetricRepo;
@@ -38,6 +40,9 @@ import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TDeserializer;
 import org.apache.thrift.TException;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -54,6 +59,25 @@ public class ResultReceiver {
     private final Long backendId;
     private Thread currentThread;
 
+    // BE replies the waiting fetch data rpcs in the order they arrive, and the result of one rpc is
+    // attached to its request, so the fetches in flight are kept in sending order and the received
+    // results which are ahead of packetIdx are kept by packet sequence.
+    private final Deque<Fetch> inflightFetches = new ArrayDeque<>();
+    private final Map<Long, Fetch> receivedFetches = Maps.newHashMap();
+    private boolean isEosReceived = false;
+    private final TDeserializer deserializer = new TDeserializer();
+
+    private static class Fetch {
+        private final PFetchDataRequest request;
+        private final Future<PFetchDataResult> future;
+        private PFetchDataResult result;
+
+        private Fetch(PFetchDataRequest request, Future<PFetchDataResult> future) {
+            this.request = request;
+            this.future = future;
+        }
+    }
+
     public ResultReceiver(TUniqueId tid, Long backendId, TNetworkAddress address, int timeoutMs) {
         this.finstId = new PUniqueId();
         this.finstId.hi = tid.hi;
@@ -70,48 +94,53 @@ public class ResultReceiver {
         final RowBatch rowBatch = new RowBatch();
         try {
             while (!isDone && !isCancel) {
-                PFetchDataRequest request = new PFetchDataRequest(finstId);
-
                 currentThread = Thread.currentThread();
-                Future<PFetchDataResult> future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
-                PFetchDataResult pResult = null;
-                while (pResult == null) {
-                    long currentTs = System.currentTimeMillis();
-                    if (currentTs >= timeoutTs) {
-                        throw new TimeoutException("query timeout");
+                sendFetches();
+
+                Fetch fetch = receivedFetches.remove(packetIdx);
+                if (fetch == null) {
+                    fetch = inflightFetches.poll();
+                    if (fetch == null) {
+                        LOG.warn("receive packet failed, expect={}, no fetch in flight", packetIdx);
+                        status.setRpcStatus("receive error packet");
+                        return null;
                     }
-                    try {
-                        pResult = future.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
-                    } catch (InterruptedException e) {
-                        // continue to get result
-                        LOG.info("future get interrupted Exception");
-                        if (isCancel) {
-                            status.setStatus(Status.CANCELLED);
-                            return null;
+                    fetch.result = waitFetchResult(fetch);
+                    if (fetch.result == null) {
+                        status.setStatus(Status.CANCELLED);
+                        return null;
+                    }
+                    PFetchDataResult pResult = fetch.result;
+                    TStatusCode code = TStatusCode.findByValue(pResult.status.statusCode);
+                    if (code != TStatusCode.OK) {
+                        status.setPstatus(pResult.status);
+                        return null;
+                    }
+                    isEosReceived |= pResult.eos;
+                    if (packetIdx != pResult.packetSeq) {
+                        if (pResult.packetSeq > packetIdx && !receivedFetches.containsKey(pResult.packetSeq)) {
+                            receivedFetches.put(pResult.packetSeq, fetch);
+                            continue;
+                        }
+                        // all the fetches waiting in BE are replied with the same sequence when closed
+                        if (pResult.eos) {
+                            continue;
                         }
+                        LOG.warn("receive packet failed, expect={}, receive={}", packetIdx, pResult.packetSeq);
+                        status.setRpcStatus("receive error packet");
+                        return null;
                     }
                 }
-                TStatusCode code = TStatusCode.findByValue(pResult.status.statusCode);
-                if (code != TStatusCode.OK) {
-                    status.setPstatus(pResult.status);
-                    return null;
-                }
 
+                PFetchDataResult pResult = fetch.result;
                 rowBatch.setQueryStatistics(pResult.queryStatistics);
-
-                if (packetIdx != pResult.packetSeq) {
-                    LOG.warn("receive packet failed, expect={}, receive={}", packetIdx, pResult.packetSeq);
-                    status.setRpcStatus("receive error packet");
-                    return null;
-                }
-
                 packetIdx++;
                 isDone = pResult.eos;
 
-                byte[] serialResult = request.getSerializedResult();
+                byte[] serialResult = fetch.request.getSerializedResult();
                 if (serialResult != null && serialResult.length > 0) {
+                    // rows of the batch are wrapped from serialResult without copying
                     TResultBatch resultBatch = new TResultBatch();
-                    TDeserializer deserializer = new TDeserializer();
                     deserializer.deserialize(resultBatch, serialResult);
                     rowBatch.setBatch(resultBatch);
                     rowBatch.setEos(pResult.eos);
@@ -152,6 +181,38 @@ public class ResultReceiver {
         return rowBatch;
     }
 
+    // Keep up to max_inflight_fetch_data_rpc_num batches fetching or fetched but not returned,
+    // so BE could send the next batches while the caller is sending the current batch to client.
+    private void sendFetches() throws RpcException {
+        int maxInflight = Math.max(1, Config.max_inflight_fetch_data_rpc_num);
+        while (!isEosReceived && inflightFetches.size() + receivedFetches.size() < maxInflight) {
+            PFetchDataRequest request = new PFetchDataRequest(finstId);
+            Future<PFetchDataResult> future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+            inflightFetches.add(new Fetch(request, future));
+        }
+    }
+
+    // Return null if the receiver is cancelled
+    private PFetchDataResult waitFetchResult(Fetch fetch) throws ExecutionException, TimeoutException {
+        PFetchDataResult pResult = null;
+        while (pResult == null) {
+            long currentTs = System.currentTimeMillis();
+            if (currentTs >= timeoutTs) {
+                throw new TimeoutException("query timeout");
+            }
+            try {
+                pResult = fetch.future.get(timeoutTs - currentTs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // continue to get result
+                LOG.info("future get interrupted Exception");
+                if (isCancel) {
+                    return null;
+                }
+            }
+        }
+        return pResult;
+    }
+
     public void cancel() {
         isCancel = true;
         synchronized (this) {
@@ -123,6 +123,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String DISABLE_BUCKET_JOIN = "disable_bucket_join";
     public static final String PARALLEL_FRAGMENT_EXEC_INSTANCE_NUM = "parallel_fragment_exec_instance_num";
     public static final String ENABLE_INSERT_STRICT = "enable_insert_strict";
+    public static final String ENABLE_INSERT_GROUP_COMMIT = "enable_insert_group_commit";
     public static final String ENABLE_SPILLING = "enable_spilling";
     // if set to true, some of stmt will be forwarded to leader FE to get result
     public static final String FORWARD_TO_LEADER = "forward_to_leader";
@@ -220,6 +221,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_ENABLE_PARALLEL_JOIN_REORDER = "cbo_enable_parallel_join_reorder";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String CBO_ENABLE_LOW_CARDINALITY_OPTIMIZE = "cbo_enable_low_cardinality_optimize";
@@ -292,6 +294,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String ENABLE_POPULATE_BLOCK_CACHE = "enable_populate_block_cache";
 
     public static final String ENABLE_QUERY_CACHE = "enable_query_cache";
+    public static final String ENABLE_PLAN_CACHE = "enable_plan_cache";
     public static final String QUERY_CACHE_FORCE_POPULATE = "query_cache_force_populate";
     public static final String QUERY_CACHE_ENTRY_MAX_BYTES = "query_cache_entry_max_bytes";
     public static final String QUERY_CACHE_ENTRY_MAX_ROWS = "query_cache_entry_max_rows";
@@ -561,6 +564,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_INSERT_STRICT)
     private boolean enableInsertStrict = true;
 
+    // merge the concurrent INSERT INTO VALUES statements of the same table into one transaction
+    @VariableMgr.VarAttr(name = ENABLE_INSERT_GROUP_COMMIT)
+    private boolean enableInsertGroupCommit = false;
+
     @VariableMgr.VarAttr(name = FORWARD_TO_LEADER, alias = FORWARD_TO_MASTER)
     private boolean forwardToLeader = false;
 
@@ -605,6 +612,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
 
+    // Run the dp and greedy join reorder algorithms concurrently instead of one by one
+    @VariableMgr.VarAttr(name = CBO_ENABLE_PARALLEL_JOIN_REORDER)
+    private boolean cboEnableParallelJoinReorder = false;
+
     @VariableMgr.VarAttr(name = CBO_DEBUG_ALIVE_BACKEND_NUMBER, flag = VariableMgr.INVISIBLE)
     private int cboDebugAliveBackendNumber = 0;
 
@@ -747,6 +758,9 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VarAttr(name = ENABLE_QUERY_CACHE)
     private boolean enableQueryCache = false;
 
+    @VarAttr(name = ENABLE_PLAN_CACHE)
+    private boolean enablePlanCache = false;
+
     @VarAttr(name = QUERY_CACHE_FORCE_POPULATE)
     private boolean queryCacheForcePopulate = false;
 
@@ -981,6 +995,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.enableInsertStrict = enableInsertStrict;
     }
 
+    public boolean isEnableInsertGroupCommit() {
+        return enableInsertGroupCommit;
+    }
+
+    public void setEnableInsertGroupCommit(boolean enableInsertGroupCommit) {
+        this.enableInsertGroupCommit = enableInsertGroupCommit;
+    }
+
     public boolean getForwardToLeader() {
         return forwardToLeader;
     }
@@ -1053,6 +1075,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return cboMaxReorderNodeUseDP;
     }
 
+    public void setCboMaxReorderNodeUseDP(long cboMaxReorderNodeUseDP) {
+        this.cboMaxReorderNodeUseDP = cboMaxReorderNodeUseDP;
+    }
+
     public boolean isCboEnableGreedyJoinReorder() {
         return cboEnableGreedyJoinReorder;
     }
@@ -1065,6 +1091,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.cboEnableGreedyJoinReorder = true;
     }
 
+    public boolean isCboEnableParallelJoinReorder() {
+        return cboEnableParallelJoinReorder;
+    }
+
+    public void setCboEnableParallelJoinReorder(boolean cboEnableParallelJoinReorder) {
+        this.cboEnableParallelJoinReorder = cboEnableParallelJoinReorder;
+    }
+
     public int getCboMaxReorderNode() {
         return cboMaxReorderNode;
     }
@@ -1428,6 +1462,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         enableQueryCache = on;
     }
 
+    public boolean isEnablePlanCache() {
+        return enablePlanCache;
+    }
+
+    public void setEnablePlanCache(boolean enablePlanCache) {
+        this.enablePlanCache = enablePlanCache;
+    }
+
     public boolean isQueryCacheForcePopulate() {
         return queryCacheForcePopulate;
     }
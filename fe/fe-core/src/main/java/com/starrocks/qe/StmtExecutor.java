@@ -37,6 +37,7 @@ import com.starrocks.catalog.ResourceGroup;
 import com.starrocks.catalog.ResourceGroupClassifier;
 import com.starrocks.catalog.ScalarType;
 import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
@@ -63,7 +64,9 @@ import com.starrocks.metric.MetricRepo;
 import com.starrocks.metric.TableMetricsEntity;
 import com.starrocks.metric.TableMetricsRegistry;
 import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.mysql.MysqlCommand;
 import com.starrocks.mysql.MysqlEofPacket;
+import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.mysql.privilege.PrivPredicate;
 import com.starrocks.persist.CreateInsertOverwriteJobLog;
@@ -176,6 +179,8 @@ public class StmtExecutor {
     private List<ByteBuffer> proxyResultBuffer = null;
     private ShowResultSet proxyResultSet = null;
     private PQueryStatistics statisticsForAuditLog;
+    // the latency from the start of the query to the first row sent, -1 if no row is sent
+    private long firstRowLatencyMs = -1;
 
     // this constructor is mainly for proxy
     public StmtExecutor(ConnectContext context, OriginStatement originStmt, boolean isProxy) {
@@ -347,6 +352,16 @@ public class StmtExecutor {
                 }
             }
 
+            if (parsedStmt instanceof InsertStmt
+                    && InsertGroupCommitter.canGroupCommit((InsertStmt) parsedStmt, context)) {
+                redirectStatus = parsedStmt.getRedirectStatus();
+                // the statement is executed on its own if the group failed
+                if (!isForwardToLeader()
+                        && InsertGroupCommitter.getInstance().execute((InsertStmt) parsedStmt, context)) {
+                    return;
+                }
+            }
+
             // execPlan is the output of new planner
             ExecPlan execPlan = null;
             boolean execPlanBuildByNewPlanner = false;
@@ -601,8 +616,6 @@ public class StmtExecutor {
         profile.getChild("Summary")
                 .addInfoString(ProfileManager.PROFILE_TIME,
                         DebugUtil.getPrettyStringMs(profileEndTime - profileBeginTime));
-        StringBuilder builder = new StringBuilder();
-        profile.prettyPrint(builder, "");
         String profileContent = ProfileManager.getInstance().pushProfile(profile);
         if (context.getQueryDetail() != null) {
             context.getQueryDetail().setProfile(profileContent);
@@ -749,6 +762,7 @@ public class StmtExecutor {
                 if (!isSendFields) {
                     sendFields(colNames, outputExprs);
                     isSendFields = true;
+                    firstRowLatencyMs = System.currentTimeMillis() - context.getStartTime();
                 }
                 if (!isProxy && channel.isSendBufferNull()) {
                     int bufferSize = 0;
@@ -759,12 +773,17 @@ public class StmtExecutor {
                     channel.initBuffer(bufferSize + 8);
                 }
 
-                for (ByteBuffer row : batch.getBatch().getRows()) {
-                    if (isProxy) {
-                        proxyResultBuffer.add(row);
-                    } else {
-                        channel.sendOnePacket(row);
+                List<ByteBuffer> rows = batch.getBatch().getRows();
+                if (isProxy) {
+                    proxyResultBuffer.addAll(rows);
+                } else if (isBinaryResult()) {
+                    List<ByteBuffer> binaryRows = Lists.newArrayListWithCapacity(rows.size());
+                    for (ByteBuffer row : rows) {
+                        binaryRows.add(MysqlProto.textRowToBinaryRow(row, colNames.size()));
                     }
+                    channel.sendPackets(binaryRows);
+                } else {
+                    channel.sendPackets(rows);
                 }
                 context.updateReturnRows(batch.getBatch().getRows().size());
             }
@@ -979,7 +998,7 @@ public class StmtExecutor {
         for (Column col : metaData.getColumns()) {
             serializer.reset();
             // TODO(zhaochun): only support varchar type
-            serializer.writeField(col.getName(), col.getType());
+            serializer.writeField(col.getName(), isBinaryResult() ? Type.VARCHAR : col.getType());
             context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
         }
         // send EOF
@@ -989,6 +1008,18 @@ public class StmtExecutor {
         context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
     }
 
+    // Statements executed by COM_STMT_EXECUTE must reply result set in binary protocol
+    private boolean isBinaryResult() {
+        return !isProxy && context.getCommand() == MysqlCommand.COM_STMT_EXECUTE;
+    }
+
+    private void sendTextRow(ByteBuffer row, int numColumns) throws IOException {
+        if (isBinaryResult()) {
+            row = MysqlProto.textRowToBinaryRow(row, numColumns);
+        }
+        context.getMysqlChannel().sendOnePacket(row);
+    }
+
     private void sendFields(List<String> colNames, List<Expr> exprs) throws IOException {
         // sends how many columns
         serializer.reset();
@@ -1001,7 +1032,8 @@ public class StmtExecutor {
         // send field one by one
         for (int i = 0; i < colNames.size(); ++i) {
             serializer.reset();
-            serializer.writeField(colNames.get(i), exprs.get(i).getOriginType());
+            // binary result rows carry the text values BE encoded, so declare them as strings
+            serializer.writeField(colNames.get(i), isBinaryResult() ? Type.VARCHAR : exprs.get(i).getOriginType());
             if (isProxy) {
                 proxyResultBuffer.add(serializer.toByteBuffer());
             } else {
@@ -1034,7 +1066,7 @@ public class StmtExecutor {
                     serializer.writeLenEncodedString(item);
                 }
             }
-            context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
+            sendTextRow(serializer.toByteBuffer(), row.size());
         }
 
         context.getState().setEof();
@@ -1072,7 +1104,7 @@ public class StmtExecutor {
         for (String item : explainString.split("\n")) {
             serializer.reset();
             serializer.writeLenEncodedString(item);
-            context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
+            sendTextRow(serializer.toByteBuffer(), 1);
         }
         context.getState().setEof();
     }
@@ -1139,6 +1171,10 @@ public class StmtExecutor {
         context.getGlobalStateMgr().getExportMgr().addExportJob(queryId, exportStmt);
     }
 
+    public long getFirstRowLatencyMs() {
+        return firstRowLatencyMs;
+    }
+
     public PQueryStatistics getQueryStatisticsForAuditLog() {
         if (statisticsForAuditLog == null) {
             statisticsForAuditLog = new PQueryStatistics();
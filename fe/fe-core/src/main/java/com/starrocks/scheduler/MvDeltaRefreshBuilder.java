@@ -0,0 +1,142 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+package com.starrocks.scheduler;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.FunctionCallExpr;
+import com.starrocks.analysis.Subquery;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.ast.JoinRelation;
+import com.starrocks.sql.ast.QueryRelation;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.Relation;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build the query of the delta refresh of a materialized view, whose query is select-project-join-group-by with
+ * mergeable aggregate functions and the partition table joined only once by inner joins.
+ * If only new partitions are added to the partition table, the aggregates over the new partitions are merged with
+ * the rows already in the materialized view partitions, instead of aggregating all the base partitions again:
+ * <pre>
+ * SELECT k1, k2, sum(total) AS total FROM (
+ *     SELECT k1, k2, total FROM mv
+ *     UNION ALL
+ *     SELECT k1, k2, sum(v1) AS total FROM base GROUP BY k1, k2) AS delta
+ * GROUP BY k1, k2
+ * </pre>
+ * The caller limits the materialized view to the partitions to refresh and the partition table to the new partitions.
+ */
+public class MvDeltaRefreshBuilder {
+    private static final Logger LOG = LogManager.getLogger(MvDeltaRefreshBuilder.class);
+
+    private static final String DELTA_ALIAS = "__mv_delta";
+
+    // the aggregate functions which could be merged with their own results, and the functions to merge
+    private static final Map<String, String> MERGE_FUNCTIONS = ImmutableMap.<String, String>builder()
+            .put(FunctionSet.SUM, FunctionSet.SUM)
+            .put(FunctionSet.COUNT, FunctionSet.SUM)
+            .put(FunctionSet.MIN, FunctionSet.MIN)
+            .put(FunctionSet.MAX, FunctionSet.MAX)
+            .put(FunctionSet.BITMAP_UNION, FunctionSet.BITMAP_UNION)
+            .put(FunctionSet.HLL_UNION, FunctionSet.HLL_UNION)
+            .build();
+
+    private MvDeltaRefreshBuilder() {
+    }
+
+    /**
+     * Return the query of the delta refresh, or null if the materialized view could not be refreshed by delta.
+     */
+    public static String buildDeltaQuery(MaterializedView materializedView, String partitionTableName,
+                                         ConnectContext ctx) {
+        String viewDefineSql = materializedView.getViewDefineSql();
+        QueryStatement queryStatement;
+        try {
+            queryStatement = (QueryStatement) SqlParser.parse(viewDefineSql, ctx.getSessionVariable()).get(0);
+            Analyzer.analyze(queryStatement, ctx);
+        } catch (Exception e) {
+            LOG.warn("analyze the query of materialized view {} failed", materializedView.getName(), e);
+            return null;
+        }
+
+        QueryRelation queryRelation = queryStatement.getQueryRelation();
+        if (!(queryRelation instanceof SelectRelation) || queryRelation.hasOrderByClause() || queryRelation.hasLimit()) {
+            return null;
+        }
+        SelectRelation selectRelation = (SelectRelation) queryRelation;
+        if (selectRelation.isDistinct() || selectRelation.getHaving() != null || selectRelation.hasAnalyticInfo()
+                || selectRelation.getGroupingSetsList() != null
+                || selectRelation.getGroupBy() == null || selectRelation.getGroupBy().isEmpty()
+                || (selectRelation.getPredicate() != null && selectRelation.getPredicate().contains(Subquery.class))
+                || countPartitionTable(selectRelation.getRelation(), partitionTableName) != 1) {
+            return null;
+        }
+
+        List<String> columnNames = Lists.newArrayList();
+        List<String> outputs = Lists.newArrayList();
+        List<String> groupByColumns = Lists.newArrayList();
+        List<Expr> groupByOutputs = Lists.newArrayList();
+        List<String> outputNames = queryRelation.getColumnOutputNames();
+        List<Expr> outputExprs = selectRelation.getOutputExpression();
+        for (int i = 0; i < outputExprs.size(); i++) {
+            Expr expr = outputExprs.get(i);
+            String columnName = "`" + outputNames.get(i) + "`";
+            columnNames.add(columnName);
+            if (expr.isAggregate()) {
+                FunctionCallExpr aggregate = (FunctionCallExpr) expr;
+                String mergeFunction = MERGE_FUNCTIONS.get(aggregate.getFnName().getFunction());
+                if (mergeFunction == null || aggregate.isDistinct()) {
+                    return null;
+                }
+                outputs.add(mergeFunction + "(" + columnName + ") AS " + columnName);
+            } else if (expr.containsAggregate()) {
+                return null;
+            } else {
+                outputs.add(columnName);
+                groupByColumns.add(columnName);
+                groupByOutputs.add(expr);
+            }
+        }
+        if (groupByColumns.isEmpty()) {
+            return null;
+        }
+        // the rows of a group of the materialized view could only be merged by the group by keys in the outputs
+        if (!groupByOutputs.containsAll(selectRelation.getGroupBy())) {
+            return null;
+        }
+
+        return "SELECT " + Joiner.on(", ").join(outputs) +
+                " FROM (SELECT " + Joiner.on(", ").join(columnNames) + " FROM `" + materializedView.getName() + "`" +
+                " UNION ALL " + viewDefineSql + ") `" + DELTA_ALIAS + "`" +
+                " GROUP BY " + Joiner.on(", ").join(groupByColumns);
+    }
+
+    // the times the partition table is joined, or -1 if there are relations other than tables and inner joins
+    private static int countPartitionTable(Relation relation, String partitionTableName) {
+        if (relation instanceof TableRelation) {
+            return ((TableRelation) relation).getName().getTbl().equals(partitionTableName) ? 1 : 0;
+        } else if (relation instanceof JoinRelation) {
+            JoinRelation joinRelation = (JoinRelation) relation;
+            if (!joinRelation.getJoinOp().isInnerJoin() && !joinRelation.getJoinOp().isCrossJoin()) {
+                return -1;
+            }
+            int left = countPartitionTable(joinRelation.getLeft(), partitionTableName);
+            int right = countPartitionTable(joinRelation.getRight(), partitionTableName);
+            return left < 0 || right < 0 ? -1 : left + right;
+        } else {
+            return -1;
+        }
+    }
+}
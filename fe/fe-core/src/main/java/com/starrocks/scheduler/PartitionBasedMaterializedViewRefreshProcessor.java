@@ -19,6 +19,7 @@ import com.starrocks.catalog.ExpressionRangePartitionInfo;
 import com.starrocks.catalog.HashDistributionInfo;
 import com.starrocks.catalog.HiveMetaStoreTable;
 import com.starrocks.catalog.IcebergTable;
+import com.starrocks.catalog.KeysType;
 import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
@@ -27,6 +28,7 @@ import com.starrocks.catalog.PartitionKey;
 import com.starrocks.catalog.SinglePartitionInfo;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.common.UserException;
 import com.starrocks.common.io.DeepCopy;
@@ -154,8 +156,24 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
                 LOG.debug("materialized view:{} source partitions :{}",
                         materializedView.getName(), sourceTablePartitions);
 
+                String definition = mvContext.getDefinition();
+                Set<String> deltaBasePartitionNames =
+                        getDeltaBasePartitionNamesToRefresh(partitionsToRefresh, context.getProperties());
+                if (deltaBasePartitionNames != null) {
+                    Table partitionTable = getPartitionTableAndColumn(snapshotBaseTables).first;
+                    String deltaQuery = MvDeltaRefreshBuilder.buildDeltaQuery(materializedView,
+                            partitionTable.getName(), mvContext.getCtx());
+                    if (deltaQuery != null && !sourceTablePartitions.containsKey(materializedView.getName())) {
+                        LOG.info("refresh materialized view:{} by delta of base partitions:{}",
+                                materializedView.getName(), deltaBasePartitionNames);
+                        definition = "insert overwrite " + materializedView.getName() + " " + deltaQuery;
+                        sourceTablePartitions.put(materializedView.getName(), partitionsToRefresh);
+                        sourceTablePartitions.put(partitionTable.getName(), deltaBasePartitionNames);
+                    }
+                }
+
                 // create ExecPlan
-                insertStmt = generateInsertStmt(partitionsToRefresh, sourceTablePartitions);
+                insertStmt = generateInsertStmt(partitionsToRefresh, sourceTablePartitions, definition);
                 execPlan = generateRefreshPlan(mvContext.getCtx(), insertStmt);
             } finally {
                 database.readUnlock();
@@ -515,6 +533,70 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         return needRefreshMvPartitionNames;
     }
 
+    /**
+     * Return the new partitions of the partition table to refresh the materialized view partitions by delta, or null
+     * if they should be refreshed fully. The partitions could be refreshed by delta only if the partition table is
+     * append-only, every materialized view partition has been refreshed, the base partitions refreshed before are not
+     * changed and the other base tables are not changed, so the materialized view partitions only miss the rows of
+     * the new base partitions.
+     */
+    private Set<String> getDeltaBasePartitionNamesToRefresh(Set<String> mvPartitionNames,
+                                                            Map<String, String> properties) {
+        if (!Config.enable_materialized_view_delta_refresh
+                || !(materializedView.getPartitionInfo() instanceof ExpressionRangePartitionInfo)
+                || Boolean.parseBoolean(properties.get(TaskRun.FORCE))) {
+            return null;
+        }
+        for (Pair<MaterializedView.BaseTableInfo, Table> tablePair : snapshotBaseTables.values()) {
+            if (!tablePair.second.isOlapTable()) {
+                return null;
+            }
+        }
+        Table partitionTable = getPartitionTableAndColumn(snapshotBaseTables).first;
+        OlapTable olapTable = (OlapTable) partitionTable;
+        if (olapTable.getKeysType() != KeysType.DUP_KEYS || needToRefreshNonPartitionTable(partitionTable)) {
+            return null;
+        }
+        Map<String, MaterializedView.BasePartitionInfo> versionMap = materializedView.getRefreshScheme()
+                .getAsyncRefreshContext().getBaseTableVisibleVersionMap().get(olapTable.getId());
+        if (versionMap == null) {
+            return null;
+        }
+        for (Map.Entry<String, MaterializedView.BasePartitionInfo> entry : versionMap.entrySet()) {
+            Partition partition = olapTable.getPartition(entry.getKey());
+            if (partition == null || partition.getId() != entry.getValue().getId()) {
+                // the rows of the dropped or replaced partitions should be removed from the materialized view
+                return null;
+            }
+        }
+
+        Set<String> result = Sets.newHashSet();
+        for (String mvPartitionName : mvPartitionNames) {
+            Partition mvPartition = materializedView.getPartition(mvPartitionName);
+            if (mvPartition == null || !mvPartition.hasData()) {
+                return null;
+            }
+            boolean refreshed = false;
+            for (String basePartitionName : mvContext.getMvToBaseNameRef().get(mvPartitionName)) {
+                Partition basePartition = olapTable.getPartition(basePartitionName);
+                MaterializedView.BasePartitionInfo basePartitionInfo = versionMap.get(basePartitionName);
+                if (basePartitionInfo == null) {
+                    if (basePartition.hasData()) {
+                        result.add(basePartitionName);
+                    }
+                } else if (basePartition.getVisibleVersion() > basePartitionInfo.getVersion()) {
+                    return null;
+                } else {
+                    refreshed = true;
+                }
+            }
+            if (!refreshed) {
+                return null;
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
     private Set<String> getMVPartitionNamesToRefreshByRangePartitionNamesAndForce(Table partitionTable,
             Set<String> mvRangePartitionNames, boolean force) {
         if (force || !partitionTable.isOlapTable()) {
@@ -576,7 +658,7 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
     }
 
     private InsertStmt generateInsertStmt(Set<String> materializedViewPartitions,
-                                          Map<String, Set<String>> sourceTablePartitions) {
+                                          Map<String, Set<String>> sourceTablePartitions, String definition) {
         ConnectContext ctx = mvContext.getCtx();
         ctx.getAuditEventBuilder().reset();
         ctx.getAuditEventBuilder()
@@ -587,7 +669,6 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         ctx.getPlannerProfile().reset();
         ctx.setThreadLocalInfo();
         ctx.getSessionVariable().setEnableMaterializedViewRewrite(false);
-        String definition = mvContext.getDefinition();
         InsertStmt insertStmt =
                 (InsertStmt) SqlParser.parse(definition, ctx.getSessionVariable()).get(0);
         insertStmt.setTargetPartitionNames(new PartitionNames(false, new ArrayList<>(materializedViewPartitions)));
@@ -695,9 +776,13 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         for (ScanNode scanNode : scanNodes) {
             if (scanNode instanceof OlapScanNode) {
                 OlapScanNode olapScanNode = (OlapScanNode) scanNode;
+                OlapTable olapTable = olapScanNode.getOlapTable();
+                if (olapTable.getId() == materializedView.getId()) {
+                    // the materialized view itself is scanned by the delta refresh
+                    continue;
+                }
                 Map<String, MaterializedView.BasePartitionInfo> selectedPartitionIdVersions =
                         getSelectedPartitionInfos(olapScanNode);
-                OlapTable olapTable = olapScanNode.getOlapTable();
                 selectedBasePartitionInfos.put(olapTable.getId(), selectedPartitionIdVersions);
             }
         }
@@ -2,8 +2,14 @@
 
 package com.starrocks.scheduler;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.InternalCatalog;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
 import com.starrocks.common.util.QueryableReentrantLock;
 import com.starrocks.common.util.UUIDUtil;
@@ -16,9 +22,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -43,6 +53,11 @@ public class TaskRunManager {
 
     private final QueryableReentrantLock taskRunLock = new QueryableReentrantLock(true);
 
+    // higher priority first, and then the earlier created
+    private static final Comparator<TaskRun> TASK_RUN_COMPARATOR =
+            Comparator.comparingInt((TaskRun taskRun) -> -taskRun.getStatus().getPriority())
+                    .thenComparingLong(taskRun -> taskRun.getStatus().getCreateTime());
+
     public SubmitResult submitTaskRun(TaskRun taskRun, ExecuteOption option) {
         // duplicate submit
         if (taskRun.getStatus() != null) {
@@ -94,6 +109,7 @@ public class TaskRunManager {
             return;
         }
         try {
+            taskRun.getStatus().setMergeRedundant(mergeRedundant);
             long taskId = taskRun.getTaskId();
             PriorityBlockingQueue<TaskRun> taskRuns = pendingTaskRunMap.computeIfAbsent(taskId,
                     u -> Queues.newPriorityBlockingQueue());
@@ -105,7 +121,7 @@ public class TaskRunManager {
                     // but other attributes may be different, such as priority, creation time.
                     // higher priority and create time will be result after merge is complete
                     // and queryId will be change.
-                    boolean isRemove = taskRuns.remove(taskRun);
+                    boolean isRemove = taskRuns.removeIf(run -> run == oldTaskRun);
                     if (!isRemove) {
                         LOG.warn("failed to remove TaskRun definition is [{}]",
                                 taskRun.getStatus().getDefinition());
@@ -132,7 +148,8 @@ public class TaskRunManager {
     private TaskRun getTaskRun(PriorityBlockingQueue<TaskRun> taskRuns, TaskRun taskRun) {
         TaskRun oldTaskRun = null;
         for (TaskRun run : taskRuns) {
-            if (run.equals(taskRun)) {
+            // the manual TaskRuns are not merged by the automatic ones
+            if (run.getStatus().isMergeRedundant() && run.equals(taskRun)) {
                 oldTaskRun = run;
                 break;
             }
@@ -165,30 +182,120 @@ public class TaskRunManager {
     // schedule the pending TaskRun that can be run into running TaskRun map
     public void scheduledPendingTaskRun() {
         int currentRunning = runningTaskRunMap.size();
+        int currentRunningMv = (int) runningTaskRunMap.values().stream().filter(TaskRunManager::isMvTaskRun).count();
 
+        // the first pending TaskRun of each Task which is not running, ordered by priority and create time,
+        // so the urgent TaskRuns are not delayed by the others when the concurrency is not enough
+        List<TaskRun> candidates = Lists.newArrayList();
         Iterator<Long> pendingIterator = pendingTaskRunMap.keySet().iterator();
         while (pendingIterator.hasNext()) {
             Long taskId = pendingIterator.next();
-            TaskRun runningTaskRun = runningTaskRunMap.get(taskId);
-            if (runningTaskRun == null) {
-                Queue<TaskRun> taskRunQueue = pendingTaskRunMap.get(taskId);
-                if (taskRunQueue.size() == 0) {
-                    pendingIterator.remove();
-                } else {
-                    if (currentRunning >= Config.task_runs_concurrency) {
-                        break;
+            if (runningTaskRunMap.containsKey(taskId)) {
+                continue;
+            }
+            Queue<TaskRun> taskRunQueue = pendingTaskRunMap.get(taskId);
+            if (taskRunQueue.size() == 0) {
+                pendingIterator.remove();
+            } else {
+                candidates.add(taskRunQueue.peek());
+            }
+        }
+        candidates.sort(TASK_RUN_COMPARATOR);
+
+        Map<Long, Long> activeMvIds = getActiveMvIds();
+        for (TaskRun candidate : candidates) {
+            if (currentRunning >= Config.task_runs_concurrency) {
+                break;
+            }
+            boolean isMvTaskRun = isMvTaskRun(candidate);
+            if (isMvTaskRun) {
+                if (Config.mv_task_runs_concurrency >= 0 && currentRunningMv >= Config.mv_task_runs_concurrency) {
+                    continue;
+                }
+                // refresh the materialized view after the materialized views it depends on are refreshed,
+                // otherwise it should be refreshed again soon. Only the refreshes created before it are waited,
+                // so it is not starved by the refreshes that loads keep creating for the upstream views
+                if (dependsOnActiveMv(candidate, activeMvIds)) {
+                    continue;
+                }
+            }
+            long taskId = candidate.getTaskId();
+            TaskRun pendingTaskRun = pendingTaskRunMap.get(taskId).poll();
+            taskRunExecutor.executeTaskRun(pendingTaskRun);
+            runningTaskRunMap.put(taskId, pendingTaskRun);
+            // RUNNING state persistence is for FE FOLLOWER update state
+            TaskRunStatusChange statusChange = new TaskRunStatusChange(taskId, pendingTaskRun.getStatus(),
+                    Constants.TaskRunState.PENDING, Constants.TaskRunState.RUNNING);
+            GlobalStateMgr.getCurrentState().getEditLog().logUpdateTaskRun(statusChange);
+            currentRunning++;
+            if (isMvTaskRun) {
+                currentRunningMv++;
+            }
+        }
+    }
+
+    private static boolean isMvTaskRun(TaskRun taskRun) {
+        Task task = taskRun.getTask();
+        return task != null && task.getSource() == Constants.TaskSource.MV && task.getProperties() != null
+                && task.getProperties().containsKey(PartitionBasedMaterializedViewRefreshProcessor.MV_ID);
+    }
+
+    private static long getMvId(TaskRun taskRun) {
+        return Long.parseLong(taskRun.getTask().getProperties().get(PartitionBasedMaterializedViewRefreshProcessor.MV_ID));
+    }
+
+    // the ids of the materialized views being refreshed or to be refreshed,
+    // mapped to the earliest create time of their running and pending TaskRuns
+    private Map<Long, Long> getActiveMvIds() {
+        Map<Long, Long> mvIds = Maps.newHashMap();
+        for (TaskRun taskRun : runningTaskRunMap.values()) {
+            if (isMvTaskRun(taskRun)) {
+                mvIds.merge(getMvId(taskRun), taskRun.getStatus().getCreateTime(), Math::min);
+            }
+        }
+        for (PriorityBlockingQueue<TaskRun> taskRuns : pendingTaskRunMap.values()) {
+            for (TaskRun taskRun : taskRuns) {
+                if (isMvTaskRun(taskRun)) {
+                    mvIds.merge(getMvId(taskRun), taskRun.getStatus().getCreateTime(), Math::min);
+                }
+            }
+        }
+        return mvIds;
+    }
+
+    // whether any materialized view the materialized view of TaskRun depends on directly or indirectly
+    // has a TaskRun created no later than the TaskRun
+    private boolean dependsOnActiveMv(TaskRun taskRun, Map<Long, Long> activeMvIds) {
+        Database db = GlobalStateMgr.getCurrentState().getDb(taskRun.getTask().getDbName());
+        if (db == null) {
+            return false;
+        }
+        Table table = db.getTable(getMvId(taskRun));
+        if (!(table instanceof MaterializedView)) {
+            return false;
+        }
+        Set<Long> visited = Sets.newHashSet();
+        Deque<MaterializedView> toVisit = Queues.newArrayDeque();
+        toVisit.add((MaterializedView) table);
+        while (!toVisit.isEmpty()) {
+            MaterializedView mv = toVisit.poll();
+            for (MaterializedView.BaseTableInfo baseTableInfo : mv.getBaseTableInfos()) {
+                if (!InternalCatalog.DEFAULT_INTERNAL_CATALOG_NAME.equals(baseTableInfo.getCatalogName())
+                        || !visited.add(baseTableInfo.getTableId())) {
+                    continue;
+                }
+                Database baseDb = GlobalStateMgr.getCurrentState().getDb(baseTableInfo.getDbId());
+                Table baseTable = baseDb == null ? null : baseDb.getTable(baseTableInfo.getTableId());
+                if (baseTable instanceof MaterializedView) {
+                    Long createTime = activeMvIds.get(baseTable.getId());
+                    if (createTime != null && createTime <= taskRun.getStatus().getCreateTime()) {
+                        return true;
                     }
-                    TaskRun pendingTaskRun = taskRunQueue.poll();
-                    taskRunExecutor.executeTaskRun(pendingTaskRun);
-                    runningTaskRunMap.put(taskId, pendingTaskRun);
-                    // RUNNING state persistence is for FE FOLLOWER update state
-                    TaskRunStatusChange statusChange = new TaskRunStatusChange(taskId, pendingTaskRun.getStatus(),
-                            Constants.TaskRunState.PENDING, Constants.TaskRunState.RUNNING);
-                    GlobalStateMgr.getCurrentState().getEditLog().logUpdateTaskRun(statusChange);
-                    currentRunning++;
+                    toVisit.add((MaterializedView) baseTable);
                 }
             }
         }
+        return false;
     }
 
     public boolean tryTaskRunLock() {
@@ -126,6 +126,7 @@ import com.starrocks.journal.JournalFactory;
 import com.starrocks.journal.JournalInconsistentException;
 import com.starrocks.journal.JournalTask;
 import com.starrocks.journal.JournalWriter;
+import com.starrocks.journal.ParallelJournalReplayer;
 import com.starrocks.journal.bdbje.Timestamp;
 import com.starrocks.lake.LakeTable;
 import com.starrocks.lake.ShardManager;
@@ -319,6 +320,8 @@ public class GlobalStateMgr {
     private LeaderDaemon taskCleaner;   // To clean expire Task/TaskRun
     private JournalWriter journalWriter; // leader only: write journal log
     private Daemon replayer;
+    // only used by the thread replaying journals
+    private ParallelJournalReplayer parallelJournalReplayer;
     private Daemon timePrinter;
     private EsRepository esRepository;  // it is a daemon, so add it here
     private StarRocksRepository starRocksRepository;
@@ -1796,58 +1799,56 @@ public class GlobalStateMgr {
         long startReplayId = replayedJournalId.get();
         long startTime = System.currentTimeMillis();
         long lineCnt = 0;
-        while (true) {
-            JournalEntity entity = null;
-            try {
-                entity = cursor.next();
+        ParallelJournalReplayer parallelReplayer = getParallelJournalReplayer();
+        try {
+            while (true) {
+                JournalEntity entity = null;
+                try {
+                    entity = cursor.next();
 
-                // EOF or aggressive retry
-                if (entity == null) {
-                    break;
-                }
+                    // EOF or aggressive retry
+                    if (entity == null) {
+                        break;
+                    }
 
-                // apply
-                EditLog.loadJournal(this, entity);
-            } catch (Throwable e) {
-                if (canSkipBadReplayedJournal()) {
-                    LOG.error("!!! DANGER: SKIP JOURNAL {}: {} !!!",
-                            replayedJournalId.incrementAndGet(),
-                            entity == null ? null : entity.getData(),
-                            e);
-                    cursor.skipNext();
-                    continue;
+                    // apply
+                    if (parallelReplayer == null || !parallelReplayer.submit(this, entity)) {
+                        // barrier, all the journals before it must be replayed
+                        waitParallelReplayedJournals(parallelReplayer);
+                        EditLog.loadJournal(this, entity);
+                        onJournalsReplayed(1);
+                    }
+                } catch (Throwable e) {
+                    if (canSkipBadReplayedJournal()) {
+                        LOG.error("!!! DANGER: SKIP JOURNAL {}: {} !!!",
+                                replayedJournalId.incrementAndGet(),
+                                entity == null ? null : entity.getData(),
+                                e);
+                        cursor.skipNext();
+                        continue;
+                    }
+                    // handled in outer loop
+                    LOG.warn("catch exception when replaying {},", replayedJournalId.get() + 1, e);
+                    throw e;
                 }
-                // handled in outer loop
-                LOG.warn("catch exception when replaying {},", replayedJournalId.get() + 1, e);
-                throw e;
-            }
-
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-
-            if (feType != FrontendNodeType.LEADER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
-            }
-            if (MetricRepo.isInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
-            }
 
-            if (flowControl) {
-                // cost too much time
-                long cost = System.currentTimeMillis() - startTime;
-                if (cost > REPLAYER_MAX_MS_PER_LOOP) {
-                    LOG.warn("replay journal cost too much time: {} replayedJournalId: {}", cost, replayedJournalId);
-                    break;
-                }
-                // consume too much lines
-                lineCnt += 1;
-                if (lineCnt > REPLAYER_MAX_LOGS_PER_LOOP) {
-                    LOG.warn("replay too many journals: lineCnt {}, replayedJournalId: {}", lineCnt, replayedJournalId);
-                    break;
+                if (flowControl) {
+                    // cost too much time
+                    long cost = System.currentTimeMillis() - startTime;
+                    if (cost > REPLAYER_MAX_MS_PER_LOOP) {
+                        LOG.warn("replay journal cost too much time: {} replayedJournalId: {}", cost, replayedJournalId);
+                        break;
+                    }
+                    // consume too much lines
+                    lineCnt += 1;
+                    if (lineCnt > REPLAYER_MAX_LOGS_PER_LOOP) {
+                        LOG.warn("replay too many journals: lineCnt {}, replayedJournalId: {}", lineCnt, replayedJournalId);
+                        break;
+                    }
                 }
             }
-
+        } finally {
+            waitParallelReplayedJournals(parallelReplayer);
         }
         if (replayedJournalId.get() - startReplayId > 0) {
             LOG.info("replayed journal from {} - {}", startReplayId, replayedJournalId);
@@ -1856,6 +1857,50 @@ public class GlobalStateMgr {
         return false;
     }
 
+    // Return null if the journals should be replayed one by one
+    private ParallelJournalReplayer getParallelJournalReplayer() {
+        int numThreads = Config.metadata_journal_replay_thread_num;
+        // journal id of the failed journal is unknown when replaying concurrently, so it could not be skipped
+        if (numThreads <= 1 || !StringUtils.isEmpty(Config.metadata_journal_skip_bad_journal_ids)) {
+            if (parallelJournalReplayer != null) {
+                parallelJournalReplayer.shutdown();
+                parallelJournalReplayer = null;
+            }
+            return null;
+        }
+        if (parallelJournalReplayer != null && parallelJournalReplayer.getNumThreads() != numThreads) {
+            parallelJournalReplayer.shutdown();
+            parallelJournalReplayer = null;
+        }
+        if (parallelJournalReplayer == null) {
+            parallelJournalReplayer = new ParallelJournalReplayer(numThreads);
+        }
+        return parallelJournalReplayer;
+    }
+
+    private void waitParallelReplayedJournals(ParallelJournalReplayer parallelReplayer)
+            throws JournalInconsistentException, InterruptedException {
+        if (parallelReplayer == null || parallelReplayer.getNumSubmittedJournals() == 0) {
+            return;
+        }
+        int numJournals = parallelReplayer.getNumSubmittedJournals();
+        parallelReplayer.waitSubmittedJournals();
+        onJournalsReplayed(numJournals);
+    }
+
+    private void onJournalsReplayed(int numJournals) {
+        replayedJournalId.addAndGet(numJournals);
+        LOG.debug("journal {} replayed.", replayedJournalId);
+
+        if (feType != FrontendNodeType.LEADER) {
+            journalObservable.notifyObservers(replayedJournalId.get());
+        }
+        if (MetricRepo.isInit) {
+            // Metric repo may not init after this replay thread start
+            MetricRepo.COUNTER_EDIT_LOG_READ.increase((long) numJournals);
+        }
+    }
+
     private boolean canSkipBadReplayedJournal() {
         try {
             for (String idStr : Config.metadata_journal_skip_bad_journal_ids.split(",")) {
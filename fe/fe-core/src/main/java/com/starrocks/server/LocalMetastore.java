@@ -96,6 +96,7 @@ import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.common.NotImplementedException;
 import com.starrocks.common.Pair;
 import com.starrocks.common.Status;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.DynamicPartitionUtil;
 import com.starrocks.common.util.PropertyAnalyzer;
@@ -222,6 +223,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
@@ -273,45 +277,77 @@ public class LocalMetastore implements ConnectorMetadata {
             return;
         }
 
-        // create inverted index
+        // create inverted index, the tablets of databases are added in parallel
+        long start = System.currentTimeMillis();
         TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentInvertedIndex();
-        for (Database db : this.fullNameToDb.values()) {
-            long dbId = db.getId();
-            for (Table table : db.getTables()) {
-                if (!table.isNativeTable()) {
-                    continue;
+        // meta context is thread local, get the version before using other threads
+        int metaVersion = MetaContext.get().getMetaVersion();
+        List<Database> dbs = Lists.newArrayList(this.fullNameToDb.values());
+        int numThreads = Math.min(Runtime.getRuntime().availableProcessors(), dbs.size());
+        if (numThreads <= 1) {
+            for (Database db : dbs) {
+                addTabletsToInvertedIndex(invertedIndex, db, metaVersion);
+            }
+        } else {
+            ExecutorService executor = ThreadPoolManager.newDaemonFixedThreadPool(numThreads, dbs.size(),
+                    "recreate-tablet-inverted-index", false);
+            try {
+                List<Future<?>> futures = Lists.newArrayList();
+                for (Database db : dbs) {
+                    futures.add(executor.submit(() -> addTabletsToInvertedIndex(invertedIndex, db, metaVersion)));
                 }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted when recreating tablet inverted index", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("failed to recreate tablet inverted index", e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        }
+        LOG.info("finished to recreate tablet inverted index of {} databases in {} ms",
+                dbs.size(), System.currentTimeMillis() - start);
+    }
 
-                OlapTable olapTable = (OlapTable) table;
-                long tableId = olapTable.getId();
-                Collection<Partition> allPartitions = olapTable.getAllPartitions();
-                for (Partition partition : allPartitions) {
-                    long partitionId = partition.getId();
-                    TStorageMedium medium = olapTable.getPartitionInfo().getDataProperty(
-                            partitionId).getStorageMedium();
-                    for (MaterializedIndex index : partition
-                            .getMaterializedIndices(MaterializedIndex.IndexExtState.ALL)) {
-                        long indexId = index.getId();
-                        int schemaHash = olapTable.getSchemaHashByIndexId(indexId);
-                        TabletMeta tabletMeta = new TabletMeta(dbId, tableId, partitionId, indexId, schemaHash, medium,
-                                table.isLakeTable());
-                        for (Tablet tablet : index.getTablets()) {
-                            long tabletId = tablet.getId();
-                            invertedIndex.addTablet(tabletId, tabletMeta);
-                            if (table.isLocalTable()) {
-                                for (Replica replica : ((LocalTablet) tablet).getImmutableReplicas()) {
-                                    invertedIndex.addReplica(tabletId, replica);
-                                    if (MetaContext.get().getMetaVersion() < FeMetaVersion.VERSION_48) {
-                                        // set replica's schema hash
-                                        replica.setSchemaHash(schemaHash);
-                                    }
+    private static void addTabletsToInvertedIndex(TabletInvertedIndex invertedIndex, Database db, int metaVersion) {
+        long dbId = db.getId();
+        for (Table table : db.getTables()) {
+            if (!table.isNativeTable()) {
+                continue;
+            }
+
+            OlapTable olapTable = (OlapTable) table;
+            long tableId = olapTable.getId();
+            Collection<Partition> allPartitions = olapTable.getAllPartitions();
+            for (Partition partition : allPartitions) {
+                long partitionId = partition.getId();
+                TStorageMedium medium = olapTable.getPartitionInfo().getDataProperty(
+                        partitionId).getStorageMedium();
+                for (MaterializedIndex index : partition
+                        .getMaterializedIndices(MaterializedIndex.IndexExtState.ALL)) {
+                    long indexId = index.getId();
+                    int schemaHash = olapTable.getSchemaHashByIndexId(indexId);
+                    TabletMeta tabletMeta = new TabletMeta(dbId, tableId, partitionId, indexId, schemaHash, medium,
+                            table.isLakeTable());
+                    for (Tablet tablet : index.getTablets()) {
+                        long tabletId = tablet.getId();
+                        invertedIndex.addTablet(tabletId, tabletMeta);
+                        if (table.isLocalTable()) {
+                            for (Replica replica : ((LocalTablet) tablet).getImmutableReplicas()) {
+                                invertedIndex.addReplica(tabletId, replica);
+                                if (metaVersion < FeMetaVersion.VERSION_48) {
+                                    // set replica's schema hash
+                                    replica.setSchemaHash(schemaHash);
                                 }
                             }
                         }
-                    } // end for indices
-                } // end for partitions
-            } // end for tables
-        } // end for dbs
+                    }
+                } // end for indices
+            } // end for partitions
+        } // end for tables
     }
 
     public long loadDb(DataInputStream dis, long checksum) throws IOException {
@@ -3522,15 +3558,16 @@ public class LocalMetastore implements ConnectorMetadata {
         int limit = materializedView.getTableProperty().getAutoRefreshPartitionsLimit();
         PartitionInfo partitionInfo = materializedView.getPartitionInfo();
         PartitionType partitionType = partitionInfo.getType();
+        // the refreshes triggered automatically are merged with the pending ones of the materialized view
         if (limit == INVALID || partitionType != PartitionType.RANGE) {
-            executeRefreshMvTask(dbName, materializedView, new ExecuteOption(priority));
+            executeRefreshMvTask(dbName, materializedView, new ExecuteOption(priority, true, null));
         } else {
             RangePartitionInfo rangePartitionInfo = (RangePartitionInfo) partitionInfo;
             Collection<Range<PartitionKey>> ranges = rangePartitionInfo.getIdToRange(false).values();
             List<Range<PartitionKey>> sortedRange = ranges.stream()
                     .sorted(RangeUtils.RANGE_COMPARATOR).collect(Collectors.toList());
             if (limit >= sortedRange.size()) {
-                executeRefreshMvTask(dbName, materializedView, new ExecuteOption(priority));
+                executeRefreshMvTask(dbName, materializedView, new ExecuteOption(priority, true, null));
                 return;
             }
 
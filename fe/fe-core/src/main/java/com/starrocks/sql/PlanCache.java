@@ -0,0 +1,670 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.starrocks.analysis.BetweenPredicate;
+import com.starrocks.analysis.BinaryPredicate;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.FunctionCallExpr;
+import com.starrocks.analysis.InPredicate;
+import com.starrocks.analysis.InformationFunction;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.VariableExpr;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.analyzer.AST2SQL;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.ast.ViewRelation;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalScanOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.thrift.TResultSinkType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * FE wide cache of optimized query plans.
+ * <p>
+ * The key is the digest of the analyzed statement: it is printed with resolved table ids and expanded views,
+ * and the literal operands of comparisons are printed as typed parameters, plus the session state the optimizer
+ * depends on. A plan is reused for other parameters if it scans all the tablets of its tables and every parameter
+ * is found among its constants, the constants are then replaced while the fragments are built. Such a plan is
+ * verified once against the plan optimized for other parameters before it is reused, the plans of the other
+ * digests are only reused for the same parameters.
+ * <p>
+ * Every entry records the version stamps of the tables the query reads and of the tables its plan scans, which
+ * differ if the query is rewritten to materialized views. They are checked on lookup so DDL, partition changes
+ * and new loads invalidate the plan, statistics refresh invalidates the entries of the table explicitly.
+ * On a hit the memo search is skipped and only the plan fragments are built again.
+ */
+public class PlanCache {
+    private static final Logger LOG = LogManager.getLogger(PlanCache.class);
+
+    // Functions folded to a constant by the optimizer whose value depends on the time or the session,
+    // plans containing them can not be reused
+    private static final Set<String> UNCACHEABLE_FUNCTIONS = ImmutableSet.<String>builder()
+            .addAll(FunctionSet.nonDeterministicFunctions)
+            .add(FunctionSet.NOW)
+            .add(FunctionSet.CURDATE)
+            .add(FunctionSet.CURRENT_TIMESTAMP)
+            .add(FunctionSet.CURRENT_TIME)
+            .add(FunctionSet.UTC_TIMESTAMP)
+            .add("current_date")
+            .add("curtime")
+            .add("localtime")
+            .add("localtimestamp")
+            .add("unix_timestamp")
+            .build();
+
+    private static final Set<BinaryPredicate.Operator> PARAMETERIZED_OPERATORS = ImmutableSet.of(
+            BinaryPredicate.Operator.EQ, BinaryPredicate.Operator.NE, BinaryPredicate.Operator.LT,
+            BinaryPredicate.Operator.LE, BinaryPredicate.Operator.GT, BinaryPredicate.Operator.GE);
+
+    private static final PlanCache INSTANCE = new PlanCache();
+
+    // The constants of the plan whose fragments are built by the current thread
+    private static final ThreadLocal<ConstantScope> CONSTANT_SCOPE = new ThreadLocal<>();
+
+    private final Cache<String, CachedPlan> cache = Caffeine.newBuilder()
+            .maximumSize(Config.plan_cache_capacity)
+            .expireAfterWrite(Config.plan_cache_expire_seconds, TimeUnit.SECONDS)
+            .removalListener((String key, CachedPlan value, RemovalCause cause) -> {
+                if (cause.wasEvicted() && MetricRepo.isInit) {
+                    MetricRepo.COUNTER_PLAN_CACHE_EVICTION.increase(1L);
+                }
+            })
+            .build();
+
+    public static PlanCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Build the cache key of an analyzed query, return null if the plan of the query can not be cached.
+     */
+    public Key buildKey(QueryStatement queryStmt, ConnectContext session, TResultSinkType resultSinkType) {
+        if (!session.getSessionVariable().isEnablePlanCache() || queryStmt.isExplain()
+                || queryStmt.hasOutFileClause()) {
+            return null;
+        }
+        PlanCacheKeyBuilder keyBuilder = new PlanCacheKeyBuilder();
+        String sql;
+        String sessionVariables;
+        try {
+            sql = keyBuilder.visit(queryStmt);
+            sessionVariables = session.getSessionVariable().getJsonString();
+        } catch (Exception e) {
+            LOG.debug("Failed to build plan cache key", e);
+            return null;
+        }
+        if (!keyBuilder.isCacheable()) {
+            return null;
+        }
+        return new Key(session.getCurrentCatalog() + "." + session.getDatabase() + "|" + resultSinkType + "|"
+                + Hashing.murmur3_128().hashString(sessionVariables, StandardCharsets.UTF_8) + "|" + sql,
+                keyBuilder.getParameters(), keyBuilder.getTables());
+    }
+
+    /**
+     * Return the cached plan of the key bound to its parameters, if all the tables it reads and scans are unchanged
+     * since it was cached. The plan is not verified if its constants are replaced for the first time.
+     */
+    public BoundPlan get(Key key) {
+        BoundPlan boundPlan = lookup(key);
+        if (MetricRepo.isInit) {
+            if (boundPlan != null && boundPlan.isVerified()) {
+                MetricRepo.COUNTER_PLAN_CACHE_HIT.increase(1L);
+            } else {
+                MetricRepo.COUNTER_PLAN_CACHE_MISS.increase(1L);
+            }
+        }
+        return boundPlan;
+    }
+
+    private BoundPlan lookup(Key key) {
+        CachedPlan cachedPlan = getValidPlan(key.digest, key);
+        if (cachedPlan == null) {
+            return null;
+        }
+        if (cachedPlan.parameters.equals(key.parameters)) {
+            return new BoundPlan(cachedPlan, Collections.emptyMap(), true);
+        }
+        switch (cachedPlan.state) {
+            case VERIFIED:
+            case CANDIDATE: {
+                boolean verified = cachedPlan.state == CachedPlan.State.VERIFIED;
+                // every parameter must change to verify the constants bound to it
+                if (!verified && !allParametersChanged(cachedPlan.parameters, key.parameters)) {
+                    return null;
+                }
+                Map<ConstantOperator, ConstantOperator> substitutes = cachedPlan.bind(key.parameters);
+                return substitutes == null ? null : new BoundPlan(cachedPlan, substitutes, verified);
+            }
+            case EXACT: {
+                CachedPlan exactPlan = getValidPlan(key.getExactKey(), key);
+                if (exactPlan == null || !exactPlan.parameters.equals(key.parameters)) {
+                    return null;
+                }
+                return new BoundPlan(exactPlan, Collections.emptyMap(), true);
+            }
+            default:
+                return null;
+        }
+    }
+
+    private CachedPlan getValidPlan(String cacheKey, Key key) {
+        CachedPlan cachedPlan = cache.getIfPresent(cacheKey);
+        if (cachedPlan != null && !cachedPlan.isValid(key.tables)) {
+            cache.asMap().remove(cacheKey, cachedPlan);
+            cachedPlan = null;
+        }
+        return cachedPlan;
+    }
+
+    /**
+     * Cache the plan optimized for the key. Return the new entry of the digest if the constants bound to its
+     * parameters must be recorded while its fragments are built, otherwise null.
+     */
+    public CachedPlan put(Key key, OptExpression optimizedPlan, ColumnRefFactory columnRefFactory,
+                          List<ColumnRefOperator> outputColumns, List<String> colNames) {
+        Map<Long, TableVersion> tableVersions = Maps.newHashMap();
+        if (!collectTableVersions(optimizedPlan, tableVersions)) {
+            return null;
+        }
+        // The scans of a plan rewritten to materialized views are compensated by the constants of the query
+        boolean rewritten = key.tables.stream().anyMatch(table -> !tableVersions.containsKey(table.getId()))
+                || tableVersions.values().stream().anyMatch(version -> version.table instanceof MaterializedView
+                && key.tables.stream().noneMatch(table -> table.getId() == version.table.getId()));
+        for (OlapTable table : key.tables) {
+            tableVersions.putIfAbsent(table.getId(), new TableVersion(table));
+        }
+        boolean parameterized = !rewritten && !key.parameters.isEmpty()
+                && Sets.newHashSet(key.parameters).size() == key.parameters.size()
+                && isFullScan(optimizedPlan);
+        CachedPlan cachedPlan = new CachedPlan(optimizedPlan.copyTree(), columnRefFactory, outputColumns, colNames,
+                tableVersions, key.parameters, parameterized ? CachedPlan.State.RECORDING : CachedPlan.State.EXACT);
+
+        CachedPlan digestPlan = cache.asMap().putIfAbsent(key.digest, cachedPlan);
+        if (digestPlan == null) {
+            return cachedPlan.state == CachedPlan.State.RECORDING ? cachedPlan : null;
+        }
+        if (digestPlan.state == CachedPlan.State.EXACT) {
+            cachedPlan.state = CachedPlan.State.EXACT;
+            cache.put(key.getExactKey(), cachedPlan);
+        }
+        return null;
+    }
+
+    public void invalidateTable(long tableId) {
+        cache.asMap().values().removeIf(cachedPlan -> cachedPlan.tableVersions.containsKey(tableId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @VisibleForTesting
+    public Map<String, CachedPlan> asMap() {
+        return cache.asMap();
+    }
+
+    /**
+     * Called for every constant of the plan converted to an expression, return the constant to build.
+     */
+    public static ConstantOperator bindConstant(ConstantOperator constant) {
+        ConstantScope scope = CONSTANT_SCOPE.get();
+        return scope == null ? constant : scope.bind(constant);
+    }
+
+    // Only plans which scan nothing but olap tables are cached, their versions are tracked by the catalog
+    private static boolean collectTableVersions(OptExpression expression, Map<Long, TableVersion> tableVersions) {
+        if (expression.getOp() instanceof PhysicalScanOperator) {
+            if (!(expression.getOp() instanceof PhysicalOlapScanOperator)) {
+                return false;
+            }
+            OlapTable table = (OlapTable) ((PhysicalOlapScanOperator) expression.getOp()).getTable();
+            tableVersions.putIfAbsent(table.getId(), new TableVersion(table));
+        }
+        for (OptExpression input : expression.getInputs()) {
+            if (!collectTableVersions(input, tableVersions)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Whether every scan of the plan reads all the tablets with data of its table, so no partition or tablet
+    // is pruned by the parameters
+    private static boolean isFullScan(OptExpression expression) {
+        if (expression.getOp() instanceof PhysicalOlapScanOperator) {
+            PhysicalOlapScanOperator scan = (PhysicalOlapScanOperator) expression.getOp();
+            OlapTable table = (OlapTable) scan.getTable();
+            Set<Long> partitionIds = table.getPartitions().stream().filter(Partition::hasData)
+                    .map(Partition::getId).collect(Collectors.toSet());
+            if (!partitionIds.equals(Sets.newHashSet(scan.getSelectedPartitionId()))) {
+                return false;
+            }
+            int tabletNum = 0;
+            for (Long partitionId : partitionIds) {
+                MaterializedIndex index = table.getPartition(partitionId).getIndex(scan.getSelectedIndexId());
+                if (index == null) {
+                    return false;
+                }
+                tabletNum += index.getTablets().size();
+            }
+            if (tabletNum != scan.getSelectedTabletId().size()) {
+                return false;
+            }
+        }
+        for (OptExpression input : expression.getInputs()) {
+            if (!isFullScan(input)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allParametersChanged(List<ConstantOperator> cached, List<ConstantOperator> parameters) {
+        for (int i = 0; i < cached.size(); i++) {
+            if (cached.get(i).equals(parameters.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Cast the constant to the type, return null if it can not be cast without losing its value
+    private static ConstantOperator castExactly(ConstantOperator constant, Type type) {
+        try {
+            ConstantOperator result = constant.castTo(type);
+            if (!result.isNull() && constant.equals(result.castTo(constant.getType()))) {
+                return result;
+            }
+        } catch (Exception e) {
+            LOG.debug("Failed to cast {} to {}", constant, type, e);
+        }
+        return null;
+    }
+
+    public static class Key {
+        private final String digest;
+        private final List<ConstantOperator> parameters;
+        // the olap tables read by the query, after views are expanded
+        private final List<OlapTable> tables;
+
+        Key(String digest, List<ConstantOperator> parameters, List<OlapTable> tables) {
+            this.digest = digest;
+            this.parameters = parameters;
+            this.tables = tables;
+        }
+
+        // the key of the plans of the digest which are only reused for the same parameters
+        private String getExactKey() {
+            return digest + "|" + parameters;
+        }
+    }
+
+    public static class CachedPlan {
+        enum State {
+            // the constants bound to the parameters are recorded while the first fragments are built
+            RECORDING,
+            // every parameter is bound to a constant, the plan is not verified for other parameters yet
+            CANDIDATE,
+            VERIFIED,
+            // the plan is only reused for the same parameters
+            EXACT
+        }
+
+        private final OptExpression optimizedPlan;
+        private final ColumnRefFactory columnRefFactory;
+        private final List<ColumnRefOperator> outputColumns;
+        private final List<String> colNames;
+        private final Map<Long, TableVersion> tableVersions;
+        private final List<ConstantOperator> parameters;
+        // the constants of the plan equal to a parameter, by identity, and the index of the parameter
+        private final Map<ConstantOperator, Integer> boundConstants = new IdentityHashMap<>();
+        private boolean ambiguous = false;
+        private volatile State state;
+
+        CachedPlan(OptExpression optimizedPlan, ColumnRefFactory columnRefFactory,
+                   List<ColumnRefOperator> outputColumns, List<String> colNames,
+                   Map<Long, TableVersion> tableVersions, List<ConstantOperator> parameters, State state) {
+            this.optimizedPlan = optimizedPlan;
+            this.columnRefFactory = columnRefFactory;
+            this.outputColumns = outputColumns;
+            this.colNames = colNames;
+            this.tableVersions = tableVersions;
+            this.parameters = parameters;
+            this.state = state;
+        }
+
+        // The fragment builder rewrites the expression tree in place, so every use gets its own copy
+        public OptExpression getOptimizedPlan() {
+            return optimizedPlan.copyTree();
+        }
+
+        public ColumnRefFactory getColumnRefFactory() {
+            return columnRefFactory;
+        }
+
+        public List<ColumnRefOperator> getOutputColumns() {
+            return outputColumns;
+        }
+
+        public List<String> getColNames() {
+            return colNames;
+        }
+
+        @VisibleForTesting
+        public boolean isVerified() {
+            return state == State.VERIFIED;
+        }
+
+        /**
+         * Record the constants bound to the parameters while the fragments of the plan are built.
+         */
+        public ConstantScope recordConstants() {
+            return new ConstantScope(this, null);
+        }
+
+        private void recordConstant(ConstantOperator constant) {
+            if (constant.isNull() || constant.getType().isBoolean()) {
+                return;
+            }
+            for (int i = 0; i < parameters.size(); i++) {
+                if (constant.equals(castExactly(parameters.get(i), constant.getType()))) {
+                    Integer bound = boundConstants.put(constant, i);
+                    ambiguous |= bound != null && bound != i;
+                }
+            }
+        }
+
+        private void finishRecording() {
+            boolean allBound = Sets.newHashSet(boundConstants.values()).size() == parameters.size();
+            state = allBound && !ambiguous ? State.CANDIDATE : State.EXACT;
+        }
+
+        // Return the constants replacing the bound constants of the plan, or null if a parameter can not be cast
+        // to the type of its constant
+        private Map<ConstantOperator, ConstantOperator> bind(List<ConstantOperator> newParameters) {
+            Map<ConstantOperator, ConstantOperator> substitutes = new IdentityHashMap<>();
+            for (Map.Entry<ConstantOperator, Integer> entry : boundConstants.entrySet()) {
+                ConstantOperator substitute = castExactly(newParameters.get(entry.getValue()),
+                        entry.getKey().getType());
+                if (substitute == null) {
+                    return null;
+                }
+                substitutes.put(entry.getKey(), substitute);
+            }
+            return substitutes;
+        }
+
+        boolean isValid(List<OlapTable> tables) {
+            for (TableVersion version : tableVersions.values()) {
+                if (!version.isCurrent(tables)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A cached plan with the constants replacing its bound constants for the parameters of a query.
+     */
+    public static class BoundPlan {
+        private final CachedPlan cachedPlan;
+        private final Map<ConstantOperator, ConstantOperator> substitutes;
+        private final boolean verified;
+
+        BoundPlan(CachedPlan cachedPlan, Map<ConstantOperator, ConstantOperator> substitutes, boolean verified) {
+            this.cachedPlan = cachedPlan;
+            this.substitutes = substitutes;
+            this.verified = verified;
+        }
+
+        public CachedPlan getCachedPlan() {
+            return cachedPlan;
+        }
+
+        public boolean isVerified() {
+            return verified;
+        }
+
+        /**
+         * Replace the bound constants while the fragments of the plan are built.
+         */
+        public ConstantScope bindConstants() {
+            return new ConstantScope(cachedPlan, substitutes);
+        }
+
+        /**
+         * Set the result of comparing the plan built with the replaced constants with the plan optimized for
+         * the same parameters, the plan is only reused for other parameters if they are the same.
+         */
+        public void verify(boolean samePlan) {
+            if (cachedPlan.state == CachedPlan.State.CANDIDATE) {
+                cachedPlan.state = samePlan ? CachedPlan.State.VERIFIED : CachedPlan.State.EXACT;
+            }
+        }
+    }
+
+    /**
+     * Scope of building the fragments of a cached plan, in which its constants are recorded or replaced.
+     */
+    public static class ConstantScope implements AutoCloseable {
+        private final CachedPlan cachedPlan;
+        // null if the constants are recorded
+        private final Map<ConstantOperator, ConstantOperator> substitutes;
+
+        private ConstantScope(CachedPlan cachedPlan, Map<ConstantOperator, ConstantOperator> substitutes) {
+            this.cachedPlan = cachedPlan;
+            this.substitutes = substitutes;
+            CONSTANT_SCOPE.set(this);
+        }
+
+        private ConstantOperator bind(ConstantOperator constant) {
+            if (substitutes == null) {
+                cachedPlan.recordConstant(constant);
+                return constant;
+            }
+            return substitutes.getOrDefault(constant, constant);
+        }
+
+        @Override
+        public void close() {
+            CONSTANT_SCOPE.remove();
+            if (substitutes == null) {
+                cachedPlan.finishRecording();
+            }
+        }
+    }
+
+    /**
+     * Version of an olap table as seen by a cached plan, any change of its schema, partitions or their visible
+     * versions updates the version stamp of the table.
+     */
+    static class TableVersion {
+        private final OlapTable table;
+        private final long dbId;
+        private final long versionStamp;
+
+        TableVersion(OlapTable table) {
+            this.table = table;
+            this.dbId = table instanceof MaterializedView ? ((MaterializedView) table).getDbId() : -1;
+            this.versionStamp = table.getVersionStamp();
+        }
+
+        // A table dropped or replaced since the plan was cached is not the table resolved by the analyzer,
+        // or no longer in its database if it is a materialized view only scanned by the plan
+        boolean isCurrent(List<OlapTable> tables) {
+            if (table.getVersionStamp() != versionStamp) {
+                return false;
+            }
+            for (OlapTable readTable : tables) {
+                if (readTable.getId() == table.getId()) {
+                    return readTable == table;
+                }
+            }
+            if (dbId == -1) {
+                return false;
+            }
+            Database db = GlobalStateMgr.getCurrentState().getDb(dbId);
+            return db != null && db.getTable(table.getId()) == table;
+        }
+    }
+
+    /**
+     * Print the analyzed statement with its resolved table ids and expanded views, collect the literal operands
+     * of comparisons as parameters, and detect the expressions which make the plan depend on the time it is built.
+     */
+    private static class PlanCacheKeyBuilder extends AST2SQL.SQLBuilder {
+        private boolean cacheable = true;
+        private final List<ConstantOperator> parameters = Lists.newArrayList();
+        private final List<OlapTable> tables = Lists.newArrayList();
+
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        public List<ConstantOperator> getParameters() {
+            return parameters;
+        }
+
+        public List<OlapTable> getTables() {
+            return tables;
+        }
+
+        private static boolean isParameter(Expr expr) {
+            if (!(expr instanceof LiteralExpr) || expr instanceof NullLiteral) {
+                return false;
+            }
+            Type type = expr.getType();
+            return type.isNumericType() || type.isStringType() || type.isDateType();
+        }
+
+        // The literal is printed with its type, the analysis of the query depends on it
+        private String printOperand(Expr expr) {
+            if (!isParameter(expr)) {
+                return printWithParentheses(expr);
+            }
+            LiteralExpr literal = (LiteralExpr) expr;
+            parameters.add(ConstantOperator.createObject(literal.getRealObjectValue(), literal.getType()));
+            return "?" + literal.getType().toSql();
+        }
+
+        @Override
+        public String visitTable(TableRelation node, Void context) {
+            Table table = node.getTable();
+            if (!(table instanceof OlapTable)) {
+                cacheable = false;
+            } else {
+                tables.add((OlapTable) table);
+            }
+            // the partitions, tablets and temporal clause of the relation are not printed by the builder
+            if (node.getPartitionNames() != null || (node.getTabletIds() != null && !node.getTabletIds().isEmpty())
+                    || node.getTemporalClause() != null) {
+                cacheable = false;
+            }
+            return super.visitTable(node, context) + "#" + (table == null ? -1 : table.getId());
+        }
+
+        @Override
+        public String visitView(ViewRelation node, Void context) {
+            StringBuilder sqlBuilder = new StringBuilder();
+            sqlBuilder.append("(").append(visit(node.getQueryStatement())).append(")");
+            if (node.getAlias() != null) {
+                sqlBuilder.append(" AS ").append(node.getAlias().getTbl());
+            }
+            return sqlBuilder.toString();
+        }
+
+        @Override
+        public String visitBinaryPredicate(BinaryPredicate node, Void context) {
+            if (!PARAMETERIZED_OPERATORS.contains(node.getOp())
+                    || isParameter(node.getChild(0)) == isParameter(node.getChild(1))) {
+                return super.visitBinaryPredicate(node, context);
+            }
+            return printOperand(node.getChild(0)) + " " + node.getOp() + " " + printOperand(node.getChild(1));
+        }
+
+        @Override
+        public String visitInPredicate(InPredicate node, Void context) {
+            if (isParameter(node.getChild(0))) {
+                return super.visitInPredicate(node, context);
+            }
+            StringBuilder strBuilder = new StringBuilder();
+            strBuilder.append(printWithParentheses(node.getChild(0))).append(node.isNotIn() ? " NOT IN (" : " IN (");
+            for (int i = 1; i < node.getChildren().size(); ++i) {
+                strBuilder.append(i > 1 ? ", " : "").append(printOperand(node.getChild(i)));
+            }
+            return strBuilder.append(")").toString();
+        }
+
+        @Override
+        public String visitBetweenPredicate(BetweenPredicate node, Void context) {
+            if (isParameter(node.getChild(0))) {
+                return super.visitBetweenPredicate(node, context);
+            }
+            return printWithParentheses(node.getChild(0)) + (node.isNotBetween() ? " NOT BETWEEN " : " BETWEEN ")
+                    + printOperand(node.getChild(1)) + " AND " + printOperand(node.getChild(2));
+        }
+
+        @Override
+        public String visitFunctionCall(FunctionCallExpr node, Void context) {
+            if (UNCACHEABLE_FUNCTIONS.contains(node.getFnName().getFunction().toLowerCase())) {
+                cacheable = false;
+            }
+            return super.visitFunctionCall(node, context);
+        }
+
+        @Override
+        public String visitInformationFunction(InformationFunction node, Void context) {
+            cacheable = false;
+            return super.visitInformationFunction(node, context);
+        }
+
+        @Override
+        public String visitVariableExpr(VariableExpr node, Void context) {
+            cacheable = false;
+            return super.visitVariableExpr(node, context);
+        }
+    }
+}
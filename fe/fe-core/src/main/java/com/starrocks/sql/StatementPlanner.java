@@ -25,6 +25,7 @@ import com.starrocks.sql.optimizer.transformer.LogicalPlan;
 import com.starrocks.sql.optimizer.transformer.RelationTransformer;
 import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.sql.plan.PlanFragmentBuilder;
+import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TResultSinkType;
 
 import java.util.List;
@@ -63,7 +64,7 @@ public class StatementPlanner {
                 QueryStatement queryStmt = (QueryStatement) stmt;
                 session.setCurrentSqlDbIds(dbs.values().stream().map(Database::getId).collect(Collectors.toSet()));
                 resultSinkType = queryStmt.hasOutFileClause() ? TResultSinkType.FILE : resultSinkType;
-                ExecPlan plan = createQueryPlan(queryStmt.getQueryRelation(), session, resultSinkType);
+                ExecPlan plan = createQueryPlanWithCache(queryStmt, session, resultSinkType);
                 setOutfileSink(queryStmt, plan);
 
                 return plan;
@@ -80,7 +81,46 @@ public class StatementPlanner {
         return null;
     }
 
+    private static ExecPlan createQueryPlanWithCache(QueryStatement queryStmt, ConnectContext session,
+                                                     TResultSinkType resultSinkType) {
+        PlanCache.Key planCacheKey = PlanCache.getInstance().buildKey(queryStmt, session, resultSinkType);
+        if (planCacheKey == null) {
+            return createQueryPlan(queryStmt.getQueryRelation(), session, resultSinkType);
+        }
+
+        PlanCache.BoundPlan boundPlan = PlanCache.getInstance().get(planCacheKey);
+        if (boundPlan != null && boundPlan.isVerified()) {
+            return createQueryPlan(boundPlan, session, resultSinkType);
+        }
+        ExecPlan execPlan = createQueryPlan(queryStmt.getQueryRelation(), session, resultSinkType, planCacheKey);
+        if (boundPlan != null) {
+            // The constants of the cached plan are replaced for the first time, it is only reused for other
+            // parameters if it is the same as the plan optimized for them
+            ExecPlan reusedPlan = createQueryPlan(boundPlan, session, resultSinkType);
+            boundPlan.verify(execPlan.getExplainString(TExplainLevel.NORMAL)
+                    .equals(reusedPlan.getExplainString(TExplainLevel.NORMAL)));
+        }
+        return execPlan;
+    }
+
+    private static ExecPlan createQueryPlan(PlanCache.BoundPlan boundPlan, ConnectContext session,
+                                            TResultSinkType resultSinkType) {
+        PlanCache.CachedPlan cachedPlan = boundPlan.getCachedPlan();
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer("ExecPlanBuild");
+                PlanCache.ConstantScope constantScope = boundPlan.bindConstants()) {
+            return new PlanFragmentBuilder().createPhysicalPlan(
+                    cachedPlan.getOptimizedPlan(), session, cachedPlan.getOutputColumns(),
+                    cachedPlan.getColumnRefFactory(), cachedPlan.getColNames(), resultSinkType,
+                    !session.getSessionVariable().isSingleNodeExecPlan());
+        }
+    }
+
     public static ExecPlan createQueryPlan(Relation relation, ConnectContext session, TResultSinkType resultSinkType) {
+        return createQueryPlan(relation, session, resultSinkType, null);
+    }
+
+    private static ExecPlan createQueryPlan(Relation relation, ConnectContext session, TResultSinkType resultSinkType,
+                                            PlanCache.Key planCacheKey) {
         QueryRelation query = (QueryRelation) relation;
         List<String> colNames = query.getColumnOutputNames();
 
@@ -99,7 +139,13 @@ public class StatementPlanner {
                     new ColumnRefSet(logicalPlan.getOutputColumn()),
                     columnRefFactory);
         }
-        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer("ExecPlanBuild")) {
+        PlanCache.CachedPlan cachedPlan = null;
+        if (planCacheKey != null) {
+            cachedPlan = PlanCache.getInstance().put(planCacheKey, optimizedPlan, columnRefFactory,
+                    logicalPlan.getOutputColumn(), colNames);
+        }
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer("ExecPlanBuild");
+                PlanCache.ConstantScope constantScope = cachedPlan == null ? null : cachedPlan.recordConstants()) {
 
             //3. Build fragment exec plan
             /*
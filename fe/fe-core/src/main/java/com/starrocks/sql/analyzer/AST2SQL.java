@@ -857,7 +857,7 @@ public class AST2SQL {
             return Joiner.on(", ").join(contexts.stream().map(this::visit).collect(toList()));
         }
 
-        private String printWithParentheses(ParseNode node) {
+        protected String printWithParentheses(ParseNode node) {
             if (node instanceof SlotRef || node instanceof LiteralExpr) {
                 return visit(node);
             } else {
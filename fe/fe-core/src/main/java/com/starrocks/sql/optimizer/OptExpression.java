@@ -162,6 +162,22 @@ public class OptExpression {
         this.cost = cost;
     }
 
+    // Copy the expression tree, the operators and derived properties are shared with this one
+    public OptExpression copyTree() {
+        OptExpression copy = new OptExpression(op);
+        for (OptExpression input : inputs) {
+            copy.inputs.add(input.copyTree());
+        }
+        copy.property = property;
+        copy.statistics = statistics;
+        copy.cost = cost;
+        copy.planCount = planCount;
+        copy.groupExpression = groupExpression;
+        copy.requiredProperties = requiredProperties;
+        copy.mvOperatorProperty = mvOperatorProperty;
+        return copy;
+    }
+
     @Override
     public String toString() {
         return op + " child size " + inputs.size();
@@ -4,48 +4,107 @@ package com.starrocks.sql.optimizer.base;
 
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.IntStream;
 
-// BitSet used to accelerate column processing
+// BitSet used to accelerate column processing.
+// Most sets only contain column ids less than 64, they are kept in one inline word without
+// any array allocation. The set is inflated to a word array once a larger id is added.
+// hashCode, equals and toString are the same as java.util.BitSet.
 public class ColumnRefSet implements Cloneable {
-    public BitSet bitSet;
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    // bits of ids less than 64, only used when words is null
+    private long word;
+    // all the bits after inflated, the trailing words may be zero
+    private long[] words;
 
     public ColumnRefSet() {
-        bitSet = new BitSet();
     }
 
     public ColumnRefSet(int id) {
-        bitSet = new BitSet();
-        bitSet.set(id);
+        union(id);
     }
 
     public ColumnRefSet(Collection<ColumnRefOperator> refs) {
-        bitSet = new BitSet();
         for (ColumnRefOperator ref : refs) {
-            bitSet.set(ref.getId());
+            union(ref.getId());
+        }
+    }
+
+    private int wordCount() {
+        return words == null ? 1 : words.length;
+    }
+
+    private long wordAt(int index) {
+        if (words == null) {
+            return index == 0 ? word : 0;
+        }
+        return index < words.length ? words[index] : 0;
+    }
+
+    private void ensureCapacity(int wordCount) {
+        if (words == null) {
+            if (wordCount <= 1) {
+                return;
+            }
+            words = new long[Math.max(wordCount, 2)];
+            words[0] = word;
+            word = 0;
+        } else if (words.length < wordCount) {
+            words = Arrays.copyOf(words, Math.max(wordCount, words.length * 2));
+        }
+    }
+
+    private int nextSetBit(int fromIndex) {
+        int index = fromIndex >> ADDRESS_BITS_PER_WORD;
+        int count = wordCount();
+        if (index >= count) {
+            return -1;
+        }
+        long bits = wordAt(index) & (-1L << fromIndex);
+        while (true) {
+            if (bits != 0) {
+                return (index << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++index == count) {
+                return -1;
+            }
+            bits = wordAt(index);
         }
     }
 
     public int[] getColumnIds() {
-        return bitSet.stream().toArray();
+        int[] ids = new int[cardinality()];
+        int i = 0;
+        for (int id = nextSetBit(0); id >= 0; id = nextSetBit(id + 1)) {
+            ids[i++] = id;
+        }
+        return ids;
     }
 
     public IntStream getStream() {
-        return bitSet.stream();
+        return IntStream.of(getColumnIds());
     }
 
     public int getFirstId() {
-        return bitSet.stream().findFirst().getAsInt();
+        int id = nextSetBit(0);
+        if (id < 0) {
+            throw new NoSuchElementException("No value present");
+        }
+        return id;
     }
 
     @Override
     public ColumnRefSet clone() {
         try {
             ColumnRefSet result = (ColumnRefSet) super.clone();
-            result.bitSet = (BitSet) bitSet.clone();
+            if (words != null) {
+                result.words = words.clone();
+            }
             return result;
         } catch (CloneNotSupportedException e) {
             throw new InternalError(e);
@@ -54,7 +113,11 @@ public class ColumnRefSet implements Cloneable {
 
     @Override
     public int hashCode() {
-        return bitSet.hashCode();
+        long h = 1234;
+        for (int i = wordCount(); --i >= 0; ) {
+            h ^= wordAt(i) * (i + 1);
+        }
+        return (int) ((h >> 32) ^ h);
     }
 
     @Override
@@ -63,28 +126,56 @@ public class ColumnRefSet implements Cloneable {
             return false;
         }
         ColumnRefSet rhs = (ColumnRefSet) obj;
-        return bitSet.equals(rhs.bitSet);
+        int count = Math.max(wordCount(), rhs.wordCount());
+        for (int i = 0; i < count; i++) {
+            if (wordAt(i) != rhs.wordAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public int size() {
-        return bitSet.cardinality();
+        return cardinality();
     }
 
     // The meaning is same with SQL Union Operation
     public void union(int id) {
-        bitSet.set(id);
+        if (id < 0) {
+            throw new IndexOutOfBoundsException("id < 0: " + id);
+        }
+        if (words == null && id < Long.SIZE) {
+            word |= 1L << id;
+            return;
+        }
+        ensureCapacity((id >> ADDRESS_BITS_PER_WORD) + 1);
+        words[id >> ADDRESS_BITS_PER_WORD] |= 1L << id;
     }
 
     public void union(ColumnRefOperator ref) {
-        bitSet.set(ref.getId());
+        union(ref.getId());
     }
 
     public void union(Collection<ColumnRefOperator> refs) {
-        union(new ColumnRefSet(refs));
+        for (ColumnRefOperator ref : refs) {
+            union(ref.getId());
+        }
     }
 
     public void union(ColumnRefSet set) {
-        bitSet.or(set.bitSet);
+        if (set.words == null) {
+            if (words == null) {
+                word |= set.word;
+            } else {
+                words[0] |= set.word;
+            }
+            return;
+        }
+        int count = set.words.length;
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            words[i] |= set.words[i];
+        }
     }
 
     // The meaning is same with SQL Except Operation
@@ -93,7 +184,14 @@ public class ColumnRefSet implements Cloneable {
     }
 
     public void except(ColumnRefSet set) {
-        bitSet.andNot(set.bitSet);
+        if (words == null) {
+            word &= ~set.wordAt(0);
+            return;
+        }
+        int count = Math.min(words.length, set.wordCount());
+        for (int i = 0; i < count; i++) {
+            words[i] &= ~set.wordAt(i);
+        }
     }
 
     // The meaning is same with SQL Intersect Operation
@@ -102,66 +200,116 @@ public class ColumnRefSet implements Cloneable {
     }
 
     public void intersect(ColumnRefOperator column) {
-        intersect(new ColumnRefSet(column.getId()));
+        intersect(column.getId());
     }
 
     public void intersect(int id) {
-        intersect(new ColumnRefSet(id));
+        boolean contains = contains(id);
+        clear();
+        if (contains) {
+            union(id);
+        }
     }
 
     public void intersect(ColumnRefSet set) {
-        bitSet.and(set.bitSet);
+        if (words == null) {
+            word &= set.wordAt(0);
+            return;
+        }
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= set.wordAt(i);
+        }
     }
 
     public boolean isIntersect(ColumnRefSet other) {
-        return bitSet.intersects(other.bitSet);
+        int count = Math.min(wordCount(), other.wordCount());
+        for (int i = 0; i < count; i++) {
+            if ((wordAt(i) & other.wordAt(i)) != 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public int cardinality() {
-        return bitSet.cardinality();
+        if (words == null) {
+            return Long.bitCount(word);
+        }
+        int cardinality = 0;
+        for (long w : words) {
+            cardinality += Long.bitCount(w);
+        }
+        return cardinality;
     }
 
     public boolean isEmpty() {
-        return bitSet.isEmpty();
+        if (words == null) {
+            return word == 0;
+        }
+        for (long w : words) {
+            if (w != 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void and(ColumnRefSet set) {
-        bitSet.and(set.bitSet);
+        intersect(set);
     }
 
     public boolean isSame(ColumnRefSet columnRefSet) {
-        final ColumnRefSet tmp = new ColumnRefSet();
-        tmp.union(columnRefSet);
-        tmp.bitSet.xor(bitSet);
-        return tmp.cardinality() == 0;
+        return equals(columnRefSet);
     }
 
     public void clear() {
-        bitSet.clear();
+        word = 0;
+        words = null;
     }
 
     public boolean contains(ColumnRefOperator ref) {
-        return bitSet.get(ref.getId());
+        return contains(ref.getId());
     }
 
     public boolean contains(int id) {
-        return bitSet.get(id);
+        if (id < 0) {
+            throw new IndexOutOfBoundsException("id < 0: " + id);
+        }
+        return (wordAt(id >> ADDRESS_BITS_PER_WORD) & (1L << id)) != 0;
     }
 
     public boolean containsAll(ColumnRefSet rhs) {
-        return rhs.bitSet.stream().allMatch(bit -> bitSet.get(bit));
+        int count = rhs.wordCount();
+        for (int i = 0; i < count; i++) {
+            if ((rhs.wordAt(i) & ~wordAt(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean containsAny(ColumnRefSet rhs) {
-        return rhs.bitSet.stream().anyMatch(bit -> bitSet.get(bit));
+        return isIntersect(rhs);
     }
 
     public boolean containsAll(List<Integer> rhs) {
-        return rhs.stream().allMatch(bit -> bitSet.get(bit));
+        for (int id : rhs) {
+            if (!contains(id)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public String toString() {
-        return bitSet.toString();
+        StringBuilder sb = new StringBuilder("{");
+        for (int id = nextSetBit(0); id >= 0; id = nextSetBit(id + 1)) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(id);
+        }
+        return sb.append('}').toString();
     }
 }
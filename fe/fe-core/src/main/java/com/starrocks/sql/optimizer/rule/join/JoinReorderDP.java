@@ -7,6 +7,7 @@ import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptimizerContext;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -18,6 +19,14 @@ import java.util.stream.IntStream;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Sets.powerSet;
 
+/**
+ * Reorder multi join node by dynamic programming.
+ * If the join graph is connected, only the connected sub graph and complement pairs (csg-cmp-pair) are
+ * enumerated by DPccp, refer to "Analysis of Two Existing and One New Dynamic Programming Algorithm
+ * for the Generation of Optimal Bushy Join Trees without Cross Products". The atoms are represented by
+ * long bitmasks in this case.
+ * Otherwise cross join is inevitable, all the partitions of atoms are enumerated.
+ */
 public class JoinReorderDP extends JoinOrder {
     public JoinReorderDP(OptimizerContext context) {
         super(context);
@@ -25,23 +34,222 @@ public class JoinReorderDP extends JoinOrder {
 
     private final Map<BitSet, GroupInfo> bestPlanMemo = new HashMap<>();
     List<GroupInfo> groups = new ArrayList<>();
+    private GroupInfo bestGroup;
 
     @Override
     protected void enumerate() {
         groups = joinLevels.get(1).groups;
-        BitSet joinKeys = new BitSet();
-        joinKeys.set(0, groups.size(), true);
-        getBestExpr(joinKeys);
+        long[] neighbors = buildNeighbors();
+        if (neighbors != null && isConnected(neighbors)) {
+            bestGroup = enumerateConnectedSubGraphs(neighbors);
+        } else {
+            BitSet joinKeys = new BitSet();
+            joinKeys.set(0, groups.size(), true);
+            bestGroup = getBestExpr(joinKeys);
+        }
     }
 
     @Override
     public List<OptExpression> getResult() {
-        groups = joinLevels.get(1).groups;
-        BitSet joinKeys = new BitSet();
-        joinKeys.set(0, groups.size(), true);
+        return Lists.newArrayList(bestGroup.bestExprInfo.expr);
+    }
+
+    // Neighbors of each atom in the join graph, an edge of predicate on more than two atoms
+    // makes them neighbors of each other. Return null if the atoms can not be represented by long.
+    private long[] buildNeighbors() {
+        if (atomSize >= Long.SIZE) {
+            return null;
+        }
+        long[] neighbors = new long[atomSize];
+        for (Edge edge : edges) {
+            if (edge.vertexes.cardinality() < 2) {
+                continue;
+            }
+            long vertexes = edge.vertexes.toLongArray()[0];
+            for (int i = edge.vertexes.nextSetBit(0); i >= 0; i = edge.vertexes.nextSetBit(i + 1)) {
+                neighbors[i] |= vertexes & ~(1L << i);
+            }
+        }
+        return neighbors;
+    }
+
+    private boolean isConnected(long[] neighbors) {
+        long visited = 1L;
+        long frontier = 1L;
+        while (frontier != 0) {
+            long next = 0;
+            for (long s = frontier; s != 0; s &= s - 1) {
+                next |= neighbors[Long.numberOfTrailingZeros(s)];
+            }
+            frontier = next & ~visited;
+            visited |= frontier;
+        }
+        return visited == allAtoms();
+    }
+
+    private long allAtoms() {
+        return atomSize == Long.SIZE ? -1L : (1L << atomSize) - 1;
+    }
+
+    private static long neighborhood(long[] neighbors, long set, long excluded) {
+        long result = 0;
+        for (long s = set; s != 0; s &= s - 1) {
+            result |= neighbors[Long.numberOfTrailingZeros(s)];
+        }
+        return result & ~set & ~excluded;
+    }
 
-        GroupInfo g = getBestExpr(joinKeys);
-        return Lists.newArrayList(g.bestExprInfo.expr);
+    private GroupInfo enumerateConnectedSubGraphs(long[] neighbors) {
+        // Pairs are emitted by DPccp in an order that is not by size, bucket them by the size of
+        // their union, so the best plans of both sides are always ready when a pair is joined
+        CsgCmpPairs[] pairsBySize = new CsgCmpPairs[atomSize + 1];
+        for (int i = 2; i <= atomSize; i++) {
+            pairsBySize[i] = new CsgCmpPairs();
+        }
+        for (int i = atomSize - 1; i >= 0; i--) {
+            long start = 1L << i;
+            // vertexes before i are excluded to avoid emitting duplicated sub graphs
+            long excluded = (start << 1) - 1;
+            emitCsg(neighbors, start, pairsBySize);
+            enumerateCsgRec(neighbors, start, excluded, pairsBySize);
+        }
+
+        GroupMemo memo = new GroupMemo();
+        for (int i = 0; i < atomSize; i++) {
+            memo.put(1L << i, groups.get(i));
+        }
+        for (int size = 2; size <= atomSize; size++) {
+            CsgCmpPairs pairs = pairsBySize[size];
+            for (int i = 0; i < pairs.size; i++) {
+                long left = pairs.lefts[i];
+                long right = pairs.rights[i];
+                GroupInfo leftGroup = memo.get(left);
+                GroupInfo rightGroup = memo.get(right);
+                long atoms = left | right;
+                GroupInfo group = memo.get(atoms);
+                if (group != null && (leftGroup.lowestExprCost > group.lowestExprCost ||
+                        rightGroup.lowestExprCost > group.lowestExprCost)) {
+                    continue;
+                }
+
+                ExpressionInfo joinExpr = buildJoinExpr(leftGroup, rightGroup);
+                joinExpr.expr.deriveLogicalPropertyItself();
+                calculateStatistics(joinExpr.expr);
+                computeCost(joinExpr, false);
+
+                if (group == null) {
+                    group = new GroupInfo(BitSet.valueOf(new long[] {atoms}));
+                    memo.put(atoms, group);
+                }
+                if (joinExpr.cost < group.lowestExprCost) {
+                    group.bestExprInfo = joinExpr;
+                    group.lowestExprCost = joinExpr.cost;
+                }
+            }
+        }
+        return memo.get(allAtoms());
+    }
+
+    private void enumerateCsgRec(long[] neighbors, long csg, long excluded, CsgCmpPairs[] pairsBySize) {
+        long neighborhood = neighborhood(neighbors, csg, excluded);
+        for (long s = neighborhood; s != 0; s = (s - 1) & neighborhood) {
+            emitCsg(neighbors, csg | s, pairsBySize);
+        }
+        for (long s = neighborhood; s != 0; s = (s - 1) & neighborhood) {
+            enumerateCsgRec(neighbors, csg | s, excluded | neighborhood, pairsBySize);
+        }
+    }
+
+    private void emitCsg(long[] neighbors, long csg, CsgCmpPairs[] pairsBySize) {
+        // the complement only contains vertexes after the first vertex of csg
+        long excluded = csg | (Long.lowestOneBit(csg) - 1) | Long.lowestOneBit(csg);
+        long neighborhood = neighborhood(neighbors, csg, excluded);
+        for (long s = Long.highestOneBit(neighborhood); s != 0;
+                s = Long.highestOneBit(neighborhood & (s - 1))) {
+            pairsBySize[Long.bitCount(csg | s)].add(csg, s);
+            enumerateCmpRec(neighbors, csg, s, excluded | (neighborhood & ((s << 1) - 1)), pairsBySize);
+        }
+    }
+
+    private void enumerateCmpRec(long[] neighbors, long csg, long cmp, long excluded, CsgCmpPairs[] pairsBySize) {
+        long neighborhood = neighborhood(neighbors, cmp, excluded);
+        for (long s = neighborhood; s != 0; s = (s - 1) & neighborhood) {
+            pairsBySize[Long.bitCount(csg | cmp | s)].add(csg, cmp | s);
+        }
+        for (long s = neighborhood; s != 0; s = (s - 1) & neighborhood) {
+            enumerateCmpRec(neighbors, csg, cmp | s, excluded | neighborhood, pairsBySize);
+        }
+    }
+
+    private static class CsgCmpPairs {
+        long[] lefts = new long[16];
+        long[] rights = new long[16];
+        int size = 0;
+
+        void add(long left, long right) {
+            if (size == lefts.length) {
+                lefts = Arrays.copyOf(lefts, size * 2);
+                rights = Arrays.copyOf(rights, size * 2);
+            }
+            lefts[size] = left;
+            rights[size] = right;
+            size++;
+        }
+    }
+
+    /**
+     * Open addressing hash table from the bitmask of atoms to the group
+     */
+    private static class GroupMemo {
+        private long[] keys = new long[64];
+        private GroupInfo[] values = new GroupInfo[64];
+        private int size = 0;
+
+        GroupInfo get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        void put(long key, GroupInfo value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            GroupInfo[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new GroupInfo[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
     }
 
     private GroupInfo getBestExpr(BitSet joinKeys) {
@@ -5,6 +5,7 @@ package com.starrocks.sql.optimizer.rule.join;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.common.FeConstants;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.sql.optimizer.ExpressionContext;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptExpressionVisitor;
@@ -29,10 +30,16 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class ReorderJoinRule extends Rule {
+    // Shared by all the queries which reorder joins in parallel mode
+    private static final ForkJoinPool JOIN_REORDER_POOL =
+            new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     public ReorderJoinRule() {
         super(RuleType.TF_MULTI_JOIN_ORDER, Pattern.create(OperatorType.PATTERN));
     }
@@ -69,8 +76,58 @@ public class ReorderJoinRule extends Rule {
                    MultiJoinNode multiJoinNode) {
         reorderAlgorithm.reorder(Lists.newArrayList(multiJoinNode.getAtoms()),
                 multiJoinNode.getPredicates(), multiJoinNode.getExpressionMap());
+        copyIn(reorderAlgorithm.getResult(), context, innerJoinRoot, multiJoinNode);
+    }
+
+    /**
+     * Run the reorder algorithms concurrently, the last one is run in the current thread.
+     * The algorithms only read the atoms of multi join node, whose statistics have been calculated and
+     * whose projections have been pruned by the left deep reorder before. Copying the results into memo
+     * rewrites the projections of atoms, so it is only done after all the algorithms finish, and in the
+     * same order as the serial mode, which keeps the memo and the best plan the same as the serial mode.
+     */
+    void parallelEnumerate(List<JoinOrder> reorderAlgorithms, OptimizerContext context,
+                           OptExpression innerJoinRoot, MultiJoinNode multiJoinNode) {
+        // Statistics estimation reads session variables from the thread local connect context
+        ConnectContext connectContext = ConnectContext.get();
+        List<ForkJoinTask<List<OptExpression>>> tasks = Lists.newArrayList();
+        for (JoinOrder reorderAlgorithm : reorderAlgorithms.subList(0, reorderAlgorithms.size() - 1)) {
+            tasks.add(JOIN_REORDER_POOL.submit(() -> {
+                // The task may be executed by the joining thread itself, so restore its connect context after
+                ConnectContext workerContext = ConnectContext.get();
+                if (connectContext != null) {
+                    connectContext.setThreadLocalInfo();
+                }
+                try {
+                    reorderAlgorithm.reorder(Lists.newArrayList(multiJoinNode.getAtoms()),
+                            multiJoinNode.getPredicates(), multiJoinNode.getExpressionMap());
+                    return reorderAlgorithm.getResult();
+                } finally {
+                    if (workerContext != null) {
+                        workerContext.setThreadLocalInfo();
+                    } else {
+                        ConnectContext.remove();
+                    }
+                }
+            }));
+        }
+
+        JoinOrder lastAlgorithm = reorderAlgorithms.get(reorderAlgorithms.size() - 1);
+        lastAlgorithm.reorder(Lists.newArrayList(multiJoinNode.getAtoms()),
+                multiJoinNode.getPredicates(), multiJoinNode.getExpressionMap());
 
-        List<OptExpression> reorderTopKResult = reorderAlgorithm.getResult();
+        List<List<OptExpression>> results = Lists.newArrayList();
+        for (ForkJoinTask<List<OptExpression>> task : tasks) {
+            results.add(task.join());
+        }
+        results.add(lastAlgorithm.getResult());
+        for (List<OptExpression> reorderTopKResult : results) {
+            copyIn(reorderTopKResult, context, innerJoinRoot, multiJoinNode);
+        }
+    }
+
+    private void copyIn(List<OptExpression> reorderTopKResult, OptimizerContext context, OptExpression innerJoinRoot,
+                        MultiJoinNode multiJoinNode) {
         LogicalJoinOperator oldRoot = (LogicalJoinOperator) innerJoinRoot.getOp();
 
         // Set limit to top join if needed
@@ -151,15 +208,24 @@ public class ReorderJoinRule extends Rule {
                     continue;
                 }
 
+                List<JoinOrder> reorderAlgorithms = Lists.newArrayList();
                 if (multiJoinNode.getAtoms().size() <= context.getSessionVariable().getCboMaxReorderNodeUseDP()
                         && context.getSessionVariable().isCboEnableDPJoinReorder()) {
                     // 10 table join reorder takes more than 100ms,
                     // so the join reorder using dp is currently controlled below 10.
-                    enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode);
+                    reorderAlgorithms.add(new JoinReorderDP(context));
                 }
 
                 if (context.getSessionVariable().isCboEnableGreedyJoinReorder()) {
-                    enumerate(new JoinReorderGreedy(context), context, innerJoinRoot, multiJoinNode);
+                    reorderAlgorithms.add(new JoinReorderGreedy(context));
+                }
+
+                if (context.getSessionVariable().isCboEnableParallelJoinReorder() && reorderAlgorithms.size() > 1) {
+                    parallelEnumerate(reorderAlgorithms, context, innerJoinRoot, multiJoinNode);
+                } else {
+                    for (JoinOrder reorderAlgorithm : reorderAlgorithms) {
+                        enumerate(reorderAlgorithm, context, innerJoinRoot, multiJoinNode);
+                    }
                 }
             }
         }
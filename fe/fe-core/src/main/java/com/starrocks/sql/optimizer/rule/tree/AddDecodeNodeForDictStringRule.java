@@ -852,9 +852,9 @@ public class AddDecodeNodeForDictStringRule implements TreeRewriteRule {
 
                 ColumnStatistic columnStatistic =
                         GlobalStateMgr.getCurrentStatisticStorage().getColumnStatistic(table, column.getName());
-                // Condition 2: the varchar column is low cardinality string column
+                // Condition 2: the varchar column may be low cardinality string column
                 if (!FeConstants.USE_MOCK_DICT_MANAGER && (columnStatistic.isUnknown() ||
-                        columnStatistic.getDistinctValuesCount() > CacheDictManager.LOW_CARDINALITY_THRESHOLD)) {
+                        !CacheDictManager.mayBeLowCardinality(columnStatistic.getDistinctValuesCount()))) {
                     LOG.debug("{} isn't low cardinality string column", column.getName());
                     continue;
                 }
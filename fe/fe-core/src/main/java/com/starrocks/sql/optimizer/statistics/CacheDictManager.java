@@ -4,7 +4,10 @@ package com.starrocks.sql.optimizer.statistics;
 
 import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import com.starrocks.catalog.Database;
@@ -27,17 +30,29 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static com.starrocks.statistic.StatisticExecutor.queryDictSync;
 
 public class CacheDictManager implements IDictManager {
     private static final Logger LOG = LogManager.getLogger(CacheDictManager.class);
-    private static final Set<ColumnIdentifier> NO_DICT_STRING_COLUMNS = Sets.newConcurrentHashSet();
+    // the string columns which aren't low cardinality, they are expired to be checked again after later loads
+    private final Cache<ColumnIdentifier, Boolean> noDictStringColumns;
     private static final Set<Long> FORBIDDEN_DICT_TABLE_IDS = Sets.newConcurrentHashSet();
 
     public static final Integer LOW_CARDINALITY_THRESHOLD = 255;
 
     private CacheDictManager() {
+        this(Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    CacheDictManager(Ticker ticker) {
+        noDictStringColumns = Caffeine.newBuilder()
+                .maximumSize(Config.statistic_dict_columns)
+                .expireAfterWrite(Config.statistic_no_dict_column_expire_sec, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
     }
 
     private static final CacheDictManager INSTANCE = new CacheDictManager();
@@ -46,6 +61,14 @@ public class CacheDictManager implements IDictManager {
         return INSTANCE;
     }
 
+    /**
+     * Whether the string column with the estimated distinct values count may be low cardinality.
+     * The exact count is checked when the global dict is collected.
+     */
+    public static boolean mayBeLowCardinality(double distinctValuesCount) {
+        return distinctValuesCount <= LOW_CARDINALITY_THRESHOLD * (1 + Config.low_cardinality_ndv_error_ratio);
+    }
+
     private final AsyncCacheLoader<ColumnIdentifier, Optional<ColumnDict>> dictLoader =
             new AsyncCacheLoader<ColumnIdentifier, Optional<ColumnDict>>() {
                 @Override
@@ -61,7 +84,7 @@ public class CacheDictManager implements IDictManager {
                                     tableId, columnName);
                             if (result.second.isGlobalDictError()) {
                                 LOG.debug("{}-{} isn't low cardinality string column", tableId, columnName);
-                                NO_DICT_STRING_COLUMNS.add(columnIdentifier);
+                                noDictStringColumns.put(columnIdentifier, true);
                                 return Optional.empty();
                             } else {
                                 // check TStatisticData is not empty, There may be no such column Statistics in BE
@@ -104,7 +127,7 @@ public class CacheDictManager implements IDictManager {
         int dictSize = tGlobalDict.getIdsSize();
         ColumnIdentifier columnIdentifier = new ColumnIdentifier(tableId, columnName);
         if (dictSize > LOW_CARDINALITY_THRESHOLD) {
-            NO_DICT_STRING_COLUMNS.add(columnIdentifier);
+            noDictStringColumns.put(columnIdentifier, true);
             return Optional.empty();
         } else {
             int dictDataSize = 0;
@@ -122,7 +145,7 @@ public class CacheDictManager implements IDictManager {
             // will be generated after the compaction.
             // Additional 32 bytes reserved for security.
             if (dictDataSize > DICT_PAGE_MAX_SIZE - 32) {
-                NO_DICT_STRING_COLUMNS.add(columnIdentifier);
+                noDictStringColumns.put(columnIdentifier, true);
                 return Optional.empty();
             }
         }
@@ -135,7 +158,7 @@ public class CacheDictManager implements IDictManager {
     @Override
     public boolean hasGlobalDict(long tableId, String columnName, long versionTime) {
         ColumnIdentifier columnIdentifier = new ColumnIdentifier(tableId, columnName);
-        if (NO_DICT_STRING_COLUMNS.contains(columnIdentifier)) {
+        if (noDictStringColumns.getIfPresent(columnIdentifier) != null) {
             LOG.debug("{}-{} isn't low cardinality string column", tableId, columnName);
             return false;
         }
@@ -185,7 +208,7 @@ public class CacheDictManager implements IDictManager {
     @Override
     public boolean hasGlobalDict(long tableId, String columnName) {
         ColumnIdentifier columnIdentifier = new ColumnIdentifier(tableId, columnName);
-        if (NO_DICT_STRING_COLUMNS.contains(columnIdentifier)) {
+        if (noDictStringColumns.getIfPresent(columnIdentifier) != null) {
             LOG.debug("{} isn't low cardinality string column", columnName);
             return false;
         }
@@ -11,6 +11,7 @@ import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.PlanCache;
 import com.starrocks.statistic.StatisticUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -161,6 +162,7 @@ public class CachedStatisticStorage implements StatisticStorage {
             allKeys.add(key);
         }
         cachedStatistics.synchronous().invalidateAll(allKeys);
+        PlanCache.getInstance().invalidateTable(table.getId());
     }
 
     @Override
@@ -218,6 +220,7 @@ public class CachedStatisticStorage implements StatisticStorage {
             allKeys.add(key);
         }
         histogramCache.synchronous().invalidateAll(allKeys);
+        PlanCache.getInstance().invalidateTable(tableId);
     }
 
     private List<ColumnStatistic> getDefaultColumnStatisticList(List<String> columns) {
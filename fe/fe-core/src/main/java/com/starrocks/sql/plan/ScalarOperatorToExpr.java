@@ -40,6 +40,7 @@ import com.starrocks.analysis.Subquery;
 import com.starrocks.analysis.VarBinaryLiteral;
 import com.starrocks.catalog.Function;
 import com.starrocks.catalog.Type;
+import com.starrocks.sql.PlanCache;
 import com.starrocks.sql.ast.LambdaFunctionExpr;
 import com.starrocks.sql.optimizer.operator.scalar.ArrayOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ArraySliceOperator;
@@ -160,7 +161,9 @@ public class ScalarOperatorToExpr {
         }
 
         @Override
-        public Expr visitConstant(ConstantOperator literal, FormatterContext context) {
+        public Expr visitConstant(ConstantOperator constant, FormatterContext context) {
+            // the constants of a reused plan are replaced by the parameters of the query
+            ConstantOperator literal = PlanCache.bindConstant(constant);
             try {
                 Type type = literal.getType();
                 if (literal.isNull()) {
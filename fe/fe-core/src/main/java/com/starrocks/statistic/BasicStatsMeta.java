@@ -41,6 +41,11 @@ public class BasicStatsMeta implements Writable {
     @SerializedName("updateRows")
     private long updateRows;
 
+    // The visible versions of the partitions when their full statistics were collected,
+    // null if the statistics are sampled or collected by the old versions.
+    @SerializedName("partitionVersions")
+    private Map<Long, Long> partitionVersions;
+
     public BasicStatsMeta(long dbId, long tableId, List<String> columns,
                           StatsConstants.AnalyzeType type,
                           LocalDateTime updateTime,
@@ -140,4 +145,26 @@ public class BasicStatsMeta implements Writable {
     public void increaseUpdateRows(Long delta) {
         updateRows += delta;
     }
+
+    public Map<Long, Long> getPartitionVersions() {
+        return partitionVersions;
+    }
+
+    public void setPartitionVersions(Map<Long, Long> partitionVersions) {
+        this.partitionVersions = partitionVersions;
+    }
+
+    // whether the changed partitions could be found by the collected versions
+    public boolean isPartitionVersionTracked() {
+        return partitionVersions != null && type.equals(StatsConstants.AnalyzeType.FULL);
+    }
+
+    /**
+     * Whether the full statistics of the partition should be collected again, because its visible version has been
+     * changed since the last collection. Only valid if isPartitionVersionTracked is true.
+     */
+    public boolean isPartitionChanged(Partition partition) {
+        Long version = partitionVersions.get(partition.getId());
+        return version == null || version != partition.getVisibleVersion();
+    }
 }
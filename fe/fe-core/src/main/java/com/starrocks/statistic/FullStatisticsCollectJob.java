@@ -3,6 +3,7 @@ package com.starrocks.statistic;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.Partition;
@@ -24,18 +25,31 @@ public class FullStatisticsCollectJob extends StatisticsCollectJob {
                     + "FROM $dbName.$tableName partition $partitionName";
 
     private final List<Long> partitionIdList;
+    // the visible versions of the partitions when the job is created, the data loaded later will be collected next time
+    private final Map<Long, Long> partitionVersions;
 
     public FullStatisticsCollectJob(Database db, Table table, List<Long> partitionIdList, List<String> columns,
                                     StatsConstants.AnalyzeType type, StatsConstants.ScheduleType scheduleType,
                                     Map<String, String> properties) {
         super(db, table, columns, type, scheduleType, properties);
         this.partitionIdList = partitionIdList;
+        this.partitionVersions = Maps.newHashMap();
+        for (Long partitionId : partitionIdList) {
+            Partition partition = table.getPartition(partitionId);
+            if (partition != null) {
+                partitionVersions.put(partitionId, partition.getVisibleVersion());
+            }
+        }
     }
 
     public List<Long> getPartitionIdList() {
         return partitionIdList;
     }
 
+    public Map<Long, Long> getPartitionVersions() {
+        return partitionVersions;
+    }
+
     @Override
     public void collect(ConnectContext context, AnalyzeStatus analyzeStatus) throws Exception {
         long finishedSQLNum = 0;
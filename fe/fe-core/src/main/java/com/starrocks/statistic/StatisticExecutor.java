@@ -4,6 +4,7 @@ package com.starrocks.statistic;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.InternalCatalog;
@@ -34,6 +35,7 @@ import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class StatisticExecutor {
     private static final Logger LOG = LogManager.getLogger(StatisticExecutor.class);
@@ -227,6 +229,11 @@ public class StatisticExecutor {
         } else {
             BasicStatsMeta basicStatsMeta = new BasicStatsMeta(db.getId(), table.getId(),
                     statsJob.getColumns(), statsJob.getType(), analyzeStatus.getEndTime(), statsJob.getProperties());
+            if (statsJob instanceof FullStatisticsCollectJob) {
+                basicStatsMeta.setPartitionVersions(mergePartitionVersions(table,
+                        GlobalStateMgr.getCurrentAnalyzeMgr().getBasicStatsMetaMap().get(table.getId()),
+                        ((FullStatisticsCollectJob) statsJob).getPartitionVersions()));
+            }
             GlobalStateMgr.getCurrentAnalyzeMgr().addBasicStatsMeta(basicStatsMeta);
             GlobalStateMgr.getCurrentAnalyzeMgr().refreshBasicStatisticsCache(
                     basicStatsMeta.getDbId(), basicStatsMeta.getTableId(), basicStatsMeta.getColumns(), refreshAsync);
@@ -234,6 +241,31 @@ public class StatisticExecutor {
         return analyzeStatus;
     }
 
+    /**
+     * The versions of the partitions whose full statistics are collected, merged with the versions of the partitions
+     * collected before, so the next job only collects the partitions changed after that.
+     */
+    static Map<Long, Long> mergePartitionVersions(Table table, BasicStatsMeta lastMeta, Map<Long, Long> jobVersions) {
+        Map<Long, Long> partitionVersions = Maps.newHashMap();
+        if (lastMeta != null && lastMeta.isPartitionVersionTracked()) {
+            for (Map.Entry<Long, Long> entry : lastMeta.getPartitionVersions().entrySet()) {
+                // skip the dropped partitions
+                if (table.getPartition(entry.getKey()) != null) {
+                    partitionVersions.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } else if (lastMeta != null && lastMeta.getType().equals(StatsConstants.AnalyzeType.FULL)) {
+            // the versions are not tracked by the last job, take the partitions not updated after it as collected
+            for (Partition partition : table.getPartitions()) {
+                if (!lastMeta.getUpdateTime().isBefore(StatisticUtils.getPartitionLastUpdateTime(partition))) {
+                    partitionVersions.put(partition.getId(), partition.getVisibleVersion());
+                }
+            }
+        }
+        partitionVersions.putAll(jobVersions);
+        return partitionVersions;
+    }
+
     private List<TStatisticData> executeDQL(ConnectContext context, String sql) {
         StatementBase parsedStmt = SqlParser.parseFirstStatement(sql, context.getSessionVariable().getSqlMode());
         ExecPlan execPlan = StatementPlanner.plan(parsedStmt, context, true, TResultSinkType.STATISTIC);
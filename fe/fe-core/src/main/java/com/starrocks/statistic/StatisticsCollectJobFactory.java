@@ -100,14 +100,20 @@ public class StatisticsCollectJobFactory {
                     && job.getAnalyzeType().equals(StatsConstants.AnalyzeType.FULL)
                     && table.getPartitions().stream()
                     .noneMatch(p -> p.getDataSize() > Config.statistic_max_full_collect_data_size)) {
-                createFullStatsJob(allTableJobMap, job, LocalDateTime.MIN, db, table, columns);
+                createFullStatsJob(allTableJobMap, job, null, db, table, columns);
                 return;
             }
 
-            LocalDateTime tableUpdateTime = StatisticUtils.getTableLastUpdateTime(table);
-            LocalDateTime statisticsUpdateTime = basicStatsMeta.getUpdateTime();
-            if (statisticsUpdateTime.isAfter(tableUpdateTime)) {
-                return;
+            if (basicStatsMeta.isPartitionVersionTracked()) {
+                if (table.getPartitions().stream().noneMatch(p -> p.hasData() && basicStatsMeta.isPartitionChanged(p))) {
+                    return;
+                }
+            } else {
+                LocalDateTime tableUpdateTime = StatisticUtils.getTableLastUpdateTime(table);
+                LocalDateTime statisticsUpdateTime = basicStatsMeta.getUpdateTime();
+                if (statisticsUpdateTime.isAfter(tableUpdateTime)) {
+                    return;
+                }
             }
 
             double statisticAutoCollectRatio =
@@ -123,38 +129,51 @@ public class StatisticsCollectJobFactory {
             allTableJobMap.add(buildStatisticsCollectJob(db, table, null, columns,
                     job.getAnalyzeType(), job.getScheduleType(), job.getProperties()));
         } else if (job.getAnalyzeType().equals(StatsConstants.AnalyzeType.FULL)) {
-            if (basicStatsMeta == null) {
-                createFullStatsJob(allTableJobMap, job, LocalDateTime.MIN, db, table, columns);
-            } else {
-                createFullStatsJob(allTableJobMap, job, basicStatsMeta.getUpdateTime(), db, table, columns);
-            }
+            createFullStatsJob(allTableJobMap, job, basicStatsMeta, db, table, columns);
         } else {
             throw new StarRocksPlannerException("Unknown analyze type " + job.getAnalyzeType(),
                     ErrorType.INTERNAL_ERROR);
         }
     }
 
+    /**
+     * Collect the statistics of the partitions changed after the last collection. If the versions of the partitions
+     * are tracked by the last full collection, only the changed partitions are collected, and their statistics are
+     * merged with the others when queried, so a large table is not sampled as a whole if only small partitions changed.
+     *
+     * @param basicStatsMeta the meta of the last collection, all the partitions are collected if it is null
+     */
     private static void createFullStatsJob(List<StatisticsCollectJob> allTableJobMap,
-                                           AnalyzeJob job, LocalDateTime statsLastUpdateTime,
+                                           AnalyzeJob job, BasicStatsMeta basicStatsMeta,
                                            Database db, Table table, List<String> columns) {
+        boolean versionTracked = basicStatsMeta != null && basicStatsMeta.isPartitionVersionTracked();
+        List<Partition> partitions = Lists.newArrayList(table.getPartitions());
+        List<Partition> changedPartitions = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (!partition.hasData()) {
+                continue;
+            }
+            if (basicStatsMeta == null) {
+                changedPartitions.add(partition);
+            } else if (versionTracked) {
+                if (basicStatsMeta.isPartitionChanged(partition)) {
+                    changedPartitions.add(partition);
+                }
+            } else if (basicStatsMeta.getUpdateTime().isBefore(StatisticUtils.getPartitionLastUpdateTime(partition))) {
+                changedPartitions.add(partition);
+            }
+        }
+
         StatsConstants.AnalyzeType analyzeType;
-        if (table.getPartitions().stream().anyMatch(
+        if ((versionTracked ? changedPartitions : partitions).stream().anyMatch(
                 p -> p.getDataSize() > Config.statistic_max_full_collect_data_size)) {
             analyzeType = StatsConstants.AnalyzeType.SAMPLE;
         } else {
             analyzeType = StatsConstants.AnalyzeType.FULL;
         }
 
-        List<Partition> partitions = Lists.newArrayList(table.getPartitions());
-        List<Long> partitionIdList = new ArrayList<>();
-        for (Partition partition : partitions) {
-            LocalDateTime partitionUpdateTime = StatisticUtils.getPartitionLastUpdateTime(partition);
-            if (statsLastUpdateTime.isBefore(partitionUpdateTime) && partition.hasData()) {
-                partitionIdList.add(partition.getId());
-            }
-        }
-
-        if (!partitionIdList.isEmpty()) {
+        if (!changedPartitions.isEmpty()) {
+            List<Long> partitionIdList = changedPartitions.stream().map(Partition::getId).collect(Collectors.toList());
             allTableJobMap.add(buildStatisticsCollectJob(db, table, partitionIdList, columns,
                     analyzeType, job.getScheduleType(), Maps.newHashMap()));
         }
@@ -512,6 +512,14 @@ public class ComputeNode implements IComputable, Writable {
     }
 
     public boolean isResourceOverloaded() {
+        return isResourceOverloaded(0);
+    }
+
+    /**
+     * @param numAdmittedQueries the number of queries admitted by FE after the last resource usage report,
+     *                           which are not counted in numRunningQueries yet.
+     */
+    public boolean isResourceOverloaded(int numAdmittedQueries) {
         if (!isAvailable()) {
             return false;
         }
@@ -523,7 +531,7 @@ public class ComputeNode implements IComputable, Writable {
         }
 
         if (GlobalVariable.isQueryQueueConcurrencyLimitEffective() &&
-                numRunningQueries >= GlobalVariable.getQueryQueueConcurrencyLimit()) {
+                numRunningQueries + numAdmittedQueries >= GlobalVariable.getQueryQueueConcurrencyLimit()) {
             return true;
         }
 
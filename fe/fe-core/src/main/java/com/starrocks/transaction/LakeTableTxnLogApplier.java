@@ -62,6 +62,7 @@ public class LakeTableTxnLogApplier implements TransactionLogApplier {
             }
             maxPartitionVersionTime = Math.max(maxPartitionVersionTime, versionTime);
         }
+        table.updateVersionStamp();
         for (String column : validDictCacheColumns) {
             IDictManager.getInstance().updateGlobalDict(tableId, column, maxPartitionVersionTime);
         }
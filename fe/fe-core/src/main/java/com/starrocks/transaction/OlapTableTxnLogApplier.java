@@ -121,6 +121,7 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
             }
             maxPartitionVersionTime = Math.max(maxPartitionVersionTime, versionTime);
         }
+        table.updateVersionStamp();
         for (String column : validDictCacheColumns) {
             IDictManager.getInstance().updateGlobalDict(tableId, column, maxPartitionVersionTime);
         }
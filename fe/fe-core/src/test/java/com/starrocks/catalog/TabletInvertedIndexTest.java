@@ -0,0 +1,123 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Replica.ReplicaState;
+import com.starrocks.thrift.TStorageMedium;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TabletInvertedIndexTest {
+    private static final int NUM_TABLETS = 16;
+    private static final long NUM_BACKENDS = 3;
+
+    private static TabletMeta newTabletMeta() {
+        return new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.HDD);
+    }
+
+    private static void runConcurrently(int numThreads, Runnable runnable) throws InterruptedException {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> threads = Lists.newArrayList();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(runnable);
+            thread.setUncaughtExceptionHandler((t, e) -> error.compareAndSet(null, e));
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(error.get());
+    }
+
+    // the replicas of tablets and the replicas of backends must be the same
+    private static void checkConsistent(TabletInvertedIndex invertedIndex, List<Long> tabletIds) {
+        for (long backendId = 1; backendId <= NUM_BACKENDS; backendId++) {
+            List<Replica> backendReplicas = invertedIndex.getReplicasOnBackendByTabletIds(tabletIds, backendId);
+            int numReplicas = 0;
+            for (int i = 0; i < tabletIds.size(); i++) {
+                long tabletId = tabletIds.get(i);
+                Replica replica = invertedIndex.getReplica(tabletId, backendId);
+                Assert.assertSame(replica, backendReplicas.get(i));
+                if (replica != null) {
+                    Assert.assertEquals(Long.valueOf(tabletId), invertedIndex.getTabletIdByReplica(replica.getId()));
+                    numReplicas++;
+                }
+            }
+            Assert.assertEquals(numReplicas, invertedIndex.getTabletNumByBackendId(backendId));
+        }
+    }
+
+    @Test
+    public void testGetReplicasOnUnknownBackend() {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        invertedIndex.addTablet(1000L, newTabletMeta());
+        invertedIndex.addReplica(1000L, new Replica(1L, 1L, 0, ReplicaState.NORMAL));
+
+        List<Replica> replicas = invertedIndex.getReplicasOnBackendByTabletIds(Lists.newArrayList(1000L, 1001L), 2L);
+        Assert.assertEquals(2, replicas.size());
+        Assert.assertNull(replicas.get(0));
+        Assert.assertNull(replicas.get(1));
+    }
+
+    @Test
+    public void testConcurrentAddAndDelete() throws InterruptedException {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        List<Long> tabletIds = Lists.newArrayList();
+        for (long tabletId = 1000; tabletId < 1000 + NUM_TABLETS; tabletId++) {
+            invertedIndex.addTablet(tabletId, newTabletMeta());
+            tabletIds.add(tabletId);
+        }
+
+        // add and delete the replicas of the same tablets on the same backends
+        AtomicLong nextReplicaId = new AtomicLong(1);
+        runConcurrently(8, () -> {
+            Random random = new Random();
+            for (int i = 0; i < 20000; i++) {
+                long tabletId = tabletIds.get(random.nextInt(NUM_TABLETS));
+                long backendId = 1 + random.nextInt((int) NUM_BACKENDS);
+                if (random.nextBoolean()) {
+                    invertedIndex.addReplica(tabletId,
+                            new Replica(nextReplicaId.getAndIncrement(), backendId, 0, ReplicaState.NORMAL));
+                } else if (invertedIndex.getReplica(tabletId, backendId) != null) {
+                    invertedIndex.deleteReplica(tabletId, backendId);
+                }
+            }
+        });
+        checkConsistent(invertedIndex, tabletIds);
+
+        // delete the tablets while adding replicas to them
+        runConcurrently(4, () -> {
+            Random random = new Random();
+            for (int i = 0; i < 5000; i++) {
+                long tabletId = tabletIds.get(random.nextInt(NUM_TABLETS));
+                long backendId = 1 + random.nextInt((int) NUM_BACKENDS);
+                if (random.nextInt(4) == 0) {
+                    invertedIndex.deleteTablet(tabletId);
+                    invertedIndex.addTablet(tabletId, newTabletMeta());
+                } else {
+                    try {
+                        invertedIndex.addReplica(tabletId,
+                                new Replica(nextReplicaId.getAndIncrement(), backendId, 0, ReplicaState.NORMAL));
+                    } catch (IllegalStateException e) {
+                        // the tablet is being deleted
+                    }
+                }
+            }
+        });
+        checkConsistent(invertedIndex, tabletIds);
+
+        for (long tabletId : tabletIds) {
+            invertedIndex.deleteTablet(tabletId);
+        }
+        for (long backendId = 1; backendId <= NUM_BACKENDS; backendId++) {
+            Assert.assertEquals(0, invertedIndex.getTabletNumByBackendId(backendId));
+        }
+    }
+}
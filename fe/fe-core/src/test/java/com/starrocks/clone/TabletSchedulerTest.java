@@ -2,6 +2,7 @@
 
 package com.starrocks.clone;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.catalog.CatalogRecycleBin;
 import com.starrocks.catalog.ColocateTableIndex;
@@ -16,9 +17,13 @@ import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.system.SystemInfoService;
+import com.starrocks.task.AgentBatchTask;
+import com.starrocks.task.CloneTask;
 import com.starrocks.thrift.TDisk;
 import com.starrocks.thrift.TStorageMedium;
 import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
 import mockit.Mocked;
 import org.apache.commons.lang3.tuple.Triple;
 import org.junit.Assert;
@@ -29,12 +34,17 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TabletSchedulerTest {
     @Mocked
@@ -241,4 +251,175 @@ public class TabletSchedulerTest {
         Assert.assertEquals(Optional.of(2L).get(),
                 result.get(new ColocateTableIndex.GroupId(200L, 301L)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScheduleTabletsOfDatabasesConcurrently() throws Exception {
+        TabletScheduler tabletScheduler =
+                new TabletScheduler(globalStateMgr, systemInfoService, tabletInvertedIndex, tabletSchedulerStat);
+        DiskAndTabletLoadReBalancer rebalancer = new DiskAndTabletLoadReBalancer(systemInfoService, tabletInvertedIndex);
+        Deencapsulation.setField(tabletScheduler, "rebalancer", rebalancer);
+        Map<Long, Long> cachedReplicaId = Deencapsulation.getField(rebalancer, "cachedReplicaId");
+        long colocateTableId = 30L;
+        ColocateTableIndex colocateTableIndex = Deencapsulation.getField(tabletScheduler, "colocateTableIndex");
+        Map<Long, ColocateTableIndex.GroupId> table2Group = Deencapsulation.getField(colocateTableIndex, "table2Group");
+        table2Group.put(colocateTableId, new ColocateTableIndex.GroupId(20L, 31L));
+
+        // repair tablets of db 10 and db 20, whose replicas chosen by the rebalancer are to be deleted,
+        // then balance tablets of db 10 and repair tablets of a colocate table in db 20
+        List<TabletSchedCtx> tablets = Lists.newArrayList();
+        List<TabletSchedCtx> serialTablets = Lists.newArrayList();
+        for (long i = 0; i < 30; i++) {
+            tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 10L, 11L, 12L, 13L, 1000L + i, i));
+            tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 20L, 21L, 22L, 23L, 2000L + i, i));
+            cachedReplicaId.put(1000L + i, 101000L + i);
+            cachedReplicaId.put(2000L + i, 102000L + i);
+        }
+        for (long i = 0; i < 5; i++) {
+            serialTablets.add(new TabletSchedCtx(TabletSchedCtx.Type.BALANCE, 10L, 11L, 12L, 13L, 3000L + i, i));
+            serialTablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 20L, colocateTableId, 32L, 33L,
+                    4000L + i, i));
+        }
+        tablets.addAll(serialTablets);
+
+        Thread schedulerThread = Thread.currentThread();
+        AtomicInteger sequence = new AtomicInteger();
+        Map<Long, Integer> tabletSequences = new ConcurrentHashMap<>();
+        Map<Long, Thread> tabletThreads = new ConcurrentHashMap<>();
+        Map<Long, List<Long>> dbScheduledTablets = new ConcurrentHashMap<>();
+        Map<Long, Long> deletedReplicaIds = new ConcurrentHashMap<>();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicBoolean scheduledConcurrently = new AtomicBoolean(true);
+        new MockUp<TabletScheduler>() {
+            @Mock
+            void scheduleTablet(TabletSchedCtx tabletCtx, AgentBatchTask batchTask) {
+                long tabletId = tabletCtx.getTabletId();
+                if (tabletId == 1000L || tabletId == 2000L) {
+                    // the first tablets of the two databases wait for each other
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        scheduledConcurrently.set(false);
+                    }
+                }
+                tabletSequences.put(tabletId, sequence.getAndIncrement());
+                tabletThreads.put(tabletId, Thread.currentThread());
+                dbScheduledTablets.computeIfAbsent(tabletCtx.getDbId(), k -> Collections.synchronizedList(
+                        Lists.newArrayList())).add(tabletId);
+                if (tabletCtx.getType() == TabletSchedCtx.Type.BALANCE) {
+                    Deencapsulation.invoke(rebalancer, "setCachedReplicaId", tabletId, tabletId + 100000L);
+                } else {
+                    deletedReplicaIds.put(tabletId, rebalancer.getToDeleteReplicaId(tabletId));
+                }
+                tabletCtx.setState(TabletSchedCtx.State.RUNNING);
+                batchTask.addTask(new CloneTask(1L, tabletCtx.getDbId(), tabletCtx.getTblId(),
+                        tabletCtx.getPartitionId(), tabletCtx.getIndexId(), tabletId, 0, null,
+                        TStorageMedium.HDD, 1L, 3600));
+            }
+        };
+
+        int oldThreadNum = Config.tablet_sched_schedule_thread_num;
+        Config.tablet_sched_schedule_thread_num = 4;
+        try {
+            AgentBatchTask batchTask = new AgentBatchTask();
+            tabletScheduler.scheduleTabletsConcurrently(tablets, batchTask);
+
+            Assert.assertTrue(scheduledConcurrently.get());
+            Assert.assertEquals(tablets.size(), batchTask.getAllTasks().size());
+            Assert.assertEquals(tablets.size(), tabletScheduler.getRunningNum());
+
+            // the tablets of one database are scheduled in order by a thread of the pool
+            List<Long> db10Tablets = Lists.newArrayList();
+            List<Long> db20Tablets = Lists.newArrayList();
+            for (long i = 0; i < 30; i++) {
+                db10Tablets.add(1000L + i);
+                db20Tablets.add(2000L + i);
+                Assert.assertSame(tabletThreads.get(1000L), tabletThreads.get(1000L + i));
+                Assert.assertSame(tabletThreads.get(2000L), tabletThreads.get(2000L + i));
+            }
+            Assert.assertNotSame(schedulerThread, tabletThreads.get(1000L));
+            Assert.assertNotSame(schedulerThread, tabletThreads.get(2000L));
+            Assert.assertNotSame(tabletThreads.get(1000L), tabletThreads.get(2000L));
+            Assert.assertEquals(db10Tablets, dbScheduledTablets.get(10L).subList(0, 30));
+            Assert.assertEquals(db20Tablets, dbScheduledTablets.get(20L).subList(0, 30));
+
+            // the balance tablets and the tablets of colocate tables are scheduled serially at last
+            int lastConcurrentSequence = 2 * 30 - 1;
+            for (int i = 0; i < serialTablets.size(); i++) {
+                long tabletId = serialTablets.get(i).getTabletId();
+                Assert.assertSame(schedulerThread, tabletThreads.get(tabletId));
+                Assert.assertEquals(Integer.valueOf(lastConcurrentSequence + 1 + i), tabletSequences.get(tabletId));
+            }
+
+            // every replica chosen by the rebalancer is taken by its own tablet exactly once,
+            // only the replicas chosen by the balance tablets of this round are left
+            for (long i = 0; i < 30; i++) {
+                Assert.assertEquals(Long.valueOf(101000L + i), deletedReplicaIds.get(1000L + i));
+                Assert.assertEquals(Long.valueOf(102000L + i), deletedReplicaIds.get(2000L + i));
+            }
+            for (long i = 0; i < 5; i++) {
+                Assert.assertEquals(Long.valueOf(-1L), deletedReplicaIds.get(4000L + i));
+            }
+            Assert.assertEquals(5, cachedReplicaId.size());
+            for (long i = 0; i < 5; i++) {
+                Assert.assertEquals(Long.valueOf(103000L + i), cachedReplicaId.get(3000L + i));
+            }
+        } finally {
+            Config.tablet_sched_schedule_thread_num = oldThreadNum;
+        }
+    }
+
+    @Test
+    public void testScheduleTabletsConcurrentlyInPriorityOrder() {
+        TabletScheduler tabletScheduler =
+                new TabletScheduler(globalStateMgr, systemInfoService, tabletInvertedIndex, tabletSchedulerStat);
+        long colocateTableId = 30L;
+        ColocateTableIndex colocateTableIndex = Deencapsulation.getField(tabletScheduler, "colocateTableIndex");
+        Map<Long, ColocateTableIndex.GroupId> table2Group = Deencapsulation.getField(colocateTableIndex, "table2Group");
+        table2Group.put(colocateTableId, new ColocateTableIndex.GroupId(20L, 31L));
+
+        // the batch is ordered by priority, a colocate tablet is the most urgent one,
+        // and a balance tablet is in the middle
+        List<TabletSchedCtx> tablets = Lists.newArrayList();
+        tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 20L, colocateTableId, 32L, 33L, 4000L, 0));
+        for (long i = 0; i < 25; i++) {
+            tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 10L, 11L, 12L, 13L, 1000L + i, i));
+            tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 20L, 21L, 22L, 23L, 2000L + i, i));
+        }
+        tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.BALANCE, 10L, 11L, 12L, 13L, 3000L, 0));
+        for (long i = 25; i < 30; i++) {
+            tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 10L, 11L, 12L, 13L, 1000L + i, i));
+            tablets.add(new TabletSchedCtx(TabletSchedCtx.Type.REPAIR, 20L, 21L, 22L, 23L, 2000L + i, i));
+        }
+
+        AtomicInteger sequence = new AtomicInteger();
+        Map<Long, Integer> tabletSequences = new ConcurrentHashMap<>();
+        new MockUp<TabletScheduler>() {
+            @Mock
+            void scheduleTablet(TabletSchedCtx tabletCtx, AgentBatchTask batchTask) {
+                tabletSequences.put(tabletCtx.getTabletId(), sequence.getAndIncrement());
+                tabletCtx.setState(TabletSchedCtx.State.RUNNING);
+            }
+        };
+
+        int oldThreadNum = Config.tablet_sched_schedule_thread_num;
+        Config.tablet_sched_schedule_thread_num = 4;
+        try {
+            tabletScheduler.scheduleTabletsConcurrently(tablets, new AgentBatchTask());
+            Assert.assertEquals(tablets.size(), tabletSequences.size());
+
+            // the serially scheduled tablets are not delayed by the tablets with lower priority
+            Assert.assertEquals(Integer.valueOf(0), tabletSequences.get(4000L));
+            Assert.assertEquals(Integer.valueOf(51), tabletSequences.get(3000L));
+            for (long i = 0; i < 30; i++) {
+                int expectedMin = i < 25 ? 1 : 52;
+                int expectedMax = i < 25 ? 50 : 61;
+                for (long tabletId : new long[] {1000L + i, 2000L + i}) {
+                    int tabletSequence = tabletSequences.get(tabletId);
+                    Assert.assertTrue(tabletSequence >= expectedMin && tabletSequence <= expectedMax);
+                }
+            }
+        } finally {
+            Config.tablet_sched_schedule_thread_num = oldThreadNum;
+        }
+    }
+}
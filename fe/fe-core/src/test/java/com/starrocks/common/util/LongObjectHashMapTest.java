@@ -0,0 +1,74 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectHashMapTest {
+    @Test
+    public void testBasic() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.put(1, "a"));
+        Assert.assertNull(map.put(0, "zero"));
+        Assert.assertNull(map.put(-1, "minus"));
+        Assert.assertEquals("a", map.put(1, "b"));
+        Assert.assertEquals(3, map.size());
+
+        Assert.assertEquals("b", map.get(1));
+        Assert.assertEquals("zero", map.get(0));
+        Assert.assertEquals("minus", map.get(-1));
+        Assert.assertNull(map.get(2));
+        Assert.assertEquals("c", map.getOrDefault(2, "c"));
+        Assert.assertTrue(map.containsKey(0));
+        Assert.assertFalse(map.containsKey(2));
+
+        Assert.assertEquals("b", map.putIfAbsent(1, "d"));
+        Assert.assertNull(map.putIfAbsent(2, "d"));
+        Assert.assertEquals("d", map.get(2));
+
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        Assert.assertArrayEquals(new long[] {-1, 0, 1, 2}, keys);
+
+        Assert.assertEquals("zero", map.remove(0));
+        Assert.assertNull(map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertEquals(3, map.size());
+
+        map.clear();
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get(1));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            // small key range to have lots of collisions and removals
+            long key = random.nextInt(5000) * 1024L;
+            long value = random.nextLong();
+            int op = random.nextInt(3);
+            if (op == 0) {
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            } else if (op == 1) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.get(key), map.get(key));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach((key, value) -> actual.put(key, value));
+        Assert.assertEquals(expected, actual);
+    }
+}
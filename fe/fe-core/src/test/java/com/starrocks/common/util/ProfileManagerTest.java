@@ -0,0 +1,90 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.common.util;
+
+import com.starrocks.common.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+public class ProfileManagerTest {
+    private long oldMaxMemoryMb;
+    private File spillPath;
+
+    @Before
+    public void setUp() throws Exception {
+        oldMaxMemoryMb = Config.profile_info_max_memory_mb;
+        spillPath = Files.createTempFile("profile_spill", ".dat").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        Config.profile_info_max_memory_mb = oldMaxMemoryMb;
+        spillPath.delete();
+    }
+
+    private static RuntimeProfile newProfile(String queryId) {
+        RuntimeProfile profile = new RuntimeProfile("Query");
+        RuntimeProfile summary = new RuntimeProfile("Summary");
+        summary.addInfoString(ProfileManager.QUERY_ID, queryId);
+        summary.addInfoString(ProfileManager.USER, "root");
+        summary.addInfoString(ProfileManager.SQL_STATEMENT, "select * from t where id = '" + queryId + "'");
+        profile.addChild(summary);
+        return profile;
+    }
+
+    @Test
+    public void testPushAndGetProfile() {
+        ProfileManager manager = new ProfileManager(null);
+        String profileString = manager.pushProfile(newProfile("q1"));
+        Assert.assertEquals(profileString, manager.getProfile("q1"));
+        Assert.assertNull(manager.getProfile("q2"));
+
+        manager.pushProfile(newProfile("q2"));
+        List<List<String>> queries = manager.getAllQueries();
+        Assert.assertEquals(2, queries.size());
+        // the latest one is the first
+        Assert.assertEquals("q2", queries.get(0).get(0));
+        Assert.assertEquals("root", queries.get(0).get(1));
+        Assert.assertEquals("q1", queries.get(1).get(0));
+    }
+
+    @Test
+    public void testRemoveWithoutSpilling() {
+        Config.profile_info_max_memory_mb = 0;
+        ProfileManager manager = new ProfileManager(null);
+        manager.pushProfile(newProfile("q1"));
+        String profileString = manager.pushProfile(newProfile("q2"));
+        // only the latest one is kept in memory
+        Assert.assertNull(manager.getProfile("q1"));
+        Assert.assertEquals(profileString, manager.getProfile("q2"));
+        Assert.assertEquals(1, manager.getAllQueries().size());
+    }
+
+    @Test
+    public void testSpillProfiles() throws Exception {
+        Config.profile_info_max_memory_mb = 0;
+        int profileLength = CompressionUtils.gzipCompressString(newProfile("q0").toString()).length;
+        // only one spilled profile could be kept
+        try (RingBufferFile spillFile = new RingBufferFile(spillPath, profileLength * 3L / 2)) {
+            ProfileManager manager = new ProfileManager(spillFile);
+            String profileString1 = manager.pushProfile(newProfile("q1"));
+            String profileString2 = manager.pushProfile(newProfile("q2"));
+            Assert.assertEquals(profileString1, manager.getProfile("q1"));
+            Assert.assertEquals(profileString2, manager.getProfile("q2"));
+            Assert.assertEquals(2, manager.getAllQueries().size());
+
+            // q1 is overwritten by q2 in the spill file
+            String profileString3 = manager.pushProfile(newProfile("q3"));
+            Assert.assertNull(manager.getProfile("q1"));
+            Assert.assertEquals(profileString2, manager.getProfile("q2"));
+            Assert.assertEquals(profileString3, manager.getProfile("q3"));
+            Assert.assertEquals(2, manager.getAllQueries().size());
+        }
+    }
+}
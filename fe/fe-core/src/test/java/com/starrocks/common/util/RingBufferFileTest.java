@@ -0,0 +1,59 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.common.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public class RingBufferFileTest {
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("ring_buffer", ".dat").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static byte[] newData(int length, int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (seed + i);
+        }
+        return data;
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        try (RingBufferFile ringFile = new RingBufferFile(file, 100)) {
+            Assert.assertEquals(-1, ringFile.write(newData(101, 0)));
+
+            long offset1 = ringFile.write(newData(40, 1));
+            long offset2 = ringFile.write(newData(40, 2));
+            Assert.assertEquals(0, offset1);
+            Assert.assertEquals(40, offset2);
+            Assert.assertArrayEquals(newData(40, 1), ringFile.read(offset1, 40));
+            Assert.assertArrayEquals(newData(40, 2), ringFile.read(offset2, 40));
+
+            // wrap around and overwrite the first one
+            long offset3 = ringFile.write(newData(40, 3));
+            Assert.assertEquals(80, offset3);
+            Assert.assertFalse(ringFile.isAvailable(offset1));
+            Assert.assertNull(ringFile.read(offset1, 40));
+            Assert.assertTrue(ringFile.isAvailable(offset2));
+            Assert.assertArrayEquals(newData(40, 2), ringFile.read(offset2, 40));
+            Assert.assertArrayEquals(newData(40, 3), ringFile.read(offset3, 40));
+
+            // could not read the data not written yet
+            Assert.assertNull(ringFile.read(offset3, 41));
+        }
+    }
+}
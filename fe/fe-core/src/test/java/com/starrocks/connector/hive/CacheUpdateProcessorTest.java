@@ -0,0 +1,169 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.connector.hive;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.api.CurrentNotificationEventId;
+import org.apache.hadoop.hive.metastore.api.NotificationEvent;
+import org.apache.hadoop.hive.metastore.api.NotificationEventResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+public class CacheUpdateProcessorTest {
+    private static final String CATALOG_NAME = "hive_catalog";
+
+    private EventsHiveMetaClient client;
+    private HiveMetastore metastore;
+    private ExecutorService executor;
+    private String metaDir;
+    private boolean enablePersistence;
+    private File tmpDir;
+
+    // The hive meta client whose events can be set by tests
+    public static class EventsHiveMetaClient extends HiveMetastoreTest.MockedHiveMetaClient {
+        private long currentEventId;
+        private List<NotificationEvent> events = Lists.newArrayList();
+
+        public void setEvents(long currentEventId, List<NotificationEvent> events) {
+            this.currentEventId = currentEventId;
+            this.events = events;
+        }
+
+        @Override
+        public CurrentNotificationEventId getCurrentNotificationEventId() {
+            return new CurrentNotificationEventId(currentEventId);
+        }
+
+        @Override
+        public NotificationEventResponse getNextNotification(long lastEventId, int maxEvents,
+                                                             IMetaStoreClient.NotificationFilter filter) {
+            return new NotificationEventResponse(events.stream()
+                    .filter(event -> event.getEventId() > lastEventId)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new EventsHiveMetaClient();
+        metastore = new HiveMetastore(client, CATALOG_NAME);
+        executor = Executors.newFixedThreadPool(5);
+        metaDir = Config.meta_dir;
+        enablePersistence = Config.enable_hive_metastore_cache_persistence;
+        tmpDir = Files.createTempDirectory("hive_cache").toFile();
+        Config.meta_dir = tmpDir.getAbsolutePath();
+        Config.enable_hive_metastore_cache_persistence = true;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        Config.meta_dir = metaDir;
+        Config.enable_hive_metastore_cache_persistence = enablePersistence;
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    // Save the snapshot of the partition keys and partitions of db1.table1 at the given event id
+    public static void saveSnapshot(HiveMetastore metastore, ExecutorService executor, long eventId) throws Exception {
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(metastore, executor, 100, -1, 1000, false);
+        cachingHiveMetastore.getPartitionKeys("db1", "table1");
+        cachingHiveMetastore.getPartitionsByNames("db1", "table1", Lists.newArrayList("col1=1", "col1=2"));
+        HiveMetastoreCacheSnapshot.create(cachingHiveMetastore, eventId).save(CATALOG_NAME);
+    }
+
+    public static NotificationEvent newEvent(long eventId, String eventType, String tableName) {
+        NotificationEvent event = new NotificationEvent(eventId, 0, eventType, "");
+        event.setDbName("db1");
+        event.setTableName(tableName);
+        return event;
+    }
+
+    @Test
+    public void testLoadCacheSnapshot() throws Exception {
+        saveSnapshot(metastore, executor, 10);
+
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(metastore, executor, 100, -1, 1000, false);
+        CacheUpdateProcessor processor = new CacheUpdateProcessor(CATALOG_NAME, cachingHiveMetastore, null, executor,
+                false, false);
+        processor.loadCacheSnapshot();
+        Assert.assertEquals(10, processor.getLastSyncedEventId());
+        Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitions().size());
+        Assert.assertEquals(1, cachingHiveMetastore.getPresentPartitionKeys().size());
+        // the table restored from the snapshot is present though the table itself is not cached
+        Assert.assertTrue(processor.isTablePresent(HiveTableName.of("db1", "table1")));
+        Assert.assertFalse(processor.isTablePresent(HiveTableName.of("db1", "table2")));
+
+        // the snapshot is only loaded once
+        cachingHiveMetastore.invalidateAll();
+        processor.loadCacheSnapshot();
+        Assert.assertTrue(cachingHiveMetastore.getPresentPartitions().isEmpty());
+    }
+
+    @Test
+    public void testValidateCacheSnapshot() throws Exception {
+        saveSnapshot(metastore, executor, 10);
+
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(metastore, executor, 100, -1, 1000, false);
+        CacheUpdateProcessor processor = new CacheUpdateProcessor(CATALOG_NAME, cachingHiveMetastore, null, executor,
+                false, false);
+        processor.loadCacheSnapshot();
+
+        // all the events since the snapshot are available, the restored cache is kept
+        client.setEvents(12, Lists.newArrayList(newEvent(11, "ALTER_TABLE", "table2"),
+                newEvent(12, "ALTER_TABLE", "table1")));
+        NotificationEventResponse response = processor.getNextEventResponse(CATALOG_NAME, false);
+        Assert.assertNotNull(response);
+        Assert.assertEquals(2, response.getEvents().size());
+        Assert.assertEquals(11, response.getEvents().get(0).getEventId());
+        Assert.assertEquals(10, processor.getLastSyncedEventId());
+        Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitions().size());
+        Assert.assertEquals(1, cachingHiveMetastore.getPresentPartitionKeys().size());
+
+        // the later pulls are not validated again
+        processor.setLastSyncedEventId(12);
+        client.setEvents(20, Lists.newArrayList(newEvent(15, "ALTER_TABLE", "table1")));
+        response = processor.getNextEventResponse(CATALOG_NAME, false);
+        Assert.assertNotNull(response);
+        Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitions().size());
+    }
+
+    @Test
+    public void testDiscardCacheSnapshot() throws Exception {
+        saveSnapshot(metastore, executor, 10);
+
+        // the events since the snapshot have been cleaned by hive metastore
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(metastore, executor, 100, -1, 1000, false);
+        CacheUpdateProcessor processor = new CacheUpdateProcessor(CATALOG_NAME, cachingHiveMetastore, null, executor,
+                false, false);
+        processor.loadCacheSnapshot();
+        Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitions().size());
+        client.setEvents(20, Lists.newArrayList(newEvent(15, "ALTER_TABLE", "table1")));
+        Assert.assertNull(processor.getNextEventResponse(CATALOG_NAME, false));
+        Assert.assertEquals(20, processor.getLastSyncedEventId());
+        Assert.assertTrue(cachingHiveMetastore.getPresentPartitions().isEmpty());
+        Assert.assertTrue(cachingHiveMetastore.getPresentPartitionKeys().isEmpty());
+        Assert.assertFalse(processor.isTablePresent(HiveTableName.of("db1", "table1")));
+
+        // the event id of hive metastore is reset
+        cachingHiveMetastore = new CachingHiveMetastore(metastore, executor, 100, -1, 1000, false);
+        processor = new CacheUpdateProcessor(CATALOG_NAME, cachingHiveMetastore, null, executor, false, false);
+        processor.loadCacheSnapshot();
+        Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitions().size());
+        client.setEvents(5, Lists.newArrayList());
+        Assert.assertNull(processor.getNextEventResponse(CATALOG_NAME, false));
+        Assert.assertEquals(5, processor.getLastSyncedEventId());
+        Assert.assertTrue(cachingHiveMetastore.getPresentPartitions().isEmpty());
+    }
+}
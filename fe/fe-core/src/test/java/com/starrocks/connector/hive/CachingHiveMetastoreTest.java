@@ -9,13 +9,17 @@ import com.starrocks.catalog.HivePartitionKey;
 import com.starrocks.catalog.HiveTable;
 import com.starrocks.catalog.PrimitiveType;
 import com.starrocks.catalog.ScalarType;
+import com.starrocks.common.Config;
 import com.starrocks.connector.PartitionUtil;
 import com.starrocks.connector.exception.StarRocksConnectorException;
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -178,6 +182,49 @@ public class CachingHiveMetastoreTest {
         Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitionsStatistics(partitionNames).size());
     }
 
+    @Test
+    public void testWeightedPartitionCache() {
+        CachingHiveMetastore cachingHiveMetastore = CachingHiveMetastore.createCatalogLevelInstance(
+                metastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, 1024 * 1024, false);
+        List<String> partitionNames = Lists.newArrayList("part1=1/part2=2", "part1=3/part2=4");
+        Map<String, Partition> partitions =
+                cachingHiveMetastore.getPartitionsByNames("db1", "table1", partitionNames);
+        Assert.assertEquals(2, partitions.size());
+        Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitions().size());
+    }
+
+    @Test
+    public void testCacheSnapshot() throws Exception {
+        String metaDir = Config.meta_dir;
+        File tmpDir = Files.createTempDirectory("hive_cache").toFile();
+        Config.meta_dir = tmpDir.getAbsolutePath();
+        try {
+            CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(
+                    metastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, false);
+            cachingHiveMetastore.getPartitionKeys("db1", "tbl1");
+            cachingHiveMetastore.getPartition("db1", "tbl1", Lists.newArrayList("par1"));
+            cachingHiveMetastore.getPartitionsByNames("db1", "table1",
+                    Lists.newArrayList("part1=1/part2=2", "part1=3/part2=4"));
+            HiveMetastoreCacheSnapshot.create(cachingHiveMetastore, 10).save("hive_catalog");
+
+            HiveMetastoreCacheSnapshot snapshot = HiveMetastoreCacheSnapshot.load("hive_catalog");
+            Assert.assertNotNull(snapshot);
+            Assert.assertEquals(10, snapshot.getEventId());
+
+            CachingHiveMetastore restored = new CachingHiveMetastore(
+                    metastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, false);
+            snapshot.restore(restored);
+            Assert.assertEquals(cachingHiveMetastore.getPresentPartitionKeys(), restored.getPresentPartitionKeys());
+            Assert.assertEquals(cachingHiveMetastore.getPresentPartitions(), restored.getPresentPartitions());
+
+            HiveMetastoreCacheSnapshot.delete("hive_catalog");
+            Assert.assertNull(HiveMetastoreCacheSnapshot.load("hive_catalog"));
+        } finally {
+            Config.meta_dir = metaDir;
+            FileUtils.deleteDirectory(tmpDir);
+        }
+    }
+
     @Test
     public void testPartitionNames() {
         HivePartitionKey hivePartitionKey = new HivePartitionKey();
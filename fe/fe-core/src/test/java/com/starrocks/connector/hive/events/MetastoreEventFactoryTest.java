@@ -0,0 +1,89 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.connector.hive.events;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.connector.hive.CacheUpdateProcessor;
+import com.starrocks.connector.hive.CacheUpdateProcessorTest;
+import com.starrocks.connector.hive.CachingHiveMetastore;
+import com.starrocks.connector.hive.HiveMetastore;
+import com.starrocks.connector.hive.HiveTableName;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hive.metastore.api.NotificationEvent;
+import org.apache.hadoop.hive.metastore.api.NotificationEventResponse;
+import org.apache.hadoop.hive.metastore.messaging.json.JSONMessageFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MetastoreEventFactoryTest {
+    private static final String CATALOG_NAME = "hive_catalog";
+
+    private CacheUpdateProcessorTest.EventsHiveMetaClient client;
+    private HiveMetastore metastore;
+    private ExecutorService executor;
+    private String metaDir;
+    private boolean enablePersistence;
+    private File tmpDir;
+
+    @Before
+    public void setUp() throws Exception {
+        client = new CacheUpdateProcessorTest.EventsHiveMetaClient();
+        metastore = new HiveMetastore(client, CATALOG_NAME);
+        executor = Executors.newFixedThreadPool(5);
+        metaDir = Config.meta_dir;
+        enablePersistence = Config.enable_hive_metastore_cache_persistence;
+        tmpDir = Files.createTempDirectory("hive_cache").toFile();
+        Config.meta_dir = tmpDir.getAbsolutePath();
+        Config.enable_hive_metastore_cache_persistence = true;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        Config.meta_dir = metaDir;
+        Config.enable_hive_metastore_cache_persistence = enablePersistence;
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    private NotificationEvent newDropTableEvent(long eventId, String tableName) {
+        NotificationEvent event = CacheUpdateProcessorTest.newEvent(eventId, "DROP_TABLE", tableName);
+        event.setMessage(new JSONMessageFactory().buildDropTableMessage(client.getTable("db1", tableName)).toString());
+        return event;
+    }
+
+    @Test
+    public void testReplayEventsOnRestoredCache() throws Exception {
+        CacheUpdateProcessorTest.saveSnapshot(metastore, executor, 10);
+
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(metastore, executor, 100, -1, 1000, false);
+        CacheUpdateProcessor processor = new CacheUpdateProcessor(CATALOG_NAME, cachingHiveMetastore, null, executor,
+                false, false);
+        processor.loadCacheSnapshot();
+        Assert.assertEquals(2, cachingHiveMetastore.getPresentPartitions().size());
+
+        client.setEvents(12, Lists.newArrayList(newDropTableEvent(11, "table2"), newDropTableEvent(12, "table1")));
+        NotificationEventResponse response = processor.getNextEventResponse(CATALOG_NAME, false);
+        Assert.assertNotNull(response);
+
+        // the event of the table restored from the snapshot is not skipped
+        List<MetastoreEvent> events = new MetastoreEventFactory(Lists.newArrayList())
+                .getFilteredEvents(response.getEvents(), processor, CATALOG_NAME);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(12, events.get(0).getEventId());
+        Assert.assertEquals("table1", events.get(0).getTblName());
+
+        events.get(0).process();
+        Assert.assertTrue(cachingHiveMetastore.getPresentPartitions().isEmpty());
+        Assert.assertTrue(cachingHiveMetastore.getPresentPartitionKeys().isEmpty());
+        Assert.assertFalse(processor.isTablePresent(HiveTableName.of("db1", "table1")));
+    }
+}
@@ -0,0 +1,176 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.connector.iceberg;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.CombinedScanTask;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.hadoop.HadoopTables;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.types.Types;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+public class IcebergManifestCacheTest {
+    private static final Schema SCHEMA = new Schema(
+            Types.NestedField.required(1, "id", Types.IntegerType.get()),
+            Types.NestedField.required(2, "dt", Types.StringType.get()));
+    private static final PartitionSpec SPEC = PartitionSpec.builderFor(SCHEMA).identity("dt").build();
+
+    private File tableDir;
+    private Table table;
+
+    @Before
+    public void setUp() throws Exception {
+        tableDir = Files.createTempDirectory("iceberg_manifest_cache").toFile();
+        table = new HadoopTables(new Configuration()).create(SCHEMA, SPEC, Maps.newHashMap(),
+                tableDir.getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tableDir);
+    }
+
+    private DataFile newDataFile(String dt) {
+        return DataFiles.builder(SPEC)
+                .withPath(tableDir.getAbsolutePath() + "/data/dt=" + dt + "/00000.orc")
+                .withPartitionPath("dt=" + dt)
+                .withFileSizeInBytes(1024)
+                .withRecordCount(10)
+                .withFormat(FileFormat.ORC)
+                .build();
+    }
+
+    private List<String> planFiles(IcebergManifestCache cache, Expression predicate) {
+        return Lists.newArrayList(getResiduals(cache.planTasks(table, table.currentSnapshot(), predicate)).keySet());
+    }
+
+    private List<String> planFilesByIceberg(Expression predicate) {
+        return Lists.newArrayList(getResiduals(
+                IcebergUtil.getTableScan(table, table.currentSnapshot(), predicate).planTasks()).keySet());
+    }
+
+    // file path -> residual predicate of the file, ordered by file path
+    private static Map<String, String> getResiduals(CloseableIterable<CombinedScanTask> combinedScanTasks) {
+        Map<String, String> residuals = Maps.newTreeMap();
+        for (CombinedScanTask combinedScanTask : combinedScanTasks) {
+            for (FileScanTask task : combinedScanTask.files()) {
+                residuals.put(task.file().path().toString(), task.residual().toString());
+            }
+        }
+        return residuals;
+    }
+
+    @Test
+    public void testPlanTasks() {
+        IcebergManifestCache cache = new IcebergManifestCache(64L * 1024L * 1024L);
+        table.newAppend().appendFile(newDataFile("2022-01-01")).appendFile(newDataFile("2022-01-02")).commit();
+
+        Assert.assertEquals(planFilesByIceberg(null), planFiles(cache, null));
+        Assert.assertEquals(2, planFiles(cache, null).size());
+        Assert.assertEquals(1, cache.size());
+
+        Expression predicate = Expressions.equal("dt", "2022-01-02");
+        Assert.assertEquals(planFilesByIceberg(predicate), planFiles(cache, predicate));
+        Assert.assertEquals(1, planFiles(cache, predicate).size());
+        Assert.assertEquals(1, cache.size());
+
+        // only the manifest added by the new snapshot is read
+        table.newAppend().appendFile(newDataFile("2022-01-03")).commit();
+        Assert.assertEquals(planFilesByIceberg(null), planFiles(cache, null));
+        Assert.assertEquals(3, planFiles(cache, null).size());
+        Assert.assertEquals(2, cache.size());
+
+        predicate = Expressions.equal("dt", "2022-01-04");
+        Assert.assertTrue(planFiles(cache, predicate).isEmpty());
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPlanTasksWithTransformPartition() {
+        Schema schema = new Schema(
+                Types.NestedField.required(1, "id", Types.IntegerType.get()),
+                Types.NestedField.required(2, "ts", Types.TimestampType.withoutZone()));
+        PartitionSpec spec = PartitionSpec.builderFor(schema).day("ts").bucket("id", 4).build();
+        table = new HadoopTables(new Configuration()).create(schema, spec, Maps.newHashMap(),
+                tableDir.getAbsolutePath() + "/transform");
+        for (String day : new String[] {"2022-01-01", "2022-01-02", "2022-01-03"}) {
+            for (int bucket = 0; bucket < 4; bucket++) {
+                String partitionPath = "ts_day=" + day + "/id_bucket=" + bucket;
+                table.newAppend().appendFile(DataFiles.builder(spec)
+                        .withPath(tableDir.getAbsolutePath() + "/transform/data/" + partitionPath + "/00000.orc")
+                        .withPartitionPath(partitionPath)
+                        .withFileSizeInBytes(1024)
+                        .withRecordCount(10)
+                        .withFormat(FileFormat.ORC)
+                        .build()).commit();
+            }
+        }
+
+        // every append adds a manifest, the manifests are read in parallel
+        IcebergManifestCache cache = new IcebergManifestCache(64L * 1024L * 1024L);
+        Assert.assertEquals(12, planFiles(cache, null).size());
+        Assert.assertEquals(12, cache.size());
+
+        Expression predicate = Expressions.and(
+                Expressions.greaterThanOrEqual("ts", "2022-01-02T00:00:00"),
+                Expressions.lessThan("ts", "2022-01-03T00:00:00"));
+        Assert.assertEquals(planFilesByIceberg(predicate), planFiles(cache, predicate));
+        Assert.assertEquals(4, planFiles(cache, predicate).size());
+
+        predicate = Expressions.and(predicate, Expressions.equal("id", 7));
+        Assert.assertEquals(planFilesByIceberg(predicate), planFiles(cache, predicate));
+        Assert.assertEquals(1, planFiles(cache, predicate).size());
+
+        cache.invalidateAll();
+        Assert.assertEquals(planFilesByIceberg(predicate), planFiles(cache, predicate));
+        Assert.assertEquals(12, cache.size());
+    }
+
+    @Test
+    public void testResidualPredicate() {
+        IcebergManifestCache cache = new IcebergManifestCache(64L * 1024L * 1024L);
+        table.newAppend().appendFile(newDataFile("2022-01-01")).appendFile(newDataFile("2022-01-02")).commit();
+
+        // the predicate on the partition column is evaluated by the partitions, nothing is left to scan
+        Expression predicate = Expressions.equal("dt", "2022-01-02");
+        Map<String, String> residuals = getResiduals(cache.planTasks(table, table.currentSnapshot(), predicate));
+        Assert.assertEquals(1, residuals.size());
+        Assert.assertEquals(Expressions.alwaysTrue().toString(), residuals.values().iterator().next());
+
+        // only the predicate on id is left to scan
+        predicate = Expressions.and(Expressions.equal("dt", "2022-01-02"), Expressions.greaterThan("id", 5));
+        residuals = getResiduals(cache.planTasks(table, table.currentSnapshot(), predicate));
+        Assert.assertEquals(getResiduals(IcebergUtil.getTableScan(table, table.currentSnapshot(), predicate)
+                .planTasks()), residuals);
+        Assert.assertEquals(1, residuals.size());
+        Assert.assertNotEquals(Expressions.alwaysTrue().toString(), residuals.values().iterator().next());
+
+        predicate = Expressions.or(Expressions.equal("dt", "2022-01-02"), Expressions.greaterThan("id", 5));
+        residuals = getResiduals(cache.planTasks(table, table.currentSnapshot(), predicate));
+        Assert.assertEquals(getResiduals(IcebergUtil.getTableScan(table, table.currentSnapshot(), predicate)
+                .planTasks()), residuals);
+        Assert.assertEquals(2, residuals.size());
+    }
+}
@@ -0,0 +1,175 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.journal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.persist.EditLog;
+import com.starrocks.persist.OperationType;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.TransactionState;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class ParallelJournalReplayerTest {
+    private ParallelJournalReplayer replayer;
+
+    @Before
+    public void setUp() {
+        replayer = new ParallelJournalReplayer(3);
+    }
+
+    @After
+    public void tearDown() {
+        replayer.shutdown();
+    }
+
+    private static JournalEntity newTransactionStateJournal(long dbId, long txnId) {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_UPSERT_TRANSACTION_STATE);
+        entity.setData(new TransactionState(dbId, Lists.newArrayList(1L), txnId, "label_" + txnId, null,
+                TransactionState.LoadJobSourceType.INSERT_STREAMING, null, -1, 1000L));
+        return entity;
+    }
+
+    @Test
+    public void testReplayDbId() {
+        Assert.assertEquals(10L, ParallelJournalReplayer.getReplayDbId(newTransactionStateJournal(10L, 1L)));
+
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_SAVE_NEXTID);
+        Assert.assertEquals(-1L, ParallelJournalReplayer.getReplayDbId(entity));
+        Assert.assertFalse(replayer.submit(null, entity));
+        Assert.assertEquals(0, replayer.getNumSubmittedJournals());
+    }
+
+    @Test
+    public void testReplayInOrderOfDb() throws Exception {
+        Map<Long, List<Long>> replayedTxnIds = Maps.newConcurrentMap();
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(GlobalStateMgr globalStateMgr, JournalEntity journal) {
+                TransactionState state = (TransactionState) journal.getData();
+                replayedTxnIds.computeIfAbsent(state.getDbId(), k -> Lists.newArrayList()).add(state.getTransactionId());
+            }
+        };
+
+        int numDbs = 5;
+        int numTxns = 1000;
+        for (long txnId = 0; txnId < numTxns; txnId++) {
+            Assert.assertTrue(replayer.submit(null, newTransactionStateJournal(txnId % numDbs, txnId)));
+        }
+        Assert.assertEquals(numTxns, replayer.getNumSubmittedJournals());
+        replayer.waitSubmittedJournals();
+        Assert.assertEquals(0, replayer.getNumSubmittedJournals());
+
+        Assert.assertEquals(numDbs, replayedTxnIds.size());
+        for (Map.Entry<Long, List<Long>> entry : replayedTxnIds.entrySet()) {
+            List<Long> txnIds = entry.getValue();
+            Assert.assertEquals(numTxns / numDbs, txnIds.size());
+            for (int i = 0; i < txnIds.size(); i++) {
+                Assert.assertEquals(entry.getKey() + (long) i * numDbs, (long) txnIds.get(i));
+            }
+        }
+    }
+
+    @Test(expected = JournalInconsistentException.class)
+    public void testReplayFailed() throws Exception {
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(GlobalStateMgr globalStateMgr, JournalEntity journal)
+                    throws JournalInconsistentException {
+                throw new JournalInconsistentException("failed to replay");
+            }
+        };
+
+        replayer.submit(null, newTransactionStateJournal(1L, 1L));
+        replayer.submit(null, newTransactionStateJournal(2L, 2L));
+        try {
+            replayer.waitSubmittedJournals();
+        } finally {
+            Assert.assertEquals(0, replayer.getNumSubmittedJournals());
+        }
+    }
+
+    @Test
+    public void testReplayFailedByUnexpectedException() throws Exception {
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(GlobalStateMgr globalStateMgr, JournalEntity journal) {
+                throw new IllegalStateException("failed to replay");
+            }
+        };
+
+        replayer.submit(null, newTransactionStateJournal(1L, 1L));
+        try {
+            replayer.waitSubmittedJournals();
+            Assert.fail();
+        } catch (JournalInconsistentException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(0, replayer.getNumSubmittedJournals());
+    }
+
+    @Test
+    public void testReplayJournalsFailedConcurrently() throws Exception {
+        List<Long> replayedTxnIds = Lists.newCopyOnWriteArrayList();
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(GlobalStateMgr globalStateMgr, JournalEntity journal) {
+                TransactionState state = (TransactionState) journal.getData();
+                if (state.getTransactionId() == 3L) {
+                    throw new IllegalStateException("failed to replay");
+                }
+                replayedTxnIds.add(state.getTransactionId());
+            }
+        };
+        Iterator<JournalEntity> journals = Lists.newArrayList(newTransactionStateJournal(1L, 1L),
+                newTransactionStateJournal(2L, 2L), newTransactionStateJournal(1L, 3L),
+                newTransactionStateJournal(2L, 4L)).iterator();
+        JournalCursor cursor = new JournalCursor() {
+            @Override
+            public JournalEntity next() {
+                return journals.hasNext() ? journals.next() : null;
+            }
+
+            @Override
+            public void refresh() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        int oldThreadNum = Config.metadata_journal_replay_thread_num;
+        Config.metadata_journal_replay_thread_num = 3;
+        GlobalStateMgr globalStateMgr = Deencapsulation.newInstance(GlobalStateMgr.class);
+        try {
+            Deencapsulation.invoke(globalStateMgr, "replayJournalInner", cursor, false);
+            Assert.fail();
+        } catch (Exception e) {
+            // the failure is fatal like replaying the journals one by one
+            Assert.assertTrue(e instanceof JournalInconsistentException);
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        } finally {
+            Config.metadata_journal_replay_thread_num = oldThreadNum;
+            ParallelJournalReplayer parallelReplayer = Deencapsulation.getField(globalStateMgr, "parallelJournalReplayer");
+            parallelReplayer.shutdown();
+        }
+        Assert.assertFalse(journals.hasNext());
+        Assert.assertFalse(replayedTxnIds.contains(3L));
+        // the journals are not counted as replayed once any of them failed
+        Assert.assertEquals(0, globalStateMgr.getReplayedJournalId());
+    }
+}
@@ -5,13 +5,18 @@ package com.starrocks.leader;
 import com.google.common.collect.Lists;
 import com.starrocks.catalog.Database;
 import com.starrocks.common.FeConstants;
+import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.QueryQueueManager;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.system.SystemInfoService;
+import com.starrocks.thrift.TBackend;
+import com.starrocks.thrift.TReportRequest;
 import com.starrocks.thrift.TResourceUsage;
+import com.starrocks.thrift.TStatusCode;
+import com.starrocks.thrift.TStorageMedium;
 import com.starrocks.thrift.TTablet;
 import com.starrocks.thrift.TTabletInfo;
 import com.starrocks.utframe.StarRocksAssert;
@@ -23,9 +28,12 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ReportHandlerTest {
     private static ConnectContext connectContext;
@@ -48,7 +56,7 @@ public class ReportHandlerTest {
     }
 
     @Test
-    public void testHandleSetTabletEnablePersistentIndex() {
+    public void testHandleSetTabletEnablePersistentIndex() throws Exception {
         Database db = GlobalStateMgr.getCurrentState().getDb("test");
         long dbId = db.getId();
         long backendId = 10001L;
@@ -69,6 +77,7 @@ public class ReportHandlerTest {
 
         ReportHandler handler = new ReportHandler();
         handler.testHandleSetTabletEnablePersistentIndex(backendId, backendTablets);
+        handler.shutdownReportExecutors();
     }
 
     private TResourceUsage genResourceUsage(int numRunningQueries, long memLimitBytes, long memUsedBytes,
@@ -118,4 +127,85 @@ public class ReportHandlerTest {
         // Don't sync and notify, because this BE doesn't exist.
         ReportHandler.testHandleResourceUsageReport(/* Not Exist */ 1, resourceUsage);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReportsOfBackendHandledInOrder() throws Exception {
+        new MockUp<SystemInfoService>() {
+            @Mock
+            public Backend getBackendWithBePort(String host, int bePort) {
+                // the id of backend is its be port
+                return new Backend(bePort, host, bePort);
+            }
+        };
+        // backend id -> the number of running queries of the handled resource usage reports
+        Map<Long, List<Integer>> handledReports = new ConcurrentHashMap<>();
+        // backend id -> the threads handling the reports
+        Map<Long, Set<Thread>> handlingThreads = new ConcurrentHashMap<>();
+        new MockUp<QueryQueueManager>() {
+            @Mock
+            public void updateResourceUsage(long backendId, int numRunningQueries, long memLimitBytes,
+                                            long memUsedBytes, int cpuUsedPermille) {
+                handledReports.computeIfAbsent(backendId, k -> Collections.synchronizedList(Lists.newArrayList()))
+                        .add(numRunningQueries);
+                handlingThreads.computeIfAbsent(backendId, k -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread());
+            }
+        };
+
+        ReportHandler handler = new ReportHandler();
+        int numBackends = 8;
+        int numReports = 50;
+        try {
+            for (int report = 1; report <= numReports; report++) {
+                for (int bePort = 9050; bePort < 9050 + numBackends; bePort++) {
+                    TReportRequest request = new TReportRequest(new TBackend("127.0.0.1", bePort, 8040));
+                    request.setResource_usage(genResourceUsage(report, 100, 10, 10));
+                    Assert.assertEquals(TStatusCode.OK, handler.handleReport(request).getStatus().getStatus_code());
+                }
+                // the reports not handled yet are replaced by the later ones
+                if (report % 3 == 0) {
+                    handler.dispatchQueuedReports();
+                }
+            }
+            handler.dispatchQueuedReports();
+        } finally {
+            handler.shutdownReportExecutors();
+        }
+
+        Assert.assertEquals(numBackends, handledReports.size());
+        for (long backendId = 9050; backendId < 9050 + numBackends; backendId++) {
+            // the reports of one backend are handled by one thread in the order they are received
+            Assert.assertEquals(1, handlingThreads.get(backendId).size());
+            List<Integer> reports = handledReports.get(backendId);
+            for (int i = 1; i < reports.size(); i++) {
+                Assert.assertTrue(reports.get(i - 1) < reports.get(i));
+            }
+            Assert.assertEquals(Integer.valueOf(numReports), reports.get(reports.size() - 1));
+        }
+    }
+
+    @Test
+    public void testStorageMediumMapExpired() {
+        HashMap<Long, TStorageMedium> storageMediumMap = new HashMap<>();
+        new MockUp<GlobalStateMgr>() {
+            @Mock
+            public HashMap<Long, TStorageMedium> getPartitionIdToStorageMediumMap() {
+                return new HashMap<>(storageMediumMap);
+            }
+        };
+        Deencapsulation.setField(ReportHandler.class, "storageMediumMap", null);
+
+        long partitionId = 1L;
+        long now = System.currentTimeMillis();
+        storageMediumMap.put(partitionId, TStorageMedium.SSD);
+        Assert.assertEquals(TStorageMedium.SSD, ReportHandler.getStorageMediumMap(now).get(partitionId));
+
+        // the change of storage medium is visible after the shared map expires
+        storageMediumMap.put(partitionId, TStorageMedium.HDD);
+        Assert.assertEquals(TStorageMedium.SSD, ReportHandler.getStorageMediumMap(now + 10000L).get(partitionId));
+        Assert.assertEquals(TStorageMedium.HDD, ReportHandler.getStorageMediumMap(now + 10001L).get(partitionId));
+        Assert.assertEquals(TStorageMedium.HDD, ReportHandler.getStorageMediumMap(now + 20000L).get(partitionId));
+
+        Deencapsulation.setField(ReportHandler.class, "storageMediumMap", null);
+    }
+}
@@ -4,6 +4,7 @@ package com.starrocks.load.routineload;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.KafkaUtil;
@@ -101,4 +102,80 @@ public class KafkaTaskInfoTest {
         kafkaProgress.modifyOffset(Lists.newArrayList(new Pair<>(1, 99L)));
         Assert.assertTrue(kafkaTaskInfo.isProgressKeepUp(kafkaProgress));
     }
+
+    @Test
+    public void testComputeConsumeSecond() {
+        long oldConsumeSecond = Config.routine_load_task_consume_second;
+        long oldTimeoutSecond = Config.routine_load_task_timeout_second;
+        long oldBatchSize = Config.max_routine_load_batch_size;
+        try {
+            Config.routine_load_task_consume_second = 10;
+            Config.routine_load_task_timeout_second = 100;
+            Config.max_routine_load_batch_size = 1000000L;
+            // lag behind the topic
+            Assert.assertEquals(20, KafkaTaskInfo.computeConsumeSecond(10, 11000, 1000, false));
+            Assert.assertEquals(50, KafkaTaskInfo.computeConsumeSecond(40, 41000, 1000, false));
+            // BE is busy
+            Assert.assertEquals(20, KafkaTaskInfo.computeConsumeSecond(20, 40000, 1000, false));
+            // limited by the batch size
+            Assert.assertEquals(25, KafkaTaskInfo.computeConsumeSecond(20, 20000, 800000, false));
+            // catch up with the topic
+            Assert.assertEquals(20, KafkaTaskInfo.computeConsumeSecond(40, 41000, 1000, true));
+            Assert.assertEquals(10, KafkaTaskInfo.computeConsumeSecond(10, 11000, 1000, true));
+        } finally {
+            Config.routine_load_task_consume_second = oldConsumeSecond;
+            Config.routine_load_task_timeout_second = oldTimeoutSecond;
+            Config.max_routine_load_batch_size = oldBatchSize;
+        }
+    }
+
+    @Test
+    public void testParkIdleTask(@Injectable KafkaRoutineLoadJob kafkaRoutineLoadJob) throws Exception {
+        new MockUp<RoutineLoadManager>() {
+            @Mock
+            public RoutineLoadJob getJob(long jobId) {
+                return kafkaRoutineLoadJob;
+            }
+        };
+
+        new MockUp<KafkaUtil>() {
+            @Mock
+            public Map<Integer, Long> getLatestOffsets(String brokerList, String topic,
+                                                       ImmutableMap<String, String> properties,
+                                                       List<Integer> partitions) throws UserException {
+                Map<Integer, Long> offsets = Maps.newHashMap();
+                offsets.put(0, 100L);
+                return offsets;
+            }
+        };
+
+        boolean oldAdaptiveBatchEnable = Config.routine_load_adaptive_batch_enable;
+        try {
+            Map<Integer, Long> offset = Maps.newHashMap();
+            offset.put(0, 100L);
+            KafkaTaskInfo kafkaTaskInfo = new KafkaTaskInfo(UUID.randomUUID(), 1L, 10000L,
+                    System.currentTimeMillis(), offset);
+
+            Config.routine_load_adaptive_batch_enable = true;
+            Assert.assertFalse(kafkaTaskInfo.readyToExecute());
+            Assert.assertEquals(10000L, kafkaTaskInfo.getNextScheduleIntervalMs());
+            Assert.assertFalse(kafkaTaskInfo.readyToExecute());
+            Assert.assertEquals(20000L, kafkaTaskInfo.getNextScheduleIntervalMs());
+            Assert.assertFalse(kafkaTaskInfo.readyToExecute());
+            Assert.assertEquals(40000L, kafkaTaskInfo.getNextScheduleIntervalMs());
+            Assert.assertFalse(kafkaTaskInfo.readyToExecute());
+            Assert.assertEquals(60000L, kafkaTaskInfo.getNextScheduleIntervalMs());
+
+            Config.routine_load_adaptive_batch_enable = false;
+            Assert.assertEquals(10000L, kafkaTaskInfo.getNextScheduleIntervalMs());
+
+            // new data comes
+            Config.routine_load_adaptive_batch_enable = true;
+            offset.put(0, 99L);
+            Assert.assertTrue(kafkaTaskInfo.readyToExecute());
+            Assert.assertEquals(10000L, kafkaTaskInfo.getNextScheduleIntervalMs());
+        } finally {
+            Config.routine_load_adaptive_batch_enable = oldAdaptiveBatchEnable;
+        }
+    }
 }
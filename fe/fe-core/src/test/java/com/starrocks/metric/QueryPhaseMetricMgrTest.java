@@ -0,0 +1,42 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.metric;
+
+import com.codahale.metrics.Histogram;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.StatementBase;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryPhaseMetricMgrTest {
+
+    @Test
+    public void testStmtType(@Mocked QueryStatement queryStatement, @Mocked StatementBase otherStatement) {
+        Assert.assertEquals("query", QueryPhaseMetricMgr.getStmtType(queryStatement));
+        Assert.assertEquals("other", QueryPhaseMetricMgr.getStmtType(otherStatement));
+        Assert.assertEquals("other", QueryPhaseMetricMgr.getStmtType(null));
+    }
+
+    @Test
+    public void testVisitPhaseLatency() {
+        QueryPhaseMetricMgr.updatePhaseLatency(QueryPhaseMetricMgr.PHASE_OPTIMIZE, "query", "rg1", 10);
+        QueryPhaseMetricMgr.updatePhaseLatency(QueryPhaseMetricMgr.PHASE_OPTIMIZE, "query", "rg1", 30);
+        QueryPhaseMetricMgr.updatePhaseLatency(QueryPhaseMetricMgr.PHASE_DEPLOY, "insert", "rg2", 20);
+
+        Histogram histogram = QueryPhaseMetricMgr.getPhaseLatency(QueryPhaseMetricMgr.PHASE_OPTIMIZE, "query", "rg1");
+        Assert.assertEquals(2, histogram.getCount());
+        Assert.assertNull(QueryPhaseMetricMgr.getPhaseLatency(QueryPhaseMetricMgr.PHASE_DEPLOY, "query", "rg1"));
+
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe");
+        QueryPhaseMetricMgr.visitPhaseLatency(visitor);
+        String output = visitor.build();
+        // only one HELP line for all the labels
+        Assert.assertEquals(output.indexOf("# HELP starrocks_fe_query_phase_latency_ms"),
+                output.lastIndexOf("# HELP starrocks_fe_query_phase_latency_ms"));
+        Assert.assertTrue(output, output.contains("starrocks_fe_query_phase_latency_ms{phase=\"optimize\", " +
+                "type=\"query\", resource_group=\"rg1\", quantile=\"0.99\"} 30.0"));
+        Assert.assertTrue(output, output.contains("starrocks_fe_query_phase_latency_ms_count{phase=\"deploy\", " +
+                "type=\"insert\", resource_group=\"rg2\"} 1"));
+    }
+}
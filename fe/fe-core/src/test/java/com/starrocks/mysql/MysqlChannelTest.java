@@ -17,6 +17,7 @@
 
 package com.starrocks.mysql;
 
+import com.google.common.collect.Lists;
 import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mocked;
@@ -24,10 +25,12 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.List;
 
 public class MysqlChannelTest {
     int packetId = 0;
@@ -333,4 +336,64 @@ public class MysqlChannelTest {
         channel1.sendOnePacket(buf);
     }
 
+    private static ByteBuffer newPacket(int length, byte value) {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        for (int i = 0; i < length; i++) {
+            buf.put(value);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private static List<ByteBuffer> newPackets() {
+        return Lists.newArrayList(newPacket(10, (byte) 1), newPacket(10000, (byte) 2),
+                newPacket(20, (byte) 3), newPacket(5000, (byte) 4), newPacket(30, (byte) 5));
+    }
+
+    @Test
+    public void testSendPackets() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new Expectations() {
+            {
+                channel.write((ByteBuffer) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    int fakeWrite(ByteBuffer buffer) {
+                        int writeLen = buffer.remaining();
+                        while (buffer.hasRemaining()) {
+                            output.write(buffer.get());
+                        }
+                        return writeLen;
+                    }
+                };
+
+                channel.write((ByteBuffer[]) any, anyInt, anyInt);
+                minTimes = 0;
+                result = new Delegate() {
+                    // only write the first buffer to test the partial write
+                    long fakeWrite(ByteBuffer[] buffers, int offset, int length) {
+                        ByteBuffer buffer = buffers[offset];
+                        int writeLen = buffer.remaining();
+                        while (buffer.hasRemaining()) {
+                            output.write(buffer.get());
+                        }
+                        return writeLen;
+                    }
+                };
+            }
+        };
+
+        MysqlChannel channel1 = new MysqlChannel(channel);
+        for (ByteBuffer packet : newPackets()) {
+            channel1.sendOnePacket(packet);
+        }
+        channel1.flush();
+        byte[] expected = output.toByteArray();
+
+        output.reset();
+        MysqlChannel channel2 = new MysqlChannel(channel);
+        channel2.sendPackets(newPackets());
+        channel2.flush();
+        Assert.assertArrayEquals(expected, output.toByteArray());
+    }
 }
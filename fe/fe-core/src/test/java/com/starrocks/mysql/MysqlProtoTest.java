@@ -286,4 +286,22 @@ public class MysqlProtoTest {
         Assert.assertEquals("you have dream too", new String(MysqlProto.readEofString(buffer)));
     }
 
+    @Test
+    public void testTextRowToBinaryRow() {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeLenEncodedString("1");
+        // NULL in text protocol
+        serializer.writeInt1(251);
+        serializer.writeLenEncodedString("abc");
+        ByteBuffer textRow = serializer.toByteBuffer();
+
+        ByteBuffer binaryRow = MysqlProto.textRowToBinaryRow(textRow, 3);
+        Assert.assertEquals(0, textRow.position());
+        Assert.assertEquals(0x00, MysqlProto.readInt1(binaryRow));
+        // null bitmap with offset 2, the second column is null
+        Assert.assertEquals(1 << 3, MysqlProto.readInt1(binaryRow));
+        Assert.assertEquals("1", new String(MysqlProto.readLenEncodedString(binaryRow)));
+        Assert.assertEquals("abc", new String(MysqlProto.readLenEncodedString(binaryRow)));
+        Assert.assertFalse(binaryRow.hasRemaining());
+    }
 }
@@ -0,0 +1,171 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.planner;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.starrocks.analysis.DateLiteral;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.MaxLiteral;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.PartitionRangeIndex;
+import com.starrocks.catalog.RangePartitionInfo;
+import com.starrocks.catalog.Type;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class RangePartitionPrunerTest {
+    private static final Column INT_COLUMN = new Column("k1", Type.INT);
+    private static final Column DATE_COLUMN = new Column("k1", Type.DATE);
+
+    private static Range<PartitionKey> newRange(LiteralExpr lower, LiteralExpr upper, Column column) {
+        PartitionKey lowerKey = new PartitionKey();
+        lowerKey.pushColumn(lower, column.getPrimitiveType());
+        PartitionKey upperKey = new PartitionKey();
+        upperKey.pushColumn(upper, column.getPrimitiveType());
+        return Range.closedOpen(lowerKey, upperKey);
+    }
+
+    // partitions: 100: [MIN, 0), i: [10 * i, 10 * i + 10), 101: [200, MAX)
+    private static RangePartitionInfo newIntPartitionInfo() throws Exception {
+        RangePartitionInfo partitionInfo = new RangePartitionInfo(Lists.newArrayList(INT_COLUMN));
+        partitionInfo.setRange(100L, false,
+                newRange(LiteralExpr.createInfinity(Type.INT, false), new IntLiteral(0, Type.INT), INT_COLUMN));
+        for (int i = 19; i >= 0; i--) {
+            partitionInfo.setRange(i, false,
+                    newRange(new IntLiteral(10 * i, Type.INT), new IntLiteral(10 * i + 10, Type.INT), INT_COLUMN));
+        }
+        partitionInfo.setRange(101L, false, newRange(new IntLiteral(200, Type.INT), MaxLiteral.MAX_VALUE, INT_COLUMN));
+        return partitionInfo;
+    }
+
+    private static PartitionColumnFilter newFilter(LiteralExpr lower, boolean lowerInclusive,
+                                                   LiteralExpr upper, boolean upperInclusive) {
+        PartitionColumnFilter filter = new PartitionColumnFilter();
+        if (lower != null) {
+            filter.setLowerBound(lower, lowerInclusive);
+        } else {
+            filter.lowerBoundInclusive = lowerInclusive;
+        }
+        if (upper != null) {
+            filter.setUpperBound(upper, upperInclusive);
+        } else {
+            filter.upperBoundInclusive = upperInclusive;
+        }
+        return filter;
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        List<Long> result = Lists.newArrayList(ids);
+        Collections.sort(result);
+        return result;
+    }
+
+    private static List<Long> checkPrune(RangePartitionInfo partitionInfo, PartitionColumnFilter filter)
+            throws Exception {
+        Map<String, PartitionColumnFilter> filters = Maps.newHashMap();
+        if (filter != null) {
+            filters.put("k1", filter);
+        }
+        List<Long> expected = new RangePartitionPruner(partitionInfo.getIdToRange(false),
+                partitionInfo.getPartitionColumns(), filters).prune();
+        List<Long> actual = new RangePartitionPruner(partitionInfo, filters).prune();
+        Assert.assertEquals(sorted(expected), sorted(actual));
+        return sorted(actual);
+    }
+
+    private static IntLiteral intLiteral(long value) {
+        return new IntLiteral(value, Type.INT);
+    }
+
+    @Test
+    public void testPruneIntPartitions() throws Exception {
+        RangePartitionInfo partitionInfo = newIntPartitionInfo();
+        Assert.assertTrue(partitionInfo.getRangeIndex().isEncoded());
+
+        Assert.assertEquals(22, checkPrune(partitionInfo, null).size());
+        // k1 = 15
+        Assert.assertEquals(Lists.newArrayList(1L),
+                checkPrune(partitionInfo, newFilter(intLiteral(15), true, intLiteral(15), true)));
+        // k1 >= 10 and k1 < 30
+        Assert.assertEquals(Lists.newArrayList(1L, 2L),
+                checkPrune(partitionInfo, newFilter(intLiteral(10), true, intLiteral(30), false)));
+        // k1 > 10 and k1 <= 30
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L),
+                checkPrune(partitionInfo, newFilter(intLiteral(10), false, intLiteral(30), true)));
+        // k1 > 9 and k1 < 10
+        Assert.assertEquals(Lists.newArrayList(0L),
+                checkPrune(partitionInfo, newFilter(intLiteral(9), false, intLiteral(10), false)));
+        // k1 > 10 and k1 < 10
+        Assert.assertTrue(checkPrune(partitionInfo, newFilter(intLiteral(10), false, intLiteral(10), false)).isEmpty());
+        // k1 > 30 and k1 < 10
+        Assert.assertTrue(checkPrune(partitionInfo, newFilter(intLiteral(30), false, intLiteral(10), false)).isEmpty());
+        // k1 < 0
+        Assert.assertEquals(Lists.newArrayList(100L),
+                checkPrune(partitionInfo, newFilter(null, false, intLiteral(0), false)));
+        // k1 >= 195
+        Assert.assertEquals(Lists.newArrayList(19L, 101L),
+                checkPrune(partitionInfo, newFilter(intLiteral(195), true, null, false)));
+        // k1 is null
+        Assert.assertEquals(Lists.newArrayList(100L),
+                checkPrune(partitionInfo, newFilter(NullLiteral.create(Type.INT), true,
+                        NullLiteral.create(Type.INT), true)));
+        // k1 in (5, 55, 300)
+        PartitionColumnFilter filter = newFilter(intLiteral(5), true, intLiteral(300), true);
+        filter.setInPredicateLiterals(Lists.newArrayList(intLiteral(5), intLiteral(55), intLiteral(300)));
+        Assert.assertEquals(Lists.newArrayList(0L, 5L, 101L), checkPrune(partitionInfo, filter));
+        // the literals which could not be encoded
+        filter = newFilter(intLiteral(5), true, intLiteral(15), true);
+        filter.setInPredicateLiterals(Lists.newArrayList(intLiteral(5), NullLiteral.create(Type.INT)));
+        checkPrune(partitionInfo, filter);
+    }
+
+    @Test
+    public void testMaintainRangeIndex() throws Exception {
+        RangePartitionInfo partitionInfo = newIntPartitionInfo();
+        PartitionRangeIndex index = partitionInfo.getRangeIndex();
+        Assert.assertSame(index, partitionInfo.getRangeIndex());
+
+        // the index is maintained incrementally
+        partitionInfo.dropPartition(1L);
+        PartitionRangeIndex newIndex = partitionInfo.getRangeIndex();
+        Assert.assertTrue(newIndex.isEncoded());
+        Assert.assertTrue(newIndex.getVersion() > index.getVersion());
+        Assert.assertTrue(checkPrune(partitionInfo, newFilter(intLiteral(15), true, intLiteral(15), true)).isEmpty());
+
+        partitionInfo.setRange(1000L, false, newRange(intLiteral(10), intLiteral(20), INT_COLUMN));
+        Assert.assertTrue(partitionInfo.getRangeIndex().isEncoded());
+        Assert.assertEquals(Lists.newArrayList(0L, 2L, 1000L),
+                checkPrune(partitionInfo, newFilter(intLiteral(5), true, intLiteral(25), true)));
+
+        // the index is built again after the range is changed
+        partitionInfo.setRange(1000L, false, newRange(intLiteral(10), intLiteral(15), INT_COLUMN));
+        Assert.assertEquals(Lists.newArrayList(0L, 1000L),
+                checkPrune(partitionInfo, newFilter(intLiteral(5), true, intLiteral(17), true)));
+    }
+
+    @Test
+    public void testPruneDatePartitions() throws Exception {
+        RangePartitionInfo partitionInfo = new RangePartitionInfo(Lists.newArrayList(DATE_COLUMN));
+        for (int i = 1; i <= 28; i++) {
+            partitionInfo.setRange(i, false, newRange(new DateLiteral(2022, 2, i),
+                    i == 28 ? new DateLiteral(2022, 3, 1) : new DateLiteral(2022, 2, i + 1), DATE_COLUMN));
+        }
+        Assert.assertTrue(partitionInfo.getRangeIndex().isEncoded());
+
+        // k1 >= '2022-02-10 12:00:00' and k1 < '2022-02-12'
+        DateLiteral lower = new DateLiteral(2022, 2, 10, 12, 0, 0);
+        DateLiteral upper = new DateLiteral("2022-02-12", Type.DATE);
+        Assert.assertEquals(Lists.newArrayList(10L, 11L),
+                checkPrune(partitionInfo, newFilter(lower, true, upper, false)));
+        Assert.assertEquals(28, checkPrune(partitionInfo, null).size());
+    }
+}
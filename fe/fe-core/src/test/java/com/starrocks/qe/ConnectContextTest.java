@@ -21,6 +21,7 @@
 
 package com.starrocks.qe;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.mysql.MysqlCapability;
 import com.starrocks.mysql.MysqlChannel;
@@ -211,4 +212,30 @@ public class ConnectContextTest {
         Assert.assertNotNull(ConnectContext.get());
         Assert.assertEquals(ctx, ConnectContext.get());
     }
+
+    @Test
+    public void testMaxPreparedStmtCount() {
+        int oldCount = Config.max_prepared_stmt_count;
+        Config.max_prepared_stmt_count = 2;
+        try {
+            ConnectContext ctx = new ConnectContext(socketChannel);
+            PreparedStmtContext stmt1 = ctx.addPreparedStmt("select ?");
+            PreparedStmtContext stmt2 = ctx.addPreparedStmt("select ?, ?");
+            Assert.assertNotNull(stmt1);
+            Assert.assertNotNull(stmt2);
+            Assert.assertNull(ctx.addPreparedStmt("select 1"));
+
+            // the closed statements are not counted
+            ctx.removePreparedStmt(stmt1.getStmtId());
+            PreparedStmtContext stmt3 = ctx.addPreparedStmt("select 1");
+            Assert.assertNotNull(stmt3);
+            Assert.assertNotEquals(stmt1.getStmtId(), stmt3.getStmtId());
+            Assert.assertNull(ctx.getPreparedStmt(stmt1.getStmtId()));
+
+            ctx.clearPreparedStmts();
+            Assert.assertNotNull(ctx.addPreparedStmt("select 1"));
+        } finally {
+            Config.max_prepared_stmt_count = oldCount;
+        }
+    }
 }
@@ -0,0 +1,168 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.Table;
+import com.starrocks.common.DdlException;
+import com.starrocks.connector.RemoteFileBlockDesc;
+import com.starrocks.connector.RemoteFileDesc;
+import com.starrocks.connector.RemoteFileInfo;
+import com.starrocks.connector.hive.HiveRemoteFileIO;
+import com.starrocks.connector.hive.RemoteFileInputFormat;
+import com.starrocks.connector.hive.TextFileFormatDesc;
+import com.starrocks.planner.HdfsScanNode;
+import com.starrocks.planner.ScanNode;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.server.MetadataMgr;
+import com.starrocks.sql.plan.ConnectorPlanTestBase;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.thrift.TScanRange;
+import com.starrocks.thrift.TScanRangeLocation;
+import com.starrocks.thrift.TScanRangeLocations;
+import com.starrocks.thrift.TScanRangeParams;
+import com.starrocks.thrift.TTextFileDesc;
+import com.starrocks.thrift.TUniqueId;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class HDFSScanRangeCoordTest extends ConnectorPlanTestBase {
+    private static final long BLOCK_SIZE = 256L * 1024L * 1024L;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        ConnectorPlanTestBase.beforeClass();
+        UtFrameUtils.addMockBackend(10002);
+        UtFrameUtils.addMockBackend(10003);
+        GlobalStateMgr.getCurrentState().changeCatalogDb(connectContext, "hive0.tpch");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        try {
+            UtFrameUtils.dropMockBackend(10002);
+            UtFrameUtils.dropMockBackend(10003);
+        } catch (DdlException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static List<RemoteFileInfo> createRemoteFileInfos(int size) {
+        HiveRemoteFileIO remoteFileIO = new HiveRemoteFileIO(new Configuration());
+        List<RemoteFileDesc> files = Lists.newArrayList();
+        for (int i = 0; i < 2; i++) {
+            ImmutableList.Builder<RemoteFileBlockDesc> blocks = ImmutableList.builder();
+            for (int j = 0; j < 2; j++) {
+                long[] hostIds = remoteFileIO.getReplicaHostIds(
+                        new String[] {"192.168.0." + j + ":9866", "192.168.0." + (j + 1) + ":9866"});
+                blocks.add(remoteFileIO.buildRemoteFileBlockDesc(j * BLOCK_SIZE, BLOCK_SIZE, hostIds));
+            }
+            files.add(new RemoteFileDesc("file_" + i, "", 2 * BLOCK_SIZE, blocks.build(), ImmutableList.of())
+                    .setSplittable(true)
+                    .setTextFileFormatDesc(new TextFileFormatDesc("\001", "\n", "\002", "\003")));
+        }
+        List<RemoteFileInfo> remoteFileInfos = Lists.newArrayList();
+        for (int i = 0; i < size; i++) {
+            remoteFileInfos.add(new RemoteFileInfo(RemoteFileInputFormat.TEXT, files, "hdfs://127.0.0.1:9000/tpch"));
+        }
+        return remoteFileInfos;
+    }
+
+    private static <T> int countDistinct(List<T> objects) {
+        Set<T> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(objects);
+        return distinct.size();
+    }
+
+    @Test
+    public void testSharedScanRangesNotMutatedByAssignment() throws Exception {
+        new MockUp<MetadataMgr>() {
+            @Mock
+            public List<RemoteFileInfo> getRemoteFileInfos(String catalogName, Table table,
+                                                           List<PartitionKey> partitionKeys) {
+                return createRemoteFileInfos(partitionKeys.size());
+            }
+        };
+
+        connectContext.setExecutionId(new TUniqueId(0x33, 0x0));
+        ConnectContext.threadLocalInfo.set(connectContext);
+        int parallelExecInstanceNum = connectContext.getSessionVariable().getParallelExecInstanceNum();
+        connectContext.getSessionVariable().setParallelExecInstanceNum(4);
+        try {
+            String sql = "select * from lineitem join [shuffle] orders on l_orderkey = o_orderkey";
+            ExecPlan execPlan = UtFrameUtils.getPlanAndFragment(connectContext, sql).second;
+            Assert.assertTrue(execPlan.getFragments().size() > 2);
+            Assert.assertEquals(2, execPlan.getScanNodes().size());
+
+            List<TScanRangeLocations> scanRanges = Lists.newArrayList();
+            for (ScanNode scanNode : execPlan.getScanNodes()) {
+                Assert.assertTrue(scanNode instanceof HdfsScanNode);
+                List<TScanRangeLocations> locations = scanNode.getScanRangeLocations(0);
+                // 2 files * 2 blocks * 4 splits of the max split size
+                Assert.assertEquals(16, locations.size());
+                List<List<TScanRangeLocation>> locationLists = new ArrayList<>();
+                List<TTextFileDesc> textFileDescs = new ArrayList<>();
+                List<TScanRangeLocation> hostLocations = new ArrayList<>();
+                for (TScanRangeLocations location : locations) {
+                    locationLists.add(location.getLocations());
+                    textFileDescs.add(location.getScan_range().getHdfs_scan_range().getText_file_desc());
+                    hostLocations.addAll(location.getLocations());
+                }
+                // the splits share the location list of their block, the text file desc of their file,
+                // and the location of their datanode
+                Assert.assertEquals(4, countDistinct(locationLists));
+                Assert.assertEquals(2, countDistinct(textFileDescs));
+                Assert.assertEquals(3, countDistinct(hostLocations));
+                scanRanges.addAll(locations);
+            }
+
+            List<TScanRangeLocations> expectedScanRanges = Lists.newArrayList();
+            for (TScanRangeLocations scanRange : scanRanges) {
+                expectedScanRanges.add(scanRange.deepCopy());
+            }
+
+            Coordinator coord = new Coordinator(connectContext, execPlan.getFragments(), execPlan.getScanNodes(),
+                    execPlan.getDescTbl().toThrift());
+            coord.prepareExec();
+
+            // every instance refers to the scan ranges of the plan instead of a copy of them
+            Set<TScanRange> planScanRanges = Collections.newSetFromMap(new IdentityHashMap<>());
+            scanRanges.forEach(scanRange -> planScanRanges.add(scanRange.getScan_range()));
+            List<TScanRange> assignedScanRanges = Lists.newArrayList();
+            int numInstances = 0;
+            for (CoordinatorPreprocessor.FragmentExecParams params : coord.getFragmentExecParamsMap().values()) {
+                for (CoordinatorPreprocessor.FInstanceExecParam instanceParam : params.instanceExecParams) {
+                    for (List<TScanRangeParams> scanRangeParams : instanceParam.getPerNodeScanRanges().values()) {
+                        numInstances++;
+                        for (TScanRangeParams scanRangeParam : scanRangeParams) {
+                            Assert.assertTrue(planScanRanges.contains(scanRangeParam.getScan_range()));
+                            assignedScanRanges.add(scanRangeParam.getScan_range());
+                        }
+                    }
+                }
+            }
+            Assert.assertTrue(numInstances > 2);
+            Assert.assertEquals(scanRanges.size(), countDistinct(assignedScanRanges));
+            Assert.assertEquals(scanRanges.size(), assignedScanRanges.size());
+
+            // and none of the shared thrift objects is changed by the assignment of the instances
+            Assert.assertEquals(expectedScanRanges, scanRanges);
+        } finally {
+            connectContext.getSessionVariable().setParallelExecInstanceNum(parallelExecInstanceNum);
+        }
+    }
+}
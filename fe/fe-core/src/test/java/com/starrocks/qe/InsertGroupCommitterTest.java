@@ -0,0 +1,266 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Database;
+import com.starrocks.common.Config;
+import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+import com.starrocks.sql.analyzer.PrivilegeChecker;
+import com.starrocks.sql.analyzer.SemanticException;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.ast.ValuesRelation;
+import com.starrocks.sql.parser.SqlParser;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InsertGroupCommitterTest {
+    private long oldIntervalMs;
+
+    @Before
+    public void setUp() {
+        oldIntervalMs = Config.insert_group_commit_interval_ms;
+    }
+
+    @After
+    public void tearDown() {
+        Config.insert_group_commit_interval_ms = oldIntervalMs;
+    }
+
+    private static ConnectContext newContext() {
+        ConnectContext context = new ConnectContext();
+        context.setQualifiedUser("root");
+        context.setDatabase("test");
+        context.getSessionVariable().setEnableInsertGroupCommit(true);
+        return context;
+    }
+
+    private static InsertStmt parse(String sql, ConnectContext context) {
+        return (InsertStmt) SqlParser.parse(sql, context.getSessionVariable()).get(0);
+    }
+
+    // statements with the string 'bad' in their rows fail to analyze
+    private static void mockAnalyzer() {
+        new MockUp<AnalyzerUtils>() {
+            @Mock
+            public Map<String, Database> collectAllDatabase(ConnectContext session, StatementBase statementBase) {
+                return Maps.newHashMap();
+            }
+        };
+        new MockUp<Analyzer>() {
+            @Mock
+            public void analyze(StatementBase statement, ConnectContext session) {
+                ValuesRelation values = (ValuesRelation) ((InsertStmt) statement).getQueryStatement().getQueryRelation();
+                if (values.getRows().stream().anyMatch(row -> row.stream().anyMatch(e -> e.toSql().contains("bad")))) {
+                    throw new SemanticException("Invalid value");
+                }
+            }
+        };
+        new MockUp<PrivilegeChecker>() {
+            @Mock
+            public void check(StatementBase statement, ConnectContext session) {
+            }
+        };
+    }
+
+    // run the statements concurrently, return the results of InsertGroupCommitter.execute,
+    // null for the statements which fail with exceptions
+    private static List<Boolean> executeConcurrently(List<InsertStmt> stmts, List<ConnectContext> contexts)
+            throws InterruptedException {
+        List<Boolean> results = Lists.newArrayList();
+        List<Thread> threads = Lists.newArrayList();
+        for (int i = 0; i < stmts.size(); i++) {
+            results.add(null);
+            int index = i;
+            threads.add(new Thread(() -> {
+                try {
+                    results.set(index, InsertGroupCommitter.getInstance().execute(stmts.get(index),
+                            contexts.get(index)));
+                } catch (Exception e) {
+                    contexts.get(index).getState().setError(e.getMessage());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return results;
+    }
+
+    @Test
+    public void testCanGroupCommit() {
+        ConnectContext context = newContext();
+        Assert.assertTrue(InsertGroupCommitter.canGroupCommit(
+                parse("insert into t values (1, 'a'), (2, 'b')", context), context));
+        Assert.assertTrue(InsertGroupCommitter.canGroupCommit(
+                parse("insert into t (k1, v1) values (1, default)", context), context));
+
+        Assert.assertFalse(InsertGroupCommitter.canGroupCommit(
+                parse("insert into t with label l1 values (1, 'a')", context), context));
+        Assert.assertFalse(InsertGroupCommitter.canGroupCommit(
+                parse("insert into t partition (p1) values (1, 'a')", context), context));
+        Assert.assertFalse(InsertGroupCommitter.canGroupCommit(
+                parse("insert overwrite t values (1, 'a')", context), context));
+        Assert.assertFalse(InsertGroupCommitter.canGroupCommit(
+                parse("insert into t select * from t2", context), context));
+        Assert.assertFalse(InsertGroupCommitter.canGroupCommit(
+                parse("insert into t values (1, now())", context), context));
+
+        context.getSessionVariable().setEnableInsertGroupCommit(false);
+        Assert.assertFalse(InsertGroupCommitter.canGroupCommit(
+                parse("insert into t values (1, 'a')", context), context));
+    }
+
+    @Test
+    public void testGroupKey() {
+        ConnectContext context = newContext();
+        String key = InsertGroupCommitter.getGroupKey(parse("insert into t values (1, 'a')", context), context);
+        Assert.assertEquals(key,
+                InsertGroupCommitter.getGroupKey(parse("insert into test.t values (2, 'b')", context), context));
+        Assert.assertNotEquals(key,
+                InsertGroupCommitter.getGroupKey(parse("insert into t2 values (1, 'a')", context), context));
+        Assert.assertNotEquals(key,
+                InsertGroupCommitter.getGroupKey(parse("insert into t (k1, v1) values (1, 'a')", context), context));
+
+        context.getSessionVariable().setEnableInsertStrict(false);
+        Assert.assertNotEquals(key,
+                InsertGroupCommitter.getGroupKey(parse("insert into t values (1, 'a')", context), context));
+    }
+
+    @Test
+    public void testMergeInsertStmts() {
+        ConnectContext context = newContext();
+        List<InsertStmt> stmts = Lists.newArrayList(
+                parse("insert into t (k1, v1) values (1, 'a'), (2, 'b')", context),
+                parse("insert into t (k1, v1) values (3, 'c')", context));
+        InsertStmt mergedStmt = InsertGroupCommitter.mergeInsertStmts(stmts, "insert_group_1");
+        Assert.assertEquals("insert_group_1", mergedStmt.getLabel());
+        Assert.assertEquals("t", mergedStmt.getTableName().getTbl());
+        Assert.assertEquals(Lists.newArrayList("k1", "v1"), mergedStmt.getTargetColumnNames());
+        ValuesRelation values = (ValuesRelation) mergedStmt.getQueryStatement().getQueryRelation();
+        Assert.assertEquals(3, values.getRows().size());
+        // the merged statement has its own origin statement for the audit log
+        Assert.assertTrue(mergedStmt.getOrigStmt().originStmt, mergedStmt.getOrigStmt().originStmt.contains(
+                "WITH LABEL `insert_group_1` (k1, v1) VALUES (1, 'a'), (2, 'b'), (3, 'c')"));
+        // the merged statement must not be group committed again
+        Assert.assertFalse(InsertGroupCommitter.canGroupCommit(mergedStmt, context));
+    }
+
+    @Test
+    public void testExecuteInOneTransaction() throws Exception {
+        Config.insert_group_commit_interval_ms = 500;
+        mockAnalyzer();
+        AtomicInteger numExecuted = new AtomicInteger(0);
+        AtomicInteger numMergedRows = new AtomicInteger(0);
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void execute(Invocation invocation) {
+                StmtExecutor executor = invocation.getInvokedInstance();
+                InsertStmt stmt = Deencapsulation.getField(executor, "parsedStmt");
+                ConnectContext context = Deencapsulation.getField(executor, "context");
+                int numRows = ((ValuesRelation) stmt.getQueryStatement().getQueryRelation()).getRows().size();
+                numExecuted.incrementAndGet();
+                numMergedRows.addAndGet(numRows);
+                context.getState().setOk(numRows, 0, "{'label':'" + stmt.getLabel() + "'}");
+            }
+        };
+
+        int numThreads = 4;
+        List<InsertStmt> stmts = Lists.newArrayList();
+        List<ConnectContext> contexts = Lists.newArrayList();
+        for (int i = 0; i < numThreads; i++) {
+            ConnectContext context = newContext();
+            stmts.add(parse("insert into t values (1, 'a'), (2, 'b')", context));
+            contexts.add(context);
+        }
+        List<Boolean> results = executeConcurrently(stmts, contexts);
+
+        Assert.assertEquals(1, numExecuted.get());
+        Assert.assertEquals(2 * numThreads, numMergedRows.get());
+        for (int i = 0; i < numThreads; i++) {
+            Assert.assertTrue(results.get(i));
+            ConnectContext context = contexts.get(i);
+            Assert.assertEquals(QueryState.MysqlStateType.OK, context.getState().getStateType());
+            Assert.assertEquals(2, context.getState().getAffectedRows());
+            Assert.assertTrue(context.getState().getInfoMessage().contains("insert_group_"));
+        }
+    }
+
+    @Test
+    public void testInvalidStatementFailsAlone() throws Exception {
+        Config.insert_group_commit_interval_ms = 500;
+        mockAnalyzer();
+        AtomicInteger numMergedRows = new AtomicInteger(0);
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void execute(Invocation invocation) {
+                StmtExecutor executor = invocation.getInvokedInstance();
+                InsertStmt stmt = Deencapsulation.getField(executor, "parsedStmt");
+                ConnectContext context = Deencapsulation.getField(executor, "context");
+                int numRows = ((ValuesRelation) stmt.getQueryStatement().getQueryRelation()).getRows().size();
+                numMergedRows.addAndGet(numRows);
+                context.getState().setOk(numRows, 0, "");
+            }
+        };
+
+        List<InsertStmt> stmts = Lists.newArrayList();
+        List<ConnectContext> contexts = Lists.newArrayList();
+        for (String value : Lists.newArrayList("a", "bad", "c")) {
+            ConnectContext context = newContext();
+            stmts.add(parse("insert into t values (1, '" + value + "')", context));
+            contexts.add(context);
+        }
+        executeConcurrently(stmts, contexts);
+
+        // the invalid statement never joins the group
+        Assert.assertEquals(2, numMergedRows.get());
+        Assert.assertEquals(QueryState.MysqlStateType.OK, contexts.get(0).getState().getStateType());
+        Assert.assertEquals(QueryState.MysqlStateType.ERR, contexts.get(1).getState().getStateType());
+        Assert.assertEquals(QueryState.MysqlStateType.OK, contexts.get(2).getState().getStateType());
+    }
+
+    @Test
+    public void testRetryAloneIfGroupFailed() throws Exception {
+        Config.insert_group_commit_interval_ms = 500;
+        mockAnalyzer();
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void execute(Invocation invocation) {
+                ConnectContext context = Deencapsulation.getField(invocation.getInvokedInstance(), "context");
+                context.getState().setError("too many filtered rows");
+            }
+        };
+
+        int numThreads = 3;
+        List<InsertStmt> stmts = Lists.newArrayList();
+        List<ConnectContext> contexts = Lists.newArrayList();
+        for (int i = 0; i < numThreads; i++) {
+            ConnectContext context = newContext();
+            stmts.add(parse("insert into t values (" + i + ", 'a')", context));
+            contexts.add(context);
+        }
+        List<Boolean> results = executeConcurrently(stmts, contexts);
+
+        // every statement is left to be executed on its own, none of them is acked by the group
+        for (int i = 0; i < numThreads; i++) {
+            Assert.assertFalse(results.get(i));
+            Assert.assertNotEquals(QueryState.MysqlStateType.ERR, contexts.get(i).getState().getStateType());
+        }
+    }
+}
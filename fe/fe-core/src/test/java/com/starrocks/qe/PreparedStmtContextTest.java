@@ -0,0 +1,124 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Type;
+import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.mysql.MysqlColType;
+import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.mysql.MysqlProto;
+import com.starrocks.mysql.MysqlSerializer;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class PreparedStmtContextTest {
+    @Test
+    public void testSplitByParamMarkers() {
+        List<String> fragments = PreparedStmtContext.splitByParamMarkers("select * from t where k1 = ? and k2 = ?");
+        Assert.assertEquals(Lists.newArrayList("select * from t where k1 = ", " and k2 = ", ""), fragments);
+
+        fragments = PreparedStmtContext.splitByParamMarkers(
+                "select '?', \"a\\\"?\", `?` /* ? */ from t -- ?\nwhere k1 = ? --?");
+        Assert.assertEquals(2, fragments.size());
+        Assert.assertEquals(" --?", fragments.get(1));
+
+        fragments = PreparedStmtContext.splitByParamMarkers("select ? --\n, ?");
+        Assert.assertEquals(Lists.newArrayList("select ", " --\n, ", ""), fragments);
+
+        Assert.assertEquals(1, PreparedStmtContext.splitByParamMarkers("select 'it''s ?'").size());
+    }
+
+    @Test
+    public void testBind() {
+        PreparedStmtContext stmt = new PreparedStmtContext(1, "select * from t where k1 = ? and k2 = ?");
+        Assert.assertEquals(2, stmt.getNumParams());
+        Assert.assertEquals("select * from t where k1 = 1 and k2 = 'a\\'b'",
+                stmt.bind(Lists.newArrayList("1", PreparedStmtContext.quote("a'b"))));
+    }
+
+    @Test
+    public void testBindParams() {
+        PreparedStmtContext stmt = new PreparedStmtContext(1, "select ?, ?, ?, ?, ?");
+
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        // null bitmap, the third parameter is null
+        serializer.writeInt1(1 << 2);
+        // new-params-bound-flag
+        serializer.writeInt1(1);
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_LONGLONG.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_VAR_STRING.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_LONG.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_DATETIME.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_TINY.getCode() | 0x8000);
+        serializer.writeInt8(-10);
+        serializer.writeLenEncodedString("abc");
+        serializer.writeInt1(7);
+        serializer.writeInt2(2022);
+        serializer.writeInt1(10);
+        serializer.writeInt1(1);
+        serializer.writeInt1(12);
+        serializer.writeInt1(30);
+        serializer.writeInt1(5);
+        serializer.writeInt1(200);
+        ByteBuffer packet = serializer.toByteBuffer();
+
+        Assert.assertEquals("select -10, 'abc', NULL, '2022-10-01 12:30:05', 200", stmt.bindParams(packet));
+        Assert.assertFalse(packet.hasRemaining());
+
+        // parameter types are reused when they are not bound again
+        serializer.reset();
+        serializer.writeInt1(0);
+        serializer.writeInt1(0);
+        serializer.writeInt8(1);
+        serializer.writeLenEncodedString("");
+        serializer.writeInt4(2);
+        serializer.writeInt1(4);
+        serializer.writeInt2(2022);
+        serializer.writeInt1(10);
+        serializer.writeInt1(1);
+        serializer.writeInt1(255);
+        Assert.assertEquals("select 1, '', 2, '2022-10-01', 255", stmt.bindParams(serializer.toByteBuffer()));
+    }
+
+    @Test
+    public void testBinaryShowResult() throws Exception {
+        List<ByteBuffer> packets = Lists.newArrayList();
+        new MockUp<MysqlChannel>() {
+            @Mock
+            public void sendOnePacket(ByteBuffer packet) {
+                packets.add(packet);
+            }
+        };
+        ConnectContext context = new ConnectContext(null);
+        context.setCommand(MysqlCommand.COM_STMT_EXECUTE);
+        ShowResultSetMetaData metaData = ShowResultSetMetaData.builder()
+                .addColumn(new Column("Name", ScalarType.createVarchar(20)))
+                .addColumn(new Column("Count", Type.BIGINT))
+                .build();
+        List<List<String>> rows = Lists.newArrayList();
+        rows.add(Lists.newArrayList("a", null));
+        new StmtExecutor(context, "show tables").sendShowResult(new ShowResultSet(metaData, rows));
+
+        // column count, 2 columns, EOF and one row
+        Assert.assertEquals(5, packets.size());
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeField("Count", Type.VARCHAR);
+        Assert.assertEquals(serializer.toByteBuffer(), packets.get(2));
+
+        ByteBuffer row = packets.get(4);
+        // binary row header
+        Assert.assertEquals(0x00, MysqlProto.readInt1(row));
+        // the second column is null, the null bitmap has an offset of 2 bits
+        Assert.assertEquals(1 << 3, MysqlProto.readInt1(row));
+        Assert.assertEquals("a", new String(MysqlProto.readLenEncodedString(row)));
+        Assert.assertFalse(row.hasRemaining());
+    }
+}
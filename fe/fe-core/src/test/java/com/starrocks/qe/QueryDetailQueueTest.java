@@ -26,6 +26,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class QueryDetailQueueTest {
     @Test
@@ -70,4 +71,51 @@ public class QueryDetailQueueTest {
         queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(startQueryDetail.getEventTime() - 1);
         Assert.assertEquals(2, queryDetails.size());
     }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        // the QueryDetails added by other tests are before the marker
+        QueryDetail marker = new QueryDetail();
+        QueryDetailQueue.addAndRemoveTimeoutQueryDetail(marker);
+        long startTime = marker.getEventTime();
+        int numThreads = 4;
+        int numQueries = 10000;
+        AtomicBoolean outOfOrder = new AtomicBoolean(false);
+        Thread reader = new Thread(() -> {
+            long lastEventTime = startTime;
+            long numRead = 0;
+            while (numRead < numThreads * numQueries) {
+                for (QueryDetail queryDetail : QueryDetailQueue.getQueryDetailsAfterTime(lastEventTime)) {
+                    if (queryDetail.getEventTime() <= lastEventTime) {
+                        outOfOrder.set(true);
+                    }
+                    lastEventTime = queryDetail.getEventTime();
+                    numRead++;
+                }
+            }
+        });
+        reader.start();
+
+        Thread[] writers = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < numQueries; j++) {
+                    QueryDetailQueue.addAndRemoveTimeoutQueryDetail(new QueryDetail());
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        reader.join(60000);
+
+        Assert.assertFalse(reader.isAlive());
+        Assert.assertFalse(outOfOrder.get());
+        List<QueryDetail> queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(startTime);
+        Assert.assertEquals(numThreads * numQueries, queryDetails.size());
+        for (int i = 1; i < queryDetails.size(); i++) {
+            Assert.assertTrue(queryDetails.get(i).getEventTime() > queryDetails.get(i - 1).getEventTime());
+        }
+    }
 }
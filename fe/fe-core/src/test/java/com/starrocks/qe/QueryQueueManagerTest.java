@@ -3,6 +3,7 @@
 package com.starrocks.qe;
 
 import com.google.common.collect.ImmutableList;
+import com.starrocks.catalog.ResourceGroup;
 import com.starrocks.common.UserException;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.planner.ExportSink;
@@ -16,6 +17,8 @@ import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.system.SystemInfoService;
 import com.starrocks.thrift.TResultSinkType;
+import com.starrocks.thrift.TWorkGroupType;
+import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mocked;
 import org.awaitility.Awaitility;
@@ -123,6 +126,17 @@ public class QueryQueueManagerTest {
         };
     }
 
+    private void mockNoResourceGroup() {
+        QueryQueueManager manager = QueryQueueManager.getInstance();
+        new Expectations(manager) {
+            {
+                manager.getResourceGroup((ConnectContext) any, (Coordinator) any);
+                minTimes = 0;
+                result = null;
+            }
+        };
+    }
+
     @Test
     public void testNotWait() throws UserException, InterruptedException {
         QueryQueueManager manager = QueryQueueManager.getInstance();
@@ -163,6 +177,7 @@ public class QueryQueueManagerTest {
         mockCoordinatorNeedCheckQueue();
         mockCoordinatorEnableCheckQueue();
         mockNotCanRunMore();
+        mockNoResourceGroup();
 
         // Case 1: Pending timeout.
         GlobalVariable.setEnableQueryQueueSelect(true);
@@ -214,6 +229,87 @@ public class QueryQueueManagerTest {
         manager.maybeNotify();
     }
 
+    private Thread startWaitThread(QueryQueueManager manager, ConnectContext connectCtx) {
+        Thread thread = new Thread(() -> {
+            try {
+                manager.maybeWait(connectCtx, coordinator);
+            } catch (UserException | InterruptedException e) {
+                Assert.fail("Unexpected exception");
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    public void testAdmitByPriority() throws InterruptedException {
+        QueryQueueManager manager = QueryQueueManager.getInstance();
+        SystemInfoService service = GlobalStateMgr.getCurrentSystemInfo();
+        Backend be = new Backend();
+        be.setAlive(true);
+        be.setId(3);
+        new Expectations(service) {
+            {
+                service.getBackends();
+                minTimes = 0;
+                result = ImmutableList.of(be);
+            }
+
+            {
+                service.getBackend(be.getId());
+                minTimes = 0;
+                result = be;
+            }
+        };
+
+        ResourceGroup normalGroup = new ResourceGroup();
+        normalGroup.setId(10);
+        normalGroup.setCpuCoreLimit(8);
+        normalGroup.setResourceGroupType(TWorkGroupType.WG_NORMAL);
+        ResourceGroup shortQueryGroup = new ResourceGroup();
+        shortQueryGroup.setId(11);
+        shortQueryGroup.setCpuCoreLimit(1);
+        shortQueryGroup.setResourceGroupType(TWorkGroupType.WG_SHORT_QUERY);
+        ConnectContext etlCtx = new ConnectContext();
+        ConnectContext dashboardCtx = new ConnectContext();
+
+        mockCoordinatorNeedCheckQueue();
+        mockCoordinatorEnableCheckQueue();
+        new Expectations(manager) {
+            {
+                manager.getResourceGroup((ConnectContext) any, (Coordinator) any);
+                result = new Delegate() {
+                    ResourceGroup getResourceGroup(ConnectContext connectCtx, Coordinator coord) {
+                        return connectCtx == etlCtx ? normalGroup : shortQueryGroup;
+                    }
+                };
+            }
+        };
+
+        GlobalVariable.setEnableQueryQueueSelect(true);
+        GlobalVariable.setQueryQueuePendingTimeoutSecond(300);
+        GlobalVariable.setQueryQueueConcurrencyLimit(1);
+        GlobalVariable.setQueryQueueMemUsedPctLimit(0);
+        GlobalVariable.setQueryQueueCpuUsedPermilleLimit(0);
+        manager.updateResourceUsage(be.getId(), 1, 10, 0, 0);
+
+        Thread etlThread = startWaitThread(manager, etlCtx);
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(etlCtx::isPending);
+        Thread dashboardThread = startWaitThread(manager, dashboardCtx);
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(dashboardCtx::isPending);
+
+        // Only one query could run after a query finished, and the short query is admitted first.
+        manager.updateResourceUsage(be.getId(), 0, 10, 0, 0);
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> !dashboardCtx.isPending());
+        Assert.assertTrue(etlCtx.isPending());
+
+        manager.updateResourceUsage(be.getId(), 0, 10, 0, 0);
+        Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> !etlCtx.isPending());
+        etlThread.join();
+        dashboardThread.join();
+        Assert.assertEquals(0, manager.numPendingQueries());
+    }
+
     @Test
     public void testCanRunMore() {
         QueryQueueManager manager = QueryQueueManager.getInstance();
@@ -2,6 +2,7 @@
 
 package com.starrocks.scheduler;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.analysis.TableName;
 import com.starrocks.catalog.Database;
@@ -21,9 +22,11 @@ import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.StmtExecutor;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
 import com.starrocks.sql.analyzer.SemanticException;
 import com.starrocks.sql.ast.DmlStmt;
 import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.TableRelation;
 import com.starrocks.sql.plan.ConnectorPlanTestBase;
 import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.utframe.StarRocksAssert;
@@ -795,6 +798,168 @@ public class PartitionBasedMaterializedViewRefreshProcessorTest {
         Assert.assertEquals(3, baseTableVisibleVersionMap.get(tbl1.getId()).get("p100").getVersion());
     }
 
+    @Test
+    public void testDeltaRefresh() throws Exception {
+        List<InsertStmt> refreshStmts = Lists.newArrayList();
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void handleDMLStmt(ExecPlan execPlan, DmlStmt stmt) throws Exception {
+                if (stmt instanceof InsertStmt) {
+                    InsertStmt insertStmt = (InsertStmt) stmt;
+                    TableName tableName = insertStmt.getTableName();
+                    Database testDb = GlobalStateMgr.getCurrentState().getDb("test");
+                    OlapTable tbl = ((OlapTable) testDb.getTable(tableName.getTbl()));
+                    for (Partition partition : tbl.getPartitions()) {
+                        if (insertStmt.getTargetPartitionIds().contains(partition.getId())) {
+                            setPartitionVersion(partition, partition.getVisibleVersion() + 1);
+                        }
+                    }
+                    if (tbl instanceof MaterializedView) {
+                        refreshStmts.add(insertStmt);
+                    }
+                }
+            }
+        };
+        starRocksAssert.withTable("CREATE TABLE test.tbl_delta\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1, k2)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p20220101 values [('2022-01-01'),('2022-01-02')),\n" +
+                        "    PARTITION p20220102 values [('2022-01-02'),('2022-01-03'))\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv_delta\n" +
+                        "partition by date_trunc('month',k1) \n" +
+                        "distributed by hash(k2) buckets 10\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select k1, k2, sum(v1) as total_sum, count(v1) as total_count from tbl_delta " +
+                        "group by k1, k2;");
+        boolean oldDeltaRefresh = Config.enable_materialized_view_delta_refresh;
+        Config.enable_materialized_view_delta_refresh = true;
+        try {
+            Database testDb = GlobalStateMgr.getCurrentState().getDb("test");
+            MaterializedView materializedView = ((MaterializedView) testDb.getTable("mv_delta"));
+            Task task = TaskBuilder.buildMvTask(materializedView, testDb.getFullName());
+
+            // the empty partition of materialized view is refreshed fully
+            new StmtExecutor(connectContext, "insert into tbl_delta partition(p20220101) values('2022-01-01',1,10);")
+                    .execute();
+            TaskRun taskRun = TaskRunBuilder.newBuilder(task).build();
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(1, refreshStmts.size());
+            Assert.assertFalse(AnalyzerUtils.collectAllTableRelation(refreshStmts.get(0)).containsKey("mv_delta"));
+
+            // only the new partition of base table is aggregated and merged into the materialized view
+            new StmtExecutor(connectContext, "insert into tbl_delta partition(p20220102) values('2022-01-02',1,10);")
+                    .execute();
+            taskRun = TaskRunBuilder.newBuilder(task).build();
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(2, refreshStmts.size());
+            Map<String, TableRelation> tableRelations = AnalyzerUtils.collectAllTableRelation(refreshStmts.get(1));
+            Assert.assertTrue(tableRelations.containsKey("mv_delta"));
+            Assert.assertEquals(Lists.newArrayList("p20220102"),
+                    tableRelations.get("tbl_delta").getPartitionNames().getPartitionNames());
+            Assert.assertTrue(materializedView.getRefreshScheme().getAsyncRefreshContext()
+                    .getBaseTableVisibleVersionMap().get(testDb.getTable("tbl_delta").getId())
+                    .containsKey("p20220101"));
+            Assert.assertFalse(materializedView.getRefreshScheme().getAsyncRefreshContext()
+                    .getBaseTableVisibleVersionMap().containsKey(materializedView.getId()));
+
+            // the partition refreshed before is changed, so the materialized view is refreshed fully
+            new StmtExecutor(connectContext, "insert into tbl_delta partition(p20220101) values('2022-01-01',2,10);")
+                    .execute();
+            taskRun = TaskRunBuilder.newBuilder(task).build();
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(3, refreshStmts.size());
+            Assert.assertFalse(AnalyzerUtils.collectAllTableRelation(refreshStmts.get(2)).containsKey("mv_delta"));
+        } finally {
+            Config.enable_materialized_view_delta_refresh = oldDeltaRefresh;
+        }
+    }
+
+    @Test
+    public void testDeltaRefreshWithGroupByKeyNotInOutput() throws Exception {
+        List<InsertStmt> refreshStmts = Lists.newArrayList();
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void handleDMLStmt(ExecPlan execPlan, DmlStmt stmt) throws Exception {
+                if (stmt instanceof InsertStmt) {
+                    InsertStmt insertStmt = (InsertStmt) stmt;
+                    TableName tableName = insertStmt.getTableName();
+                    Database testDb = GlobalStateMgr.getCurrentState().getDb("test");
+                    OlapTable tbl = ((OlapTable) testDb.getTable(tableName.getTbl()));
+                    for (Partition partition : tbl.getPartitions()) {
+                        if (insertStmt.getTargetPartitionIds().contains(partition.getId())) {
+                            setPartitionVersion(partition, partition.getVisibleVersion() + 1);
+                        }
+                    }
+                    if (tbl instanceof MaterializedView) {
+                        refreshStmts.add(insertStmt);
+                    }
+                }
+            }
+        };
+        starRocksAssert.withTable("CREATE TABLE test.tbl_delta_hidden_key\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1, k2)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p20220101 values [('2022-01-01'),('2022-01-02')),\n" +
+                        "    PARTITION p20220102 values [('2022-01-02'),('2022-01-03'))\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv_delta_hidden_key\n" +
+                        "partition by date_trunc('month',k1) \n" +
+                        "distributed by hash(k1) buckets 10\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select k1, sum(v1) as total_sum from tbl_delta_hidden_key group by k1, k2;");
+        boolean oldDeltaRefresh = Config.enable_materialized_view_delta_refresh;
+        Config.enable_materialized_view_delta_refresh = true;
+        try {
+            Database testDb = GlobalStateMgr.getCurrentState().getDb("test");
+            MaterializedView materializedView = ((MaterializedView) testDb.getTable("mv_delta_hidden_key"));
+            // the rows of the materialized view could not be merged without the group by key k2
+            Assert.assertNull(MvDeltaRefreshBuilder.buildDeltaQuery(materializedView, "tbl_delta_hidden_key",
+                    connectContext));
+            Task task = TaskBuilder.buildMvTask(materializedView, testDb.getFullName());
+
+            new StmtExecutor(connectContext,
+                    "insert into tbl_delta_hidden_key partition(p20220101) values('2022-01-01',1,10);").execute();
+            TaskRun taskRun = TaskRunBuilder.newBuilder(task).build();
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(1, refreshStmts.size());
+
+            // only a new partition is added to the base table, but the materialized view is still refreshed fully
+            new StmtExecutor(connectContext,
+                    "insert into tbl_delta_hidden_key partition(p20220102) values('2022-01-02',2,10);").execute();
+            taskRun = TaskRunBuilder.newBuilder(task).build();
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(2, refreshStmts.size());
+            Assert.assertFalse(AnalyzerUtils.collectAllTableRelation(refreshStmts.get(1))
+                    .containsKey("mv_delta_hidden_key"));
+        } finally {
+            Config.enable_materialized_view_delta_refresh = oldDeltaRefresh;
+        }
+    }
+
     private void setPartitionVersion(Partition partition, long version) {
         partition.setVisibleVersion(version, System.currentTimeMillis());
         MaterializedIndex baseIndex = partition.getBaseIndex();
@@ -2,7 +2,9 @@
 
 package com.starrocks.scheduler;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
+import com.starrocks.catalog.MaterializedView;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.util.UUIDUtil;
@@ -14,6 +16,8 @@ import com.starrocks.sql.ast.SubmitTaskStmt;
 import com.starrocks.utframe.StarRocksAssert;
 import com.starrocks.utframe.UtFrameUtils;
 import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
 import org.apache.hadoop.util.ThreadUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -89,7 +93,17 @@ public class TaskManagerTest {
                 "    PARTITION p2 values less than('2020-03-01')\n" +
                 ")\n" +
                 "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
-                "PROPERTIES('replication_num' = '1');");
+                "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv_upstream\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh manual\n" +
+                "properties('replication_num' = '1')\n" +
+                "as select k2, sum(v1) as total from tbl1 group by k2;")
+                .withNewMaterializedView("create materialized view test.mv_downstream\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh manual\n" +
+                "properties('replication_num' = '1')\n" +
+                "as select k2, total from mv_upstream;");
     }
 
     @Test
@@ -353,6 +367,142 @@ public class TaskManagerTest {
 
     }
 
+    @Test
+    public void testManualTaskRunNotMerged() {
+        TaskRunManager taskRunManager = new TaskRunManager();
+        Task task = new Task("test");
+        long taskId = 1;
+        long now = System.currentTimeMillis();
+
+        TaskRun manualTaskRun = TaskRunBuilder.newBuilder(task).build();
+        manualTaskRun.setTaskId(taskId);
+        manualTaskRun.initStatus("1", now);
+        manualTaskRun.getStatus().setDefinition("select 1");
+        manualTaskRun.getStatus().setPriority(10);
+
+        TaskRun autoTaskRun1 = TaskRunBuilder.newBuilder(task).build();
+        autoTaskRun1.setTaskId(taskId);
+        autoTaskRun1.initStatus("2", now + 10);
+        autoTaskRun1.getStatus().setDefinition("select 1");
+
+        TaskRun autoTaskRun2 = TaskRunBuilder.newBuilder(task).build();
+        autoTaskRun2.setTaskId(taskId);
+        autoTaskRun2.initStatus("3", now + 20);
+        autoTaskRun2.getStatus().setDefinition("select 1");
+
+        taskRunManager.arrangeTaskRun(manualTaskRun, false);
+        taskRunManager.arrangeTaskRun(autoTaskRun1, true);
+        taskRunManager.arrangeTaskRun(autoTaskRun2, true);
+
+        // the automatic TaskRuns are merged, but the manual one is kept
+        PriorityBlockingQueue<TaskRun> taskRuns = taskRunManager.getPendingTaskRunMap().get(taskId);
+        Assert.assertEquals(2, taskRuns.size());
+        Assert.assertEquals("1", taskRuns.poll().getStatus().getQueryId());
+        Assert.assertEquals("3", taskRuns.poll().getStatus().getQueryId());
+    }
+
+    @Test
+    public void testScheduleTaskRunByPriority() {
+        new MockUp<TaskRunExecutor>() {
+            @Mock
+            public void executeTaskRun(TaskRun taskRun) {
+            }
+        };
+        int oldConcurrency = Config.task_runs_concurrency;
+        Config.task_runs_concurrency = 1;
+        try {
+            TaskRunManager taskRunManager = new TaskRunManager();
+            long now = System.currentTimeMillis();
+            for (long taskId = 1; taskId <= 3; taskId++) {
+                TaskRun taskRun = TaskRunBuilder.newBuilder(new Task("test" + taskId)).build();
+                taskRun.setTaskId(taskId);
+                taskRun.initStatus(String.valueOf(taskId), now + taskId);
+                taskRun.getStatus().setDefinition("select " + taskId);
+                taskRun.getStatus().setPriority(taskId == 2 ? 10 : 0);
+                taskRunManager.arrangeTaskRun(taskRun, false);
+            }
+
+            // the TaskRun with higher priority is run first, though other Tasks are submitted earlier
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertEquals(1, taskRunManager.getRunningTaskRunMap().size());
+            Assert.assertTrue(taskRunManager.getRunningTaskRunMap().containsKey(2L));
+
+            taskRunManager.getRunningTaskRunMap().clear();
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertTrue(taskRunManager.getRunningTaskRunMap().containsKey(1L));
+        } finally {
+            Config.task_runs_concurrency = oldConcurrency;
+        }
+    }
+
+    private static TaskRun buildMvTaskRun(long taskId, String mvName, String queryId, long createTime) {
+        MaterializedView mv = (MaterializedView) GlobalStateMgr.getCurrentState().getDb("test").getTable(mvName);
+        Task task = new Task("mv-" + mv.getId());
+        task.setDbName("test");
+        task.setSource(Constants.TaskSource.MV);
+        Map<String, String> properties = Maps.newHashMap();
+        properties.put(PartitionBasedMaterializedViewRefreshProcessor.MV_ID, String.valueOf(mv.getId()));
+        task.setProperties(properties);
+
+        TaskRun taskRun = TaskRunBuilder.newBuilder(task).build();
+        taskRun.setTaskId(taskId);
+        taskRun.initStatus(queryId, createTime);
+        taskRun.getStatus().setDefinition("refresh materialized view test." + mvName);
+        return taskRun;
+    }
+
+    @Test
+    public void testScheduleMvTaskRunByDependency() {
+        new MockUp<TaskRunExecutor>() {
+            @Mock
+            public void executeTaskRun(TaskRun taskRun) {
+            }
+        };
+        int oldMvConcurrency = Config.mv_task_runs_concurrency;
+        try {
+            TaskRunManager taskRunManager = new TaskRunManager();
+            Map<Long, TaskRun> runningTaskRunMap = taskRunManager.getRunningTaskRunMap();
+            long upstreamTaskId = 1;
+            long downstreamTaskId = 2;
+            long now = System.currentTimeMillis();
+            taskRunManager.arrangeTaskRun(buildMvTaskRun(upstreamTaskId, "mv_upstream", "1", now), false);
+            taskRunManager.arrangeTaskRun(buildMvTaskRun(downstreamTaskId, "mv_downstream", "2", now + 10), false);
+
+            // the downstream view waits for the refresh of the upstream view created before it
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertEquals(1, runningTaskRunMap.size());
+            Assert.assertTrue(runningTaskRunMap.containsKey(upstreamTaskId));
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertFalse(runningTaskRunMap.containsKey(downstreamTaskId));
+
+            // but not for the refreshes of the upstream view created after it
+            runningTaskRunMap.clear();
+            taskRunManager.arrangeTaskRun(buildMvTaskRun(upstreamTaskId, "mv_upstream", "3", now + 20), false);
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertEquals(2, runningTaskRunMap.size());
+            Assert.assertEquals("2", runningTaskRunMap.get(downstreamTaskId).getStatus().getQueryId());
+            Assert.assertEquals("3", runningTaskRunMap.get(upstreamTaskId).getStatus().getQueryId());
+
+            // the refreshes of materialized views are limited by mv_task_runs_concurrency
+            Config.mv_task_runs_concurrency = 1;
+            runningTaskRunMap.clear();
+            taskRunManager.arrangeTaskRun(buildMvTaskRun(downstreamTaskId, "mv_downstream", "4", now + 30), false);
+            taskRunManager.arrangeTaskRun(buildMvTaskRun(upstreamTaskId, "mv_upstream", "5", now + 40), false);
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertEquals(1, runningTaskRunMap.size());
+            Assert.assertEquals("4", runningTaskRunMap.get(downstreamTaskId).getStatus().getQueryId());
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertEquals(1, runningTaskRunMap.size());
+
+            runningTaskRunMap.clear();
+            taskRunManager.scheduledPendingTaskRun();
+            Assert.assertEquals(1, runningTaskRunMap.size());
+            Assert.assertEquals("5", runningTaskRunMap.get(upstreamTaskId).getStatus().getQueryId());
+        } finally {
+            Config.mv_task_runs_concurrency = oldMvConcurrency;
+        }
+    }
+
     @Test
     public void testReplayUpdateTaskRunOutOfOrder() {
         TaskManager taskManager = new TaskManager();
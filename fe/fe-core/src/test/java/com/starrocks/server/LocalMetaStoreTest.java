@@ -6,20 +6,33 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedIndex;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.PartitionInfo;
+import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.catalog.TabletMeta;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.FeConstants;
+import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.meta.MetaContext;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.utframe.StarRocksAssert;
 import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -75,4 +88,90 @@ public class LocalMetaStoreTest {
 
         Assert.assertEquals(newPartition.getId(), olapTable.getPartition("t1").getId());
     }
+
+    @Test
+    public void testRecreateTabletInvertIndexOfDbsInParallel() throws Exception {
+        StarRocksAssert starRocksAssert = new StarRocksAssert(connectContext);
+        for (int i = 0; i < 4; i++) {
+            String dbName = "test_inverted_index_" + i;
+            starRocksAssert.withDatabase(dbName)
+                    .withTable("CREATE TABLE " + dbName + ".t1(k1 int, k2 int, k3 int)" +
+                            " distributed by hash(k1) buckets " + (i + 2) + " properties('replication_num' = '1');")
+                    .withTable("CREATE TABLE " + dbName + ".t2(k1 date, k2 int, k3 int)" +
+                            " PARTITION BY RANGE(k1) (PARTITION p1 VALUES LESS THAN ('2022-01-01')," +
+                            " PARTITION p2 VALUES LESS THAN ('2023-01-01'))" +
+                            " distributed by hash(k2) buckets 3 properties('replication_num' = '1');");
+        }
+
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeConstants.meta_version);
+        metaContext.setStarRocksMetaVersion(FeConstants.starrocks_meta_version);
+        metaContext.setThreadLocalInfo();
+
+        // save the dbs to an image and load them like a restarted fe
+        GlobalStateMgr globalStateMgr = connectContext.getGlobalStateMgr();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        long checksum = globalStateMgr.getLocalMetastore().saveDb(dos, 0);
+        dos.flush();
+        LocalMetastore localMetastore = new LocalMetastore(globalStateMgr, globalStateMgr.getRecycleBin(),
+                globalStateMgr.getColocateTableIndex(), globalStateMgr.getClusterInfo());
+        Assert.assertEquals(checksum,
+                localMetastore.loadDb(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())), 0));
+        Assert.assertTrue(localMetastore.getDbIds().size() > 4);
+
+        TabletInvertedIndex parallelIndex = new TabletInvertedIndex();
+        new MockUp<GlobalStateMgr>() {
+            @Mock
+            public TabletInvertedIndex getCurrentInvertedIndex() {
+                return parallelIndex;
+            }
+        };
+        localMetastore.recreateTabletInvertIndex();
+
+        TabletInvertedIndex serialIndex = new TabletInvertedIndex();
+        for (long dbId : localMetastore.getDbIds()) {
+            Deencapsulation.invoke(LocalMetastore.class, "addTabletsToInvertedIndex", serialIndex,
+                    localMetastore.getDb(dbId), FeConstants.meta_version);
+        }
+
+        Set<Long> backendIds = Sets.newHashSet();
+        int numTablets = 0;
+        for (long dbId : localMetastore.getDbIds()) {
+            for (Table table : localMetastore.getDb(dbId).getTables()) {
+                if (!table.isNativeTable()) {
+                    continue;
+                }
+                for (Partition partition : ((OlapTable) table).getAllPartitions()) {
+                    for (MaterializedIndex index : partition.getMaterializedIndices(MaterializedIndex.IndexExtState.ALL)) {
+                        for (Tablet tablet : index.getTablets()) {
+                            numTablets++;
+                            TabletMeta expected = serialIndex.getTabletMeta(tablet.getId());
+                            TabletMeta actual = parallelIndex.getTabletMeta(tablet.getId());
+                            Assert.assertEquals(dbId, actual.getDbId());
+                            Assert.assertEquals(expected.getDbId(), actual.getDbId());
+                            Assert.assertEquals(expected.getTableId(), actual.getTableId());
+                            Assert.assertEquals(expected.getPartitionId(), actual.getPartitionId());
+                            Assert.assertEquals(expected.getIndexId(), actual.getIndexId());
+                            Assert.assertEquals(expected.getOldSchemaHash(), actual.getOldSchemaHash());
+                            Assert.assertEquals(expected.getStorageMedium(), actual.getStorageMedium());
+                            List<Replica> replicas = serialIndex.getReplicasByTabletId(tablet.getId());
+                            Assert.assertFalse(replicas.isEmpty());
+                            Assert.assertEquals(replicas, parallelIndex.getReplicasByTabletId(tablet.getId()));
+                            replicas.forEach(replica -> backendIds.add(replica.getBackendId()));
+                        }
+                    }
+                }
+            }
+        }
+        // (2 + 3 + 4 + 5) buckets of t1 and 2 * 3 tablets of t2 in the 4 dbs
+        Assert.assertTrue(numTablets >= 38);
+        for (long backendId : backendIds) {
+            List<Long> expectedTabletIds = serialIndex.getTabletIdsByBackendId(backendId);
+            List<Long> actualTabletIds = parallelIndex.getTabletIdsByBackendId(backendId);
+            expectedTabletIds.sort(Long::compare);
+            actualTabletIds.sort(Long::compare);
+            Assert.assertEquals(expectedTabletIds, actualTabletIds);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.base;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+public class ColumnRefSetTest {
+    @Test
+    public void testInlineAndInflated() {
+        ColumnRefSet set = new ColumnRefSet(1);
+        set.union(63);
+        Assert.assertEquals(2, set.cardinality());
+        Assert.assertTrue(set.contains(63));
+        Assert.assertFalse(set.contains(64));
+        Assert.assertFalse(set.contains(1000));
+
+        ColumnRefSet large = set.clone();
+        large.union(200);
+        Assert.assertEquals(2, set.cardinality());
+        Assert.assertEquals(3, large.cardinality());
+        Assert.assertArrayEquals(new int[] {1, 63, 200}, large.getColumnIds());
+        Assert.assertTrue(large.containsAll(set));
+        Assert.assertFalse(set.containsAll(large));
+
+        // inflated set equals to the inline set after the large id is removed
+        large.except(new ColumnRefSet(200));
+        Assert.assertEquals(set, large);
+        Assert.assertEquals(set.hashCode(), large.hashCode());
+        Assert.assertTrue(set.isSame(large));
+
+        set.intersect(63);
+        Assert.assertEquals("{63}", set.toString());
+        Assert.assertEquals(63, set.getFirstId());
+        set.intersect(1);
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testSameAsBitSet() {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            int bound = random.nextBoolean() ? 64 : 300;
+            BitSet leftBits = new BitSet();
+            BitSet rightBits = new BitSet();
+            ColumnRefSet left = new ColumnRefSet();
+            ColumnRefSet right = new ColumnRefSet();
+            for (int i = random.nextInt(10); i > 0; i--) {
+                int id = random.nextInt(bound);
+                leftBits.set(id);
+                left.union(id);
+            }
+            for (int i = random.nextInt(10); i > 0; i--) {
+                int id = random.nextInt(bound);
+                rightBits.set(id);
+                right.union(id);
+            }
+
+            Assert.assertEquals(leftBits.toString(), left.toString());
+            Assert.assertEquals(leftBits.hashCode(), left.hashCode());
+            Assert.assertEquals(leftBits.intersects(rightBits), left.isIntersect(right));
+            Assert.assertEquals(leftBits.equals(rightBits), left.equals(right));
+            BitSet containsBits = (BitSet) rightBits.clone();
+            containsBits.andNot(leftBits);
+            Assert.assertEquals(containsBits.isEmpty(), left.containsAll(right));
+
+            ColumnRefSet union = left.clone();
+            union.union(right);
+            BitSet unionBits = (BitSet) leftBits.clone();
+            unionBits.or(rightBits);
+            Assert.assertArrayEquals(unionBits.stream().toArray(), union.getColumnIds());
+
+            ColumnRefSet intersect = left.clone();
+            intersect.intersect(right);
+            BitSet intersectBits = (BitSet) leftBits.clone();
+            intersectBits.and(rightBits);
+            Assert.assertArrayEquals(intersectBits.stream().toArray(), intersect.getColumnIds());
+            Assert.assertEquals(intersectBits.hashCode(), intersect.hashCode());
+
+            ColumnRefSet except = left.clone();
+            except.except(right);
+            BitSet exceptBits = (BitSet) leftBits.clone();
+            exceptBits.andNot(rightBits);
+            Assert.assertArrayEquals(exceptBits.stream().toArray(), except.getColumnIds());
+            Assert.assertEquals(exceptBits.cardinality(), except.cardinality());
+            Assert.assertEquals(exceptBits.isEmpty(), except.isEmpty());
+            Assert.assertEquals(Arrays.toString(exceptBits.stream().toArray()),
+                    Arrays.toString(except.getStream().toArray()));
+        }
+    }
+}
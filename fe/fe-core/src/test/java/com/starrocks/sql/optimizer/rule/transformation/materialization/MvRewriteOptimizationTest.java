@@ -14,6 +14,7 @@ import com.starrocks.scheduler.Task;
 import com.starrocks.scheduler.TaskBuilder;
 import com.starrocks.scheduler.TaskManager;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.PlanCache;
 import com.starrocks.sql.plan.PlanTestBase;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.utframe.StarRocksAssert;
@@ -990,6 +991,40 @@ public class MvRewriteOptimizationTest {
         dropMv("test", "partial_mv_5");
     }
 
+    @Test
+    public void testPlanCacheWithMvRewrite() throws Exception {
+        starRocksAssert.withTable("create table plan_cache_base (\n" +
+                "    k1 int not null,\n" +
+                "    v1 int not null\n" +
+                ")\n" +
+                "distributed by hash(`k1`) buckets 3\n" +
+                "properties (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+        cluster.runSql("test", "insert into plan_cache_base values(1, 1)");
+        createAndRefreshMv("test", "plan_cache_mv", "create materialized view plan_cache_mv" +
+                " distributed by hash(k1) as select k1, sum(v1) as total from plan_cache_base group by k1");
+        PlanCache.getInstance().invalidateAll();
+        connectContext.getSessionVariable().setEnablePlanCache(true);
+        try {
+            String query = "select k1, sum(v1) from plan_cache_base group by k1";
+            String plan = getFragmentPlan(query);
+            PlanTestBase.assertContains(plan, "plan_cache_mv");
+            Assert.assertEquals(1, PlanCache.getInstance().size());
+            PlanCache.CachedPlan cachedPlan = PlanCache.getInstance().asMap().values().iterator().next();
+
+            // the base table is loaded while the version of the materialized view is unchanged
+            cluster.runSql("test", "insert into plan_cache_base values(2, 2)");
+            getFragmentPlan(query);
+            Assert.assertEquals(1, PlanCache.getInstance().size());
+            Assert.assertNotSame(cachedPlan, PlanCache.getInstance().asMap().values().iterator().next());
+        } finally {
+            connectContext.getSessionVariable().setEnablePlanCache(false);
+            PlanCache.getInstance().invalidateAll();
+            dropMv("test", "plan_cache_mv");
+        }
+    }
+
     public String getFragmentPlan(String sql) throws Exception {
         String s = UtFrameUtils.getPlanAndFragment(connectContext, sql).second.
                 getExplainString(TExplainLevel.NORMAL);
@@ -0,0 +1,87 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.sql.optimizer.base.ColumnIdentifier;
+import com.starrocks.thrift.TGlobalDict;
+import com.starrocks.thrift.TStatisticData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CacheDictManagerTest {
+
+    private static TStatisticData newStatisticData(int dictSize) {
+        List<Integer> ids = Lists.newArrayList();
+        List<ByteBuffer> strings = Lists.newArrayList();
+        for (int i = 0; i < dictSize; i++) {
+            ids.add(i + 1);
+            strings.add(ByteBuffer.wrap(("value" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        TGlobalDict dict = new TGlobalDict();
+        dict.setIds(ids);
+        dict.setStrings(strings);
+        TStatisticData statisticData = new TStatisticData();
+        statisticData.setDict(dict);
+        statisticData.setMeta_version(1);
+        return statisticData;
+    }
+
+    @Test
+    public void testMayBeLowCardinality() {
+        double oldRatio = Config.low_cardinality_ndv_error_ratio;
+        try {
+            Config.low_cardinality_ndv_error_ratio = 0.2;
+            double maxDistinctValuesCount = CacheDictManager.LOW_CARDINALITY_THRESHOLD * (1 + 0.2);
+            Assert.assertTrue(CacheDictManager.mayBeLowCardinality(CacheDictManager.LOW_CARDINALITY_THRESHOLD));
+            Assert.assertTrue(CacheDictManager.mayBeLowCardinality(maxDistinctValuesCount));
+            Assert.assertFalse(CacheDictManager.mayBeLowCardinality(Math.nextUp(maxDistinctValuesCount)));
+            Assert.assertFalse(CacheDictManager.mayBeLowCardinality(maxDistinctValuesCount + 1));
+
+            Config.low_cardinality_ndv_error_ratio = 0;
+            Assert.assertTrue(CacheDictManager.mayBeLowCardinality(CacheDictManager.LOW_CARDINALITY_THRESHOLD));
+            Assert.assertFalse(CacheDictManager.mayBeLowCardinality(CacheDictManager.LOW_CARDINALITY_THRESHOLD + 1));
+        } finally {
+            Config.low_cardinality_ndv_error_ratio = oldRatio;
+        }
+    }
+
+    @Test
+    public void testNoDictColumnExpired() {
+        AtomicLong nanos = new AtomicLong();
+        CacheDictManager dictManager = new CacheDictManager(nanos::get);
+        long tableId = 1;
+        String columnName = "c1";
+
+        // the column is rejected by the size of its dict
+        Optional<ColumnDict> dict = Deencapsulation.invoke(dictManager, "deserializeColumnDict",
+                tableId, columnName, newStatisticData(CacheDictManager.LOW_CARDINALITY_THRESHOLD + 1));
+        Assert.assertFalse(dict.isPresent());
+
+        // later loads delete most distinct values
+        dict = Deencapsulation.invoke(dictManager, "deserializeColumnDict", tableId, columnName, newStatisticData(3));
+        Assert.assertTrue(dict.isPresent());
+        AsyncLoadingCache<ColumnIdentifier, Optional<ColumnDict>> dictStatistics =
+                Deencapsulation.getField(dictManager, "dictStatistics");
+        dictStatistics.put(new ColumnIdentifier(tableId, columnName), CompletableFuture.completedFuture(dict));
+        Assert.assertFalse(dictManager.hasGlobalDict(tableId, columnName));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(Config.statistic_no_dict_column_expire_sec) - 1);
+        Assert.assertFalse(dictManager.hasGlobalDict(tableId, columnName));
+
+        // the column is eligible again after the rejection expires
+        nanos.addAndGet(1);
+        Assert.assertTrue(dictManager.hasGlobalDict(tableId, columnName));
+    }
+}
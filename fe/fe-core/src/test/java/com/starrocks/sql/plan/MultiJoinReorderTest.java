@@ -455,4 +455,63 @@ public class MultiJoinReorderTest extends PlanTestBase {
         String plan = getFragmentPlan(sql);
         Assert.assertTrue(plan.contains("<slot 27> : NULL"));
     }
+
+    @Test
+    public void testParallelJoinReorder() throws Exception {
+        String sql = "select * from t0 join t1 on v1 = v4 join t2 on v4 = v7 join t3 on v7 = v10 " +
+                "join t0 as t4 on v10 = t4.v1 join t1 as t5 on t4.v1 = t5.v4";
+        String serialPlan = getFragmentPlan(sql);
+        connectContext.getSessionVariable().setCboEnableParallelJoinReorder(true);
+        try {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals(serialPlan, getFragmentPlan(sql));
+            }
+        } finally {
+            connectContext.getSessionVariable().setCboEnableParallelJoinReorder(false);
+        }
+    }
+
+    @Test
+    public void testConnectedJoinReorderDP() throws Exception {
+        connectContext.getSessionVariable().enableDPJoinReorder();
+        connectContext.getSessionVariable().disableGreedyJoinReorder();
+        connectContext.getSessionVariable().setCboMaxReorderNodeUseDP(16);
+        try {
+            // a chain of 14 tables, a(i) join a(i+1) on their first column
+            String[] keys = {"v1", "v4", "v7", "v10"};
+            StringBuilder sql = new StringBuilder("select count(*) from t0 as a0");
+            for (int i = 1; i < 14; i++) {
+                sql.append(" join t").append(i % 4).append(" as a").append(i)
+                        .append(" on a").append(i - 1).append(".").append(keys[(i - 1) % 4])
+                        .append(" = a").append(i).append(".").append(keys[i % 4]);
+            }
+            String plan = getFragmentPlan(sql.toString());
+            Assert.assertTrue(plan, plan.contains("HASH JOIN"));
+            Assert.assertFalse(plan, plan.contains("CROSS JOIN"));
+        } finally {
+            connectContext.getSessionVariable().setCboMaxReorderNodeUseDP(10);
+            connectContext.getSessionVariable().enableGreedyJoinReorder();
+        }
+    }
+
+    @Test
+    public void testConnectedJoinReorderDPWithoutCrossJoin() throws Exception {
+        connectContext.getSessionVariable().enableDPJoinReorder();
+        connectContext.getSessionVariable().disableGreedyJoinReorder();
+        try {
+            // t0 and t1 are tiny tables both joined with the huge t3, the partition {t0, t1} | {t3} used to be
+            // enumerated as a cross join of t0 and t1 probing t3 once, the graph is connected so it is not now
+            String sql = "select * from t3 join t0 on t3.v10 = t0.v1 join t1 on t3.v11 = t1.v4";
+            String plan = getFragmentPlan(sql);
+            Assert.assertFalse(plan, plan.contains("CROSS JOIN"));
+            Assert.assertFalse(plan, plan.contains("NESTLOOP JOIN"));
+
+            // the graph is disconnected, the cross join is inevitable
+            sql = "select * from t3 join t0 on t3.v10 = t0.v1 join t1";
+            plan = getFragmentPlan(sql);
+            Assert.assertTrue(plan, plan.contains("CROSS JOIN"));
+        } finally {
+            connectContext.getSessionVariable().enableGreedyJoinReorder();
+        }
+    }
 }
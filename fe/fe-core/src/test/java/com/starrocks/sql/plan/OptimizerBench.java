@@ -0,0 +1,57 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.utframe.UtFrameUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Measure the planning time of TPC-DS queries, mostly spent in the optimizer
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OptimizerBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(OptimizerBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    // name of the query field in TPCDSPlanTestBase
+    @Param({"Q04", "Q14_1", "Q23_1", "Q64", "Q72"})
+    public String query;
+
+    private String sql;
+
+    @Setup
+    public void setup() throws Exception {
+        TPCDSPlanTestBase.beforeClass();
+        new TPCDSPlanTestBase().setTPCDSFactor(1);
+        sql = (String) TPCDSPlanTestBase.class.getField(query).get(null);
+    }
+
+    @Benchmark
+    public void optimize() throws Exception {
+        UtFrameUtils.getPlanAndFragment(TPCDSPlanTestBase.connectContext, sql);
+    }
+}
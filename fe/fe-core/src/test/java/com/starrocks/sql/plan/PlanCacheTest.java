@@ -0,0 +1,139 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.PlanCache;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PlanCacheTest extends PlanTestBase {
+    @Before
+    public void before() {
+        PlanCache.getInstance().invalidateAll();
+        connectContext.getSessionVariable().setEnablePlanCache(true);
+    }
+
+    @After
+    public void after() {
+        connectContext.getSessionVariable().setEnablePlanCache(false);
+        PlanCache.getInstance().invalidateAll();
+    }
+
+    @Test
+    public void testReusePlan() throws Exception {
+        String sql = "select v1, sum(v2) from t0 where v3 = 1 group by v1";
+        String plan = getFragmentPlan(sql);
+        Assert.assertEquals(1, PlanCache.getInstance().size());
+        Assert.assertEquals(plan, getFragmentPlan(sql));
+        Assert.assertEquals(1, PlanCache.getInstance().size());
+
+        // the literals which are not compared are part of the digest
+        getFragmentPlan("select v1, sum(v2 + 1) from t0 where v3 = 1 group by v1");
+        Assert.assertEquals(2, PlanCache.getInstance().size());
+    }
+
+    @Test
+    public void testReusePlanForOtherParameters() throws Exception {
+        String sql = "select v1, sum(v2) from t0 where v3 = %d and v2 in (%d, %d) group by v1";
+        String plan = getFragmentPlan(String.format(sql, 1, 2, 3));
+        Assert.assertTrue(plan, plan.contains("3: v3 = 1"));
+        Assert.assertEquals(1, PlanCache.getInstance().size());
+        PlanCache.CachedPlan cachedPlan = PlanCache.getInstance().asMap().values().iterator().next();
+        Assert.assertFalse(cachedPlan.isVerified());
+
+        // the constants are replaced for the first time, the plan is verified against the optimized plan
+        String verifiedPlan = getFragmentPlan(String.format(sql, 4, 5, 6));
+        Assert.assertTrue(verifiedPlan, verifiedPlan.contains("3: v3 = 4"));
+        Assert.assertTrue(cachedPlan.isVerified());
+
+        String reusedPlan = getFragmentPlan(String.format(sql, 7, 8, 9));
+        Assert.assertEquals(verifiedPlan.replace("3: v3 = 4", "3: v3 = 7").replace("2: v2 IN (5, 6)",
+                "2: v2 IN (8, 9)"), reusedPlan);
+        Assert.assertEquals(1, PlanCache.getInstance().size());
+        Assert.assertSame(cachedPlan, PlanCache.getInstance().asMap().values().iterator().next());
+    }
+
+    @Test
+    public void testPrunedPlanNotReusedForOtherParameters() throws Exception {
+        // the tablets of t0 are pruned by v1
+        String sql = "select v2 from t0 where v1 = %d";
+        OlapScanNode scan1 = (OlapScanNode) getExecPlan(String.format(sql, 1)).getScanNodes().get(0);
+        OlapScanNode scan2 = (OlapScanNode) getExecPlan(String.format(sql, 2)).getScanNodes().get(0);
+        Assert.assertEquals(1, scan1.getScanTabletIds().size());
+        Assert.assertEquals(1, scan2.getScanTabletIds().size());
+        Assert.assertEquals(2, PlanCache.getInstance().size());
+        PlanCache.getInstance().asMap().values().forEach(cachedPlan -> Assert.assertFalse(cachedPlan.isVerified()));
+
+        // the plans are still reused for the same parameters
+        Assert.assertEquals(scan2.getScanTabletIds(),
+                ((OlapScanNode) getExecPlan(String.format(sql, 2)).getScanNodes().get(0)).getScanTabletIds());
+        Assert.assertEquals(2, PlanCache.getInstance().size());
+    }
+
+    @Test
+    public void testUncacheable() throws Exception {
+        getFragmentPlan("select v1 from t0 where v2 < unix_timestamp()");
+        getFragmentPlan("select v1 from t0 where v2 < rand()");
+        getFragmentPlan("select v1, database() from t0");
+        Assert.assertEquals(0, PlanCache.getInstance().size());
+    }
+
+    @Test
+    public void testPartitionAndTabletHints() throws Exception {
+        String sql = "select count(*) from lineitem_partition partition(%s) where L_ORDERKEY = 1";
+        OlapScanNode scan1 = (OlapScanNode) getExecPlan(String.format(sql, "p1992")).getScanNodes().get(0);
+        OlapScanNode scan2 = (OlapScanNode) getExecPlan(String.format(sql, "p1993")).getScanNodes().get(0);
+        Assert.assertEquals(0, PlanCache.getInstance().size());
+        Assert.assertNotEquals(Lists.newArrayList(scan1.getSelectedPartitionIds()),
+                Lists.newArrayList(scan2.getSelectedPartitionIds()));
+
+        OlapTable t0 = (OlapTable) GlobalStateMgr.getCurrentState().getDb("test").getTable("t0");
+        List<Long> tabletIds = t0.getPartitions().iterator().next().getBaseIndex().getTabletIdsInOrder();
+        sql = "select v1 from t0 tablet(%d) where v2 = 1";
+        scan1 = (OlapScanNode) getExecPlan(String.format(sql, tabletIds.get(0))).getScanNodes().get(0);
+        scan2 = (OlapScanNode) getExecPlan(String.format(sql, tabletIds.get(1))).getScanNodes().get(0);
+        Assert.assertEquals(0, PlanCache.getInstance().size());
+        Assert.assertNotEquals(scan1.getScanTabletIds(), scan2.getScanTabletIds());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        String sql = "select v1 from t0 where v2 = 1";
+        getFragmentPlan(sql);
+        Assert.assertEquals(1, PlanCache.getInstance().size());
+        PlanCache.CachedPlan cachedPlan = PlanCache.getInstance().asMap().values().iterator().next();
+
+        // nothing is changed
+        getFragmentPlan(sql);
+        Assert.assertSame(cachedPlan, PlanCache.getInstance().asMap().values().iterator().next());
+
+        OlapTable t0 = (OlapTable) GlobalStateMgr.getCurrentState().getDb("test").getTable("t0");
+        Partition partition = t0.getPartitions().iterator().next();
+        long visibleVersion = partition.getVisibleVersion();
+        long visibleVersionTime = partition.getVisibleVersionTime();
+        try {
+            // new data is loaded
+            partition.setVisibleVersion(visibleVersion + 1, visibleVersionTime);
+            t0.updateVersionStamp();
+            getFragmentPlan(sql);
+            Assert.assertEquals(1, PlanCache.getInstance().size());
+            Assert.assertNotSame(cachedPlan, PlanCache.getInstance().asMap().values().iterator().next());
+        } finally {
+            partition.setVisibleVersion(visibleVersion, visibleVersionTime);
+            t0.updateVersionStamp();
+        }
+
+        // statistics is refreshed
+        PlanCache.getInstance().invalidateTable(t0.getId());
+        Assert.assertEquals(0, PlanCache.getInstance().size());
+    }
+}
@@ -292,6 +292,50 @@ public class StatisticsCollectJobTest extends PlanTestBase {
         GlobalStateMgr.getCurrentAnalyzeMgr().getBasicStatsMetaMap().remove(olapTable.getId());
     }
 
+    @Test
+    public void testAnalyzeChangedPartitions() {
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        OlapTable olapTable = (OlapTable) db.getTable("t0_stats_partition");
+        Partition p0 = olapTable.getPartition("p0");
+        p0.updateVisibleVersion(3);
+
+        Map<Long, Long> partitionVersions = Maps.newHashMap();
+        for (Partition partition : olapTable.getPartitions()) {
+            partitionVersions.put(partition.getId(), partition.getVisibleVersion());
+        }
+        BasicStatsMeta basicStatsMeta = new BasicStatsMeta(db.getId(), olapTable.getId(), null,
+                StatsConstants.AnalyzeType.FULL, LocalDateTime.of(2020, 1, 1, 1, 1, 1), Maps.newHashMap());
+        basicStatsMeta.increaseUpdateRows(30000000L);
+        basicStatsMeta.setPartitionVersions(partitionVersions);
+        GlobalStateMgr.getCurrentAnalyzeMgr().addBasicStatsMeta(basicStatsMeta);
+
+        // no partition is changed since the last collection, though the update time is earlier
+        AnalyzeJob analyzeJob = new AnalyzeJob(db.getId(), olapTable.getId(), null,
+                StatsConstants.AnalyzeType.FULL, StatsConstants.ScheduleType.SCHEDULE,
+                Maps.newHashMap(),
+                StatsConstants.ScheduleStatus.PENDING,
+                LocalDateTime.MIN);
+        Assert.assertEquals(0, StatisticsCollectJobFactory.buildStatisticsCollectJob(analyzeJob).size());
+
+        // only the changed partition is collected
+        partitionVersions.put(p0.getId(), 2L);
+        List<StatisticsCollectJob> jobs = StatisticsCollectJobFactory.buildStatisticsCollectJob(analyzeJob);
+        Assert.assertEquals(1, jobs.size());
+        Assert.assertTrue(jobs.get(0) instanceof FullStatisticsCollectJob);
+        FullStatisticsCollectJob fullStatisticsCollectJob = (FullStatisticsCollectJob) jobs.get(0);
+        Assert.assertEquals(Lists.newArrayList(p0.getId()), fullStatisticsCollectJob.getPartitionIdList());
+        Assert.assertEquals(3L, (long) fullStatisticsCollectJob.getPartitionVersions().get(p0.getId()));
+
+        // the versions collected before are kept after the collection
+        Map<Long, Long> mergedVersions = StatisticExecutor.mergePartitionVersions(olapTable, basicStatsMeta,
+                fullStatisticsCollectJob.getPartitionVersions());
+        Assert.assertEquals(olapTable.getPartitions().size(), mergedVersions.size());
+        Assert.assertEquals(3L, (long) mergedVersions.get(p0.getId()));
+
+        GlobalStateMgr.getCurrentAnalyzeMgr().getBasicStatsMetaMap().remove(olapTable.getId());
+        p0.updateVisibleVersion(2);
+    }
+
     @Test
     public void testAnalyzeHistogram() {
         Database db = GlobalStateMgr.getCurrentState().getDb(10002);